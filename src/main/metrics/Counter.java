@@ -0,0 +1,33 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Represents a count that only goes up, e.g. the number of alerts added. The count is striped over several
+// cells (see LongAdder), so many threads can count at once without contending on a single variable;
+// reading it adds the cells up.
+public class Counter {
+    private final LongAdder count;
+
+    // EFFECTS: creates a counter at 0
+    Counter() {
+        count = new LongAdder();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds 1 to this counter
+    public void increment() {
+        count.increment();
+    }
+
+    // REQUIRES: n >= 0
+    // MODIFIES: this
+    // EFFECTS: adds n to this counter
+    public void add(long n) {
+        count.add(n);
+    }
+
+    // EFFECTS: returns the count so far
+    public long get() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,120 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Represents the distribution of a measured value as the number of values that fell into each of a fixed list of
+// buckets, plus their count and sum. Percentiles are estimated as the upper bound of the bucket they fall in.
+public class Histogram {
+    private static final long MICROSECOND = 1000L;
+    private static final long SECOND = 1000000000L;
+    private static final long[] RESPONSE_TIMES_IN_SECONDS = {1, 5, 15, 30, 60, 2 * 60, 5 * 60, 10 * 60, 15 * 60,
+        30 * 60, 60 * 60, 2 * 60 * 60, 3 * 60 * 60, 6 * 60 * 60, 12 * 60 * 60, 24 * 60 * 60, 2 * 24 * 60 * 60,
+        3 * 24 * 60 * 60};
+
+    private final long[] upperBounds;
+    private final LongAdder[] buckets;
+    private final LongAdder sum;
+
+    // REQUIRES: upperBounds is non-empty and strictly increasing
+    // EFFECTS: creates an empty histogram with a bucket for the values up to each of upperBounds (inclusive),
+    //          and a last bucket for the values above all of them
+    public Histogram(long[] upperBounds) {
+        this.upperBounds = upperBounds.clone();
+        buckets = new LongAdder[upperBounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+        sum = new LongAdder();
+    }
+
+    // EFFECTS: returns bucket upper bounds for durations in nanoseconds, from 1 microsecond to 100 seconds in
+    //          steps of 1, 2.5 and 5 times a power of ten
+    public static long[] latencyBounds() {
+        long[] bounds = new long[25];
+        long decade = MICROSECOND;
+        for (int i = 0; i < bounds.length; i += 3) {
+            bounds[i] = decade;
+            if (i + 1 < bounds.length) {
+                bounds[i + 1] = decade * 5 / 2;
+                bounds[i + 2] = decade * 5;
+            }
+            decade *= 10;
+        }
+        return bounds;
+    }
+
+    // EFFECTS: returns bucket upper bounds for durations in nanoseconds that people take to respond, e.g. to claim
+    //          an alert, from 1 second to 3 days
+    public static long[] responseTimeBounds() {
+        long[] bounds = new long[RESPONSE_TIMES_IN_SECONDS.length];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = RESPONSE_TIMES_IN_SECONDS[i] * SECOND;
+        }
+        return bounds;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records value in this histogram
+    public void record(long value) {
+        int bucket = 0;
+        while (bucket < upperBounds.length && value > upperBounds[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sum.add(value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the nanoseconds elapsed since startNanos, a value of System.nanoTime()
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    // EFFECTS: returns the upper bounds of the buckets of this histogram, without the last, unbounded bucket
+    public long[] getUpperBounds() {
+        return upperBounds.clone();
+    }
+
+    // EFFECTS: returns the number of values recorded in each bucket, the last being the values above every bound
+    public long[] getBucketCounts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    // EFFECTS: returns the number of values recorded
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    // EFFECTS: returns the sum of the values recorded
+    public long getSum() {
+        return sum.sum();
+    }
+
+    // REQUIRES: 0 < quantile <= 1
+    // EFFECTS: returns the upper bound of the bucket that the given quantile of the recorded values falls in,
+    //          Long.MAX_VALUE if it falls in the last bucket, or 0 if no values have been recorded
+    public long getQuantileBound(double quantile) {
+        long[] counts = getBucketCounts();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < upperBounds.length && total > 0; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBounds[i];
+            }
+        }
+        return total == 0 ? 0 : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,227 @@
+package metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+// Represents a registry of named counters, histograms and gauges, where metrics with the same name form a family
+// and are told apart by labels. The metrics of the application are registered in the default registry.
+public class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final Map<String, Family> families;
+
+    // EFFECTS: creates an empty registry
+    public MetricsRegistry() {
+        families = new ConcurrentSkipListMap<>();
+    }
+
+    // EFFECTS: returns the registry of the metrics of the application
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    // REQUIRES: labels has an even length; name is not the name of another type of metric
+    // MODIFIES: this
+    // EFFECTS: returns the counter with the given name and labels, registering it if there is none yet
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, "counter").metrics.computeIfAbsent(formatLabels(labels),
+                l -> new Counter());
+    }
+
+    // REQUIRES: labels has an even length; name is not the name of another type of metric
+    // MODIFIES: this
+    // EFFECTS: returns the histogram with the given name and labels, registering it with the given bucket
+    //          upper bounds if there is none yet. a histogram whose name ends in "_seconds" records nanoseconds
+    //          and is exported in seconds
+    public Histogram histogram(String name, String help, long[] upperBounds, String... labels) {
+        return (Histogram) family(name, help, "histogram").metrics.computeIfAbsent(formatLabels(labels),
+                l -> new Histogram(upperBounds));
+    }
+
+    // REQUIRES: labels has an even length; name is not the name of another type of metric
+    // MODIFIES: this
+    // EFFECTS: registers histogram, kept by another object (e.g. per disaster), under the given name and labels,
+    //          replacing the histogram registered under them before, if any
+    public void register(String name, String help, Histogram histogram, String... labels) {
+        family(name, help, "histogram").metrics.put(formatLabels(labels), histogram);
+    }
+
+    // REQUIRES: labels has an even length; name is not the name of another type of metric
+    // MODIFIES: this
+    // EFFECTS: registers value as the gauge with the given name and labels, replacing the gauge registered
+    //          under them before, if any
+    public void gauge(String name, String help, LongSupplier value, String... labels) {
+        family(name, help, "gauge").metrics.put(formatLabels(labels), value);
+    }
+
+    // REQUIRES: labels has an even length
+    // MODIFIES: this
+    // EFFECTS: removes metric from under the given name and labels, unless another metric has replaced it there,
+    //          so it is no longer exported and whatever it refers to (e.g. the object a gauge reads) can be
+    //          garbage collected
+    public void unregister(String name, Object metric, String... labels) {
+        Family family = families.get(name);
+        if (family != null) {
+            family.metrics.remove(formatLabels(labels), metric);
+        }
+    }
+
+    // EFFECTS: returns the current value of every metric as text, one metric per line; histograms are summarized
+    //          by their count, mean and estimated median, 99th percentile and maximum
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        for (Family family : families.values()) {
+            for (Map.Entry<String, Object> metric : new TreeMap<>(family.metrics).entrySet()) {
+                text.append(family.name).append(metric.getKey()).append(' ');
+                appendTextValue(text, family, metric.getValue());
+                text.append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    // EFFECTS: returns the current value of every metric in the Prometheus text exposition format
+    public String toPrometheus() {
+        StringBuilder text = new StringBuilder();
+        for (Family family : families.values()) {
+            if (family.metrics.isEmpty()) {
+                continue;
+            }
+            text.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            text.append("# TYPE ").append(family.name).append(' ').append(family.type).append('\n');
+            for (Map.Entry<String, Object> metric : new TreeMap<>(family.metrics).entrySet()) {
+                Object value = metric.getValue();
+                if (value instanceof Histogram) {
+                    appendPrometheusHistogram(text, family, metric.getKey(), (Histogram) value);
+                } else {
+                    text.append(family.name).append(metric.getKey()).append(' ')
+                            .append(value instanceof Counter ? ((Counter) value).get()
+                                    : ((LongSupplier) value).getAsLong()).append('\n');
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    // EFFECTS: writes toPrometheus() to a temporary file and then moves it over file, so a scraper reading file
+    //          never sees a partial export; throws IOException if an error occurs writing the files
+    public void writePrometheus(String file) throws IOException {
+        Path destination = Paths.get(file);
+        Path temporary = Paths.get(file + ".tmp");
+        Files.write(temporary, toPrometheus().getBytes(StandardCharsets.UTF_8));
+        Files.move(temporary, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the family with the given name, registering it with the given help and type if there is
+    //          none yet
+    private Family family(String name, String help, String type) {
+        return families.computeIfAbsent(name, n -> new Family(name, help, type));
+    }
+
+    // EFFECTS: appends the text value of metric in family to text
+    private static void appendTextValue(StringBuilder text, Family family, Object metric) {
+        if (metric instanceof Counter) {
+            text.append(((Counter) metric).get());
+        } else if (metric instanceof Histogram) {
+            Histogram h = (Histogram) metric;
+            long count = h.getCount();
+            text.append("count=").append(count);
+            text.append(" mean=").append(family.describe(count == 0 ? 0 : (double) h.getSum() / count));
+            text.append(" p50<=").append(family.describeBound(h.getQuantileBound(0.5)));
+            text.append(" p99<=").append(family.describeBound(h.getQuantileBound(0.99)));
+            text.append(" max<=").append(family.describeBound(h.getQuantileBound(1)));
+        } else {
+            text.append(((LongSupplier) metric).getAsLong());
+        }
+    }
+
+    // EFFECTS: appends the bucket, sum and count lines of histogram h in family, with the given labels, to text
+    private static void appendPrometheusHistogram(StringBuilder text, Family family, String labels, Histogram h) {
+        long[] bounds = h.getUpperBounds();
+        long[] counts = h.getBucketCounts();
+        String prefix = labels.isEmpty() ? "{" : labels.substring(0, labels.length() - 1) + ",";
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            String bound = i < bounds.length ? family.format(bounds[i]) : "+Inf";
+            text.append(family.name).append("_bucket").append(prefix).append("le=\"").append(bound).append("\"} ")
+                    .append(cumulative).append('\n');
+        }
+        text.append(family.name).append("_sum").append(labels).append(' ').append(family.format(h.getSum()))
+                .append('\n');
+        text.append(family.name).append("_count").append(labels).append(' ').append(cumulative).append('\n');
+    }
+
+    // EFFECTS: returns labels, given as name/value pairs, in the Prometheus format {name="value",...},
+    //          or "" if there are none
+    static String formatLabels(String... labels) {
+        if (labels.length == 0) {
+            return "";
+        }
+        StringBuilder formatted = new StringBuilder("{");
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                formatted.append(',');
+            }
+            String value = labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+            formatted.append(labels[i]).append("=\"").append(value).append('"');
+        }
+        return formatted.append('}').toString();
+    }
+
+    // Represents the metrics registered under one name, by their formatted labels
+    private static class Family {
+        private final String name;
+        private final String help;
+        private final String type;
+        private final boolean inSeconds;
+        private final Map<String, Object> metrics;
+
+        // EFFECTS: creates an empty family with the given name, help and Prometheus type
+        Family(String name, String help, String type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            inSeconds = name.endsWith("_seconds");
+            metrics = new ConcurrentHashMap<>();
+        }
+
+        // EFFECTS: returns value as recorded by the metrics of this family, converted to seconds if they
+        //          record nanoseconds
+        String format(double value) {
+            return inSeconds ? Double.toString(value / NANOS_PER_SECOND) : Double.toString(value);
+        }
+
+        // EFFECTS: returns value as recorded by the metrics of this family for people to read, with a unit
+        //          (ns, us, ms or s) if they record nanoseconds
+        String describe(double value) {
+            if (!inSeconds) {
+                return String.format(Locale.ROOT, "%.1f", value);
+            } else if (value < 1e3) {
+                return String.format(Locale.ROOT, "%.0fns", value);
+            } else if (value < 1e6) {
+                return String.format(Locale.ROOT, "%.1fus", value / 1e3);
+            } else if (value < 1e9) {
+                return String.format(Locale.ROOT, "%.1fms", value / 1e6);
+            }
+            return String.format(Locale.ROOT, "%.2fs", value / 1e9);
+        }
+
+        // EFFECTS: returns bound as described by describe, or "+Inf" if it is Long.MAX_VALUE
+        String describeBound(long bound) {
+            return bound == Long.MAX_VALUE ? "+Inf" : describe(bound);
+        }
+    }
+}
@@ -5,35 +5,67 @@ import exceptions.InvalidNumPeopleException;
 import org.json.JSONObject;
 import persistence.Writable;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 import static model.AlertStatus.*;
 
 // Represents an alert for a rescue call with a name, contact number, location,
 // number of people at location, urgency level, status, and details about rescuer (if any).
 // Each alert has a unique id code and is initialized once alert is added to RescueAlerts.
 public class Alert implements Writable {
+    // layout of the state word: | version (29 bits) | claim pending (1 bit) | status ordinal (2 bits) |
+    private static final int STATUS_MASK = 0b011;
+    private static final int CLAIM_PENDING = 0b100;
+    private static final int VERSION_UNIT = 0b1000;
+    private static final AlertStatus[] STATUSES = AlertStatus.values();
+    private static final AtomicIntegerFieldUpdater<Alert> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Alert.class, "state");
+    private static final AlertObserver[] NO_OBSERVERS = new AlertObserver[0];
+
     private int idCode;
+    private volatile String formattedIdCode;
     private String name;
     private String contactNum;
     private String location;
     private int numPeople;
     private boolean isUrgent;
-    private AlertStatus status;
+    private final double latitude;
+    private final double longitude;
+    private volatile int state;
 
-    private String rescuerName;
-    private String rescuerContactNum;
+    private volatile String rescuerName;
+    private volatile String rescuerContactNum;
+
+    private volatile AlertObserver[] observers = NO_OBSERVERS;
+    private volatile StatusHistory history;
+    private long statusSince;
 
     // constructor
     // EFFECTS: creates a new alert with a NEED_HELP status, given name, location,
-    //          number of people, and urgency level
+    //          number of people, and urgency level, and no coordinates
     //          if given numPeople is < 1, throws an InvalidNumPeopleException
     public Alert(String name, String contactNum, String location, int numPeople,
                  boolean hasBabyElderlyDisabledInjured) throws InvalidNumPeopleException {
+        this(name, contactNum, location, Double.NaN, Double.NaN, numPeople, hasBabyElderlyDisabledInjured);
+    }
+
+    // constructor
+    // REQUIRES: latitude and longitude are both NaN, or -90 <= latitude <= 90 and -180 <= longitude <= 180
+    // EFFECTS: creates a new alert with a NEED_HELP status, given name, location, coordinates of the
+    //          location, number of people, and urgency level
+    //          if given numPeople is < 1, throws an InvalidNumPeopleException
+    public Alert(String name, String contactNum, String location, double latitude, double longitude,
+                 int numPeople, boolean hasBabyElderlyDisabledInjured) throws InvalidNumPeopleException {
         // idCode is intialized once this is added to RescueAlerts
         this.name = name;
         this.contactNum = contactNum;
         this.location = location;
+        this.latitude = latitude;
+        this.longitude = longitude;
         this.isUrgent = hasBabyElderlyDisabledInjured;
-        status = NEEDS_HELP;
+        state = NEEDS_HELP.ordinal();
+        history = new StatusHistory();
+        history.record(NEEDS_HELP);
 
         if (numPeople > 0) {
             this.numPeople = numPeople;
@@ -47,6 +79,17 @@ public class Alert implements Writable {
         return this.idCode;
     }
 
+    // EFFECTS: returns the id code of this formatted as in formatIdCode. the string is built once and kept until
+    //          the id code changes, so displaying an alert again does not allocate
+    public String getFormattedIdCode() {
+        String formatted = formattedIdCode;
+        if (formatted == null) {
+            formatted = formatIdCode(idCode);
+            formattedIdCode = formatted;
+        }
+        return formatted;
+    }
+
     public String getName() {
         return this.name;
     }
@@ -67,8 +110,21 @@ public class Alert implements Writable {
         return this.isUrgent;
     }
 
+    public double getLatitude() {
+        return this.latitude;
+    }
+
+    public double getLongitude() {
+        return this.longitude;
+    }
+
+    // EFFECTS: returns true if this has the coordinates of its location
+    public boolean hasCoordinates() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    }
+
     public AlertStatus getStatus() {
-        return this.status;
+        return statusOf(state);
     }
 
     public String getRescuerName() {
@@ -82,18 +138,54 @@ public class Alert implements Writable {
     // setters
     public void setIdCode(int idCode) {
         this.idCode = idCode;
+        this.formattedIdCode = null;
     }
 
+    // MODIFIES: this
+    // EFFECTS: sets the status of this to the given status regardless of its current status.
+    //          if a rescuer is in the middle of claiming this, waits for the claim to finish first
     public void setStatus(AlertStatus status) {
-        this.status = status;
+        changeStatus(status, null);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the status of this to the given status as in setStatus, and replaces its status history with
+    //          history instead of recording the change in it, e.g. when loading this alert from file
+    public void restoreStatus(AlertStatus status, StatusHistory history) {
+        changeStatus(status, history);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the status of this to the given status as in setStatus. if restored is null, records the
+    //          change in the status history of this; otherwise replaces the status history with restored
+    private void changeStatus(AlertStatus status, StatusHistory restored) {
+        int current;
+        do {
+            current = state;
+            while ((current & CLAIM_PENDING) != 0) {
+                Thread.yield();
+                current = state;
+            }
+        } while (!STATE.compareAndSet(this, current, nextState(current, status, false)));
+        if (restored != null) {
+            history = restored;
+        }
+        if (statusOf(current) != status) {
+            if (restored == null) {
+                history.record(status);
+            }
+            notifyObservers(statusOf(current));
+        }
     }
 
     public void setRescuerName(String name) {
         this.rescuerName = name;
+        notifyRescuerAssigned();
     }
 
     public void setRescuerContactNum(String num) {
         this.rescuerContactNum = num;
+        notifyRescuerAssigned();
     }
 
     // EFFECTS: returns the next status of this in order of NEED_HELP --> HELP_OTW --> RESCUED
@@ -108,9 +200,107 @@ public class Alert implements Writable {
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: if the status of this is NEEDS_HELP and no other rescuer is claiming it, atomically records
+    //          the given rescuer's name and contact number, sets the status to HELP_OTW, and returns true.
+    //          otherwise does nothing and returns false. when rescuers race to claim the same alert,
+    //          exactly one of them wins.
+    public boolean claim(String rescuerName, String rescuerContactNum) {
+        int current;
+        int pending;
+        do {
+            current = state;
+            if ((current & CLAIM_PENDING) != 0 || statusOf(current) != NEEDS_HELP) {
+                return false;
+            }
+            pending = nextState(current, NEEDS_HELP, true);
+        } while (!STATE.compareAndSet(this, current, pending));
+        this.rescuerName = rescuerName;
+        this.rescuerContactNum = rescuerContactNum;
+        history.record(HELP_OTW);
+        state = nextState(pending, HELP_OTW, false);
+        notifyRescuerAssigned();
+        notifyObservers(NEEDS_HELP);
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if the status of this is expectedStatus, atomically moves it to the next status in order of
+    //          NEED_HELP --> HELP_OTW --> RESCUED and returns true. if the status of this is no longer
+    //          expectedStatus (e.g. another rescuer advanced it first), does nothing and returns false.
+    //          if expectedStatus is RESCUED, throws AlreadyRescuedException
+    public boolean advance(AlertStatus expectedStatus) throws AlreadyRescuedException {
+        if (expectedStatus == RESCUED) {
+            throw new AlreadyRescuedException();
+        }
+        AlertStatus next = expectedStatus == NEEDS_HELP ? HELP_OTW : RESCUED;
+        int current;
+        do {
+            current = state;
+            if ((current & CLAIM_PENDING) != 0 || statusOf(current) != expectedStatus) {
+                return false;
+            }
+        } while (!STATE.compareAndSet(this, current, nextState(current, next, false)));
+        history.record(next);
+        notifyObservers(expectedStatus);
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds o to the observers that are notified of changes to the status of this
+    public synchronized void addObserver(AlertObserver o) {
+        AlertObserver[] grown = new AlertObserver[observers.length + 1];
+        System.arraycopy(observers, 0, grown, 0, observers.length);
+        grown[observers.length] = o;
+        observers = grown;
+    }
+
+    // EFFECTS: notifies every observer of this that its status has changed from previous
+    private void notifyObservers(AlertStatus previous) {
+        for (AlertObserver o : observers) {
+            o.statusChanged(this, previous);
+        }
+    }
+
+    // EFFECTS: notifies every observer of this that its rescuer has changed
+    private void notifyRescuerAssigned() {
+        for (AlertObserver o : observers) {
+            o.rescuerAssigned(this);
+        }
+    }
+
     // EFFECTS: returns true if this has a rescuer (with a rescuer name and appropriate status) and false otherwise
     public boolean hasRescuer() {
-        return rescuerName != null && status != NEEDS_HELP;
+        return rescuerName != null && getStatus() != NEEDS_HELP;
+    }
+
+    // EFFECTS: returns the history of the statuses of this
+    public StatusHistory getStatusHistory() {
+        return history;
+    }
+
+    // EFFECTS: returns the System.nanoTime() at which the RescueAlerts this was added to saw it enter its
+    //          current status
+    long getStatusSince() {
+        return statusSince;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records nanoTime, a value of System.nanoTime(), as the time this entered its current status
+    void setStatusSince(long nanoTime) {
+        statusSince = nanoTime;
+    }
+
+    // EFFECTS: returns the status encoded in the given state word
+    private static AlertStatus statusOf(int state) {
+        return STATUSES[state & STATUS_MASK];
+    }
+
+    // EFFECTS: returns the state word that follows current, with the given status and claim pending flag
+    //          and a bumped version so that no compare-and-set can succeed against an outdated state word
+    private static int nextState(int current, AlertStatus status, boolean claimPending) {
+        int version = (current & ~(STATUS_MASK | CLAIM_PENDING)) + VERSION_UNIT;
+        return version | (claimPending ? CLAIM_PENDING : 0) | status.ordinal();
     }
 
     // note: the implementation of this method was modeled after the JsonSerializationDemo sample project
@@ -118,34 +308,45 @@ public class Alert implements Writable {
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
         json.put("id code", idCode);
-        json.put("status", status);
+        json.put("status", getStatus());
         json.put("name", name);
         json.put("contact number", contactNum);
         json.put("location", location);
         json.put("number of people", numPeople);
         json.put("is urgent?", isUrgent);
+        if (hasCoordinates()) {
+            json.put("latitude", latitude);
+            json.put("longitude", longitude);
+        }
         json.put("name of rescuer", rescuerName);
         json.put("contact number of rescuer", rescuerContactNum);
+        json.put("status history", history.toJson());
         return json;
     }
 
     @Override
     public String toString() {
-        return formatIdCode(idCode) + " | " + formatStatus(status) + " – " + location;
+        return getFormattedIdCode() + " | " + formatStatus(getStatus()) + " – " + location;
     }
 
     // REQUIRES: idCode >= 0
-    // EFFECTS: formats given id code to string "XXX" ex. 12 -> "012"
+    // EFFECTS: formats given id code to string "XXX" ex. 12 -> "012". id codes of 1000 and up are
+    //          formatted in full ex. 12345 -> "12345"
     public static String formatIdCode(int idCode) {
+        return appendIdCode(new StringBuilder(10), idCode).toString();
+    }
+
+    // REQUIRES: idCode >= 0
+    // MODIFIES: sb
+    // EFFECTS: appends given id code to sb, formatted as in formatIdCode, and returns sb. does not allocate
+    //          unless sb has to grow
+    public static StringBuilder appendIdCode(StringBuilder sb, int idCode) {
         if (idCode < 10) {
-            return "00" + idCode;
+            sb.append("00");
         } else if (idCode < 100) {
-            return "0" + idCode;
-        } else if (idCode < 1000) {
-            return String.valueOf(idCode);
-        } else {
-            return null;
+            sb.append('0');
         }
+        return sb.append(idCode);
     }
 
     // EFFECTS: formats given alert status to string corresponding to AlertStatus enum name
@@ -0,0 +1,52 @@
+package model;
+
+// Represents a change to the alerts of a RescueAlerts, published to an AlertEventBus: an alert being added, its
+// status changing, or its rescuer being assigned. Events are numbered in the order they were published, with no
+// gaps, and are immutable; the status is the status the alert had when the event was published.
+public class AlertEvent {
+    // Represents the kind of change an event describes
+    public enum Type {
+        ADDED, STATUS_CHANGED, RESCUER_ASSIGNED
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final Alert alert;
+    private final AlertStatus status;
+    private final AlertStatus previous;
+
+    // EFFECTS: creates the event with the given sequence number of a change of the given type to alert, whose
+    //          status was previous before a status change (or null for other changes)
+    AlertEvent(long sequence, Type type, Alert alert, AlertStatus previous) {
+        this.sequence = sequence;
+        this.type = type;
+        this.alert = alert;
+        this.status = alert.getStatus();
+        this.previous = previous;
+    }
+
+    // EFFECTS: returns the sequence number of this event
+    public long getSequence() {
+        return sequence;
+    }
+
+    // EFFECTS: returns the kind of change this event describes
+    public Type getType() {
+        return type;
+    }
+
+    // EFFECTS: returns the alert that changed
+    public Alert getAlert() {
+        return alert;
+    }
+
+    // EFFECTS: returns the status the alert had when this event was published
+    public AlertStatus getStatus() {
+        return status;
+    }
+
+    // EFFECTS: returns the status the alert had before a status change, or null for other changes
+    public AlertStatus getPrevious() {
+        return previous;
+    }
+}
@@ -0,0 +1,328 @@
+package model;
+
+import metrics.Counter;
+import metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+// Represents a stream of the changes to the alerts of a RescueAlerts, published into a bounded ring buffer and
+// fanned out to subscribers that each consume it on their own thread, at their own pace.
+public class AlertEventBus implements RescueAlertsObserver {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getDefault();
+    private static final Counter PUBLISHED = METRICS.counter("alert_events_published_total",
+            "Alert events published to event buses");
+    private static final Counter PUBLISH_WAITS = METRICS.counter("alert_event_publish_waits_total",
+            "Times a publisher waited for a gating subscriber to make room in a full event bus");
+    private static final String LAG = "alert_event_subscriber_lag";
+    private static final long WAIT_NANOS = 50000;
+    private static final long MAX_IDLE_NANOS = 1000000;
+    private static final int SPINS = 100;
+
+    private final RescueAlerts observed;
+    private final int capacity;
+    private final int mask;
+    private final int maxBatch;
+    private final AtomicReferenceArray<AlertEvent> events;
+    private final AtomicLong next;
+    private final List<Subscription> subscriptions;
+    private volatile long gatingCursor;
+
+    // REQUIRES: capacity is a power of two, and maxBatch >= 1
+    // MODIFIES: ra
+    // EFFECTS: creates a bus with a ring buffer of capacity events that hands subscribers batches of up to
+    //          maxBatch events, and starts publishing the changes to the alerts of ra
+    public AlertEventBus(RescueAlerts ra, int capacity, int maxBatch) {
+        observed = ra;
+        this.capacity = capacity;
+        mask = capacity - 1;
+        this.maxBatch = maxBatch;
+        events = new AtomicReferenceArray<>(capacity);
+        next = new AtomicLong();
+        subscriptions = new CopyOnWriteArrayList<>();
+        ra.addObserver(this);
+    }
+
+    // EFFECTS: returns the rescue alerts whose changes this publishes
+    public RescueAlerts getRescueAlerts() {
+        return observed;
+    }
+
+    // EFFECTS: returns the number of events published so far
+    public long getNumPublished() {
+        return next.get();
+    }
+
+    // REQUIRES: if gating, handler does not change the alerts of the RescueAlerts, or it may wait for itself
+    // MODIFIES: this
+    // EFFECTS: starts handing the events published from now on to handler, on a new thread, and returns the
+    //          subscription. if gating, publishers wait for handler instead of overrunning it
+    public Subscription subscribe(String name, AlertEventHandler handler, boolean gating) {
+        Subscription s = new Subscription(name, handler, gating);
+        subscriptions.add(s);
+        gatingCursor = Math.min(gatingCursor, s.cursor.get());
+        METRICS.gauge(LAG, "Events published that a subscriber has not handled yet", s.lag, "subscriber", name);
+        s.thread.start();
+        return s;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts notifying observer of the events published from now on as a RescueAlertsObserver would be,
+    //          on a new thread, and returns the subscription; alerts added one after another are passed to
+    //          observer.alertsAdded together. if gating, publishers wait for observer instead of overrunning it
+    public Subscription subscribe(String name, RescueAlertsObserver observer, boolean gating) {
+        return subscribe(name, new ObserverHandler(observer), gating);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops publishing changes, then closes every subscription once it has handled the events already
+    //          published
+    public void close() {
+        observed.removeObserver(this);
+        for (Subscription s : subscriptions) {
+            s.close();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: publishes an event for alert being added
+    @Override
+    public void alertAdded(Alert alert) {
+        publish(AlertEvent.Type.ADDED, alert, null);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: publishes an event for the status of alert changing from previous
+    @Override
+    public void statusChanged(Alert alert, AlertStatus previous) {
+        publish(AlertEvent.Type.STATUS_CHANGED, alert, previous);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: publishes an event for the rescuer of alert being assigned
+    @Override
+    public void rescuerAssigned(Alert alert) {
+        publish(AlertEvent.Type.RESCUER_ASSIGNED, alert, null);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: claims the next sequence number, waits until no gating subscriber still needs the event in its
+    //          slot, and stores the event of the given type for alert there
+    private void publish(AlertEvent.Type type, Alert alert, AlertStatus previous) {
+        long sequence = next.getAndIncrement();
+        long wrapPoint = sequence - capacity;
+        if (wrapPoint >= gatingCursor) {
+            long min = minGatingCursor();
+            while (wrapPoint >= min) {
+                PUBLISH_WAITS.increment();
+                LockSupport.parkNanos(WAIT_NANOS);
+                min = minGatingCursor();
+            }
+            gatingCursor = min;
+        }
+        store(new AlertEvent(sequence, type, alert, previous));
+        PUBLISHED.increment();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stores event in the slot of its sequence number, unless a publisher that fell a whole lap behind
+    //          was overtaken and the slot already holds a later event
+    private void store(AlertEvent event) {
+        int slot = (int) event.getSequence() & mask;
+        AlertEvent current = events.get(slot);
+        while (current == null || current.getSequence() < event.getSequence()) {
+            if (events.compareAndSet(slot, current, event)) {
+                return;
+            }
+            current = events.get(slot);
+        }
+    }
+
+    // EFFECTS: returns the cursor of the gating subscriber furthest behind, or the next sequence number to be
+    //          claimed if there are no gating subscribers
+    private long minGatingCursor() {
+        long min = next.get();
+        for (Subscription s : subscriptions) {
+            if (s.gating) {
+                min = Math.min(min, s.cursor.get());
+            }
+        }
+        return min;
+    }
+
+    // Represents a subscriber of this bus: the handler it hands events to, the thread it does so on, and the
+    // sequence number of the next event to hand it
+    public class Subscription implements Runnable {
+        private final String name;
+        private final AlertEventHandler handler;
+        private final boolean gating;
+        private final AtomicLong cursor;
+        private final Thread thread;
+        private final Counter missed;
+        private final LongSupplier lag;
+        private volatile boolean closed;
+
+        // EFFECTS: creates a subscription with the given name that hands handler the events published from now on
+        Subscription(String name, AlertEventHandler handler, boolean gating) {
+            this.name = name;
+            this.handler = handler;
+            this.gating = gating;
+            cursor = new AtomicLong(next.get());
+            missed = METRICS.counter("alert_events_missed_total", "Alert events a subscriber was overrun by",
+                    "subscriber", name);
+            lag = this::getLag;
+            thread = new Thread(this, "events-" + name);
+            thread.setDaemon(true);
+        }
+
+        // EFFECTS: returns the name of this subscription
+        public String getName() {
+            return name;
+        }
+
+        // EFFECTS: returns the number of events published that have not been handed to the handler yet
+        public long getLag() {
+            return Math.max(0, next.get() - cursor.get());
+        }
+
+        // EFFECTS: returns the number of events this subscription has missed by being overrun
+        public long getNumMissed() {
+            return missed.get();
+        }
+
+        // MODIFIES: this
+        // EFFECTS: stops handing events to the handler once it has handled the events already published, waits
+        //          for it to finish, and unregisters its lag
+        public void close() {
+            closed = true;
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            subscriptions.remove(this);
+            METRICS.unregister(LAG, lag, "subscriber", name);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: hands batches of events to the handler as they are published, until this is closed
+        @Override
+        public void run() {
+            List<AlertEvent> batch = new ArrayList<>(maxBatch);
+            int idle = 0;
+            while (true) {
+                boolean closing = closed;
+                if (poll(batch)) {
+                    idle = 0;
+                } else if (closing) {
+                    return;
+                } else {
+                    idle = idle(idle);
+                }
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: hands the handler the events that are ready, up to maxBatch, skipping ahead if this has been
+        //          overrun, and returns true if there were any
+        private boolean poll(List<AlertEvent> batch) {
+            long c = cursor.get();
+            long available = next.get();
+            while (c < available && batch.size() < maxBatch) {
+                AlertEvent e = events.get((int) c & mask);
+                if (e == null || e.getSequence() < c) {
+                    break;
+                } else if (e.getSequence() > c) {
+                    handle(batch, c);
+                    overrun(c, e.getSequence() - capacity + 1);
+                    return true;
+                }
+                batch.add(e);
+                c++;
+            }
+            if (batch.isEmpty()) {
+                return false;
+            }
+            handle(batch, c);
+            return true;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: hands batch to the handler unless it is empty, clears it, and moves the cursor to c
+        private void handle(List<AlertEvent> batch, long c) {
+            if (!batch.isEmpty()) {
+                try {
+                    handler.onEvents(Collections.unmodifiableList(batch));
+                } catch (RuntimeException e) {
+                    System.err.println("Alert event subscriber " + name + " failed: " + e);
+                }
+                batch.clear();
+            }
+            cursor.set(c);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: skips the cursor from c, whose event was overwritten, ahead to resume, and tells the handler
+        private void overrun(long c, long resume) {
+            missed.add(resume - c);
+            cursor.set(resume);
+            try {
+                handler.onOverrun(resume - c);
+            } catch (RuntimeException e) {
+                System.err.println("Alert event subscriber " + name + " failed: " + e);
+            }
+        }
+
+        // EFFECTS: waits for more events, spinning at first and then sleeping for longer and longer, up to
+        //          MAX_IDLE_NANOS, the longer this has been idle; returns the new number of idle rounds
+        private int idle(int idle) {
+            if (idle < SPINS) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(Math.min(MAX_IDLE_NANOS, WAIT_NANOS << Math.min(idle - SPINS, 5)));
+            }
+            return idle + 1;
+        }
+    }
+
+    // Represents a handler that passes events on to a RescueAlertsObserver
+    private static class ObserverHandler implements AlertEventHandler {
+        private final RescueAlertsObserver observer;
+
+        // EFFECTS: creates a handler that passes events on to observer
+        ObserverHandler(RescueAlertsObserver observer) {
+            this.observer = observer;
+        }
+
+        // EFFECTS: notifies the observer of events, passing alerts added one after another together
+        @Override
+        public void onEvents(List<AlertEvent> events) {
+            List<Alert> added = new ArrayList<>();
+            for (AlertEvent e : events) {
+                if (e.getType() == AlertEvent.Type.ADDED) {
+                    added.add(e.getAlert());
+                    continue;
+                }
+                if (!added.isEmpty()) {
+                    observer.alertsAdded(added);
+                    added = new ArrayList<>();
+                }
+                if (e.getType() == AlertEvent.Type.STATUS_CHANGED) {
+                    observer.statusChanged(e.getAlert(), e.getPrevious());
+                } else {
+                    observer.rescuerAssigned(e.getAlert());
+                }
+            }
+            if (!added.isEmpty()) {
+                observer.alertsAdded(added);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package model;
+
+import java.util.List;
+
+// Represents a subscriber to an AlertEventBus, handed the events it publishes in batches
+public interface AlertEventHandler {
+    // EFFECTS: responds to events, a batch of consecutive events in order of sequence number; events is only
+    //          valid until this returns
+    void onEvents(List<AlertEvent> events);
+
+    // EFFECTS: responds to this subscriber falling so far behind that the given number of events were
+    //          overwritten before it could read them, e.g. by reading the alerts again; by default, does nothing
+    default void onOverrun(long missed) {
+    }
+}
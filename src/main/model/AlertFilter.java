@@ -0,0 +1,58 @@
+package model;
+
+// Represents a filter over alerts by status, urgency and location.
+// A filter with no status, not limited to urgent alerts and with empty location text matches every alert.
+public class AlertFilter {
+    public static final AlertFilter ALL = new AlertFilter(null, false, "");
+
+    private final AlertStatus status;
+    private final boolean isUrgentOnly;
+    private final String locationText;
+
+    // EFFECTS: creates a filter matching alerts that have the given status (any status if status is null),
+    //          that are urgent if isUrgentOnly, and whose location contains locationText, ignoring case and
+    //          surrounding whitespace (any location if locationText is null or blank)
+    public AlertFilter(AlertStatus status, boolean isUrgentOnly, String locationText) {
+        this.status = status;
+        this.isUrgentOnly = isUrgentOnly;
+        this.locationText = locationText == null ? "" : locationText.trim();
+    }
+
+    // EFFECTS: returns the status matched by this filter, or null if it matches any status
+    public AlertStatus getStatus() {
+        return status;
+    }
+
+    // EFFECTS: returns true if this filter only matches urgent alerts
+    public boolean isUrgentOnly() {
+        return isUrgentOnly;
+    }
+
+    // EFFECTS: returns the text that locations matched by this filter contain
+    public String getLocationText() {
+        return locationText;
+    }
+
+    // EFFECTS: returns true if this filter matches every alert
+    public boolean matchesAll() {
+        return status == null && !isUrgentOnly && locationText.isEmpty();
+    }
+
+    // EFFECTS: returns true if alert has the status and urgency of this filter and its location contains the
+    //          location text of this filter
+    public boolean matches(Alert alert) {
+        return (status == null || alert.getStatus() == status)
+                && (!isUrgentOnly || alert.isUrgent())
+                && containsIgnoreCase(alert.getLocation(), locationText);
+    }
+
+    // EFFECTS: returns true if text contains part, ignoring case
+    private static boolean containsIgnoreCase(String text, String part) {
+        for (int i = 0; i <= text.length() - part.length(); i++) {
+            if (text.regionMatches(true, i, part, 0, part.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
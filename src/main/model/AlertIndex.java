@@ -0,0 +1,148 @@
+package model;
+
+import java.util.concurrent.locks.StampedLock;
+
+// Represents a hash index from alert id codes to Alerts, keyed directly on primitive ints.
+class AlertIndex {
+    private static final int NUM_STRIPES = 16;
+
+    private final Stripe[] stripes;
+
+    // EFFECTS: creates an empty index
+    AlertIndex() {
+        stripes = new Stripe[NUM_STRIPES];
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    // EFFECTS: returns the number of id codes in this index
+    int size() {
+        int size = 0;
+        for (Stripe s : stripes) {
+            size += s.size();
+        }
+        return size;
+    }
+
+    // EFFECTS: returns the Alert indexed under idCode, or null if there is none
+    Alert get(int idCode) {
+        int h = spread(idCode);
+        return stripes[h & (NUM_STRIPES - 1)].get(idCode, h >>> 4);
+    }
+
+    // REQUIRES: a is not null
+    // MODIFIES: this
+    // EFFECTS: indexes a under idCode, replacing any Alert previously indexed under idCode
+    void put(int idCode, Alert a) {
+        int h = spread(idCode);
+        stripes[h & (NUM_STRIPES - 1)].put(idCode, h >>> 4, a);
+    }
+
+    // EFFECTS: returns a hash of idCode that spreads sequential id codes across stripes and slots
+    private static int spread(int idCode) {
+        int h = idCode * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // Represents one stripe of the index: an open-addressing table that resolves collisions with
+    // linear probing and doubles once it is more than half full
+    private static class Stripe {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final StampedLock lock = new StampedLock();
+        private int[] keys = new int[INITIAL_CAPACITY];
+        private Alert[] values = new Alert[INITIAL_CAPACITY];
+        private int size;
+
+        // EFFECTS: returns the number of id codes in this stripe
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // EFFECTS: returns the Alert indexed under idCode, or null if there is none
+        Alert get(int idCode, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            Alert found = find(keys, values, idCode, hash);
+            if (lock.validate(stamp)) {
+                return found;
+            }
+            stamp = lock.readLock();
+            try {
+                return find(keys, values, idCode, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: indexes a under idCode, replacing any Alert previously indexed under idCode
+        void put(int idCode, int hash, Alert a) {
+            long stamp = lock.writeLock();
+            try {
+                if ((size + 1) * 2 > keys.length) {
+                    resize(keys.length * 2);
+                }
+                if (insert(keys, values, idCode, hash, a)) {
+                    size++;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: moves every entry into new tables of the given capacity
+        private void resize(int capacity) {
+            int[] newKeys = new int[capacity];
+            Alert[] newValues = new Alert[capacity];
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null) {
+                    insert(newKeys, newValues, keys[i], spread(keys[i]) >>> 4, values[i]);
+                }
+            }
+            keys = newKeys;
+            values = newValues;
+        }
+
+        // EFFECTS: probes the given tables for idCode and returns its Alert, or null if it is not found.
+        //          the tables may have been read while a writer was changing them, so the probe is bounded
+        //          and the caller must validate the result
+        private static Alert find(int[] keys, Alert[] values, int idCode, int hash) {
+            if (keys.length != values.length) {
+                return null;
+            }
+            int mask = keys.length - 1;
+            int i = hash & mask;
+            for (int probes = 0; probes < keys.length && values[i] != null; probes++) {
+                if (keys[i] == idCode) {
+                    return values[i];
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+
+        // MODIFIES: keys, values
+        // EFFECTS: stores a under idCode in the given tables; returns true if idCode was not already present
+        private static boolean insert(int[] keys, Alert[] values, int idCode, int hash, Alert a) {
+            int mask = keys.length - 1;
+            int i = hash & mask;
+            while (values[i] != null) {
+                if (keys[i] == idCode) {
+                    values[i] = a;
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = idCode;
+            values[i] = a;
+            return true;
+        }
+    }
+}
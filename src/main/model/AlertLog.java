@@ -0,0 +1,115 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+// Represents the append-only sequence of alerts in the order they were posted, stored in fixed-size chunks that
+// never move once written.
+class AlertLog {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile Alert[][] chunks;
+    private volatile int size;
+
+    // EFFECTS: creates an empty log
+    AlertLog() {
+        chunks = new Alert[1][];
+        chunks[0] = new Alert[CHUNK_SIZE];
+    }
+
+    // EFFECTS: returns the number of alerts in this log
+    int size() {
+        return size;
+    }
+
+    // REQUIRES: a is not null
+    // MODIFIES: this
+    // EFFECTS: adds a to the end of this log
+    synchronized void append(Alert a) {
+        int index = size;
+        Alert[][] current = chunks;
+        int chunk = index >>> CHUNK_BITS;
+        if (chunk == current.length) {
+            Alert[][] grown = new Alert[current.length * 2][];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            current = grown;
+        }
+        if (current[chunk] == null) {
+            current[chunk] = new Alert[CHUNK_SIZE];
+        }
+        current[chunk][index & CHUNK_MASK] = a;
+        chunks = current;
+        size = index + 1;
+    }
+
+    // REQUIRES: alerts has no null elements
+    // MODIFIES: this
+    // EFFECTS: adds alerts to the end of this log in order, publishing them all at once, so a snapshot
+    //          taken at the same time sees either none of them or all of them
+    synchronized void appendAll(List<Alert> alerts) {
+        if (alerts.isEmpty()) {
+            return;
+        }
+        int index = size;
+        Alert[][] current = chunks;
+        int lastChunk = (index + alerts.size() - 1) >>> CHUNK_BITS;
+        if (lastChunk >= current.length) {
+            current = grow(current, lastChunk);
+        }
+        for (Alert a : alerts) {
+            int chunk = index >>> CHUNK_BITS;
+            if (current[chunk] == null) {
+                current[chunk] = new Alert[CHUNK_SIZE];
+            }
+            current[chunk][index & CHUNK_MASK] = a;
+            index++;
+        }
+        chunks = current;
+        size = index;
+    }
+
+    // EFFECTS: returns a copy of chunks with room for at least lastChunk + 1 chunks, doubling its length
+    private static Alert[][] grow(Alert[][] chunks, int lastChunk) {
+        int length = chunks.length;
+        while (lastChunk >= length) {
+            length *= 2;
+        }
+        Alert[][] grown = new Alert[length][];
+        System.arraycopy(chunks, 0, grown, 0, chunks.length);
+        return grown;
+    }
+
+    // EFFECTS: returns an unmodifiable view of the alerts in this log at the time of the call
+    List<Alert> snapshot() {
+        int snapshotSize = size;
+        return new Snapshot(chunks, snapshotSize);
+    }
+
+    // Represents a consistent, read-only view of the first size alerts of a log
+    private static class Snapshot extends AbstractList<Alert> implements RandomAccess {
+        private final Alert[][] chunks;
+        private final int size;
+
+        // EFFECTS: creates a view of the first size alerts stored in chunks
+        Snapshot(Alert[][] chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        @Override
+        public Alert get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package model;
+
+// Represents an observer that is notified whenever the status or the rescuer of an observed Alert changes
+public interface AlertObserver {
+    // EFFECTS: responds to the status of alert changing from previous to alert.getStatus()
+    void statusChanged(Alert alert, AlertStatus previous);
+
+    // EFFECTS: responds to the name or contact number of the rescuer of alert changing
+    void rescuerAssigned(Alert alert);
+}
@@ -0,0 +1,285 @@
+package model;
+
+import exceptions.InvalidIdCodeException;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+// Represents an inverted index over the names and locations of the alerts in a RescueAlerts, for finding alerts
+// by words. Words are compared ignoring case and accents, so "pena" finds "Jesus de la Peña".
+public class AlertSearchIndex implements RescueAlertsObserver {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int[] NO_IDS = new int[0];
+
+    private final RescueAlerts rescueAlerts;
+    private final ConcurrentSkipListMap<String, Postings> words;
+
+    // MODIFIES: rescueAlerts
+    // EFFECTS: creates an index of the alerts in rescueAlerts, and starts observing rescueAlerts
+    public AlertSearchIndex(RescueAlerts rescueAlerts) {
+        this.rescueAlerts = rescueAlerts;
+        words = new ConcurrentSkipListMap<>();
+        rescueAlerts.addObserver(this);
+        for (Alert a : rescueAlerts.getAllAlerts()) {
+            index(a);
+        }
+    }
+
+    // EFFECTS: returns the number of distinct words in the index
+    public int getNumWords() {
+        return words.size();
+    }
+
+    // EFFECTS: returns the sorted id codes of the alerts whose name or location contain, for every word of query,
+    //          a word starting with it (ignoring case and accents). returns no id codes if query has no words
+    public int[] search(String query) {
+        List<String> queryWords = tokenize(query);
+        if (queryWords.isEmpty()) {
+            return NO_IDS;
+        }
+        List<List<Ids>> matches = new ArrayList<>();
+        for (String word : queryWords) {
+            List<Ids> postings = postingsStartingWith(word);
+            if (postings.isEmpty()) {
+                return NO_IDS;
+            }
+            matches.add(postings);
+        }
+        matches.sort((p1, p2) -> Long.compare(totalSize(p1), totalSize(p2)));
+        Ids result = union(matches.get(0));
+        for (int i = 1; i < matches.size() && result.size > 0; i++) {
+            result = retainAny(result, matches.get(i));
+        }
+        return Arrays.copyOf(result.ids, result.size);
+    }
+
+    // EFFECTS: returns the alerts found by search(query), in order of id code
+    public List<Alert> searchAlerts(String query) {
+        List<Alert> alerts = new ArrayList<>();
+        for (int idCode : search(query)) {
+            try {
+                alerts.add(rescueAlerts.getAlertById(idCode));
+            } catch (InvalidIdCodeException e) {
+                // cannot happen: only alerts of rescueAlerts are indexed
+            }
+        }
+        return alerts;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes the words of alert
+    @Override
+    public void alertAdded(Alert alert) {
+        index(alert);
+    }
+
+    // EFFECTS: does nothing, since the status of an alert is not indexed
+    @Override
+    public void statusChanged(Alert alert, AlertStatus previous) {
+    }
+
+    // EFFECTS: does nothing, since the rescuer of an alert is not indexed
+    @Override
+    public void rescuerAssigned(Alert alert) {
+    }
+
+    // EFFECTS: returns the words of text, in lower case and without accents
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String plain = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        for (String token : SEPARATORS.split(plain.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the id code of alert to the postings of every word of its name and location
+    private void index(Alert alert) {
+        List<String> tokens = tokenize(alert.getName());
+        tokens.addAll(tokenize(alert.getLocation()));
+        for (String token : tokens) {
+            Postings postings = words.get(token);
+            if (postings == null) {
+                Postings created = new Postings();
+                postings = words.putIfAbsent(token, created);
+                if (postings == null) {
+                    postings = created;
+                }
+            }
+            postings.add(alert.getIdCode());
+        }
+    }
+
+    // EFFECTS: returns the postings of every indexed word that starts with prefix, without copying them
+    private List<Ids> postingsStartingWith(String prefix) {
+        List<Ids> matching = new ArrayList<>();
+        for (Postings p : words.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+            matching.add(p.snapshot());
+        }
+        return matching;
+    }
+
+    // EFFECTS: returns the total number of ids in postings
+    private static long totalSize(List<Ids> postings) {
+        long total = 0;
+        for (Ids ids : postings) {
+            total += ids.size;
+        }
+        return total;
+    }
+
+    // REQUIRES: postings is not empty
+    // EFFECTS: returns the sorted, distinct ids that are in any of postings
+    private static Ids union(List<Ids> postings) {
+        if (postings.size() == 1) {
+            return postings.get(0);
+        }
+        BitSet bits = new BitSet();
+        for (Ids ids : postings) {
+            for (int i = 0; i < ids.size; i++) {
+                bits.set(ids.ids[i]);
+            }
+        }
+        int[] ids = new int[bits.cardinality()];
+        int size = 0;
+        for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+            ids[size++] = id;
+        }
+        return new Ids(ids, size);
+    }
+
+    // EFFECTS: returns the ids of candidates that are in any of postings. each of postings is walked together
+    //          with candidates by galloping through the longer of the two, so an id is never compared more
+    //          than O(log(longer / shorter)) times and a rare word is cheap to check against a common one
+    private static Ids retainAny(Ids candidates, List<Ids> postings) {
+        boolean[] isFound = new boolean[candidates.size];
+        for (Ids other : postings) {
+            if (candidates.size <= other.size) {
+                mark(candidates, other, isFound, false);
+            } else {
+                mark(other, candidates, isFound, true);
+            }
+        }
+        int[] ids = new int[candidates.size];
+        int size = 0;
+        for (int i = 0; i < candidates.size; i++) {
+            if (isFound[i]) {
+                ids[size++] = candidates.ids[i];
+            }
+        }
+        return new Ids(ids, size);
+    }
+
+    // MODIFIES: isFound
+    // EFFECTS: marks every id of shorter that is also in longer, at its index in longer if isLongerMarked and
+    //          at its index in shorter otherwise
+    private static void mark(Ids shorter, Ids longer, boolean[] isFound, boolean isLongerMarked) {
+        int at = 0;
+        for (int i = 0; i < shorter.size && at < longer.size; i++) {
+            at = gallop(longer, at, shorter.ids[i]);
+            if (at < longer.size && longer.ids[at] == shorter.ids[i]) {
+                isFound[isLongerMarked ? at : i] = true;
+            }
+        }
+    }
+
+    // EFFECTS: returns the index of the first of ids at or after from that is at least id, or ids.size if there
+    //          is none, by doubling the step from from until it passes id and then searching the last step
+    private static int gallop(Ids ids, int from, int id) {
+        int low = from;
+        int step = 1;
+        int high = from;
+        while (high < ids.size && ids.ids[high] < id) {
+            low = high + 1;
+            high = low + step;
+            step *= 2;
+        }
+        int at = Arrays.binarySearch(ids.ids, low, Math.min(high + 1, ids.size), id);
+        return at >= 0 ? at : -at - 1;
+    }
+
+    // Represents the first size ids of a sorted array of distinct ids
+    private static class Ids {
+        private final int[] ids;
+        private final int size;
+
+        // EFFECTS: creates the ids ids[0..size)
+        Ids(int[] ids, int size) {
+            this.ids = ids;
+            this.size = size;
+        }
+    }
+
+    // Represents the id codes of the alerts containing a word, appended under a lock and read without one: the
+    // array is published before the size, so every reader sees at least size valid ids.
+    private static class Postings {
+        private volatile int[] ids = new int[2];
+        private volatile int size;
+        private volatile boolean isSorted = true;
+
+        // MODIFIES: this
+        // EFFECTS: adds id to these postings, unless it is already in them
+        synchronized void add(int id) {
+            int n = size;
+            if (n > 0 && ids[n - 1] >= id) {
+                if (ids[n - 1] == id || contains(id, n)) {
+                    return;
+                }
+                isSorted = false;
+            }
+            if (n == ids.length) {
+                ids = Arrays.copyOf(ids, n * 2);
+            }
+            ids[n] = id;
+            size = n + 1;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: returns the sorted ids in these postings
+        Ids snapshot() {
+            int n = size;
+            if (!isSorted) {
+                sort();
+                n = size;
+            }
+            return new Ids(ids, n);
+        }
+
+        // EFFECTS: returns true if id is one of the first n ids
+        private boolean contains(int id, int n) {
+            if (isSorted) {
+                return Arrays.binarySearch(ids, 0, n, id) >= 0;
+            }
+            for (int i = 0; i < n; i++) {
+                if (ids[i] == id) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: sorts these postings, publishing them as a new array
+        private synchronized void sort() {
+            if (!isSorted) {
+                int[] sorted = Arrays.copyOf(ids, ids.length);
+                Arrays.sort(sorted, 0, size);
+                ids = sorted;
+                isSorted = true;
+            }
+        }
+    }
+}
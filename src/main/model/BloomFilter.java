@@ -0,0 +1,80 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Represents a Bloom filter over 64-bit hashes: a fixed-size set of bits that can tell for certain that a hash
+// was never added, and otherwise answers that it might have been added. It is safe to use from many threads.
+class BloomFilter {
+    private static final int BLOCK_BITS = 512; // a cache line; all the bits of a hash are in one block
+    private static final int BLOCK_WORDS = BLOCK_BITS / 64;
+    private static final int BITS_PER_POSITION = 9; // log2(BLOCK_BITS)
+    private static final int MAX_HASHES = 64 / BITS_PER_POSITION;
+
+    private final AtomicLongArray words;
+    private final int blockMask;
+    private final int numHashes;
+    private final int expectedInsertions;
+
+    // REQUIRES: expectedInsertions > 0 and 0 < falsePositiveRate < 1
+    // EFFECTS: creates an empty filter sized so that after expectedInsertions hashes are added, a hash that was
+    //          not added is reported as possibly added with probability about falsePositiveRate
+    BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        double ln2 = Math.log(2);
+        double bits = -expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2);
+        int numBlocks = Integer.highestOneBit((int) Math.min(1 << 29, Math.ceil(bits / BLOCK_BITS)) * 2 - 1);
+        words = new AtomicLongArray(numBlocks * BLOCK_WORDS);
+        blockMask = numBlocks - 1;
+        double bitsPerInsertion = (double) numBlocks * BLOCK_BITS / expectedInsertions;
+        numHashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(ln2 * bitsPerInsertion)));
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    // EFFECTS: returns the number of hashes this filter was sized for
+    int getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    // EFFECTS: returns the number of bits set for every hash added
+    int getNumHashes() {
+        return numHashes;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds hash to this filter
+    void add(long hash) {
+        int block = block(hash);
+        long positions = positions(hash);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = (int) (positions >>> (i * BITS_PER_POSITION)) & (BLOCK_BITS - 1);
+            int index = block + (bit >>> 6);
+            long mask = 1L << bit;
+            long word = words.get(index);
+            while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                word = words.get(index);
+            }
+        }
+    }
+
+    // EFFECTS: returns false if hash was certainly never added to this filter, and true if it might have been
+    boolean mightContain(long hash) {
+        int block = block(hash);
+        long positions = positions(hash);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = (int) (positions >>> (i * BITS_PER_POSITION)) & (BLOCK_BITS - 1);
+            if ((words.get(block + (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // EFFECTS: returns the index of the first word of the block of hash
+    private int block(long hash) {
+        return ((int) (hash >>> 32) & blockMask) * BLOCK_WORDS;
+    }
+
+    // EFFECTS: returns the positions of the bits of hash in its block, BITS_PER_POSITION bits each
+    private static long positions(long hash) {
+        return hash * 0x9e3779b97f4a7c15L;
+    }
+}
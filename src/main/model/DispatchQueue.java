@@ -0,0 +1,155 @@
+package model;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static model.AlertStatus.*;
+
+// Represents the triage queue of open (NEEDS_HELP) alerts in a RescueAlerts, in the order rescuers should be
+// dispatched to them: urgent alerts first, then alerts with more people, then alerts that have waited longest.
+public class DispatchQueue implements RescueAlertsObserver {
+    private static final Comparator<Ticket> TRIAGE_ORDER = Comparator
+            .comparing((Ticket t) -> !t.isUrgent)
+            .thenComparing(t -> -t.numPeople)
+            .thenComparingLong(t -> t.waitingSince)
+            .thenComparingLong(t -> t.sequence);
+
+    private final ConcurrentSkipListSet<Ticket> queue;
+    private final Map<Alert, Ticket> queued;
+    private final AtomicLong sequence;
+
+    // MODIFIES: ra
+    // EFFECTS: creates a dispatch queue holding the open alerts in ra, and starts observing ra
+    public DispatchQueue(RescueAlerts ra) {
+        queue = new ConcurrentSkipListSet<>(TRIAGE_ORDER);
+        queued = new ConcurrentHashMap<>();
+        sequence = new AtomicLong();
+        ra.addObserver(this);
+        for (Alert a : ra.getAllAlerts()) {
+            if (a.getStatus() == NEEDS_HELP) {
+                enqueue(a);
+            }
+        }
+    }
+
+    // EFFECTS: returns the number of alerts in this queue
+    public int size() {
+        return queued.size();
+    }
+
+    // EFFECTS: returns the open alert that should be dispatched next without removing it,
+    //          or null if there are no open alerts
+    public Alert peekNext() {
+        for (Ticket t : queue) {
+            if (t.alert.getStatus() == NEEDS_HELP) {
+                return t.alert;
+            }
+        }
+        return null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes and returns the open alert that should be dispatched next, or null if there are
+    //          no open alerts. the returned alert only rejoins this queue if it is re-prioritized or its
+    //          status goes back to NEEDS_HELP, so the caller is responsible for claiming it
+    public Alert pollNext() {
+        Ticket t = queue.pollFirst();
+        while (t != null) {
+            queued.remove(t.alert, t);
+            if (t.alert.getStatus() == NEEDS_HELP) {
+                return t.alert;
+            }
+            t = queue.pollFirst();
+        }
+        return null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: claims the open alert that should be dispatched next for the given rescuer and returns it.
+    //          alerts claimed first by someone else are skipped. returns null if there are no open alerts left
+    public Alert claimNext(String rescuerName, String rescuerContactNum) {
+        Alert next = pollNext();
+        while (next != null && !next.claim(rescuerName, rescuerContactNum)) {
+            next = pollNext();
+        }
+        return next;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: re-computes the priority of a. if a is open it is (re-)queued keeping the time it started
+    //          waiting, otherwise it is removed from this queue
+    public void reprioritize(Alert a) {
+        withdraw(a);
+        if (a.getStatus() == NEEDS_HELP) {
+            enqueue(a);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues alert if it was posted needing help
+    @Override
+    public void alertAdded(Alert alert) {
+        if (alert.getStatus() == NEEDS_HELP) {
+            enqueue(alert);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues alert if it needs help again, otherwise removes it from this queue
+    @Override
+    public void statusChanged(Alert alert, AlertStatus previous) {
+        reprioritize(alert);
+    }
+
+    // EFFECTS: does nothing, since the rescuer of an alert does not affect its priority
+    @Override
+    public void rescuerAssigned(Alert alert) {
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a to this queue if it is not already queued, as waiting since it was first posted needing help.
+    //          a's ticket is added under the lock of its entry in queued, so it cannot be withdrawn in between;
+    //          if a stops needing help while it is being queued, it is removed again
+    private void enqueue(Alert a) {
+        queued.computeIfAbsent(a, k -> {
+            long since = a.getStatusHistory().getFirstTime(NEEDS_HELP);
+            Ticket t = new Ticket(a, since < 0 ? StatusHistory.now() : since, sequence.getAndIncrement());
+            queue.add(t);
+            return t;
+        });
+        if (a.getStatus() != NEEDS_HELP) {
+            withdraw(a);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes a from this queue if it is queued, under the lock of its entry in queued
+    private void withdraw(Alert a) {
+        queued.computeIfPresent(a, (k, t) -> {
+            queue.remove(t);
+            return null;
+        });
+    }
+
+    // Represents a queued alert with the priority it had when it was queued.
+    // The priority is copied so that the order of the queue cannot change while a ticket is in it
+    private static class Ticket {
+        private final Alert alert;
+        private final boolean isUrgent;
+        private final int numPeople;
+        private final long waitingSince;
+        private final long sequence;
+
+        // EFFECTS: creates a ticket for alert, which has been waiting since the given time
+        Ticket(Alert alert, long waitingSince, long sequence) {
+            this.alert = alert;
+            this.isUrgent = alert.isUrgent();
+            this.numPeople = alert.getNumPeople();
+            this.waitingSince = waitingSince;
+            this.sequence = sequence;
+        }
+    }
+}
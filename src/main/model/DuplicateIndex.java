@@ -0,0 +1,209 @@
+package model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Represents an index for finding the open alert that a newly submitted alert repeats: one with the same contact
+// number and location once both are normalized (e.g. "0917-247-3475" and "Brgy. Tañong" are the same as
+// "+63 917 247 3475" and "barangay tanong").
+class DuplicateIndex {
+    private static final int INITIAL_CONTACTS = 1 << 14;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final Map<String, String> ABBREVIATIONS = new HashMap<>();
+
+    static {
+        ABBREVIATIONS.put("brgy", "barangay");
+        ABBREVIATIONS.put("bgy", "barangay");
+        ABBREVIATIONS.put("st", "street");
+        ABBREVIATIONS.put("ave", "avenue");
+        ABBREVIATIONS.put("rd", "road");
+        ABBREVIATIONS.put("subd", "subdivision");
+        ABBREVIATIONS.put("vill", "village");
+    }
+
+    private volatile BloomFilter[] contacts;
+    private final AtomicInteger numContacts;
+    private final Map<String, Report> reportsByContact;
+
+    // EFFECTS: creates an empty index
+    DuplicateIndex() {
+        contacts = new BloomFilter[] {new BloomFilter(INITIAL_CONTACTS, FALSE_POSITIVE_RATE)};
+        numContacts = new AtomicInteger();
+        reportsByContact = new ConcurrentHashMap<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if an open (not RESCUED) alert registered before has the same normalized contact number and
+    //          location as a, returns it (or a itself, if a was registered before). otherwise registers a and
+    //          returns null. alerts without a contact number are never duplicates. when the same request is
+    //          registered from many threads at once, exactly one of them is registered
+    Alert register(Alert a) {
+        String contact = normalizeContact(a.getContactNum());
+        if (contact.isEmpty()) {
+            return null;
+        }
+        long hash = hash(contact);
+        if (!mightHaveSeen(hash)) {
+            addContact(hash);
+            if (reportsByContact.putIfAbsent(contact, new Report(a, null)) == null) {
+                return null;
+            }
+        }
+        return registerIfNew(contact, a, normalizeLocation(a.getLocation()));
+    }
+
+    // EFFECTS: returns what register(a) would return, without registering a
+    Alert find(Alert a) {
+        String contact = normalizeContact(a.getContactNum());
+        if (contact.isEmpty() || !mightHaveSeen(hash(contact))) {
+            return null;
+        }
+        String location = normalizeLocation(a.getLocation());
+        for (Report r = reportsByContact.get(contact); r != null; r = r.next) {
+            if (r.alert == a) {
+                return a;
+            } else if (r.alert.getStatus() != AlertStatus.RESCUED && r.getLocation().equals(location)) {
+                return r.alert;
+            }
+        }
+        return null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the open alert reported from contact at location, or registers a and returns null if
+    //          there is none. drops the rescued alerts reported from contact on the way
+    private Alert registerIfNew(String contact, Alert a, String location) {
+        Alert[] found = new Alert[1];
+        reportsByContact.compute(contact, (c, reports) -> {
+            Report open = null;
+            for (Report r = reports; r != null; r = r.next) {
+                if (r.alert.getStatus() == AlertStatus.RESCUED && r.alert != a) {
+                    continue;
+                }
+                if (found[0] == null && (r.alert == a || r.getLocation().equals(location))) {
+                    found[0] = r.alert;
+                }
+                open = new Report(r.alert, r.location, open);
+            }
+            return found[0] != null ? open : new Report(a, location, open);
+        });
+        return found[0];
+    }
+
+    // EFFECTS: returns false if no contact number with the given hash was registered before
+    private boolean mightHaveSeen(long hash) {
+        for (BloomFilter filter : contacts) {
+            if (filter.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds hash to the newest filter, first adding a larger filter if the newest one is full
+    private void addContact(long hash) {
+        BloomFilter[] filters = contacts;
+        BloomFilter newest = filters[filters.length - 1];
+        if (numContacts.incrementAndGet() > newest.getExpectedInsertions()) {
+            newest = grow(filters);
+        }
+        newest.add(hash);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a new, larger filter after filters if no other thread has already done so, and returns
+    //          the newest filter
+    private synchronized BloomFilter grow(BloomFilter[] filters) {
+        if (contacts == filters) {
+            BloomFilter newest = filters[filters.length - 1];
+            BloomFilter[] grown = Arrays.copyOf(filters, filters.length + 1);
+            grown[filters.length] = new BloomFilter(newest.getExpectedInsertions() * 4,
+                    FALSE_POSITIVE_RATE / (1 << filters.length));
+            numContacts.set(1);
+            contacts = grown;
+        }
+        return contacts[contacts.length - 1];
+    }
+
+    // EFFECTS: returns contactNum reduced to its digits, in local format ("09..." rather than "+639...")
+    static String normalizeContact(String contactNum) {
+        if (contactNum == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(contactNum.length());
+        for (int i = 0; i < contactNum.length(); i++) {
+            char c = contactNum.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        if (digits.length() == 12 && digits.charAt(0) == '6' && digits.charAt(1) == '3') {
+            digits.replace(0, 2, "0");
+        } else if (digits.length() == 10 && digits.charAt(0) == '9') {
+            digits.insert(0, '0');
+        }
+        return digits.toString();
+    }
+
+    // EFFECTS: returns the words of location in lower case, without accents and with common abbreviations
+    //          spelled out, separated by single spaces
+    static String normalizeLocation(String location) {
+        List<String> words = AlertSearchIndex.tokenize(location);
+        StringBuilder normalized = new StringBuilder();
+        for (String word : words) {
+            if (normalized.length() > 0) {
+                normalized.append(' ');
+            }
+            normalized.append(ABBREVIATIONS.getOrDefault(word, word));
+        }
+        return normalized.toString();
+    }
+
+    // EFFECTS: returns a well-mixed 64-bit hash of s
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // Represents an alert posted from a contact number, and the others posted from it before, in a list that is
+    // only ever replaced as a whole. The normalized location of the alert is worked out the first time it is
+    // compared
+    private static class Report {
+        private final Alert alert;
+        private final Report next;
+        private String location;
+
+        // EFFECTS: creates the only report from a contact number, at the given normalized location (or null if
+        //          it has not been worked out yet)
+        Report(Alert alert, String location) {
+            this(alert, location, null);
+        }
+
+        // EFFECTS: creates a report followed by next
+        Report(Alert alert, String location, Report next) {
+            this.alert = alert;
+            this.location = location;
+            this.next = next;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: returns the normalized location of the alert
+        String getLocation() {
+            if (location == null) {
+                location = normalizeLocation(alert.getLocation());
+            }
+            return location;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package model;
+
+// Represents what RescueAlerts does with a submitted alert that repeats an open alert it already has:
+// MERGE drops the submitted alert in favour of the one already posted, and FLAG posts it anyway but remembers
+// which alert it duplicates.
+public enum DuplicatePolicy {
+    MERGE, FLAG
+}
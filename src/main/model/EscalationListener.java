@@ -0,0 +1,7 @@
+package model;
+
+// Represents a listener notified when an alert has stayed in a status for longer than it should have
+public interface EscalationListener {
+    // EFFECTS: responds to alert having been in status since deadline passed without moving on
+    void alertOverdue(Alert alert, AlertStatus status);
+}
@@ -0,0 +1,235 @@
+package model;
+
+import metrics.Counter;
+import metrics.MetricsRegistry;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static model.AlertStatus.*;
+
+// Represents a scheduler that notifies listeners of the open alerts of a RescueAlerts that miss their deadline
+// for being claimed (urgent alerts only) or rescued.
+public class EscalationScheduler implements RescueAlertsObserver {
+    public static final long DEFAULT_TICK_MILLIS = 1000;
+
+    private static final AlertStatus[] STATUSES = AlertStatus.values();
+    private static final Counter[] ESCALATIONS = new Counter[STATUSES.length];
+
+    static {
+        for (AlertStatus status : STATUSES) {
+            ESCALATIONS[status.ordinal()] = MetricsRegistry.getDefault().counter("alerts_escalated_total",
+                    "Alerts that stayed in a status past their deadline", "status", status.name());
+        }
+    }
+
+    private final RescueAlerts observed;
+    private final long claimDeadline;
+    private final long rescueDeadline;
+    private final long tickMillis;
+    private final TimingWheel<Deadline> wheel;
+    private final Map<Alert, TimingWheel.Timeout<Deadline>> pending;
+    private final List<EscalationListener> listeners;
+    private final AlertEventBus.Subscription subscription;
+    private ScheduledExecutorService ticker;
+
+    // REQUIRES: claimDeadline >= 0, rescueDeadline >= 0 and tickMillis >= 1
+    // MODIFIES: ra
+    // EFFECTS: creates a scheduler for the open alerts in ra that checks deadlines every tickMillis milliseconds
+    //          once started, arms the deadlines of the alerts already in ra, and starts observing ra
+    public EscalationScheduler(RescueAlerts ra, long claimDeadline, long rescueDeadline, long tickMillis) {
+        this(ra, null, claimDeadline, rescueDeadline, tickMillis);
+    }
+
+    // REQUIRES: claimDeadline >= 0, rescueDeadline >= 0 and tickMillis >= 1
+    // MODIFIES: bus
+    // EFFECTS: creates a scheduler for the open alerts of the rescue alerts of bus that checks deadlines every
+    //          tickMillis milliseconds once started, subscribes to bus, and arms the deadlines of the alerts
+    //          already there
+    public EscalationScheduler(AlertEventBus bus, long claimDeadline, long rescueDeadline, long tickMillis) {
+        this(bus.getRescueAlerts(), bus, claimDeadline, rescueDeadline, tickMillis);
+    }
+
+    // EFFECTS: creates a scheduler for the open alerts in ra that subscribes to bus, or observes ra if bus is
+    //          null, and arms the deadlines of the alerts already in ra
+    private EscalationScheduler(RescueAlerts ra, AlertEventBus bus, long claimDeadline, long rescueDeadline,
+                                long tickMillis) {
+        observed = ra;
+        this.claimDeadline = claimDeadline;
+        this.rescueDeadline = rescueDeadline;
+        this.tickMillis = tickMillis;
+        wheel = new TimingWheel<>(tickMillis, StatusHistory.now());
+        // Alert does not override equals, so this map compares alerts by identity
+        pending = new HashMap<>();
+        listeners = new CopyOnWriteArrayList<>();
+        if (bus == null) {
+            ra.addObserver(this);
+            subscription = null;
+        } else {
+            subscription = bus.subscribe("escalations", new EventHandler(), false);
+        }
+        armAll();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds l to the listeners notified of alerts that miss their deadlines
+    public void addListener(EscalationListener l) {
+        listeners.add(l);
+    }
+
+    // EFFECTS: returns the number of alerts whose deadlines are armed and have not passed yet
+    public synchronized int getNumPending() {
+        return pending.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts checking deadlines every tick on a background thread, unless this is already started
+    public synchronized void start() {
+        if (ticker == null) {
+            ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "escalations");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ticker.scheduleAtFixedRate(() -> advanceTo(StatusHistory.now()), tickMillis, tickMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops checking deadlines and stops observing the RescueAlerts this was created for, or closes
+    //          its subscription to their event bus
+    public void close() {
+        synchronized (this) {
+            if (ticker != null) {
+                ticker.shutdownNow();
+                ticker = null;
+            }
+        }
+        // not under the lock: the subscription waits for its thread, which may be arming a deadline
+        if (subscription == null) {
+            observed.removeObserver(this);
+        } else {
+            subscription.close();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: notifies listeners of every alert whose deadline has passed by nowMillis (in the time of
+    //          StatusHistory.now()) and is still in the status the deadline was armed for, and returns how many
+    //          were notified. this is called every tick once this is started
+    public int advanceTo(long nowMillis) {
+        List<Deadline> due;
+        synchronized (this) {
+            due = wheel.advanceTo(nowMillis);
+            for (Deadline d : due) {
+                pending.remove(d.alert);
+            }
+        }
+        int escalated = 0;
+        for (Deadline d : due) {
+            if (d.alert.getStatus() == d.status) {
+                ESCALATIONS[d.status.ordinal()].increment();
+                notifyListeners(d);
+                escalated++;
+            }
+        }
+        return escalated;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: arms the deadline of alert, if it has one
+    @Override
+    public void alertAdded(Alert alert) {
+        arm(alert);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: re-arms the deadline of alert for its current status, or cancels it if that has none
+    @Override
+    public void statusChanged(Alert alert, AlertStatus previous) {
+        arm(alert);
+    }
+
+    // EFFECTS: does nothing, since the rescuer of an alert does not affect its deadline
+    @Override
+    public void rescuerAssigned(Alert alert) {
+    }
+
+    // MODIFIES: this
+    // EFFECTS: arms the deadline of every alert in the observed rescue alerts for its current status
+    private void armAll() {
+        for (Alert a : observed.getAllAlerts()) {
+            arm(a);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: cancels the deadline armed for a, if any, and arms the deadline of its current status, if it has one
+    private synchronized void arm(Alert a) {
+        TimingWheel.Timeout<Deadline> armed = pending.remove(a);
+        if (armed != null) {
+            wheel.cancel(armed);
+        }
+        AlertStatus status = a.getStatus();
+        long limit = status == HELP_OTW ? rescueDeadline : -1;
+        if (status == NEEDS_HELP && a.isUrgent()) {
+            limit = claimDeadline;
+        }
+        if (limit >= 0) {
+            long since = a.getStatusHistory().getLastTime(status);
+            long deadline = (since < 0 ? StatusHistory.now() : since) + limit;
+            pending.put(a, wheel.schedule(new Deadline(a, status), deadline));
+        }
+    }
+
+    // EFFECTS: notifies every listener that the alert of d missed its deadline. a listener that fails does not
+    //          keep the others, or later escalations, from being notified
+    private void notifyListeners(Deadline d) {
+        for (EscalationListener l : listeners) {
+            try {
+                l.alertOverdue(d.alert, d.status);
+            } catch (RuntimeException e) {
+                System.err.println("Escalation listener failed: " + e);
+            }
+        }
+    }
+
+    // Represents the subscriber of an event bus that arms deadlines as the alerts they are for change
+    private class EventHandler implements AlertEventHandler {
+        // MODIFIES: EscalationScheduler.this
+        // EFFECTS: re-arms the deadline of every alert added or whose status changed
+        @Override
+        public void onEvents(List<AlertEvent> events) {
+            for (AlertEvent e : events) {
+                if (e.getType() != AlertEvent.Type.RESCUER_ASSIGNED) {
+                    arm(e.getAlert());
+                }
+            }
+        }
+
+        // MODIFIES: EscalationScheduler.this
+        // EFFECTS: re-arms the deadline of every alert, since the changes missed are not known
+        @Override
+        public void onOverrun(long missed) {
+            armAll();
+        }
+    }
+
+    // Represents the deadline of an alert for leaving the status it was armed in
+    private static class Deadline {
+        private final Alert alert;
+        private final AlertStatus status;
+
+        // EFFECTS: creates the deadline of alert for leaving status
+        Deadline(Alert alert, AlertStatus status) {
+            this.alert = alert;
+            this.status = status;
+        }
+    }
+}
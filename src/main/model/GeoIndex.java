@@ -0,0 +1,302 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Represents a spatial index over the alerts that have coordinates, for finding the alerts nearest to a point
+// and the alerts inside a bounding box. Alerts are bucketed into a grid of square cells CELL_SIZE degrees wide.
+class GeoIndex {
+    static final double CELL_SIZE = 0.005; // about 550 m of latitude
+
+    private final Map<Long, Set<Alert>> cells;
+    private final AtomicInteger size;
+    private volatile int minRow = Integer.MAX_VALUE;
+    private volatile int maxRow = Integer.MIN_VALUE;
+    private volatile int minCol = Integer.MAX_VALUE;
+    private volatile int maxCol = Integer.MIN_VALUE;
+
+    // EFFECTS: creates an empty index
+    GeoIndex() {
+        cells = new ConcurrentHashMap<>();
+        size = new AtomicInteger();
+    }
+
+    // REQUIRES: a has coordinates
+    // MODIFIES: this
+    // EFFECTS: adds a to the cell of its coordinates
+    void add(Alert a) {
+        int row = row(a.getLatitude());
+        int col = col(a.getLongitude());
+        boolean[] created = new boolean[1];
+        cells.compute(key(row, col), (k, cell) -> {
+            created[0] = cell == null;
+            Set<Alert> s = created[0] ? ConcurrentHashMap.newKeySet() : cell;
+            if (s.add(a)) {
+                size.incrementAndGet();
+            }
+            return s;
+        });
+        if (created[0]) {
+            extend(row, col);
+        }
+    }
+
+    // REQUIRES: a has coordinates
+    // MODIFIES: this
+    // EFFECTS: removes a from the cell of its coordinates, if it is there, dropping the cell once it is empty
+    void remove(Alert a) {
+        int row = row(a.getLatitude());
+        int col = col(a.getLongitude());
+        boolean[] emptied = new boolean[1];
+        cells.computeIfPresent(key(row, col), (k, cell) -> {
+            if (cell.remove(a)) {
+                size.decrementAndGet();
+            }
+            emptied[0] = cell.isEmpty();
+            return emptied[0] ? null : cell;
+        });
+        if (emptied[0] && (row == minRow || row == maxRow || col == minCol || col == maxCol)) {
+            shrink();
+        }
+    }
+
+    // EFFECTS: returns up to k indexed alerts nearest to the given point, nearest first. visits the cells
+    //          around the point in rings of growing size, and stops once no cell further out can hold an alert
+    //          nearer than the k-th nearest alert found so far, or every indexed alert has been found; scans the
+    //          occupied cells instead once the next ring would take the cells visited past their number
+    List<Alert> nearest(double latitude, double longitude, int k) {
+        if (k <= 0 || cells.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Neighbours neighbours = new Neighbours(latitude, longitude, k);
+        int row = row(latitude);
+        int col = col(longitude);
+        long firstRing = Math.max(distance(row, minRow, maxRow), distance(col, minCol, maxCol));
+        long lastRing = Math.max(Math.max((long) row - minRow, (long) maxRow - row),
+                Math.max((long) col - minCol, (long) maxCol - col));
+        double widthScale = Math.min(1, neighbours.lonScale);
+        long visited = 0;
+        int total = size.get();
+        for (long ring = firstRing; ring <= lastRing && neighbours.numOffered < total; ring++) {
+            double nearestEdge = Math.max(0, ring - 1) * CELL_SIZE * widthScale;
+            if (neighbours.isFull() && nearestEdge * nearestEdge > neighbours.worstDistance()) {
+                break;
+            }
+            visited += ring == 0 ? 1 : 8 * ring;
+            if (visited > cells.size()) {
+                return nearestOfAll(latitude, longitude, k);
+            }
+            visitRing(row, col, (int) ring, neighbours);
+        }
+        return neighbours.toList();
+    }
+
+    // EFFECTS: returns up to k indexed alerts nearest to the given point, nearest first, found by scanning every
+    //          occupied cell
+    private List<Alert> nearestOfAll(double latitude, double longitude, int k) {
+        Neighbours neighbours = new Neighbours(latitude, longitude, k);
+        for (Set<Alert> cell : cells.values()) {
+            offerAll(cell, neighbours);
+        }
+        return neighbours.toList();
+    }
+
+    // EFFECTS: returns the indexed alerts whose coordinates are inside the given bounding box, edges included,
+    //          in order of id code
+    List<Alert> within(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        List<Alert> found = new ArrayList<>();
+        for (Set<Alert> cell : cellsWithin(row(minLatitude), col(minLongitude), row(maxLatitude), col(maxLongitude))) {
+            for (Alert a : cell) {
+                if (a.getLatitude() >= minLatitude && a.getLatitude() <= maxLatitude
+                        && a.getLongitude() >= minLongitude && a.getLongitude() <= maxLongitude) {
+                    found.add(a);
+                }
+            }
+        }
+        found.sort(Comparator.comparingInt(Alert::getIdCode));
+        return found;
+    }
+
+    // EFFECTS: returns the occupied cells from (fromRow, fromCol) to (toRow, toCol), looking each cell up in turn,
+    //          or scanning the occupied cells if there are fewer of them than cells in the range
+    private List<Set<Alert>> cellsWithin(int fromRow, int fromCol, int toRow, int toCol) {
+        fromRow = Math.max(fromRow, minRow);
+        toRow = Math.min(toRow, maxRow);
+        fromCol = Math.max(fromCol, minCol);
+        toCol = Math.min(toCol, maxCol);
+        List<Set<Alert>> found = new ArrayList<>();
+        if (fromRow > toRow || fromCol > toCol) {
+            return found;
+        }
+        if (((long) toRow - fromRow + 1) * ((long) toCol - fromCol + 1) > cells.size()) {
+            return occupiedCellsWithin(fromRow, fromCol, toRow, toCol);
+        }
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int col = fromCol; col <= toCol; col++) {
+                Set<Alert> cell = cells.get(key(row, col));
+                if (cell != null) {
+                    found.add(cell);
+                }
+            }
+        }
+        return found;
+    }
+
+    // EFFECTS: returns the occupied cells from (fromRow, fromCol) to (toRow, toCol), found by scanning every
+    //          occupied cell
+    private List<Set<Alert>> occupiedCellsWithin(int fromRow, int fromCol, int toRow, int toCol) {
+        List<Set<Alert>> found = new ArrayList<>();
+        for (Map.Entry<Long, Set<Alert>> entry : cells.entrySet()) {
+            int row = (int) (entry.getKey() >> 32);
+            int col = (int) entry.getKey().longValue();
+            if (row >= fromRow && row <= toRow && col >= fromCol && col <= toCol) {
+                found.add(entry.getValue());
+            }
+        }
+        return found;
+    }
+
+    // MODIFIES: neighbours
+    // EFFECTS: offers every alert in the cells on the given ring around (row, col) to neighbours
+    private void visitRing(int row, int col, int ring, Neighbours neighbours) {
+        for (int r = row - ring; r <= row + ring; r++) {
+            int step = (r == row - ring || r == row + ring || ring == 0) ? 1 : 2 * ring;
+            for (int c = col - ring; c <= col + ring; c += step) {
+                Set<Alert> cell = cells.get(key(r, c));
+                if (cell != null) {
+                    offerAll(cell, neighbours);
+                }
+            }
+        }
+    }
+
+    // MODIFIES: neighbours
+    // EFFECTS: offers every alert in cell to neighbours
+    private static void offerAll(Set<Alert> cell, Neighbours neighbours) {
+        for (Alert a : cell) {
+            neighbours.offer(a);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: grows the extent of the occupied cells to include the cell at (row, col)
+    private synchronized void extend(int row, int col) {
+        minRow = Math.min(minRow, row);
+        maxRow = Math.max(maxRow, row);
+        minCol = Math.min(minCol, col);
+        maxCol = Math.max(maxCol, col);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shrinks the extent of the occupied cells to the cells still occupied
+    private synchronized void shrink() {
+        int rowLow = Integer.MAX_VALUE;
+        int rowHigh = Integer.MIN_VALUE;
+        int colLow = Integer.MAX_VALUE;
+        int colHigh = Integer.MIN_VALUE;
+        for (long key : cells.keySet()) {
+            rowLow = Math.min(rowLow, (int) (key >> 32));
+            rowHigh = Math.max(rowHigh, (int) (key >> 32));
+            colLow = Math.min(colLow, (int) key);
+            colHigh = Math.max(colHigh, (int) key);
+        }
+        minRow = rowLow;
+        maxRow = rowHigh;
+        minCol = colLow;
+        maxCol = colHigh;
+    }
+
+    // EFFECTS: returns how many cells i is outside of [min, max], or 0 if it is inside
+    private static int distance(int i, int min, int max) {
+        return i < min ? min - i : (i > max ? i - max : 0);
+    }
+
+    // EFFECTS: returns the row of the cells containing latitude
+    private static int row(double latitude) {
+        return (int) Math.floor(latitude / CELL_SIZE);
+    }
+
+    // EFFECTS: returns the column of the cells containing longitude
+    private static int col(double longitude) {
+        return (int) Math.floor(longitude / CELL_SIZE);
+    }
+
+    // EFFECTS: returns the key of the cell at (row, col)
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    // Represents the k alerts nearest to a point found so far, in a heap with the furthest of them on top
+    private static class Neighbours {
+        private final double latitude;
+        private final double longitude;
+        private final double lonScale;
+        private final int k;
+        private final PriorityQueue<Neighbour> heap;
+        private int numOffered;
+
+        // EFFECTS: creates an empty set of the k alerts nearest to (latitude, longitude)
+        Neighbours(double latitude, double longitude, int k) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.lonScale = Math.cos(Math.toRadians(latitude));
+            this.k = k;
+            heap = new PriorityQueue<>(k, (n1, n2) -> Double.compare(n2.distance, n1.distance));
+        }
+
+        // EFFECTS: returns true if k alerts have been found
+        boolean isFull() {
+            return heap.size() == k;
+        }
+
+        // REQUIRES: isFull()
+        // EFFECTS: returns the squared projected distance of the furthest of the alerts found
+        double worstDistance() {
+            return heap.peek().distance;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: keeps a if it is nearer than the furthest of the k alerts found so far
+        void offer(Alert a) {
+            numOffered++;
+            double dLat = a.getLatitude() - latitude;
+            double dLon = (a.getLongitude() - longitude) * lonScale;
+            double distance = dLat * dLat + dLon * dLon;
+            if (!isFull()) {
+                heap.add(new Neighbour(a, distance));
+            } else if (distance < worstDistance()) {
+                heap.poll();
+                heap.add(new Neighbour(a, distance));
+            }
+        }
+
+        // EFFECTS: returns the alerts found, nearest first
+        List<Alert> toList() {
+            List<Alert> alerts = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                alerts.add(heap.poll().alert);
+            }
+            Collections.reverse(alerts);
+            return alerts;
+        }
+    }
+
+    // Represents an alert and its squared projected distance from the point being queried
+    private static class Neighbour {
+        private final Alert alert;
+        private final double distance;
+
+        // EFFECTS: creates a neighbour at the given distance
+        Neighbour(Alert alert, double distance) {
+            this.alert = alert;
+            this.distance = distance;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Represents the source of the id codes given to new alerts by one intake node out of numNodes: node n only gives
+// out the id codes n, n + numNodes, n + 2 * numNodes, ... so the id codes of different nodes never clash.
+public class IdAllocator {
+    private final int nodeId;
+    private final int numNodes;
+    private final long maxSequence;
+    private final AtomicLong nextSequence;
+
+    // EFFECTS: creates an allocator for a single node, starting at RescueAlerts.INITIAL_ID_CODE
+    public IdAllocator() {
+        this(0, 1);
+    }
+
+    // REQUIRES: numNodes >= 1 and 0 <= nodeId < numNodes
+    // EFFECTS: creates an allocator for node nodeId out of numNodes, starting at the first of its id codes
+    public IdAllocator(int nodeId, int numNodes) {
+        this.nodeId = nodeId;
+        this.numNodes = numNodes;
+        maxSequence = (Integer.MAX_VALUE - nodeId) / numNodes;
+        nextSequence = new AtomicLong(RescueAlerts.INITIAL_ID_CODE);
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    // EFFECTS: returns true if idCode is one of the id codes given out by this node
+    public boolean owns(int idCode) {
+        return Math.floorMod(idCode - nodeId, numNodes) == 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns an id code that has not been given out before;
+    //          throws IllegalStateException if every id code of this node up to Integer.MAX_VALUE is given out
+    public int next() {
+        return idAt(nextSequence.getAndIncrement(), 1);
+    }
+
+    // REQUIRES: n > 0
+    // MODIFIES: this
+    // EFFECTS: reserves n id codes that have not been given out before and returns the first of them;
+    //          the others are first + i * getNumNodes() for 0 < i < n.
+    //          throws IllegalStateException if fewer than n id codes of this node up to Integer.MAX_VALUE are
+    //          left, after which the id codes that were left are no longer given out
+    public int reserve(int n) {
+        return idAt(nextSequence.getAndAdd(n), n);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes sure every id code given out from now on is greater than idCode, which may have been
+    //          given out by any node (e.g. an alert loaded from file)
+    public void advancePast(int idCode) {
+        long sequence = Math.floorDiv((long) idCode - nodeId, numNodes) + 1;
+        nextSequence.accumulateAndGet(sequence, Math::max);
+    }
+
+    // EFFECTS: returns the id code with the given sequence number on this node;
+    //          throws IllegalStateException if the id codes of the n sequence numbers from it do not all fit in an int
+    private int idAt(long sequence, int n) {
+        if (sequence + n - 1 > maxSequence) {
+            throw new IllegalStateException("Node " + nodeId + " has run out of id codes");
+        }
+        return (int) sequence * numNodes + nodeId;
+    }
+}
@@ -1,65 +1,494 @@
 package model;
 
 import exceptions.InvalidIdCodeException;
+import metrics.Counter;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import persistence.Writable;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 // Represents a list of the rescue Alerts that have been posted by users so far.
 // The given name refers to the name of the disaster where rescue alerts are needed.
-// Every Alert added to this is given a unique id code, starting with INITIAL_ID_CODE
-public class RescueAlerts implements Writable {
+// Every Alert added to this is given a unique id code by an IdAllocator, starting with INITIAL_ID_CODE.
+// RescueAlerts is safe to use from many threads at once.
+public class RescueAlerts implements Writable, AlertObserver {
     public static final int INITIAL_ID_CODE = 000;
 
+    private static final MetricsRegistry METRICS = MetricsRegistry.getDefault();
+    private static final Counter ALERTS_ADDED = METRICS.counter("alerts_added_total",
+            "Alerts added, one at a time or in batches");
+    private static final Counter ALERTS_RESTORED = METRICS.counter("alerts_restored_total",
+            "Alerts restored with the id codes they were given before, e.g. loaded from file");
+    private static final Counter ALERTS_MERGED = METRICS.counter("alerts_merged_total",
+            "Submitted alerts dropped in favour of the open alert they repeat");
+    private static final Counter ALERTS_FLAGGED = METRICS.counter("alerts_flagged_duplicate_total",
+            "Alerts added and flagged as a duplicate of an open alert");
+    private static final Histogram ADD_TIME = METRICS.histogram("alert_add_seconds",
+            "Time taken to submit one alert", Histogram.latencyBounds());
+    private static final Histogram BATCH_ADD_TIME = METRICS.histogram("alert_batch_add_seconds",
+            "Time taken to submit one batch of alerts", Histogram.latencyBounds());
+    private static final AlertStatus[] STATUSES = AlertStatus.values();
+    private static final long NANOS_PER_MILLI = 1000000L;
+    private static final Counter[][] STATUS_CHANGES = new Counter[STATUSES.length][STATUSES.length];
+    private static final Histogram[] TIME_IN_STATUS = new Histogram[STATUSES.length];
+
+    static {
+        for (AlertStatus from : STATUSES) {
+            for (AlertStatus to : STATUSES) {
+                STATUS_CHANGES[from.ordinal()][to.ordinal()] = METRICS.counter("alert_status_changes_total",
+                        "Changes of the status of alerts", "from", from.name(), "to", to.name());
+            }
+            TIME_IN_STATUS[from.ordinal()] = METRICS.histogram("alert_status_duration_seconds",
+                    "Time alerts stayed in a status before moving on", Histogram.latencyBounds(),
+                    "status", from.name());
+        }
+    }
+
     private String name;
-    List<Alert> rescueAlerts;
-    private int idCodeCurrent = INITIAL_ID_CODE;
+    private final AlertLog rescueAlerts;
+    private final AlertIndex alertsById;
+    private final Map<Alert, AlertStatus> indexedStatuses;
+    private final StatusIndex statusIndex;
+    private final GeoIndex openAlertsByLocation;
+    private final DuplicateIndex duplicates;
+    private final Map<Alert, Alert> duplicateOf;
+    private final List<RescueAlertsObserver> observers;
+    private final IdAllocator idCodes;
+    private final Histogram timeToClaim;
+    private final Histogram timeToRescue;
 
     // constructor
-    // EFFECTS: creates a new RescueAlerts list with the given name
+    // EFFECTS: creates a new RescueAlerts list with the given name, on a single intake node
     public RescueAlerts(String name) {
-        rescueAlerts = new ArrayList<>();
+        this(name, new IdAllocator());
+    }
+
+    // constructor
+    // EFFECTS: creates a new RescueAlerts list with the given name, giving new alerts id codes from idCodes
+    public RescueAlerts(String name, IdAllocator idCodes) {
+        this.idCodes = idCodes;
+        rescueAlerts = new AlertLog();
+        alertsById = new AlertIndex();
+        // Alert does not override equals, so this map compares alerts by identity
+        indexedStatuses = new ConcurrentHashMap<>();
+        statusIndex = new StatusIndex();
+        openAlertsByLocation = new GeoIndex();
+        duplicates = new DuplicateIndex();
+        duplicateOf = new ConcurrentHashMap<>();
+        observers = new CopyOnWriteArrayList<>();
+        timeToClaim = new Histogram(Histogram.responseTimeBounds());
+        timeToRescue = new Histogram(Histogram.responseTimeBounds());
         this.name = name;
     }
 
+    // EFFECTS: returns the allocator of the id codes of alerts added to this
+    public IdAllocator getIdCodes() {
+        return idCodes;
+    }
+
     // EFFECTS: returns name of this
     public String getName() {
         return this.name;
     }
 
+    // MODIFIES: this
+    // EFFECTS: sets name of this
+    public void setName(String name) {
+        this.name = name;
+    }
+
     // EFFECTS: returns the current number of posted rescue alerts
     public int getNumAlerts() {
         return rescueAlerts.size();
     }
 
-    // EFFECTS: returns the full list of posted rescue alerts
+    // EFFECTS: returns the current number of posted rescue alerts with the given status
+    public int getNumAlerts(AlertStatus status) {
+        return statusIndex.getNumAlerts(status);
+    }
+
+    // EFFECTS: returns the current number of posted urgent rescue alerts with the given status
+    public int getNumUrgentAlerts(AlertStatus status) {
+        return statusIndex.getNumUrgentAlerts(status);
+    }
+
+    // EFFECTS: returns the total number of people in posted rescue alerts with the given status
+    public int getNumPeople(AlertStatus status) {
+        return statusIndex.getNumPeople(status);
+    }
+
+    // EFFECTS: returns the histogram of the nanoseconds alerts took from being posted to being claimed
+    //          (HELP_OTW), for the alerts whose times are known
+    public Histogram getTimeToClaim() {
+        return timeToClaim;
+    }
+
+    // EFFECTS: returns the histogram of the nanoseconds alerts took from being posted to being rescued,
+    //          for the alerts whose times are known
+    public Histogram getTimeToRescue() {
+        return timeToRescue;
+    }
+
+    // EFFECTS: returns the posted rescue alerts that have had the given status for at least the given number of
+    //          milliseconds (e.g. HELP_OTW alerts that no rescuer has reached yet), longest first. alerts for which
+    //          the time they entered their status is not known are included first.
+    //          only the alerts with the given status are looked at
+    public List<Alert> getAlertsInStatusFor(AlertStatus status, long millis) {
+        long latest = StatusHistory.now() - millis;
+        List<Map.Entry<Long, Alert>> stuck = new ArrayList<>();
+        for (Alert a : getAlertsWithStatus(status)) {
+            long entered = a.getStatusHistory().getLastTime(status);
+            if (entered <= latest) {
+                stuck.add(new AbstractMap.SimpleImmutableEntry<>(entered, a));
+            }
+        }
+        stuck.sort(Map.Entry.comparingByKey());
+        List<Alert> sorted = new ArrayList<>(stuck.size());
+        for (Map.Entry<Long, Alert> entry : stuck) {
+            sorted.add(entry.getValue());
+        }
+        return sorted;
+    }
+
+    // EFFECTS: returns an unmodifiable view of the posted rescue alerts that currently have the given status.
+    //          the view changes as alerts are added and change status
+    public Set<Alert> getAlertsWithStatus(AlertStatus status) {
+        return statusIndex.getAlerts(status);
+    }
+
+    // EFFECTS: returns an unmodifiable view of the posted urgent rescue alerts.
+    //          the view changes as urgent alerts are added
+    public Set<Alert> getUrgentAlerts() {
+        return statusIndex.getUrgentAlerts();
+    }
+
+    // EFFECTS: returns an unmodifiable snapshot of the posted rescue alerts, in the order they were posted.
+    //          alerts added after this call are not included in the returned list
     public List<Alert> getAllAlerts() {
-        return rescueAlerts;
+        return rescueAlerts.snapshot();
+    }
+
+    // EFFECTS: returns up to k open (not RESCUED) alerts with coordinates that are nearest to the given
+    //          latitude and longitude, nearest first
+    public List<Alert> getNearestOpenAlerts(double latitude, double longitude, int k) {
+        return openAlertsByLocation.nearest(latitude, longitude, k);
+    }
+
+    // EFFECTS: returns the open (not RESCUED) alerts whose coordinates are inside the given bounding box,
+    //          edges included, in order of id code
+    public List<Alert> getOpenAlertsWithin(double minLatitude, double minLongitude,
+                                           double maxLatitude, double maxLongitude) {
+        return openAlertsByLocation.within(minLatitude, minLongitude, maxLatitude, maxLongitude);
+    }
+
+    // EFFECTS: returns the open alert that a was posted as a duplicate of, or null if a is not a duplicate
+    public Alert getDuplicateOf(Alert a) {
+        return duplicateOf.get(a);
     }
 
     // MODIFIES: this
     // EFFECTS: if a is not null and is not already an item in the list, adds a to list
     // and gives it a unique idCode. if a is null or is already in the list, does nothing.
+    // if a repeats an open alert in the list, it is flagged as a duplicate of that alert
     public void addAlert(Alert a) {
-        if (a != null && !rescueAlerts.contains(a)) {
-            rescueAlerts.add(a);
-            a.setIdCode(idCodeCurrent);
-            idCodeCurrent++;
+        submitAlert(a, DuplicatePolicy.FLAG);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if a repeats an open (not RESCUED) alert in the list, i.e. has the same contact number and location
+    //          once both are normalized, then with MERGE returns that alert without adding a, and with FLAG adds a
+    //          as in addAlert, flags it as a duplicate of that alert and returns a.
+    //          otherwise adds a as in addAlert and returns a. if a is null, does nothing and returns null.
+    //          a is given its id code before it can be found by other submissions or in the indexes of this; if
+    //          the same request is submitted with MERGE from several threads at once, the id codes given to the
+    //          submissions that lose the race are not used
+    public Alert submitAlert(Alert a, DuplicatePolicy policy) {
+        if (a == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        Alert original = policy == DuplicatePolicy.MERGE ? duplicates.find(a) : null;
+        if (original == null && !indexedStatuses.containsKey(a)) {
+            a.setIdCode(idCodes.next());
+            original = duplicates.register(a);
+        }
+        if (original != null && policy == DuplicatePolicy.MERGE) {
+            ALERTS_MERGED.increment();
+            ADD_TIME.recordSince(start);
+            return original;
+        }
+        if (index(a)) {
+            post(a, original);
+        }
+        ADD_TIME.recordSince(start);
+        return a;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: flags a, which was just given its id code and indexed, as a duplicate of original unless original
+    //          is null, and publishes it to getAlertById(), getAllAlerts() and the observers of this
+    private void post(Alert a, Alert original) {
+        if (original != null) {
+            duplicateOf.put(a, original);
+            ALERTS_FLAGGED.increment();
+        }
+        alertsById.put(a.getIdCode(), a);
+        rescueAlerts.append(a);
+        ALERTS_ADDED.increment();
+        for (RescueAlertsObserver o : observers) {
+            o.alertAdded(a);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: submits every alert in alerts as in submitAlert, in order, and returns what submitAlert would
+    //          return for each of them, in the same order. the alerts to be added are first checked for duplicates
+    //          of the open alerts in the list and of each other, then given a block of id codes reserved at once,
+    //          in order, and only then registered and indexed; they appear in getAllAlerts() and are passed to
+    //          observers all together. with MERGE, an alert whose request is posted by another thread while the
+    //          batch is being added is merged into that alert after all, and the id code reserved for it is not used
+    public List<Alert> addAlerts(List<Alert> alerts, DuplicatePolicy policy) {
+        long start = System.nanoTime();
+        List<Alert> submitted = new ArrayList<>(alerts.size());
+        List<Alert> added = new ArrayList<>(alerts.size());
+        Set<Alert> seen = new HashSet<>();
+        DuplicateIndex batch = policy == DuplicatePolicy.MERGE ? new DuplicateIndex() : null;
+        for (Alert a : alerts) {
+            if (a == null) {
+                submitted.add(null);
+                continue;
+            }
+            Alert original = indexedStatuses.containsKey(a) || !seen.add(a) ? a : findOriginal(a, batch);
+            if (original == null) {
+                added.add(a);
+                original = a;
+            } else if (original != a) {
+                ALERTS_MERGED.increment();
+            }
+            submitted.add(original);
+        }
+        mergeLate(submitted, commit(added, policy));
+        BATCH_ADD_TIME.recordSince(start);
+        return submitted;
+    }
+
+    // EFFECTS: returns the open alert in the list that a repeats, or else the alert earlier in its batch that it
+    //          repeats, registering a in batch if there is none; returns null if a repeats neither or batch is null
+    private Alert findOriginal(Alert a, DuplicateIndex batch) {
+        if (batch == null) {
+            return null;
+        }
+        Alert original = duplicates.find(a);
+        return original != null ? original : batch.register(a);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: gives the alerts in added a block of id codes, then registers and indexes them, flagging those that
+    //          repeat an open alert, and publishes them to getAllAlerts() and the observers of this at once.
+    //          with MERGE, the alerts whose request was posted meanwhile are left out instead; returns them, each
+    //          mapped to the alert it repeats
+    private Map<Alert, Alert> commit(List<Alert> added, DuplicatePolicy policy) {
+        Map<Alert, Alert> late = new HashMap<>();
+        if (added.isEmpty()) {
+            return late;
+        }
+        Map<Alert, Alert> originals = new HashMap<>();
+        List<Alert> posted = new ArrayList<>(added.size());
+        int idCode = idCodes.reserve(added.size());
+        for (Alert a : added) {
+            a.setIdCode(idCode);
+            idCode += idCodes.getNumNodes();
+            Alert original = duplicates.register(a);
+            if (original != null && policy == DuplicatePolicy.MERGE) {
+                late.put(a, original);
+            } else if (index(a)) {
+                alertsById.put(a.getIdCode(), a);
+                posted.add(a);
+                if (original != null) {
+                    originals.put(a, original);
+                }
+            }
+        }
+        publish(posted, originals);
+        return late;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the alerts the newly indexed alerts in posted duplicate, and publishes them to
+    //          getAllAlerts() and the observers of this at once
+    private void publish(List<Alert> posted, Map<Alert, Alert> originals) {
+        duplicateOf.putAll(originals);
+        rescueAlerts.appendAll(posted);
+        ALERTS_ADDED.add(posted.size());
+        ALERTS_FLAGGED.add(originals.size());
+        for (RescueAlertsObserver o : observers) {
+            o.alertsAdded(posted);
+        }
+    }
+
+    // MODIFIES: submitted
+    // EFFECTS: replaces each alert in submitted that is a key of late with the alert it is mapped to
+    private static void mergeLate(List<Alert> submitted, Map<Alert, Alert> late) {
+        if (late.isEmpty()) {
+            return;
+        }
+        ALERTS_MERGED.add(late.size());
+        for (int i = 0; i < submitted.size(); i++) {
+            Alert original = late.get(submitted.get(i));
+            if (original != null) {
+                submitted.set(i, original);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if a is not null, is not already an item in the list, and no alert in the list has the same
+    //          idCode as a, adds a to list keeping its idCode and returns true; id codes given to alerts added
+    //          later will be greater than a's. a is flagged as a duplicate if it repeats an open alert in the list.
+    //          otherwise does nothing and returns false.
+    //          this is used to add alerts that were given id codes before, e.g. alerts loaded from file
+    public boolean restoreAlert(Alert a) {
+        if (a == null) {
+            return false;
+        }
+        int idCode = a.getIdCode();
+        idCodes.advancePast(idCode);
+        synchronized (alertsById) {
+            if (alertsById.get(idCode) != null || !index(a)) {
+                return false;
+            }
+            alertsById.put(idCode, a);
+        }
+        ALERTS_RESTORED.increment();
+        Alert original = a.getStatus() == AlertStatus.RESCUED ? null : duplicates.register(a);
+        if (original != null && original != a) {
+            duplicateOf.put(a, original);
+        }
+        rescueAlerts.append(a);
+        for (RescueAlertsObserver o : observers) {
+            o.alertAdded(a);
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds o to the observers notified of alerts added to this and of changes to their status or rescuer
+    public void addObserver(RescueAlertsObserver o) {
+        observers.add(o);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes o from the observers of this
+    public void removeObserver(RescueAlertsObserver o) {
+        observers.remove(o);
+    }
+
+    // MODIFIES: this, a
+    // EFFECTS: if a is not already in the list, starts observing a, indexes it under its current status
+    //          (and by location if it is open and has coordinates), and returns true.
+    //          otherwise does nothing and returns false
+    private boolean index(Alert a) {
+        synchronized (a) {
+            if (indexedStatuses.containsKey(a)) {
+                return false;
+            }
+            a.addObserver(this);
+            a.setStatusSince(System.nanoTime());
+            AlertStatus status = a.getStatus();
+            statusIndex.add(a, status);
+            indexedStatuses.put(a, status);
+            if (a.hasCoordinates() && status != AlertStatus.RESCUED) {
+                openAlertsByLocation.add(a);
+            }
+            if (status != AlertStatus.NEEDS_HELP) {
+                recordResponseTime(timeToClaim, a, AlertStatus.HELP_OTW);
+            }
+            if (status == AlertStatus.RESCUED) {
+                recordResponseTime(timeToRescue, a, AlertStatus.RESCUED);
+            }
+            return true;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records in histogram the nanoseconds alert took from being posted to last entering status, if its
+    //          status history has both times
+    private static void recordResponseTime(Histogram histogram, Alert alert, AlertStatus status) {
+        StatusHistory history = alert.getStatusHistory();
+        long posted = history.getFirstTime(AlertStatus.NEEDS_HELP);
+        long reached = history.getLastTime(status);
+        if (posted >= 0 && reached >= posted) {
+            histogram.record((reached - posted) * NANOS_PER_MILLI);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves alert to the index of its current status and notifies observers of this of the change.
+    //          notifications may arrive out of order when several threads change alert at once, so alert is
+    //          re-indexed from the status it is indexed under to the status it has now, rather than from previous
+    @Override
+    public void statusChanged(Alert alert, AlertStatus previous) {
+        synchronized (alert) {
+            AlertStatus indexed = indexedStatuses.get(alert);
+            AlertStatus current = alert.getStatus();
+            if (indexed != null && indexed != current) {
+                long now = System.nanoTime();
+                TIME_IN_STATUS[indexed.ordinal()].record(now - alert.getStatusSince());
+                alert.setStatusSince(now);
+                STATUS_CHANGES[indexed.ordinal()][current.ordinal()].increment();
+                if (current != AlertStatus.NEEDS_HELP) {
+                    recordResponseTime(current == AlertStatus.HELP_OTW ? timeToClaim : timeToRescue, alert, current);
+                }
+                statusIndex.move(alert, indexed, current);
+                indexedStatuses.put(alert, current);
+                moveByLocation(alert, indexed, current);
+            }
+        }
+        for (RescueAlertsObserver o : observers) {
+            o.statusChanged(alert, previous);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes alert from the spatial index once it is rescued, and adds it back if it is reopened
+    private void moveByLocation(Alert alert, AlertStatus from, AlertStatus to) {
+        if (!alert.hasCoordinates()) {
+            return;
+        }
+        if (to == AlertStatus.RESCUED) {
+            openAlertsByLocation.remove(alert);
+        } else if (from == AlertStatus.RESCUED) {
+            openAlertsByLocation.add(alert);
+        }
+    }
+
+    // EFFECTS: notifies observers of this that the rescuer of alert has changed
+    @Override
+    public void rescuerAssigned(Alert alert) {
+        for (RescueAlertsObserver o : observers) {
+            o.rescuerAssigned(alert);
         }
     }
 
     // EFFECTS: looks for Alert that matches given idCode and returns it.
     //          if no Alert matching idCode is found, throws an InvalidIdCodeException.
     public Alert getAlertById(int idCode) throws InvalidIdCodeException {
-        for (Alert a : rescueAlerts) {
-            if (a.getIdCode() == idCode) {
-                return a;
-            }
+        Alert a = alertsById.get(idCode);
+        if (a == null) {
+            throw new InvalidIdCodeException();
         }
-        throw new InvalidIdCodeException();
+        return a;
     }
 
     // note: the implementation of this method was modeled after the JsonSerializationDemo sample project
@@ -76,7 +505,7 @@ public class RescueAlerts implements Writable {
     private JSONArray alertsToJson() {
         JSONArray jsonArray = new JSONArray();
 
-        for (Alert a : rescueAlerts) {
+        for (Alert a : getAllAlerts()) {
             jsonArray.put(a.toJson());
         }
 
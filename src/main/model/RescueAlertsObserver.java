@@ -0,0 +1,18 @@
+package model;
+
+import java.util.List;
+
+// Represents an observer of a RescueAlerts, notified whenever an alert is added to it
+// and whenever the status of one of its alerts changes
+public interface RescueAlertsObserver extends AlertObserver {
+    // EFFECTS: responds to alert being added to the observed RescueAlerts
+    void alertAdded(Alert alert);
+
+    // EFFECTS: responds to a batch of alerts being added to the observed RescueAlerts at once;
+    //          by default, responds to each of them being added in order
+    default void alertsAdded(List<Alert> alerts) {
+        for (Alert alert : alerts) {
+            alertAdded(alert);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package model;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+
+// Represents the history of the statuses of an alert: every status it entered, in order, with the time it entered
+// it in milliseconds since the epoch.
+public class StatusHistory {
+    private static final int STATUS_BITS = 2;
+    private static final int STATUS_MASK = (1 << STATUS_BITS) - 1;
+    private static final AlertStatus[] STATUSES = AlertStatus.values();
+    private static final long BASE_MILLIS = System.currentTimeMillis();
+    private static final long BASE_NANOS = System.nanoTime();
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private long[] entries;
+
+    // EFFECTS: creates an empty history
+    public StatusHistory() {
+        entries = new long[0];
+    }
+
+    // EFFECTS: returns the current time in milliseconds since the epoch, as used for the times of histories; it is
+    //          the wall clock at startup advanced by System.nanoTime(), so it never goes backwards
+    public static long now() {
+        return BASE_MILLIS + (System.nanoTime() - BASE_NANOS) / NANOS_PER_MILLI;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the alert entered status now, and returns the time recorded
+    synchronized long record(AlertStatus status) {
+        long time = Math.max(now(), entries.length == 0 ? 0 : getTime(entries.length - 1));
+        append(status, time);
+        return time;
+    }
+
+    // REQUIRES: time >= 0
+    // MODIFIES: this
+    // EFFECTS: adds an entry for the alert entering status at the given time to the end of this, e.g. when
+    //          restoring a history from file
+    public void restore(AlertStatus status, long time) {
+        append(status, time);
+    }
+
+    // REQUIRES: time >= 0
+    // MODIFIES: this
+    // EFFECTS: adds an entry for the alert entering status at the given time to the end of this
+    private synchronized void append(AlertStatus status, long time) {
+        long[] grown = new long[entries.length + 1];
+        System.arraycopy(entries, 0, grown, 0, entries.length);
+        grown[entries.length] = time << STATUS_BITS | status.ordinal();
+        entries = grown;
+    }
+
+    // EFFECTS: returns the number of entries in this
+    public synchronized int size() {
+        return entries.length;
+    }
+
+    // REQUIRES: 0 <= i < size()
+    // EFFECTS: returns the status entered in the i-th entry
+    public synchronized AlertStatus getStatus(int i) {
+        return STATUSES[(int) (entries[i] & STATUS_MASK)];
+    }
+
+    // REQUIRES: 0 <= i < size()
+    // EFFECTS: returns the time of the i-th entry, in milliseconds since the epoch
+    public synchronized long getTime(int i) {
+        return entries[i] >>> STATUS_BITS;
+    }
+
+    // EFFECTS: returns the time the alert first entered status, or -1 if it never did (or it is not known)
+    public synchronized long getFirstTime(AlertStatus status) {
+        for (int i = 0; i < entries.length; i++) {
+            if (getStatus(i) == status) {
+                return getTime(i);
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns the time the alert last entered status, or -1 if it never did (or it is not known)
+    public synchronized long getLastTime(AlertStatus status) {
+        for (int i = entries.length - 1; i >= 0; i--) {
+            if (getStatus(i) == status) {
+                return getTime(i);
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns this as a JSON array of [status, time] pairs, in order
+    public synchronized JSONArray toJson() {
+        JSONArray json = new JSONArray();
+        for (int i = 0; i < entries.length; i++) {
+            JSONArray entry = new JSONArray();
+            entry.put(getStatus(i).name());
+            entry.put(getTime(i));
+            json.put(entry);
+        }
+        return json;
+    }
+
+    // EFFECTS: returns the history in json, an array of [status, time] pairs as returned by toJson();
+    //          throws JSONException (or IllegalArgumentException for an unknown status) if json is malformed
+    public static StatusHistory fromJson(JSONArray json) {
+        StatusHistory history = new StatusHistory();
+        for (int i = 0; i < json.length(); i++) {
+            JSONArray entry = json.getJSONArray(i);
+            long time = entry.getLong(1);
+            if (time < 0) {
+                throw new JSONException("status history times must not be negative");
+            }
+            history.append(AlertStatus.valueOf(entry.getString(0)), time);
+        }
+        return history;
+    }
+}
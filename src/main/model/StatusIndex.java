@@ -0,0 +1,88 @@
+package model;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Represents secondary indexes over a set of alerts: the alerts with each status, the urgent alerts,
+// and running totals of alerts, urgent alerts and people per status. The indexes are updated
+// incrementally as alerts are added and change status, so every count is answered in constant time.
+class StatusIndex {
+    private final Map<AlertStatus, Set<Alert>> alertsByStatus;
+    private final Set<Alert> urgentAlerts;
+    private final AtomicIntegerArray numAlerts;
+    private final AtomicIntegerArray numUrgentAlerts;
+    private final AtomicIntegerArray numPeople;
+
+    // EFFECTS: creates empty indexes
+    StatusIndex() {
+        alertsByStatus = new EnumMap<>(AlertStatus.class);
+        for (AlertStatus status : AlertStatus.values()) {
+            alertsByStatus.put(status, ConcurrentHashMap.newKeySet());
+        }
+        urgentAlerts = ConcurrentHashMap.newKeySet();
+        int numStatuses = AlertStatus.values().length;
+        numAlerts = new AtomicIntegerArray(numStatuses);
+        numUrgentAlerts = new AtomicIntegerArray(numStatuses);
+        numPeople = new AtomicIntegerArray(numStatuses);
+    }
+
+    // EFFECTS: returns an unmodifiable live view of the indexed alerts with the given status
+    Set<Alert> getAlerts(AlertStatus status) {
+        return Collections.unmodifiableSet(alertsByStatus.get(status));
+    }
+
+    // EFFECTS: returns an unmodifiable live view of the indexed urgent alerts
+    Set<Alert> getUrgentAlerts() {
+        return Collections.unmodifiableSet(urgentAlerts);
+    }
+
+    // EFFECTS: returns the number of indexed alerts with the given status
+    int getNumAlerts(AlertStatus status) {
+        return numAlerts.get(status.ordinal());
+    }
+
+    // EFFECTS: returns the number of indexed urgent alerts with the given status
+    int getNumUrgentAlerts(AlertStatus status) {
+        return numUrgentAlerts.get(status.ordinal());
+    }
+
+    // EFFECTS: returns the total number of people in indexed alerts with the given status
+    int getNumPeople(AlertStatus status) {
+        return numPeople.get(status.ordinal());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes a under the given status
+    void add(Alert a, AlertStatus status) {
+        if (a.isUrgent()) {
+            urgentAlerts.add(a);
+        }
+        alertsByStatus.get(status).add(a);
+        adjustTotals(a, status, 1);
+    }
+
+    // REQUIRES: a is indexed under from
+    // MODIFIES: this
+    // EFFECTS: moves a from being indexed under status from to being indexed under status to
+    void move(Alert a, AlertStatus from, AlertStatus to) {
+        alertsByStatus.get(from).remove(a);
+        adjustTotals(a, from, -1);
+        alertsByStatus.get(to).add(a);
+        adjustTotals(a, to, 1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds sign times a's contribution to the running totals for the given status
+    private void adjustTotals(Alert a, AlertStatus status, int sign) {
+        int i = status.ordinal();
+        numAlerts.addAndGet(i, sign);
+        numPeople.addAndGet(i, sign * a.getNumPeople());
+        if (a.isUrgent()) {
+            numUrgentAlerts.addAndGet(i, sign);
+        }
+    }
+}
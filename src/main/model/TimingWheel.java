@@ -0,0 +1,183 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents a hierarchical timing wheel: a set of items, each due at a deadline, that hands items back once
+// their deadline has passed, counted in ticks of tickMillis milliseconds since startMillis.
+// TimingWheel is not safe to use from several threads at once; callers must lock around it.
+class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final int OVERFLOW = LEVELS;
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final Timeout<T>[][] slots;
+    private Timeout<T> overflow;
+    private long currentTick;
+    private int size;
+
+    // REQUIRES: tickMillis >= 1
+    // EFFECTS: creates an empty wheel that counts ticks of tickMillis milliseconds from startMillis
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        slots = (Timeout<T>[][]) new Timeout<?>[LEVELS][SLOTS];
+    }
+
+    // EFFECTS: returns the number of items scheduled and not yet handed back or cancelled
+    int size() {
+        return size;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: schedules item to be handed back once deadlineMillis has passed, and returns the timeout that
+    //          can cancel it. items whose deadline has already passed are handed back at the next tick
+    Timeout<T> schedule(T item, long deadlineMillis) {
+        long ticks = deadlineMillis - startMillis;
+        long deadlineTick = ticks <= 0 ? 0 : (ticks + tickMillis - 1) / tickMillis;
+        Timeout<T> timeout = new Timeout<>(item, Math.max(deadlineTick, currentTick + 1));
+        insert(timeout);
+        size++;
+        return timeout;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes timeout from this and returns true, or returns false if it was already handed back or
+    //          cancelled
+    boolean cancel(Timeout<T> timeout) {
+        if (timeout.level < 0) {
+            return false;
+        }
+        unlink(timeout);
+        size--;
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: advances the current tick to the last tick that has fully passed at nowMillis, and removes and
+    //          returns the items whose deadlines have passed, in order of their deadline tick
+    List<T> advanceTo(long nowMillis) {
+        long nowTick = (nowMillis - startMillis) / tickMillis;
+        List<T> expired = new ArrayList<>();
+        while (currentTick < nowTick) {
+            if (size == 0) {
+                currentTick = nowTick;
+                break;
+            }
+            currentTick++;
+            cascade();
+            expire(expired);
+        }
+        return expired;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the items of the slots that the current tick has reached on each level above the lowest,
+    //          and of the overflow list if the top level has wrapped, down to the levels they now belong on
+    private void cascade() {
+        int level = 0;
+        while (level < LEVELS && (currentTick & ((1L << (SLOT_BITS * (level + 1))) - 1)) == 0) {
+            level++;
+        }
+        for (int l = level; l >= 1; l--) {
+            Timeout<T> t = l == OVERFLOW ? overflow : slots[l][slotOf(currentTick, l)];
+            while (t != null) {
+                Timeout<T> next = t.next;
+                unlink(t);
+                insert(t);
+                t = next;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the items due at the current tick and adds them to expired
+    private void expire(List<T> expired) {
+        Timeout<T> t = slots[0][slotOf(currentTick, 0)];
+        while (t != null) {
+            Timeout<T> next = t.next;
+            unlink(t);
+            expired.add(t.item);
+            size--;
+            t = next;
+        }
+    }
+
+    // MODIFIES: this, timeout
+    // EFFECTS: adds timeout to the slot of the highest level on which its deadline tick and the current tick
+    //          differ, or to the overflow list if that is above the top level
+    private void insert(Timeout<T> timeout) {
+        long differing = timeout.deadlineTick ^ currentTick;
+        int level = 0;
+        while (level < OVERFLOW && (differing >>> (SLOT_BITS * (level + 1))) != 0) {
+            level++;
+        }
+        timeout.level = level;
+        timeout.slot = level == OVERFLOW ? 0 : slotOf(timeout.deadlineTick, level);
+        Timeout<T> head = headOf(timeout);
+        timeout.prev = null;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        setHead(timeout.level, timeout.slot, timeout);
+    }
+
+    // MODIFIES: this, timeout
+    // EFFECTS: removes timeout from the list it is in
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            setHead(timeout.level, timeout.slot, timeout.next);
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.level = -1;
+    }
+
+    // EFFECTS: returns the first timeout in the list timeout belongs in
+    private Timeout<T> headOf(Timeout<T> timeout) {
+        return timeout.level == OVERFLOW ? overflow : slots[timeout.level][timeout.slot];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes head the first timeout in the list of the given level and slot
+    private void setHead(int level, int slot, Timeout<T> head) {
+        if (level == OVERFLOW) {
+            overflow = head;
+        } else {
+            slots[level][slot] = head;
+        }
+    }
+
+    // EFFECTS: returns the slot that tick falls in on the given level
+    private static int slotOf(long tick, int level) {
+        return (int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK;
+    }
+
+    // Represents an item scheduled in a timing wheel, and where it is kept in the wheel
+    static class Timeout<T> {
+        private final T item;
+        private final long deadlineTick;
+        private int level;
+        private int slot;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        // EFFECTS: creates a timeout for item due at deadlineTick, not yet in any wheel
+        Timeout(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+            level = -1;
+        }
+    }
+}
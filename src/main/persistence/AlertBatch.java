@@ -0,0 +1,231 @@
+package persistence;
+
+import exceptions.InvalidNumPeopleException;
+import model.Alert;
+import model.DuplicatePolicy;
+import model.RescueAlerts;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+// Represents a batch of alerts submitted at once, e.g. by an SMS gateway or hotline, parsed from JSON lines or
+// CSV (see BatchFormat).
+public class AlertBatch {
+    private final List<Alert> alerts;
+    private final List<Integer> lines;
+    private final List<RecordError> errors;
+
+    // EFFECTS: creates an empty batch
+    private AlertBatch() {
+        alerts = new ArrayList<>();
+        lines = new ArrayList<>();
+        errors = new ArrayList<>();
+    }
+
+    // EFFECTS: parses text in the given format and returns the batch of its valid alerts and record errors
+    public static AlertBatch parse(String text, BatchFormat format) {
+        return format == BatchFormat.CSV ? parseCsv(text) : parseJsonLines(text);
+    }
+
+    // EFFECTS: returns the valid alerts of this batch, in the order of their records
+    public List<Alert> getAlerts() {
+        return Collections.unmodifiableList(alerts);
+    }
+
+    // REQUIRES: 0 <= index < getAlerts().size()
+    // EFFECTS: returns the line number, starting at 1, of the record of the alert at index in getAlerts()
+    public int getLine(int index) {
+        return lines.get(index);
+    }
+
+    // EFFECTS: returns the errors of the records that are not valid alerts, in order of line number
+    public List<RecordError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    // MODIFIES: ra
+    // EFFECTS: adds the valid alerts of this batch to ra at once, as in RescueAlerts.addAlerts, and returns
+    //          what was posted for each of them, in the order of getAlerts()
+    public List<Alert> submitTo(RescueAlerts ra, DuplicatePolicy policy) {
+        return ra.addAlerts(alerts, policy);
+    }
+
+    // EFFECTS: returns a new alert with the name, contact number, location, number of people, urgency and
+    //          (optional) coordinates in json, which has the keys of Alert.toJson(); its id code, status and
+    //          rescuer are ignored. throws JSONException if a field is missing or invalid, and
+    //          InvalidNumPeopleException if the number of people is < 1
+    public static Alert parseAlert(JSONObject json) throws InvalidNumPeopleException {
+        double latitude = json.optDouble("latitude", Double.NaN);
+        double longitude = json.optDouble("longitude", Double.NaN);
+        if (Double.isNaN(latitude) != Double.isNaN(longitude)
+                || Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            throw new JSONException("Invalid coordinates " + latitude + ", " + longitude);
+        }
+        return new Alert(json.getString("name"), json.getString("contact number"), json.getString("location"),
+                latitude, longitude, json.getInt("number of people"), json.optBoolean("is urgent?", false));
+    }
+
+    // EFFECTS: returns the batch of the non-blank lines of text, each a JSON object
+    private static AlertBatch parseJsonLines(String text) {
+        String[] textLines = text.split("\r?\n", -1);
+        List<Integer> recordLines = new ArrayList<>();
+        for (int i = 0; i < textLines.length; i++) {
+            if (!textLines[i].trim().isEmpty()) {
+                recordLines.add(i + 1);
+            }
+        }
+        return validate(recordLines, i -> new JSONObject(textLines[recordLines.get(i) - 1]));
+    }
+
+    // EFFECTS: returns the batch of the rows of text after its header row, as CSV with fields named by the header
+    private static AlertBatch parseCsv(String text) {
+        List<Integer> rowLines = new ArrayList<>();
+        List<List<String>> rows = splitCsv(text, rowLines);
+        if (rows.isEmpty()) {
+            return new AlertBatch();
+        }
+        List<String> header = rows.get(0);
+        return validate(rowLines.subList(1, rowLines.size()), i -> {
+            List<String> row = rows.get(i + 1);
+            JSONObject json = new JSONObject();
+            for (int column = 0; column < Math.min(header.size(), row.size()); column++) {
+                if (!row.get(column).isEmpty()) {
+                    json.put(header.get(column).trim(), row.get(column));
+                }
+            }
+            return json;
+        });
+    }
+
+    // EFFECTS: parses the records given by record, the i-th on line recordLines.get(i), into alerts in parallel,
+    //          and returns the batch of the valid alerts and the errors of the others, in order
+    private static AlertBatch validate(List<Integer> recordLines, IntFunction<JSONObject> record) {
+        int numRecords = recordLines.size();
+        Alert[] parsed = new Alert[numRecords];
+        String[] failures = new String[numRecords];
+        IntStream.range(0, numRecords).parallel().forEach(i -> {
+            try {
+                parsed[i] = parseAlert(record.apply(i));
+            } catch (JSONException e) {
+                failures[i] = e.getMessage();
+            } catch (InvalidNumPeopleException e) {
+                failures[i] = "Number of people must be at least 1";
+            }
+        });
+        AlertBatch batch = new AlertBatch();
+        for (int i = 0; i < numRecords; i++) {
+            if (parsed[i] != null) {
+                batch.alerts.add(parsed[i]);
+                batch.lines.add(recordLines.get(i));
+            } else {
+                batch.errors.add(new RecordError(recordLines.get(i), failures[i]));
+            }
+        }
+        return batch;
+    }
+
+    // MODIFIES: rowLines
+    // EFFECTS: splits text into rows of fields as CSV, where fields are separated by commas and may be quoted
+    //          with '"' to contain commas, line breaks and doubled quotes. blank rows are skipped. adds the line
+    //          number each row starts on to rowLines
+    private static List<List<String>> splitCsv(String text, List<Integer> rowLines) {
+        List<List<String>> rows = new ArrayList<>();
+        CsvCursor cursor = new CsvCursor(text);
+        while (cursor.hasNext()) {
+            int line = cursor.line;
+            List<String> row = cursor.nextRow();
+            if (row.size() > 1 || !row.get(0).isEmpty()) {
+                rows.add(row);
+                rowLines.add(line);
+            }
+        }
+        return rows;
+    }
+
+    // Represents the error of a record that is not a valid alert
+    public static class RecordError {
+        private final int line;
+        private final String message;
+
+        // EFFECTS: creates the error of the record on the given line, with the given reason
+        RecordError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        // EFFECTS: returns the line number, starting at 1, of the record
+        public int getLine() {
+            return line;
+        }
+
+        // EFFECTS: returns why the record is not a valid alert
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    // Represents a position in CSV text, and the line it is on
+    private static class CsvCursor {
+        private final String text;
+        private int position;
+        private int line = 1;
+
+        // EFFECTS: creates a cursor at the start of text
+        CsvCursor(String text) {
+            this.text = text;
+        }
+
+        // EFFECTS: returns true if there is text left to read
+        boolean hasNext() {
+            return position < text.length();
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads the fields of the row at the cursor, and moves the cursor past its line break
+        List<String> nextRow() {
+            List<String> row = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c == '\n') {
+                    line++;
+                }
+                if (quoted) {
+                    quoted = readQuoted(c, field);
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    row.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append(c);
+                }
+            }
+            row.add(field.toString());
+            return row;
+        }
+
+        // MODIFIES: this, field
+        // EFFECTS: adds c, read inside quotes, to field and returns whether the field is still quoted after it
+        private boolean readQuoted(char c, StringBuilder field) {
+            if (c != '"') {
+                field.append(c);
+                return true;
+            }
+            if (position < text.length() && text.charAt(position) == '"') {
+                field.append('"');
+                position++;
+                return true;
+            }
+            return false;
+        }
+    }
+}
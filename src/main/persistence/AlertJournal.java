@@ -0,0 +1,528 @@
+package persistence;
+
+import exceptions.InvalidIdCodeException;
+import metrics.Counter;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
+import model.Alert;
+import model.AlertStatus;
+import model.RescueAlerts;
+import model.RescueAlertsObserver;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Represents a durable journal of changes to rescue alerts, kept alongside a JSON snapshot file: compacting
+// writes the snapshot and drops the records it covers, and recovering replays the journal on top of it.
+public class AlertJournal implements RescueAlertsObserver {
+    private static final Counter RECORDS_APPENDED = MetricsRegistry.getDefault().counter(
+            "journal_records_appended_total", "Records appended to alert journals");
+    private static final Histogram SYNC_TIME = MetricsRegistry.getDefault().histogram("journal_sync_seconds",
+            "Time taken to force an alert journal to disk", Histogram.latencyBounds());
+
+    private final String snapshotFile;
+    private final String journalFile;
+    private final int syncEvery;
+    private final int compactEvery;
+    private final Object compactLock;
+
+    private FileOutputStream journalStream;
+    private Writer journalWriter;
+    private RescueAlerts attached;
+    private int unsyncedRecords;
+    private int recordsSinceSnapshot;
+    private long wholeLength;
+    private long coveredLength;
+    private int coveredRecords;
+    private IOException failure;
+
+    // REQUIRES: syncEvery >= 1 and compactEvery >= 1
+    // EFFECTS: constructs a journal that keeps snapshots in snapshotFile and changes since the last snapshot in
+    //          journalFile, forcing the journal to disk after every syncEvery records and compacting it on save
+    //          once it holds compactEvery records
+    public AlertJournal(String snapshotFile, String journalFile, int syncEvery, int compactEvery) {
+        this.snapshotFile = snapshotFile;
+        this.journalFile = journalFile;
+        this.syncEvery = syncEvery;
+        this.compactEvery = compactEvery;
+        compactLock = new Object();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: loads the snapshot (or, if there is no snapshot yet, creates empty rescue alerts with the given
+    //          name), replays the journal on top of it, and attaches this journal to the result, which is returned.
+    //          a torn record at the end of the journal (e.g. from a crash while it was being written) is cut off.
+    //          throws IOException if an error occurs reading or opening the files, or if any other record is corrupt
+    public RescueAlerts recover(String name) throws IOException {
+        return recover(new RescueAlerts(name));
+    }
+
+    // REQUIRES: ra has no alerts
+    // MODIFIES: this, ra
+    // EFFECTS: loads the snapshot into ra, replays the journal on top of it, attaches this journal to ra and
+    //          returns it. observers of ra are notified of every alert as soon as it is loaded.
+    //          a torn record at the end of the journal is cut off, so new records do not follow it. if the current
+    //          thread is interrupted while loading, throws InterruptedIOException and stays attached to the
+    //          previously attached alerts.
+    //          throws IOException if an error occurs reading or opening the files, or if any other record is corrupt
+    public synchronized RescueAlerts recover(RescueAlerts ra) throws IOException {
+        if (Files.exists(Paths.get(snapshotFile))) {
+            new JsonStreamReader(snapshotFile).read(ra);
+        }
+        int records = 0;
+        if (Files.exists(Paths.get(journalFile))) {
+            records = replay(ra);
+            if (failure != null) {
+                closeWriter();
+                failure = null;
+            }
+            cutToWholeRecords();
+        }
+        recordsSinceSnapshot = records;
+        attach(ra);
+        return ra;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes every change to ra durable. if this journal is attached to ra, holds fewer than compactEvery
+    //          records and has not failed to write a record since the last snapshot, only forces the journal to
+    //          disk; otherwise compacts ra, so the snapshot makes up for any records that were not written.
+    //          throws IOException if an error occurs
+    public void save(RescueAlerts ra) throws IOException {
+        synchronized (this) {
+            if (attached == ra && recordsSinceSnapshot < compactEvery && failure == null) {
+                sync();
+                return;
+            }
+        }
+        compact(ra);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a full snapshot of ra, drops the records it covers from the journal, and attaches this
+    //          journal to ra.
+    //          the snapshot is written to a temporary file and forced to disk before it replaces the last one,
+    //          and the journal is only cut once the new snapshot is durable, so neither a failed write nor a crash
+    //          loses a change. the snapshot is written without holding this journal's lock, so changes to ra
+    //          keep being journaled meanwhile; the records appended while it is written are kept, as the snapshot
+    //          may or may not include their changes, and replaying them again on top of it is harmless.
+    //          if an earlier record could not be written, the journal is first cut back to the last record written
+    //          whole, and records are appended again; the snapshot makes up for the records that were not written.
+    //          throws IOException if an error occurs writing the files
+    public void compact(RescueAlerts ra) throws IOException {
+        synchronized (compactLock) {
+            IOException recovered = beginCompaction(ra);
+            try {
+                writeSnapshot(ra);
+                finishCompaction();
+            } catch (IOException e) {
+                keepFailure(recovered);
+                throw e;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reopens the journal at the last record written whole if a record could not be written, attaches
+    //          this journal to ra, and remembers the length of the journal, whose records the snapshot about to be
+    //          written will cover, and how many of them were appended since the last snapshot.
+    //          returns the error that made records go unwritten, if any, which the snapshot has yet to make up for
+    private synchronized IOException beginCompaction(RescueAlerts ra) throws IOException {
+        IOException recovered = failure;
+        if (failure != null) {
+            closeWriter();
+            cutToWholeRecords();
+            failure = null;
+        }
+        attach(ra);
+        journalWriter.flush();
+        coveredLength = wholeLength;
+        coveredRecords = recordsSinceSnapshot;
+        return recovered;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: remembers that the records that recovered made go unwritten are still missing, unless a later
+    //          error has been remembered since
+    private synchronized void keepFailure(IOException recovered) {
+        if (failure == null) {
+            failure = recovered;
+        }
+    }
+
+    // EFFECTS: writes a snapshot of ra to a temporary file, forces it to disk, and moves it over the snapshot;
+    //          throws IOException, leaving the last snapshot as it was, if an error occurs
+    private void writeSnapshot(RescueAlerts ra) throws IOException {
+        Path snapshot = Paths.get(snapshotFile);
+        Path temporary = Paths.get(snapshotFile + ".tmp");
+        JsonWriter writer = new JsonWriter(temporary.toString());
+        writer.open();
+        try {
+            writer.write(ra);
+            writer.sync();
+        } catch (IOException e) {
+            writer.close();
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        writer.close();
+        Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(snapshot);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the journal with the whole records appended after the ones the snapshot covers, and
+    //          forgets the covered records; does nothing if the journal was closed meanwhile
+    private synchronized void finishCompaction() throws IOException {
+        if (journalWriter == null) {
+            return;
+        }
+        Path journal = Paths.get(journalFile);
+        Path temporary = Paths.get(journalFile + ".tmp");
+        copyUncovered(journal, temporary);
+        closeWriter();
+        try {
+            Files.move(temporary, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory(journal);
+        } finally {
+            openJournal();
+        }
+        unsyncedRecords = 0;
+        recordsSinceSnapshot -= coveredRecords;
+    }
+
+    // EFFECTS: copies the whole records of journal that the snapshot does not cover to temporary, and forces it
+    //          to disk
+    private void copyUncovered(Path journal, Path temporary) throws IOException {
+        try (FileChannel from = FileChannel.open(journal, StandardOpenOption.READ);
+             FileChannel to = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long remaining = wholeLength - coveredLength;
+            for (long copied = 0; copied < remaining; ) {
+                copied += from.transferTo(coveredLength + copied, remaining - copied, to);
+            }
+            to.force(true);
+        }
+    }
+
+    // EFFECTS: forces the directory containing file to disk, so a file just moved into it survives a crash.
+    //          some platforms (e.g. Windows) cannot open a directory for this; the move is atomic there anyway
+    private static void forceDirectory(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // not supported on this platform
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces every record appended so far to disk;
+    //          throws IOException if an error occurs, or if a record could not be written since the last snapshot
+    public synchronized void sync() throws IOException {
+        checkFailure();
+        if (journalWriter != null) {
+            journalWriter.flush();
+            force();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces the records appended since the journal was last forced to disk, if any; if an error occurs,
+    //          stops appending records until the next compaction, which the next save runs, and throws the error
+    //          from every sync and close until then
+    public synchronized void syncQuietly() {
+        if (journalWriter == null || failure != null || unsyncedRecords == 0) {
+            return;
+        }
+        try {
+            force();
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces every record to disk, stops observing the attached rescue alerts and closes the journal;
+    //          throws IOException if an error occurs, or if a record could not be written since the last snapshot
+    public synchronized void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            closeJournal();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a record of alert being added
+    @Override
+    public synchronized void alertAdded(Alert alert) {
+        append(addRecord(alert));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a record of each alert in the batch being added, flushing and forcing the journal to
+    //          disk once for the whole batch rather than once per record
+    @Override
+    public synchronized void alertsAdded(List<Alert> alerts) {
+        if (journalWriter == null || failure != null) {
+            return;
+        }
+        try {
+            for (Alert alert : alerts) {
+                write(addRecord(alert));
+            }
+            flush(alerts.size());
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a record of the current status and rescuer of alert
+    @Override
+    public void statusChanged(Alert alert, AlertStatus previous) {
+        appendUpdate(alert);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a record of the current status and rescuer of alert
+    @Override
+    public void rescuerAssigned(Alert alert) {
+        appendUpdate(alert);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a record of the current status and rescuer of alert
+    private synchronized void appendUpdate(Alert alert) {
+        JSONObject record = new JSONObject();
+        record.put("op", "update");
+        record.put("id code", alert.getIdCode());
+        record.put("status", alert.getStatus());
+        record.put("name of rescuer", alert.getRescuerName());
+        record.put("contact number of rescuer", alert.getRescuerContactNum());
+        record.put("status history", alert.getStatusHistory().toJson());
+        append(record);
+    }
+
+    // EFFECTS: returns the record of alert being added
+    private static JSONObject addRecord(Alert alert) {
+        JSONObject record = new JSONObject();
+        record.put("op", "add");
+        record.put("alert", alert.toJson());
+        return record;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends record as one line of the journal, flushes it, and forces the journal to disk if
+    //          syncEvery records have been appended since it was last forced.
+    //          if an error occurs, stops appending records until the next compaction, which the next save runs,
+    //          and throws the error from every sync and close until then
+    private synchronized void append(JSONObject record) {
+        if (journalWriter == null || failure != null) {
+            return;
+        }
+        try {
+            write(record);
+            flush(1);
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes record as one line of the journal, without flushing it
+    private void write(JSONObject record) throws IOException {
+        journalWriter.write(record.toString());
+        journalWriter.write('\n');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: flushes the numRecords records written since the last flush, and forces the journal to disk if
+    //          syncEvery records have been appended since it was last forced
+    private void flush(int numRecords) throws IOException {
+        journalWriter.flush();
+        wholeLength = Files.size(Paths.get(journalFile));
+        RECORDS_APPENDED.add(numRecords);
+        recordsSinceSnapshot += numRecords;
+        unsyncedRecords += numRecords;
+        if (unsyncedRecords >= syncEvery) {
+            force();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces the journal to disk
+    private void force() throws IOException {
+        long start = System.nanoTime();
+        journalStream.getChannel().force(false);
+        SYNC_TIME.recordSince(start);
+        unsyncedRecords = 0;
+    }
+
+    // MODIFIES: this, ra
+    // EFFECTS: applies every record in the journal to ra, except a torn last record, remembers the length of the
+    //          records written whole, and returns the number of records applied. the last record is torn if it is
+    //          not valid JSON or not followed by a newline.
+    //          throws IOException if any other record is corrupt, or InterruptedIOException if the current thread
+    //          is interrupted
+    private int replay(RescueAlerts ra) throws IOException {
+        boolean isLastRecordEnded = endsWithNewline(journalFile);
+        int records = 0;
+        long length = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Files.newInputStream(Paths.get(journalFile)), StandardCharsets.UTF_8))) {
+            String next = reader.readLine();
+            while (next != null) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedIOException("Replaying " + journalFile + " was interrupted");
+                }
+                String line = next;
+                next = reader.readLine();
+                JSONObject record = parseRecord(line, next == null, records + 1);
+                if (record == null || (next == null && !isLastRecordEnded)) {
+                    break;
+                }
+                apply(ra, record);
+                records++;
+                length += line.getBytes(StandardCharsets.UTF_8).length + 1;
+            }
+        }
+        wholeLength = length;
+        return records;
+    }
+
+    // EFFECTS: returns the record on line, the number-th of the journal, or null if it is the last record and is
+    //          not valid JSON; throws IOException if it is not valid JSON and not the last record
+    private JSONObject parseRecord(String line, boolean isLast, int number) throws IOException {
+        try {
+            return new JSONObject(line);
+        } catch (JSONException e) {
+            if (isLast) {
+                return null;
+            }
+            throw new IOException("Record " + number + " of " + journalFile + " is corrupt", e);
+        }
+    }
+
+    // EFFECTS: returns true if file is empty or ends with a newline
+    private static boolean endsWithNewline(String file) throws IOException {
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            if (in.length() == 0) {
+                return true;
+            }
+            in.seek(in.length() - 1);
+            return in.read() == '\n';
+        }
+    }
+
+    // MODIFIES: ra
+    // EFFECTS: applies record to ra. an add record for an alert that is already in ra, or an update record
+    //          for an alert that is not in ra, is skipped
+    private void apply(RescueAlerts ra, JSONObject record) {
+        if (record.getString("op").equals("add")) {
+            ra.restoreAlert(JsonReader.parseAlert(record.getJSONObject("alert")));
+            return;
+        }
+        try {
+            Alert alert = ra.getAlertById(record.getInt("id code"));
+            AlertStatus status = AlertStatus.valueOf(record.getString("status"));
+            if (record.has("status history")) {
+                alert.restoreStatus(status, JsonReader.parseStatusHistory(record));
+            } else {
+                alert.setStatus(status);
+            }
+            alert.setRescuerName(record.optString("name of rescuer", null));
+            alert.setRescuerContactNum(record.optString("contact number of rescuer", null));
+        } catch (InvalidIdCodeException e) {
+            // skip: the alert's add record comes later in the journal
+        }
+    }
+
+    // MODIFIES: this, ra
+    // EFFECTS: opens the journal for appending and starts observing ra instead of any previously attached alerts
+    private void attach(RescueAlerts ra) throws IOException {
+        if (journalWriter == null) {
+            openJournal();
+        }
+        if (attached != ra) {
+            if (attached != null) {
+                attached.removeObserver(this);
+            }
+            ra.addObserver(this);
+            attached = ra;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the journal file for appending
+    private void openJournal() throws IOException {
+        journalStream = new FileOutputStream(journalFile, true);
+        journalWriter = new BufferedWriter(new OutputStreamWriter(journalStream, StandardCharsets.UTF_8));
+        wholeLength = Files.size(Paths.get(journalFile));
+    }
+
+    // EFFECTS: cuts off whatever follows the last record written whole to the journal file
+    private void cutToWholeRecords() throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+            if (file.length() > wholeLength) {
+                file.setLength(wholeLength);
+                file.getFD().sync();
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops observing the attached rescue alerts and closes the journal file, if it is open
+    private void closeJournal() throws IOException {
+        if (attached != null) {
+            attached.removeObserver(this);
+            attached = null;
+        }
+        closeWriter();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the journal file, if it is open; errors are ignored if a record could not be written, as
+    //          whatever follows the last record written whole is cut off before the journal is used again
+    private void closeWriter() throws IOException {
+        if (journalWriter == null) {
+            return;
+        }
+        try {
+            journalWriter.close();
+        } catch (IOException e) {
+            if (failure == null) {
+                throw e;
+            }
+        } finally {
+            journalWriter = null;
+            journalStream = null;
+        }
+    }
+
+    // EFFECTS: throws IOException if a record could not be written since the last snapshot
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("Records could not be written to " + journalFile + " since the last snapshot",
+                    failure);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package persistence;
+
+// Represents the formats a batch of alerts can be submitted in: JSON_LINES has one alert per line as a JSON
+// object with the keys of Alert.toJson(), and CSV has a header row naming the same keys followed by one alert
+// per row
+public enum BatchFormat {
+    JSON_LINES, CSV
+}
@@ -0,0 +1,43 @@
+package persistence;
+
+// Represents the layout of a binary rescue alerts snapshot, shared by BinaryWriter and BinaryReader: a header,
+// one fixed-width record per alert sorted by id code, a string table and a history table, in big-endian order.
+// Version 1 snapshots have no coordinates, and neither they nor version 2 snapshots have status histories.
+final class BinaryFormat {
+    static final int MAGIC = 0x52534341; // "RSCA"
+    static final int VERSION = 3;
+    static final int VERSION_1 = 1;
+    static final int VERSION_2 = 2;
+    static final int HEADER_SIZE = 24;
+    static final int RECORD_SIZE = 48;
+    static final int RECORD_SIZE_V1 = 32;
+    static final int RECORD_SIZE_V2 = 40;
+    static final int ENTRY_SIZE = 9; // of a history table entry: a long time followed by a byte status
+    static final int NULL_STRING = -1; // in place of the string table index of a null string field
+    static final double COORDINATE_UNIT = 1e-7; // degrees (about 1 cm) per unit of a stored coordinate
+    static final int NO_COORDINATE = Integer.MIN_VALUE; // stored for the coordinates of an alert that has none
+
+    // offsets of the header fields
+    static final int NUM_ALERTS = 8;
+    static final int NUM_STRINGS = 12; // the string table is NUM_STRINGS + 1 offsets, then the UTF-8 bytes
+    static final int NAME = 16;
+    static final int NUM_ENTRIES = 20;  // since version 3
+
+    // offsets of the fields of a record
+    static final int ID_CODE = 0;
+    static final int NUM_PEOPLE = 4;
+    static final int STATUS = 8;        // byte: ordinal of the status
+    static final int IS_URGENT = 9;     // byte: 1 if urgent, 0 otherwise
+    static final int ALERT_NAME = 12;
+    static final int CONTACT_NUM = 16;
+    static final int LOCATION = 20;
+    static final int RESCUER_NAME = 24;
+    static final int RESCUER_CONTACT_NUM = 28;
+    static final int LATITUDE = 32;     // since version 2
+    static final int LONGITUDE = 36;    // since version 2
+    static final int HISTORY = 40;      // since version 3: index of the first entry of the status history
+    static final int HISTORY_SIZE = 44; // since version 3: number of entries in the status history
+
+    private BinaryFormat() {
+    }
+}
@@ -0,0 +1,214 @@
+package persistence;
+
+import exceptions.InvalidIdCodeException;
+import exceptions.InvalidNumPeopleException;
+import model.Alert;
+import model.AlertStatus;
+import model.RescueAlerts;
+import model.StatusHistory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import static persistence.BinaryFormat.*;
+
+// Represents a reader that reads rescue alerts from a memory-mapped binary snapshot stored in file (see
+// BinaryFormat). Alerts read from snapshots older than version 3 have empty status histories.
+public class BinaryReader {
+    private static final AlertStatus[] STATUSES = AlertStatus.values();
+    private String source;
+    private ByteBuffer buffer;
+    private int numAlerts;
+    private int recordSize;
+    private int stringOffsets;
+    private int stringBytes;
+    private int historyEntries;
+    private int numEntries;
+    private String[] strings;
+
+    // EFFECTS: constructs reader to read from source file
+    public BinaryReader(String source) {
+        this.source = source;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: maps source file into memory and checks that it is a binary snapshot;
+    //          throws IOException if an error occurs reading the file or if it is not a valid snapshot
+    public void open() throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a rescue alerts snapshot: " + source);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        readLayout();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the positions of the parts of the snapshot from its header;
+    //          throws IOException if it is not a valid snapshot
+    private void readLayout() throws IOException {
+        int version = buffer.getInt(4);
+        if (buffer.getInt(0) != MAGIC || version < VERSION_1 || version > VERSION) {
+            throw new IOException("Not a rescue alerts snapshot: " + source);
+        }
+        recordSize = version == VERSION_1 ? RECORD_SIZE_V1 : (version == VERSION_2 ? RECORD_SIZE_V2 : RECORD_SIZE);
+        numAlerts = buffer.getInt(NUM_ALERTS);
+        int numStrings = buffer.getInt(NUM_STRINGS);
+        numEntries = version == VERSION ? buffer.getInt(NUM_ENTRIES) : 0;
+        long offsets = HEADER_SIZE + (long) numAlerts * recordSize;
+        long bytes = offsets + 4L * (numStrings + 1);
+        if (numAlerts < 0 || numStrings < 0 || numEntries < 0 || bytes > buffer.limit()
+                || bytes + buffer.getInt((int) offsets + 4 * numStrings) + (long) numEntries * ENTRY_SIZE
+                > buffer.limit()) {
+            throw new IOException("Truncated rescue alerts snapshot: " + source);
+        }
+        stringOffsets = (int) offsets;
+        stringBytes = (int) bytes;
+        historyEntries = stringBytes + buffer.getInt(stringOffsets + 4 * numStrings);
+        strings = new String[numStrings];
+    }
+
+    // REQUIRES: this is open
+    // EFFECTS: returns the name of the rescue alerts in the snapshot
+    public String getName() {
+        return getString(buffer.getInt(NAME));
+    }
+
+    // REQUIRES: this is open
+    // EFFECTS: returns the number of alerts in the snapshot
+    public int getNumAlerts() {
+        return numAlerts;
+    }
+
+    // REQUIRES: this is open
+    // EFFECTS: decodes and returns the alert in the snapshot with the given id code.
+    //          if there is no such alert, throws InvalidIdCodeException; throws IOException if its record is corrupt
+    public Alert getAlertById(int idCode) throws InvalidIdCodeException, IOException {
+        int low = 0;
+        int high = numAlerts - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midIdCode = buffer.getInt(record(mid) + ID_CODE);
+            if (midIdCode < idCode) {
+                low = mid + 1;
+            } else if (midIdCode > idCode) {
+                high = mid - 1;
+            } else {
+                Alert alert = decode(mid);
+                if (alert == null) {
+                    throw new InvalidIdCodeException();
+                }
+                return alert;
+            }
+        }
+        throw new InvalidIdCodeException();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads rescue alerts from file and returns it, opening this reader if it is not open yet;
+    //          throws IOException if an error occurs reading the file or if it is not a valid snapshot
+    public RescueAlerts read() throws IOException {
+        if (buffer == null) {
+            open();
+        }
+        RescueAlerts ra = new RescueAlerts(getName());
+        for (int i = 0; i < numAlerts; i++) {
+            ra.restoreAlert(decode(i));
+        }
+        return ra;
+    }
+
+    // EFFECTS: returns the position of the i-th record
+    private int record(int i) {
+        return HEADER_SIZE + i * recordSize;
+    }
+
+    // EFFECTS: decodes the i-th record and returns it as an alert.
+    //          if the alert has an invalid number of people, returns null; throws IOException if the record has
+    //          an invalid status or status history
+    private Alert decode(int i) throws IOException {
+        int start = record(i);
+        Alert alert = null;
+        try {
+            alert = new Alert(getString(buffer.getInt(start + ALERT_NAME)),
+                    getString(buffer.getInt(start + CONTACT_NUM)),
+                    getString(buffer.getInt(start + LOCATION)),
+                    getCoordinate(start, LATITUDE),
+                    getCoordinate(start, LONGITUDE),
+                    buffer.getInt(start + NUM_PEOPLE),
+                    buffer.get(start + IS_URGENT) != 0);
+            alert.setIdCode(buffer.getInt(start + ID_CODE));
+            alert.restoreStatus(getStatus(start + STATUS), getHistory(start));
+            alert.setRescuerName(getString(buffer.getInt(start + RESCUER_NAME)));
+            alert.setRescuerContactNum(getString(buffer.getInt(start + RESCUER_CONTACT_NUM)));
+        } catch (InvalidNumPeopleException e) {
+            System.out.println("This is okay");
+        }
+        return alert;
+    }
+
+    // EFFECTS: returns the status whose ordinal is the byte at position; throws IOException if there is none
+    private AlertStatus getStatus(int position) throws IOException {
+        int ordinal = buffer.get(position);
+        if (ordinal < 0 || ordinal >= STATUSES.length) {
+            throw new IOException("Corrupt rescue alerts snapshot, no status " + ordinal + ": " + source);
+        }
+        return STATUSES[ordinal];
+    }
+
+    // EFFECTS: returns the status history of the record at start, or an empty history if the record has none;
+    //          throws IOException if its entries are not in the history table or are invalid
+    private StatusHistory getHistory(int start) throws IOException {
+        StatusHistory history = new StatusHistory();
+        if (recordSize < HISTORY_SIZE + 4) {
+            return history;
+        }
+        int first = buffer.getInt(start + HISTORY);
+        int size = buffer.getInt(start + HISTORY_SIZE);
+        if (first < 0 || size < 0 || (long) first + size > numEntries) {
+            throw new IOException("Corrupt rescue alerts snapshot, bad status history: " + source);
+        }
+        for (int entry = historyEntries + first * ENTRY_SIZE; size > 0; entry += ENTRY_SIZE, size--) {
+            long time = buffer.getLong(entry);
+            if (time < 0) {
+                throw new IOException("Corrupt rescue alerts snapshot, bad status history: " + source);
+            }
+            history.restore(getStatus(entry + 8), time);
+        }
+        return history;
+    }
+
+    // EFFECTS: returns the coordinate at the given offset of the record at start in degrees, or NaN if the
+    //          record has no coordinates
+    private double getCoordinate(int start, int offset) {
+        if (recordSize < offset + 4) {
+            return Double.NaN;
+        }
+        int units = buffer.getInt(start + offset);
+        return units == NO_COORDINATE ? Double.NaN : units * COORDINATE_UNIT;
+    }
+
+    // EFFECTS: returns the string at the given index of the string table, or null if index is NULL_STRING
+    private String getString(int index) {
+        if (index == NULL_STRING) {
+            return null;
+        }
+        String s = strings[index];
+        if (s == null) {
+            int from = buffer.getInt(stringOffsets + 4 * index);
+            int to = buffer.getInt(stringOffsets + 4 * (index + 1));
+            byte[] bytes = new byte[to - from];
+            ByteBuffer view = buffer.duplicate();
+            view.position(stringBytes + from);
+            view.get(bytes);
+            s = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = s;
+        }
+        return s;
+    }
+}
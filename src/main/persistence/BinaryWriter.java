@@ -0,0 +1,173 @@
+package persistence;
+
+import model.Alert;
+import model.RescueAlerts;
+import model.StatusHistory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static persistence.BinaryFormat.*;
+
+// Represents a writer that writes rescue alerts to file in the compact binary snapshot format (see BinaryFormat).
+public class BinaryWriter {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private DataOutputStream writer;
+    private String destination;
+
+    // EFFECTS: constructs writer to write to destination file
+    public BinaryWriter(String destination) {
+        this.destination = destination;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
+    // be opened for writing
+    public void open() throws FileNotFoundException {
+        writer = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(destination), BUFFER_SIZE));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes binary snapshot of rescue alerts to file;
+    //          throws IOException if an error occurs writing to file
+    public void write(RescueAlerts ra) throws IOException {
+        List<Alert> alerts = new ArrayList<>(ra.getAllAlerts());
+        alerts.sort(Comparator.comparingInt(Alert::getIdCode));
+        StringTable strings = new StringTable();
+        HistoryTable histories = new HistoryTable();
+        int name = strings.indexOf(ra.getName());
+        ByteBuffer records = ByteBuffer.allocate(alerts.size() * RECORD_SIZE);
+        for (Alert a : alerts) {
+            encode(a, records, strings, histories);
+        }
+        writer.writeInt(MAGIC);
+        writer.writeInt(VERSION);
+        writer.writeInt(alerts.size());
+        writer.writeInt(strings.size());
+        writer.writeInt(name);
+        writer.writeInt(histories.size());
+        writer.write(records.array());
+        strings.write(writer);
+        histories.write(writer);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes writer; throws IOException if an error occurs writing to file
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    // MODIFIES: records, strings, histories
+    // EFFECTS: encodes a as the next record in records, adding its strings to strings and the entries of its
+    //          status history to histories
+    private void encode(Alert a, ByteBuffer records, StringTable strings, HistoryTable histories) {
+        int start = records.position();
+        StatusHistory history = a.getStatusHistory();
+        int numEntries = history.size();
+        records.putInt(start + HISTORY, histories.add(history, numEntries));
+        records.putInt(start + HISTORY_SIZE, numEntries);
+        records.putInt(start + ID_CODE, a.getIdCode());
+        records.putInt(start + NUM_PEOPLE, a.getNumPeople());
+        records.put(start + STATUS, (byte) a.getStatus().ordinal());
+        records.put(start + IS_URGENT, (byte) (a.isUrgent() ? 1 : 0));
+        records.putInt(start + ALERT_NAME, strings.indexOf(a.getName()));
+        records.putInt(start + CONTACT_NUM, strings.indexOf(a.getContactNum()));
+        records.putInt(start + LOCATION, strings.indexOf(a.getLocation()));
+        records.putInt(start + RESCUER_NAME, strings.indexOf(a.getRescuerName()));
+        records.putInt(start + RESCUER_CONTACT_NUM, strings.indexOf(a.getRescuerContactNum()));
+        records.putInt(start + LATITUDE, a.hasCoordinates() ? toUnits(a.getLatitude()) : NO_COORDINATE);
+        records.putInt(start + LONGITUDE, a.hasCoordinates() ? toUnits(a.getLongitude()) : NO_COORDINATE);
+        records.position(start + RECORD_SIZE);
+    }
+
+    // REQUIRES: -180 <= degrees <= 180
+    // EFFECTS: returns degrees in units of COORDINATE_UNIT, rounded to the nearest unit
+    private static int toUnits(double degrees) {
+        return (int) Math.round(degrees / COORDINATE_UNIT);
+    }
+
+    // Represents the distinct strings of a snapshot, in the order they were first seen
+    private static class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<byte[]> encoded = new ArrayList<>();
+
+        // MODIFIES: this
+        // EFFECTS: returns the index of s in this table, adding s if it is not in it yet.
+        //          returns NULL_STRING if s is null
+        int indexOf(String s) {
+            if (s == null) {
+                return NULL_STRING;
+            }
+            Integer index = indexes.get(s);
+            if (index == null) {
+                index = encoded.size();
+                indexes.put(s, index);
+                encoded.add(s.getBytes(StandardCharsets.UTF_8));
+            }
+            return index;
+        }
+
+        // EFFECTS: returns the number of strings in this table
+        int size() {
+            return encoded.size();
+        }
+
+        // MODIFIES: out
+        // EFFECTS: writes the offsets of the strings followed by the strings themselves to out
+        void write(DataOutputStream out) throws IOException {
+            int offset = 0;
+            out.writeInt(offset);
+            for (byte[] bytes : encoded) {
+                offset += bytes.length;
+                out.writeInt(offset);
+            }
+            for (byte[] bytes : encoded) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    // Represents the entries of the status histories of a snapshot, in the order they were added
+    private static class HistoryTable {
+        private final List<StatusHistory> histories = new ArrayList<>();
+        private final List<Integer> numEntries = new ArrayList<>();
+        private int size;
+
+        // REQUIRES: n <= history.size()
+        // MODIFIES: this
+        // EFFECTS: adds the first n entries of history to the end of this table, and returns the index of the
+        //          first of them
+        int add(StatusHistory history, int n) {
+            histories.add(history);
+            numEntries.add(n);
+            size += n;
+            return size - n;
+        }
+
+        // EFFECTS: returns the number of entries in this table
+        int size() {
+            return size;
+        }
+
+        // MODIFIES: out
+        // EFFECTS: writes the entries of this table to out
+        void write(DataOutputStream out) throws IOException {
+            for (int h = 0; h < histories.size(); h++) {
+                for (int i = 0; i < numEntries.get(h); i++) {
+                    out.writeLong(histories.get(h).getTime(i));
+                    out.writeByte(histories.get(h).getStatus(i).ordinal());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package persistence;
+
+import metrics.MetricsRegistry;
+import model.AlertStatus;
+import model.RescueAlerts;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Represents a registry of the rescue alerts of several disasters, each kept in its own shard (a JSON snapshot and
+// journal, see AlertJournal) that is loaded the first time it is asked for. A manifest file lists every disaster.
+// The registry is safe to use from many threads at once.
+public class DisasterRegistry {
+    static final String MANIFEST = "manifest.json";
+    private static final AlertStatus[] STATUSES = AlertStatus.values();
+    private static final String TIME_TO_CLAIM = "alert_time_to_claim_seconds";
+    private static final String TIME_TO_RESCUE = "alert_time_to_rescue_seconds";
+
+    private final Path directory;
+    private final int syncEvery;
+    private final int compactEvery;
+    private final Map<String, Shard> shards;
+
+    // REQUIRES: syncEvery >= 1 and compactEvery >= 1
+    // EFFECTS: constructs a registry that keeps its shards and manifest in directory, with journals that are
+    //          forced to disk after every syncEvery records and compacted on save once they hold compactEvery
+    public DisasterRegistry(String directory, int syncEvery, int compactEvery) {
+        this.directory = Paths.get(directory);
+        this.syncEvery = syncEvery;
+        this.compactEvery = compactEvery;
+        shards = new ConcurrentSkipListMap<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates the directory if it does not exist and reads the manifest, if there is one;
+    //          throws IOException if an error occurs creating the directory or reading the manifest
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        Path manifest = directory.resolve(MANIFEST);
+        if (!Files.exists(manifest)) {
+            return;
+        }
+        JSONObject json = new JSONObject(new String(Files.readAllBytes(manifest), StandardCharsets.UTF_8));
+        JSONArray disasters = json.getJSONArray("disasters");
+        for (int i = 0; i < disasters.length(); i++) {
+            Shard shard = Shard.fromJson(disasters.getJSONObject(i));
+            shards.put(shard.name, shard);
+        }
+    }
+
+    // EFFECTS: returns the names of the disasters in this registry, in alphabetical order
+    public List<String> getNames() {
+        return Collections.unmodifiableList(new ArrayList<>(shards.keySet()));
+    }
+
+    // EFFECTS: returns true if this registry has a disaster with the given name
+    public boolean contains(String name) {
+        return shards.containsKey(name);
+    }
+
+    // EFFECTS: returns true if the alerts of the disaster with the given name have been loaded
+    public boolean isLoaded(String name) {
+        Shard shard = shards.get(name);
+        return shard != null && shard.alerts != null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the rescue alerts of the disaster with the given name, loading them from its shard if they
+    //          have not been loaded yet. if there is no such disaster, adds it with no alerts and records it in the
+    //          manifest. if the loaded alerts do not match the counts in the manifest (e.g. after a crash), records
+    //          their counts in the manifest. throws IOException if an error occurs reading the shard or writing the
+    //          manifest
+    public RescueAlerts get(String name) throws IOException {
+        Shard shard = shards.get(name);
+        if (shard == null) {
+            shard = add(name);
+        }
+        RescueAlerts alerts = shard.load(this);
+        if (shard.takeCountsChanged()) {
+            writeManifest();
+        }
+        return alerts;
+    }
+
+    // EFFECTS: returns the number of alerts with the given status in the disaster with the given name, without
+    //          loading it, or 0 if there is no such disaster
+    public int getNumAlerts(String name, AlertStatus status) {
+        Shard shard = shards.get(name);
+        return shard == null ? 0 : shard.getNumAlerts(status);
+    }
+
+    // EFFECTS: returns the number of alerts with the given status across every disaster, without loading any
+    public int getNumAlerts(AlertStatus status) {
+        int total = 0;
+        for (Shard shard : shards.values()) {
+            total += shard.getNumAlerts(status);
+        }
+        return total;
+    }
+
+    // EFFECTS: returns the number of people in alerts with the given status across every disaster, without
+    //          loading any
+    public int getNumPeople(AlertStatus status) {
+        int total = 0;
+        for (Shard shard : shards.values()) {
+            total += shard.getNumPeople(status);
+        }
+        return total;
+    }
+
+    // EFFECTS: returns the number of open (not RESCUED) alerts across every disaster, without loading any
+    public int getNumOpenAlerts() {
+        return getNumAlerts(AlertStatus.NEEDS_HELP) + getNumAlerts(AlertStatus.HELP_OTW);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes every change to the loaded disasters durable and records their counts in the manifest;
+    //          throws IOException if an error occurs writing the shards or the manifest
+    public synchronized void save() throws IOException {
+        for (Shard shard : shards.values()) {
+            shard.save();
+        }
+        writeManifest();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves every loaded disaster and the manifest, then closes the journals of the loaded disasters and
+    //          unloads them, so getting one of them afterwards loads it from its shard again and journals its
+    //          changes; throws IOException if an error occurs writing the shards or the manifest
+    public synchronized void close() throws IOException {
+        save();
+        for (Shard shard : shards.values()) {
+            shard.close();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a disaster with the given name and no alerts, unless another thread already has, records it in
+    //          the manifest and returns its shard; throws IOException if an error occurs writing the manifest
+    private synchronized Shard add(String name) throws IOException {
+        Shard shard = shards.get(name);
+        if (shard == null) {
+            shard = new Shard(name, uniqueFileName(name));
+            shards.put(name, shard);
+            writeManifest();
+        }
+        return shard;
+    }
+
+    // EFFECTS: returns a shard file name for the disaster with the given name that no other shard uses
+    private String uniqueFileName(String name) {
+        String base = toFileName(name);
+        String fileName = base;
+        for (int i = 2; isFileNameTaken(fileName); i++) {
+            fileName = base + "-" + i;
+        }
+        return fileName;
+    }
+
+    // EFFECTS: returns true if a shard already uses fileName
+    private boolean isFileNameTaken(String fileName) {
+        for (Shard shard : shards.values()) {
+            if (shard.fileName.equals(fileName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // EFFECTS: returns name in lower case, without accents, and with every run of other characters than letters
+    //          and digits replaced by a dash, ex. "Bagyong Ulysses (2020)" -> "bagyong-ulysses-2020"
+    static String toFileName(String name) {
+        String plain = Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        String fileName = plain.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+        return fileName.isEmpty() ? "disaster" : fileName;
+    }
+
+    // EFFECTS: writes the manifest to a temporary file and then moves it over the manifest, so a crash never
+    //          leaves a partial manifest; throws IOException if an error occurs writing the files
+    private synchronized void writeManifest() throws IOException {
+        JSONArray disasters = new JSONArray();
+        for (Shard shard : shards.values()) {
+            disasters.put(shard.toJson());
+        }
+        JSONObject json = new JSONObject();
+        json.put("disasters", disasters);
+        Path manifest = directory.resolve(MANIFEST);
+        Path temporary = directory.resolve(MANIFEST + ".tmp");
+        Files.write(temporary, json.toString(4).getBytes(StandardCharsets.UTF_8));
+        Files.move(temporary, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Represents the shard of one disaster: its files, the counts recorded for it in the manifest, and its
+    // alerts and journal once they are loaded
+    private static class Shard {
+        private final String name;
+        private final String fileName;
+        private final int[] numAlerts;
+        private final int[] numPeople;
+        private volatile RescueAlerts alerts;
+        private AlertJournal journal;
+        private boolean isCountsChanged;
+
+        // EFFECTS: creates the shard of the disaster with the given name, kept in files named fileName, with no
+        //          alerts
+        Shard(String name, String fileName) {
+            this.name = name;
+            this.fileName = fileName;
+            numAlerts = new int[STATUSES.length];
+            numPeople = new int[STATUSES.length];
+        }
+
+        // EFFECTS: returns the shard described by the given manifest entry
+        static Shard fromJson(JSONObject json) {
+            Shard shard = new Shard(json.getString("name"), json.getString("file"));
+            JSONObject alerts = json.getJSONObject("number of alerts");
+            JSONObject people = json.getJSONObject("number of people");
+            for (AlertStatus status : STATUSES) {
+                shard.numAlerts[status.ordinal()] = alerts.optInt(status.name());
+                shard.numPeople[status.ordinal()] = people.optInt(status.name());
+            }
+            return shard;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: loads the alerts of this shard from its files in registry's directory, unless they are
+        //          already loaded, and returns them; throws IOException if an error occurs reading the files
+        synchronized RescueAlerts load(DisasterRegistry registry) throws IOException {
+            if (alerts == null) {
+                Path stem = registry.directory.resolve(fileName);
+                AlertJournal loading = new AlertJournal(stem + ".json", stem + ".journal",
+                        registry.syncEvery, registry.compactEvery);
+                alerts = loading.recover(name);
+                journal = loading;
+                isCountsChanged = recordCounts();
+                registerMetrics();
+            }
+            return alerts;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: returns true if the counts of this shard changed when its alerts were last loaded and have not
+        //          been recorded in the manifest since, and forgets that they changed
+        synchronized boolean takeCountsChanged() {
+            boolean changed = isCountsChanged;
+            isCountsChanged = false;
+            return changed;
+        }
+
+        // EFFECTS: registers the histograms of the response times of the loaded alerts of this shard in the
+        //          default metrics registry, labelled with the name of the disaster
+        private void registerMetrics() {
+            MetricsRegistry metrics = MetricsRegistry.getDefault();
+            metrics.register(TIME_TO_CLAIM, "Time alerts took from being posted to being claimed",
+                    alerts.getTimeToClaim(), "disaster", name);
+            metrics.register(TIME_TO_RESCUE, "Time alerts took from being posted to being rescued",
+                    alerts.getTimeToRescue(), "disaster", name);
+        }
+
+        // EFFECTS: unregisters the histograms of the response times of the loaded alerts of this shard
+        private void unregisterMetrics() {
+            MetricsRegistry metrics = MetricsRegistry.getDefault();
+            metrics.unregister(TIME_TO_CLAIM, alerts.getTimeToClaim(), "disaster", name);
+            metrics.unregister(TIME_TO_RESCUE, alerts.getTimeToRescue(), "disaster", name);
+        }
+
+        // EFFECTS: returns the number of alerts with the given status, live if the alerts are loaded
+        int getNumAlerts(AlertStatus status) {
+            RescueAlerts loaded = alerts;
+            return loaded == null ? numAlerts[status.ordinal()] : loaded.getNumAlerts(status);
+        }
+
+        // EFFECTS: returns the number of people in alerts with the given status, live if the alerts are loaded
+        int getNumPeople(AlertStatus status) {
+            RescueAlerts loaded = alerts;
+            return loaded == null ? numPeople[status.ordinal()] : loaded.getNumPeople(status);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: if the alerts are loaded, makes every change to them durable and records their counts;
+        //          throws IOException if an error occurs writing the files
+        synchronized void save() throws IOException {
+            if (alerts != null) {
+                journal.save(alerts);
+                recordCounts();
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: records the counts of the loaded alerts and returns true if they differ from the ones recorded
+        private boolean recordCounts() {
+            boolean changed = false;
+            for (AlertStatus status : STATUSES) {
+                int i = status.ordinal();
+                changed |= numAlerts[i] != alerts.getNumAlerts(status) || numPeople[i] != alerts.getNumPeople(status);
+                numAlerts[i] = alerts.getNumAlerts(status);
+                numPeople[i] = alerts.getNumPeople(status);
+            }
+            return changed;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: closes the journal of the alerts, unregisters their metrics and unloads them, if they are
+        //          loaded, so they are never handed out again without a journal; throws IOException if an error occurs
+        synchronized void close() throws IOException {
+            if (journal != null) {
+                try {
+                    journal.close();
+                } finally {
+                    unregisterMetrics();
+                    journal = null;
+                    alerts = null;
+                }
+            }
+        }
+
+        // EFFECTS: returns the manifest entry of this shard, with the counts recorded at the last save
+        synchronized JSONObject toJson() {
+            JSONObject alertCounts = new JSONObject();
+            JSONObject peopleCounts = new JSONObject();
+            for (AlertStatus status : STATUSES) {
+                alertCounts.put(status.name(), numAlerts[status.ordinal()]);
+                peopleCounts.put(status.name(), numPeople[status.ordinal()]);
+            }
+            JSONObject json = new JSONObject();
+            json.put("name", name);
+            json.put("file", fileName);
+            json.put("number of alerts", alertCounts);
+            json.put("number of people", peopleCounts);
+            return json;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package persistence;
 
 import exceptions.InvalidNumPeopleException;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
 import model.Alert;
 import model.AlertStatus;
 import model.RescueAlerts;
+import model.StatusHistory;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -16,6 +19,8 @@ import java.util.stream.Stream;
 // Represents a reader that reads rescue alerts from JSON data stored in file
 // note: this class was modeled after the JsonSerializationDemo sample project
 public class JsonReader {
+    private static final Histogram READ_TIME = MetricsRegistry.getDefault().histogram("json_read_seconds",
+            "Time taken to read rescue alerts from a JSON file", Histogram.latencyBounds(), "reader", "document");
     private String source;
 
     // EFFECTS: constructs reader to read from source file
@@ -26,9 +31,12 @@ public class JsonReader {
     // EFFECTS: reads rescue alerts from file and returns it;
     // throws IOException if an error occurs reading data from file
     public RescueAlerts read() throws IOException {
+        long start = System.nanoTime();
         String jsonData = readFile(source);
         JSONObject jsonObject = new JSONObject(jsonData);
-        return parseRescueAlerts(jsonObject);
+        RescueAlerts ra = parseRescueAlerts(jsonObject);
+        READ_TIME.recordSince(start);
+        return ra;
     }
 
     // EFFECTS: reads source file as string and returns it
@@ -61,8 +69,14 @@ public class JsonReader {
     }
 
     // MODIFIES: ra
-    // EFFECTS: parses alert from JSON object and adds it to rescue alerts
+    // EFFECTS: parses alert from JSON object and adds it to rescue alerts, keeping its id code
     private void addAlert(RescueAlerts ra, JSONObject jsonObject) {
+        ra.restoreAlert(parseAlert(jsonObject));
+    }
+
+    // EFFECTS: parses alert from JSON object and returns it.
+    //          if the alert has an invalid number of people, returns null
+    static Alert parseAlert(JSONObject jsonObject) {
         int idCode = jsonObject.getInt("id code");
         AlertStatus status = AlertStatus.valueOf(jsonObject.getString("status"));
         String name = jsonObject.getString("name");
@@ -70,23 +84,32 @@ public class JsonReader {
         String location = jsonObject.getString("location");
         int numPeople = jsonObject.getInt("number of people");
         boolean isUrgent = jsonObject.getBoolean("is urgent?");
+        double latitude = jsonObject.optDouble("latitude", Double.NaN);
+        double longitude = jsonObject.optDouble("longitude", Double.NaN);
         String rescuerName = getNull(jsonObject, "name of rescuer");
         String rescuerContactNum = getNull(jsonObject, "contact number of rescuer");
         Alert alert = null;
         try {
-            alert = new Alert(name, contactNum, location, numPeople, isUrgent);
+            alert = new Alert(name, contactNum, location, latitude, longitude, numPeople, isUrgent);
             alert.setIdCode(idCode);
-            alert.setStatus(status);
+            alert.restoreStatus(status, parseStatusHistory(jsonObject));
             alert.setRescuerName(rescuerName);
             alert.setRescuerContactNum(rescuerContactNum);
         } catch (InvalidNumPeopleException e) {
             System.out.println("This is okay");
         }
-        ra.addAlert(alert);
+        return alert;
+    }
+
+    // EFFECTS: parses the status history of the alert in jsonObject and returns it. alerts saved before status
+    //          histories were kept have none, and get an empty history
+    static StatusHistory parseStatusHistory(JSONObject jsonObject) {
+        JSONArray history = jsonObject.optJSONArray("status history");
+        return history == null ? new StatusHistory() : StatusHistory.fromJson(history);
     }
 
     // EFFECTS: if jsonObject is null, returns null. otherwise, returns the jsonObject string that corresponds to key s
-    private String getNull(JSONObject jsonObject, String s) {
+    private static String getNull(JSONObject jsonObject, String s) {
         if (jsonObject.isNull(s)) {
             return null;
         } else {
@@ -0,0 +1,114 @@
+package persistence;
+
+import metrics.Histogram;
+import metrics.MetricsRegistry;
+import model.RescueAlerts;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+// Represents a reader that reads rescue alerts from JSON data stored in file one alert at a time, without holding
+// the whole file in memory. It reads the same file format that JsonReader reads and JsonWriter writes.
+public class JsonStreamReader {
+    private static final Histogram READ_TIME = MetricsRegistry.getDefault().histogram("json_read_seconds",
+            "Time taken to read rescue alerts from a JSON file", Histogram.latencyBounds(), "reader", "stream");
+    private String source;
+
+    // EFFECTS: constructs reader to read from source file
+    public JsonStreamReader(String source) {
+        this.source = source;
+    }
+
+    // EFFECTS: reads rescue alerts from file and returns it;
+    // throws IOException if an error occurs reading data from file
+    public RescueAlerts read() throws IOException {
+        return read(new RescueAlerts(""));
+    }
+
+    // REQUIRES: ra has no alerts
+    // MODIFIES: ra
+    // EFFECTS: reads rescue alerts from file into ra and returns it, so that observers of ra see every alert
+    //          as soon as it is read; throws IOException if an error occurs reading data from file, or
+    //          InterruptedIOException if the current thread is interrupted while reading
+    public RescueAlerts read(RescueAlerts ra) throws IOException {
+        long start = System.nanoTime();
+        readInto(ra);
+        READ_TIME.recordSince(start);
+        return ra;
+    }
+
+    // MODIFIES: ra
+    // EFFECTS: reads rescue alerts from file into ra;  throws IOException if an error occurs reading data from
+    //          file, or InterruptedIOException if the current thread is interrupted while reading
+    private void readInto(RescueAlerts ra) throws IOException {
+        try (Reader reader = Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8)) {
+            JSONTokener tokener = new JSONTokener(reader);
+            expect(tokener, '{');
+            if (tokener.nextClean() == '}') {
+                return;
+            }
+            tokener.back();
+            do {
+                readMember(tokener, ra);
+            } while (hasNext(tokener, '}'));
+        }
+    }
+
+    // MODIFIES: ra
+    // EFFECTS: reads the next "key": value member of the top-level JSON object into ra.
+    //          members other than "name" and "alerts" are skipped
+    private void readMember(JSONTokener tokener, RescueAlerts ra) throws IOException {
+        String key = tokener.nextValue().toString();
+        expect(tokener, ':');
+        if (key.equals("alerts")) {
+            readAlerts(tokener, ra);
+        } else if (key.equals("name")) {
+            ra.setName(tokener.nextValue().toString());
+        } else {
+            tokener.nextValue();
+        }
+    }
+
+    // MODIFIES: ra
+    // EFFECTS: reads the JSON array of alerts one alert at a time, adding each alert to ra as soon as it is read.
+    //          throws InterruptedIOException if the current thread is interrupted
+    private void readAlerts(JSONTokener tokener, RescueAlerts ra) throws IOException {
+        expect(tokener, '[');
+        if (tokener.nextClean() == ']') {
+            return;
+        }
+        tokener.back();
+        do {
+            if (Thread.interrupted()) {
+                throw new InterruptedIOException("Reading " + source + " was interrupted");
+            }
+            JSONObject nextAlert = (JSONObject) tokener.nextValue();
+            ra.restoreAlert(JsonReader.parseAlert(nextAlert));
+        } while (hasNext(tokener, ']'));
+    }
+
+    // EFFECTS: consumes the separator after a value; returns true if another value follows
+    //          and false if the enclosing object or array ends with the given closing character
+    private boolean hasNext(JSONTokener tokener, char closing) {
+        char c = tokener.nextClean();
+        if (c == ',') {
+            return true;
+        } else if (c == closing) {
+            return false;
+        }
+        throw tokener.syntaxError("Expected ',' or '" + closing + "'");
+    }
+
+    // EFFECTS: consumes the next non-whitespace character, which must be the expected character
+    private void expect(JSONTokener tokener, char expected) {
+        if (tokener.nextClean() != expected) {
+            throw tokener.syntaxError("Expected '" + expected + "'");
+        }
+    }
+}
@@ -1,36 +1,102 @@
 package persistence;
 
+import metrics.Counter;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
+import model.Alert;
 import model.RescueAlerts;
 import org.json.JSONObject;
 
-import java.io.File;
+import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 // Represents a writer that writes JSON representation of rescue alerts to file
 // note: this class was modeled after the JsonSerializationDemo sample project
 public class JsonWriter {
     private static final int TAB = 4;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final Histogram WRITE_TIME = MetricsRegistry.getDefault().histogram("json_write_seconds",
+            "Time taken to write rescue alerts to a JSON file", Histogram.latencyBounds());
+    private static final Counter ALERTS_WRITTEN = MetricsRegistry.getDefault().counter("json_alerts_written_total",
+            "Alerts written to JSON files");
+    private FileOutputStream stream;
     private PrintWriter writer;
     private String destination;
+    private boolean isPrettyPrinted;
 
-    // EFFECTS: constructs writer to write to destination file
+    // EFFECTS: constructs writer to write pretty-printed JSON to destination file
     public JsonWriter(String destination) {
+        this(destination, true);
+    }
+
+    // EFFECTS: constructs writer to write to destination file, pretty-printed if isPrettyPrinted is true
+    //          and as compact as possible otherwise
+    public JsonWriter(String destination, boolean isPrettyPrinted) {
         this.destination = destination;
+        this.isPrettyPrinted = isPrettyPrinted;
     }
 
     // MODIFIES: this
     // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
     // be opened for writing
     public void open() throws FileNotFoundException {
-        writer = new PrintWriter(new File(destination));
+        stream = new FileOutputStream(destination);
+        writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8),
+                BUFFER_SIZE));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: flushes everything written so far and forces it to disk; throws IOException if an error occurred
+    //          writing any of it (e.g. the disk is full) or forcing it
+    public void sync() throws IOException {
+        if (writer.checkError()) {
+            throw new IOException("Error writing " + destination);
+        }
+        stream.getChannel().force(true);
     }
 
     // MODIFIES: this
-    // EFFECTS: writes JSON representation of rescue alerts to file
+    // EFFECTS: writes JSON representation of rescue alerts to file, one alert at a time
     public void write(RescueAlerts ra) {
-        JSONObject json = ra.toJson();
-        saveToFile(json.toString(TAB));
+        long start = System.nanoTime();
+        String space = isPrettyPrinted ? " " : "";
+        writer.print("{");
+        newLine(1);
+        writer.print("\"name\":" + space + JSONObject.quote(ra.getName()) + ",");
+        newLine(1);
+        writer.print("\"alerts\":" + space + "[");
+        List<Alert> alerts = ra.getAllAlerts();
+        writeAlerts(alerts);
+        writer.print("]");
+        newLine(0);
+        writer.print("}");
+        ALERTS_WRITTEN.add(alerts.size());
+        WRITE_TIME.recordSince(start);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the JSON representation of each of alerts to file, separated by commas
+    private void writeAlerts(List<Alert> alerts) {
+        for (int i = 0; i < alerts.size(); i++) {
+            if (i > 0) {
+                writer.print(",");
+            }
+            newLine(2);
+            if (isPrettyPrinted) {
+                alerts.get(i).toJson().write(writer, TAB, 2 * TAB);
+            } else {
+                alerts.get(i).toJson().write(writer);
+            }
+        }
+        if (!alerts.isEmpty()) {
+            newLine(1);
+        }
     }
 
     // MODIFIES: this
@@ -40,10 +106,13 @@ public class JsonWriter {
     }
 
     // MODIFIES: this
-    // EFFECTS: writes string to file
-    private void saveToFile(String json) {
-        writer.print(json);
+    // EFFECTS: if pretty-printing, starts a new line indented by the given number of levels
+    private void newLine(int levels) {
+        if (isPrettyPrinted) {
+            writer.print('\n');
+            for (int i = 0; i < levels * TAB; i++) {
+                writer.print(' ');
+            }
+        }
     }
-
-
 }
@@ -0,0 +1,33 @@
+package persistence;
+
+import model.RescueAlerts;
+
+import java.io.IOException;
+
+// Represents a converter between the JSON format of rescue alerts and the binary snapshot format.
+// Alerts keep their id codes, statuses, status histories and rescuers in either direction.
+public class SnapshotConverter {
+
+    // EFFECTS: reads rescue alerts from the JSON file jsonSource and writes them to binaryDestination
+    //          as a binary snapshot; throws IOException if an error occurs reading or writing the files
+    public static void jsonToBinary(String jsonSource, String binaryDestination) throws IOException {
+        RescueAlerts ra = new JsonStreamReader(jsonSource).read();
+        BinaryWriter writer = new BinaryWriter(binaryDestination);
+        writer.open();
+        try {
+            writer.write(ra);
+        } finally {
+            writer.close();
+        }
+    }
+
+    // EFFECTS: reads rescue alerts from the binary snapshot binarySource and writes them to jsonDestination
+    //          as JSON; throws IOException if an error occurs reading or writing the files
+    public static void binaryToJson(String binarySource, String jsonDestination) throws IOException {
+        RescueAlerts ra = new BinaryReader(binarySource).read();
+        JsonWriter writer = new JsonWriter(jsonDestination);
+        writer.open();
+        writer.write(ra);
+        writer.close();
+    }
+}
@@ -0,0 +1,40 @@
+package ui;
+
+import model.Alert;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Represents a notifier that only shows its notifications on the console, for the operator; nothing is sent to
+// the people who posted the alerts
+public class ConsoleNotifier implements Notifier {
+    private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+
+    // MODIFIES: this
+    // EFFECTS: keeps a notification that the rescuer of alert is on the way, to be printed later
+    @Override
+    public void alertClaimed(Alert alert) {
+        pending.add(header(alert) + alert.getRescuerName() + " (" + alert.getRescuerContactNum()
+                + ") is on the way to " + alert.getLocation());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: keeps a notification that alert has been marked rescued, to be printed later
+    @Override
+    public void alertRescued(Alert alert) {
+        pending.add(header(alert) + "alert " + alert.getFormattedIdCode() + " has been marked rescued");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: prints the notifications kept since the last call, oldest first, and forgets them
+    public void printPending() {
+        for (String message = pending.poll(); message != null; message = pending.poll()) {
+            System.out.println(message);
+        }
+    }
+
+    // EFFECTS: returns the start of a notification for the person who posted alert
+    private static String header(Alert alert) {
+        return "Notification for " + alert.getContactNum() + " (shown here only, not sent): ";
+    }
+}
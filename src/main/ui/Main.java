@@ -1,18 +1,69 @@
 package ui;
 
-import exceptions.InvalidNumPeopleException;
-import model.Alert;
+import persistence.DisasterRegistry;
+import ui.server.AlertServer;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.InetAddress;
 
-// Runs the Disaster Rescue Alerts Application
+// Runs the Disaster Rescue Alerts Application, or with "server [port [address]]" as arguments, the headless alert
+// server, listening on the loopback address unless another address (e.g. 0.0.0.0 for every address) is given
 // note: this class was modeled after the JsonSerializationDemo sample project
 public class Main {
+    private static final String DISASTERS_STORE = "./data/disasters";
+    private static final int DEFAULT_PORT = 8080;
+    private static final int SYNC_EVERY = 1;
+    private static final int COMPACT_EVERY = 1000;
+    private static final String USAGE = "Usage: java ui.Main [server [port [address]]]";
+
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("server")) {
+            int port = args.length > 1 ? parsePort(args[1]) : DEFAULT_PORT;
+            if (port < 0 || args.length > 3) {
+                System.out.println(USAGE);
+            } else {
+                runServer(port, args.length > 2 ? args[2] : null);
+            }
+            return;
+        }
         try {
             new RescueApp();
         } catch (FileNotFoundException e) {
             System.out.println("Unable to run application: file not found");
         }
     }
+
+    // EFFECTS: returns the port given by s, or -1 if s is not a port number from 0 to 65535
+    private static int parsePort(String s) {
+        try {
+            int port = Integer.parseInt(s);
+            return port >= 0 && port <= 65535 ? port : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // EFFECTS: serves the disasters in DISASTERS_STORE on the given port of address (or of the loopback address
+    //          if address is null) until the JVM is shut down, then saves them
+    private static void runServer(int port, String address) {
+        try {
+            DisasterRegistry registry = new DisasterRegistry(DISASTERS_STORE, SYNC_EVERY, COMPACT_EVERY);
+            registry.open();
+            AlertServer server = address == null ? new AlertServer(registry, port)
+                    : new AlertServer(registry, InetAddress.getByName(address), port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop(1);
+                try {
+                    registry.close();
+                } catch (IOException e) {
+                    System.out.println("Unable to save disasters to: " + DISASTERS_STORE);
+                }
+            }));
+            server.start();
+            System.out.println("Serving rescue alerts on " + server.getAddress());
+        } catch (IOException e) {
+            System.out.println("Unable to run server: " + e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,12 @@
+package ui;
+
+import model.Alert;
+
+// Represents a way of telling the people who posted alerts that their alerts were claimed or rescued
+public interface Notifier {
+    // EFFECTS: tells the person who posted alert that its rescuer is on the way
+    void alertClaimed(Alert alert);
+
+    // EFFECTS: tells the person who posted alert that it has been marked rescued
+    void alertRescued(Alert alert);
+}
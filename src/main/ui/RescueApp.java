@@ -3,35 +3,59 @@ package ui;
 import exceptions.AlreadyRescuedException;
 import exceptions.InvalidIdCodeException;
 import exceptions.InvalidNumPeopleException;
+import metrics.MetricsRegistry;
 import model.Alert;
+import model.AlertEvent;
+import model.AlertEventBus;
+import model.AlertSearchIndex;
 import model.AlertStatus;
+import model.DispatchQueue;
+import model.DuplicatePolicy;
+import model.EscalationScheduler;
 import model.RescueAlerts;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import persistence.AlertJournal;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Queue;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 // A Disaster Rescue Alerts Application
 public class RescueApp {
     private static final String JSON_STORE = "./data/rescueAlerts.json";
+    private static final String JOURNAL_STORE = "./data/rescueAlerts.journal";
+    private static final String METRICS_STORE = "./data/metrics.prom";
+    private static final long CLAIM_DEADLINE = 60 * 60 * 1000;       // urgent alerts should be claimed in 1 hour
+    private static final long RESCUE_DEADLINE = 4 * 60 * 60 * 1000;  // claimed alerts should be rescued in 4 hours
+    private static final int SYNC_EVERY = 1000;    // the journal is forced to disk by a subscriber of the bus
+    private static final int COMPACT_EVERY = 1000;
+    private static final int EVENT_BUS_CAPACITY = 4096;
+    private static final int EVENT_BATCH_SIZE = 256;
     private Scanner input;
     private RescueAlerts rescueAlerts;
+    private DispatchQueue dispatchQueue;
+    private AlertSearchIndex searchIndex;
+    private AlertEventBus bus;
+    private EscalationScheduler escalations;
+    private final Queue<String> overdue = new ConcurrentLinkedQueue<>();
+    private final ConsoleNotifier notifier = new ConsoleNotifier();
     private Alert first;
     private Alert second;
     private Alert third;
-    private JsonWriter jsonWriter;
-    private JsonReader jsonReader;
+    private AlertJournal journal;
 
     // EFFECTS: runs the rescue alerts application, with initialized Alerts
     public RescueApp() throws FileNotFoundException {
         input = new Scanner(System.in);
         rescueAlerts = new RescueAlerts("Typhoon Ulysses");
-        jsonWriter = new JsonWriter(JSON_STORE);
-        jsonReader = new JsonReader(JSON_STORE);
+        dispatchQueue = new DispatchQueue(rescueAlerts);
+        searchIndex = new AlertSearchIndex(rescueAlerts);
+        journal = new AlertJournal(JSON_STORE, JOURNAL_STORE, SYNC_EVERY, COMPACT_EVERY);
+        subscribeToChanges();
         runRescueAlerts();
         // init();
     }
@@ -57,6 +81,9 @@ public class RescueApp {
             }
         }
 
+        escalations.close();
+        bus.close();
+        closeJournal();
         System.out.println("\nThank you for keeping your kapwa kababayan safe! 🇵🇭✨");
     }
 
@@ -64,6 +91,8 @@ public class RescueApp {
     // EFFECTS: initializes the already posted alerts
     private void init() {
         rescueAlerts = new RescueAlerts("Typhoon Ulysses");
+        dispatchQueue = new DispatchQueue(rescueAlerts);
+        searchIndex = new AlertSearchIndex(rescueAlerts);
         input = new Scanner(System.in);
         try {
             first = new Alert("Jericho Rosales", "09172473475", "1432 Kaimito, Barangay Don Juan", 5, true);
@@ -80,6 +109,39 @@ public class RescueApp {
         first.setRescuerContactNum("09159876543");
     }
 
+    // MODIFIES: this
+    // EFFECTS: publishes the changes to the current rescue alerts on a new event bus, instead of those of the
+    //          rescue alerts before them, if any, and subscribes to it: forcing the journal to disk once per batch
+    //          of changes, escalating the alerts left waiting too long, and handing the alerts claimed or rescued
+    //          to the notifier. the escalations and the notifier's notifications are shown with the alerts
+    private void subscribeToChanges() {
+        if (bus != null) {
+            escalations.close();
+            bus.close();
+        }
+        bus = new AlertEventBus(rescueAlerts, EVENT_BUS_CAPACITY, EVENT_BATCH_SIZE);
+        bus.subscribe("journal", events -> journal.syncQuietly(), true);
+        bus.subscribe("notifications", this::notifyPosters, false);
+        escalations = new EscalationScheduler(bus, CLAIM_DEADLINE, RESCUE_DEADLINE,
+                EscalationScheduler.DEFAULT_TICK_MILLIS);
+        escalations.addListener((alert, status) -> overdue.add("!! Alert " + alert.getFormattedIdCode()
+                + (status == AlertStatus.NEEDS_HELP ? " is urgent and has not been claimed in over an hour"
+                : " has had help on the way for over 4 hours")));
+        escalations.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: notifies the person who posted each alert claimed or rescued in events
+    private void notifyPosters(List<AlertEvent> events) {
+        for (AlertEvent e : events) {
+            if (e.getType() == AlertEvent.Type.RESCUER_ASSIGNED && e.getAlert().hasRescuer()) {
+                notifier.alertClaimed(e.getAlert());
+            } else if (e.getType() == AlertEvent.Type.STATUS_CHANGED && e.getStatus() == AlertStatus.RESCUED) {
+                notifier.alertRescued(e.getAlert());
+            }
+        }
+    }
+
     // EFFECTS: displays a list of alerts posted so far with corresponding id codes, statuses, & locations
     private void displayAlerts() {
         DateTimeFormatter dtf = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm");
@@ -87,6 +149,15 @@ public class RescueApp {
 
         System.out.println("Mabuhay! \nHere are the rescue alerts for disaster "
                 + rescueAlerts.getName() + " as of " + dtf.format(now));
+        System.out.println(rescueAlerts.getNumAlerts(AlertStatus.NEEDS_HELP) + " need help ("
+                + rescueAlerts.getNumUrgentAlerts(AlertStatus.NEEDS_HELP) + " urgent, "
+                + rescueAlerts.getNumPeople(AlertStatus.NEEDS_HELP) + " people), "
+                + rescueAlerts.getNumAlerts(AlertStatus.HELP_OTW) + " have help on the way, "
+                + rescueAlerts.getNumAlerts(AlertStatus.RESCUED) + " rescued");
+        for (String message = overdue.poll(); message != null; message = overdue.poll()) {
+            System.out.println(message);
+        }
+        notifier.printPending();
         System.out.println(" ID | ⚪️ Status – Location ");
         for (Alert a : rescueAlerts.getAllAlerts()) {
             System.out.println(a.toString());
@@ -101,7 +172,10 @@ public class RescueApp {
         System.out.println("\ta -> add an alert");
         System.out.println("\tv -> view an alert in detail");
         System.out.println("\tr -> respond to an alert");
+        System.out.println("\td -> respond to the most urgent alert that needs help");
+        System.out.println("\tf -> find alerts by name or location");
         System.out.println("\ts -> save rescue alerts");
+        System.out.println("\tm -> show metrics");
         System.out.println("\tq -> quit");
     }
 
@@ -124,10 +198,24 @@ public class RescueApp {
             } catch (InvalidIdCodeException e) {
                 System.err.println("You have chosen a nonexistent Alert ID...\n");
             }
-        } else if ("l".equals(command)) {
+        } else if ("d".equals(command)) {
+            dispatchNextAlert();
+        } else if ("f".equals(command)) {
+            findAlerts();
+        } else {
+            processFileCommand(command);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: processes user command for loading or saving rescue alerts, or exporting metrics
+    private void processFileCommand(String command) {
+        if ("l".equals(command)) {
             loadRescueAlerts();
         } else if ("s".equals(command)) {
             saveRescueAlerts();
+        } else if ("m".equals(command)) {
+            displayMetrics();
         } else {
             System.out.println("Please enter a valid selection...");
         }
@@ -149,7 +237,7 @@ public class RescueApp {
     }
 
     // MODIFIES: this
-    // EFFECTS: adds a new alert to the list of posted rescue alerts
+    // EFFECTS: adds a new alert to the list of posted rescue alerts, unless the same alert is already posted
     //          if InvalidNumPeopleException is caught, throws it back up
     private void addAnAlert() throws InvalidNumPeopleException {
         input.nextLine(); // placeholder for proper user input
@@ -167,9 +255,11 @@ public class RescueApp {
 
         Alert newAlert = new Alert(Alert.formatAnonymous(name), number, location, numPeople,
                 formatYesOrNo(hasBabyElderlyDisabledInjured));
-        rescueAlerts.addAlert(newAlert);
-        System.out.println("You have successfully added a new alert:\n" + Alert.formatIdCode(newAlert.getIdCode())
-                + " | " + newAlert.getName() + " – " + newAlert.getLocation() + "\n");
+        Alert posted = rescueAlerts.submitAlert(newAlert, DuplicatePolicy.MERGE);
+        String message = posted == newAlert ? "You have successfully added a new alert:\n"
+                : "This alert has already been posted, and rescuers can see it here:\n";
+        System.out.println(message + posted.getFormattedIdCode()
+                + " | " + posted.getName() + " – " + posted.getLocation() + "\n");
     }
 
     // EFFECTS: displays selected alert in detail for user
@@ -205,43 +295,102 @@ public class RescueApp {
             isCorrect = formatYesOrNo(input.next());
         }
 
-        System.out.println("The status of Alert ID " + Alert.formatIdCode(selected.getIdCode())
-                + " is currently set to: " + Alert.formatStatus(selected.getStatus()));
+        AlertStatus current = selected.getStatus();
+        System.out.println("The status of Alert ID " + selected.getFormattedIdCode()
+                + " is currently set to: " + Alert.formatStatus(current));
         try {
             System.out.println("Would you like to set this alert to " + Alert.formatStatus(selected.getNextStatus())
                     + "?"
                     + " Type 'y' for yes and 'n' for no.");
             boolean isValidated = formatYesOrNo(input.next());
-            changeStatus(selected, isValidated);
+            changeStatus(selected, current, isValidated);
         } catch (AlreadyRescuedException e) {
             System.out.println("This Alert has already been rescued. Thank you for your support. 🌈✨\n");
         }
     }
 
     // MODIFIES: this
-    // EFFECTS: if isValidated is true, changes status of selected. if selected has no rescuer,
-    //          gives selected a rescuerName and rescuerContactNum and prints a message.
-    //          if selected has no rescuer, prints a message.
+    // EFFECTS: if isValidated is true, moves selected on from its current status. if current is NEEDS_HELP,
+    //          asks for the rescuer's name and contact number and claims selected for them.
+    //          otherwise advances selected, and if it has no rescuer, gives it a rescuerName and rescuerContactNum.
+    //          if another rescuer changed selected first, prints a message and does not modify selected.
     //          if isValidated is false, prints a message and does not modify selected.
-    private void changeStatus(Alert selected, boolean isValidated) throws AlreadyRescuedException {
+    private void changeStatus(Alert selected, AlertStatus current, boolean isValidated)
+            throws AlreadyRescuedException {
         if (isValidated) {
-            selected.setStatus(selected.getNextStatus());
             input.nextLine(); // placeholder for proper user input
-            if (!selected.hasRescuer()) {
+            boolean isChanged;
+            if (current == AlertStatus.NEEDS_HELP) {
                 System.out.println("What is your name?");
-                selected.setRescuerName(input.nextLine());
+                String name = input.nextLine();
                 System.out.println("What is your contact number?");
-                selected.setRescuerContactNum(input.nextLine());
+                isChanged = selected.claim(name, input.nextLine());
+            } else {
+                isChanged = selected.advance(current);
+                if (isChanged && !selected.hasRescuer()) {
+                    System.out.println("What is your name?");
+                    selected.setRescuerName(input.nextLine());
+                    System.out.println("What is your contact number?");
+                    selected.setRescuerContactNum(input.nextLine());
+                }
             }
+            printStatusChange(selected, isChanged);
+        } else {
+            System.out.println("You have opted not to respond to this alert.\n");
+        }
+    }
+
+    // EFFECTS: if isChanged is true, prints the new status of selected and thanks its rescuer.
+    //          otherwise, prints a message that another rescuer has already responded to selected
+    private void printStatusChange(Alert selected, boolean isChanged) {
+        if (isChanged) {
             System.out.println("You have successfully changed the status of Alert ID "
-                    + Alert.formatIdCode(selected.getIdCode()) + " to "
+                    + selected.getFormattedIdCode() + " to "
                     + Alert.formatStatus(selected.getStatus()) + ".");
             System.out.println("Thank you for your generous service, " + selected.getRescuerName() + " 🌈✨\n");
         } else {
-            System.out.println("You have opted not to respond to this alert.\n");
+            System.out.println("Another rescuer has already responded to Alert ID "
+                    + selected.getFormattedIdCode() + ". It is now "
+                    + Alert.formatStatus(selected.getStatus()) + ".\n");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: claims the open alert that most urgently needs help for the user and displays its details.
+    //          if no alert needs help, prints a message
+    private void dispatchNextAlert() {
+        input.nextLine(); // placeholder for proper user input
+        System.out.println("What is your name?");
+        String name = input.nextLine();
+        System.out.println("What is your contact number?");
+        Alert next = dispatchQueue.claimNext(name, input.nextLine());
+        if (next == null) {
+            System.out.println("No alerts need help right now. Thank you for your support. 🌈✨\n");
+        } else {
+            System.out.println("You are now responding to Alert ID " + next.getFormattedIdCode());
+            displayAlertDetails(next);
+            System.out.println("Thank you for your generous service, " + next.getRescuerName() + " 🌈✨\n");
         }
     }
 
+    // EFFECTS: displays the alerts whose name or location contain every word from user input,
+    //          where words may be abbreviated and accents may be left out
+    private void findAlerts() {
+        input.nextLine(); // placeholder for proper user input
+        System.out.println("What name or location are you looking for?");
+        String query = input.nextLine();
+        List<Alert> found = searchIndex.searchAlerts(query);
+        if (found.isEmpty()) {
+            System.out.println("No alerts match \"" + query + "\"...\n");
+            return;
+        }
+        System.out.println(found.size() + " alert(s) match \"" + query + "\":");
+        for (Alert a : found) {
+            System.out.println(a.toString());
+        }
+        System.out.println();
+    }
+
     // EFFECTS: returns an alert that matches the idCode from user input and displays its details
     //          if InvalidIdCodeException is caught, throws it back up
     private Alert selectAlert() throws InvalidIdCodeException {
@@ -249,7 +398,13 @@ public class RescueApp {
         int idCode = input.nextInt();
 
         Alert selected = rescueAlerts.getAlertById(idCode);
-        System.out.println("You have chosen Alert ID " + Alert.formatIdCode(selected.getIdCode()));
+        System.out.println("You have chosen Alert ID " + selected.getFormattedIdCode());
+        displayAlertDetails(selected);
+        return selected;
+    }
+
+    // EFFECTS: displays the details of selected
+    private void displayAlertDetails(Alert selected) {
         System.out.println("--------------------------------------------------");
         System.out.println("Status: " + Alert.formatStatus(selected.getStatus()));
         System.out.println("Name: " + selected.getName());
@@ -257,18 +412,15 @@ public class RescueApp {
         System.out.println("Location: " + selected.getLocation());
         System.out.println("Number of People: " + selected.getNumPeople());
         System.out.println("Has baby/elderly/disabled/injured? " + selected.isUrgent() + "\n");
-        return selected;
     }
 
     // EFFECTS: saves the rescue alerts to file
     // note: the implementation of this method was modeled after the sonSerializationDemo sample project
     private void saveRescueAlerts() {
         try {
-            jsonWriter.open();
-            jsonWriter.write(rescueAlerts);
-            jsonWriter.close();
+            journal.save(rescueAlerts);
             System.out.println("Saved " + rescueAlerts.getName() + " to " + JSON_STORE);
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             System.out.println("Unable to write to file: " + JSON_STORE);
         }
     }
@@ -278,13 +430,37 @@ public class RescueApp {
     // note: the implementation of this method was modeled after the sonSerializationDemo sample project
     private void loadRescueAlerts() {
         try {
-            rescueAlerts = jsonReader.read();
+            rescueAlerts = journal.recover(rescueAlerts.getName());
+            dispatchQueue = new DispatchQueue(rescueAlerts);
+            searchIndex = new AlertSearchIndex(rescueAlerts);
+            subscribeToChanges();
             System.out.println("Loaded " + rescueAlerts.getName() + " from " + JSON_STORE);
         } catch (IOException e) {
             System.out.println("Unable to read from file: " + JSON_STORE);
         }
     }
 
+    // EFFECTS: prints the metrics of the application and writes them to file for a metrics scraper
+    private void displayMetrics() {
+        System.out.print(MetricsRegistry.getDefault().toText());
+        try {
+            MetricsRegistry.getDefault().writePrometheus(METRICS_STORE);
+            System.out.println("Wrote metrics to " + METRICS_STORE);
+        } catch (IOException e) {
+            System.out.println("Unable to write to file: " + METRICS_STORE);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes sure every change recorded in the journal is on disk and closes it
+    private void closeJournal() {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.out.println("Unable to write to file: " + JOURNAL_STORE);
+        }
+    }
+
     // EFFECTS: formats given String argument into boolean
     //          returns true for "y" = yes, false for "n" = no,
     //          and prints a message + returns false for an invalid selection
@@ -5,10 +5,17 @@ import model.AlertStatus;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 // Custom renderer to display a rescue alert with an icon corresponding to its status
 // note: this class was modeled after https://www.codejava.net/java-se/swing/jlist-custom-renderer-example
 public class AlertRenderer extends JLabel implements ListCellRenderer<Alert> {
+    private static final Map<AlertStatus, ImageIcon> STATUS_ICONS = loadStatusIcons();
+    private static final Color SELECTED_BACKGROUND = new Color(0x8BC7EE);
+
+    private final Map<Alert, CachedLabel> labels = new WeakHashMap<>();
 
     // EFFECTS: creates an AlertRenderer with an opaque rendering
     public AlertRenderer() {
@@ -21,14 +28,11 @@ public class AlertRenderer extends JLabel implements ListCellRenderer<Alert> {
                                                   boolean isSelected, boolean cellHasFocus) {
 
         AlertStatus status = alert.getStatus();
-        ImageIcon statusIcon = new ImageIcon("images/" + statusToImage(status) + ".png");
-
-        setText(alert.getIdCode() + " | ");
-        setIcon(statusIcon);
-        setText(formatStatus(alert.getStatus()) + " – " + alert.getLocation());
+        setIcon(STATUS_ICONS.get(status));
+        setText(labelOf(alert, status));
 
         if (isSelected) {
-            setBackground(new Color(0x8BC7EE));
+            setBackground(SELECTED_BACKGROUND);
             setForeground(list.getForeground());
         } else {
             setBackground(list.getBackground());
@@ -38,9 +42,30 @@ public class AlertRenderer extends JLabel implements ListCellRenderer<Alert> {
         return this;
     }
 
+    // MODIFIES: this
+    // EFFECTS: returns the text displayed for alert with the given status, building it only if alert is new to
+    //          this renderer or its status has changed since its text was last built
+    private String labelOf(Alert alert, AlertStatus status) {
+        CachedLabel label = labels.get(alert);
+        if (label == null || label.status != status) {
+            label = new CachedLabel(status, formatStatus(status) + " – " + alert.getLocation());
+            labels.put(alert, label);
+        }
+        return label.text;
+    }
+
+    // EFFECTS: loads the icon of every alert status and returns them
+    private static Map<AlertStatus, ImageIcon> loadStatusIcons() {
+        Map<AlertStatus, ImageIcon> icons = new EnumMap<>(AlertStatus.class);
+        for (AlertStatus status : AlertStatus.values()) {
+            icons.put(status, new ImageIcon("images/" + statusToImage(status) + ".png"));
+        }
+        return icons;
+    }
+
     // EFFECTS: returns a string of the color that corresponds to the given alert status
     //          NEEDS_HELP is "red", HELP_OTW is "yellow", and RESCUED is "green"
-    private String statusToImage(AlertStatus status) {
+    private static String statusToImage(AlertStatus status) {
         if (status.equals(AlertStatus.NEEDS_HELP)) {
             return "red";
         } else if (status.equals(AlertStatus.HELP_OTW)) {
@@ -61,4 +86,15 @@ public class AlertRenderer extends JLabel implements ListCellRenderer<Alert> {
         }
     }
 
+    // Represents the text displayed for an alert while it has the given status
+    private static class CachedLabel {
+        private final AlertStatus status;
+        private final String text;
+
+        // EFFECTS: creates the label text for an alert with the given status
+        CachedLabel(AlertStatus status, String text) {
+            this.status = status;
+            this.text = text;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,179 @@
+package ui.gui;
+
+import model.Alert;
+import model.AlertFilter;
+
+import javax.swing.*;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.Arrays;
+
+// Represents a view of a RescueAlertsListModel that only shows the alerts matching an AlertFilter, without copying
+// them. Like every list model, it must only be used on the Swing event dispatch thread.
+@SuppressWarnings("serial")
+public class FilteredAlertsListModel extends AbstractListModel<Alert> implements ListDataListener {
+    private RescueAlertsListModel base;
+    private AlertFilter filter;
+    private int[] positions;
+    private int size;
+    private int[] matching;
+
+    // MODIFIES: base
+    // EFFECTS: creates a view of base showing every alert
+    public FilteredAlertsListModel(RescueAlertsListModel base) {
+        filter = AlertFilter.ALL;
+        positions = new int[16];
+        matching = new int[16];
+        setBase(base);
+    }
+
+    // EFFECTS: returns the filter of this view
+    public AlertFilter getFilter() {
+        return filter;
+    }
+
+    // EFFECTS: returns the number of alerts that match the filter
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    // REQUIRES: 0 <= index < getSize()
+    // EFFECTS: returns the alert shown at index
+    @Override
+    public Alert getElementAt(int index) {
+        return base.getElementAt(positions[index]);
+    }
+
+    // MODIFIES: this, base
+    // EFFECTS: shows the alerts of base that match the filter instead of those of the current underlying model
+    public void setBase(RescueAlertsListModel base) {
+        if (this.base != null) {
+            this.base.removeListDataListener(this);
+        }
+        this.base = base;
+        base.addListDataListener(this);
+        refilter();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows only the alerts that match filter
+    public void setFilter(AlertFilter filter) {
+        this.filter = filter;
+        refilter();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the alerts added to the underlying model that match the filter
+    @Override
+    public void intervalAdded(ListDataEvent e) {
+        int first = size;
+        for (int i = e.getIndex0(); i <= e.getIndex1(); i++) {
+            if (filter.matches(base.getElementAt(i))) {
+                append(i);
+            }
+        }
+        if (size > first) {
+            fireIntervalAdded(this, first, size - 1);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: checks the changed alerts of the underlying model against the filter again, showing those that
+    //          now match and hiding those that no longer match. the underlying model fires one event per run of
+    //          changed rows, so only the rows that changed are checked
+    @Override
+    public void contentsChanged(ListDataEvent e) {
+        int from = lowerBound(e.getIndex0());
+        int to = lowerBound(e.getIndex1() + 1);
+        int span = e.getIndex1() - e.getIndex0() + 1;
+        if (matching.length < span) {
+            matching = new int[Math.max(span, matching.length * 2)];
+        }
+        int numMatching = 0;
+        for (int i = e.getIndex0(); i <= e.getIndex1(); i++) {
+            if (filter.matches(base.getElementAt(i))) {
+                matching[numMatching++] = i;
+            }
+        }
+        replace(from, to, numMatching);
+        fireReplaced(from, to - from, numMatching);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the alerts of the underlying model that match the filter again
+    @Override
+    public void intervalRemoved(ListDataEvent e) {
+        refilter();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: checks every alert of the underlying model against the filter
+    private void refilter() {
+        int oldSize = size;
+        size = 0;
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        for (int i = 0; i < base.getSize(); i++) {
+            if (filter.matches(base.getElementAt(i))) {
+                append(i);
+            }
+        }
+        if (size > 0) {
+            fireIntervalAdded(this, 0, size - 1);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds position to the end of positions
+    private void append(int position) {
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        positions[size++] = position;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces positions[from..to) with the first numMatching elements of matching, only moving the
+    //          positions after them if the number of matching rows changed
+    private void replace(int from, int to, int numMatching) {
+        int newSize = size - (to - from) + numMatching;
+        if (newSize > positions.length) {
+            positions = Arrays.copyOf(positions, Math.max(newSize, positions.length * 2));
+        }
+        if (to - from != numMatching) {
+            System.arraycopy(positions, to, positions, from + numMatching, size - to);
+        }
+        System.arraycopy(matching, 0, positions, from, numMatching);
+        size = newSize;
+    }
+
+    // EFFECTS: fires the events for numOld rows starting at from having been replaced by numNew rows
+    private void fireReplaced(int from, int numOld, int numNew) {
+        int numKept = Math.min(numOld, numNew);
+        if (numKept > 0) {
+            fireContentsChanged(this, from, from + numKept - 1);
+        }
+        if (numNew > numOld) {
+            fireIntervalAdded(this, from + numOld, from + numNew - 1);
+        } else if (numOld > numNew) {
+            fireIntervalRemoved(this, from + numNew, from + numOld - 1);
+        }
+    }
+
+    // EFFECTS: returns the index of the first position that is at least position, or size if there is none
+    private int lowerBound(int position) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (positions[mid] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -2,34 +2,59 @@ package ui.gui;
 
 import exceptions.InvalidNumPeopleException;
 import model.Alert;
+import model.AlertEventBus;
+import model.AlertFilter;
+import model.AlertStatus;
+import model.DuplicatePolicy;
 import model.RescueAlerts;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import model.RescueAlertsObserver;
+import persistence.AlertJournal;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 // Renders the Disaster Rescue Alerts application on a graphic interface
-public class MainGUI extends JPanel implements ActionListener, ListSelectionListener {
+public class MainGUI extends JPanel implements ActionListener, ListSelectionListener, DocumentListener {
 
     private static final String JSON_STORE = "./data/rescueAlerts.json";
+    private static final String JOURNAL_STORE = "./data/rescueAlerts.journal";
+    private static final int SYNC_EVERY = 1000;    // the journal is forced to disk by a subscriber of the bus
+    private static final int COMPACT_EVERY = 1000;
+    private static final int EVENT_BUS_CAPACITY = 4096;
+    private static final int EVENT_BATCH_SIZE = 256;
+    private static final int LOAD_BATCH_SIZE = 500;
+    private static final int FILTER_DELAY = 250; // ms of no typing before the location filter is applied
 
     protected static JLabel statusLabel;
     private JSplitPane splitPane;
     private JTextArea selectedAlertLabel;
     private JList<Alert> list;
     private RescueAlerts rescueAlerts;
-    private DefaultListModel<Alert> raListModel;
-    private JsonWriter jsonWriter;
-    private JsonReader jsonReader;
+    private AlertEventBus bus;
+    private RescueAlertsListModel raListModel;
+    private FilteredAlertsListModel filteredModel;
+    private JComboBox<String> statusFilter;
+    private JCheckBox urgentOnlyFilter;
+    private JTextField locationFilter;
+    private Timer filterTimer;
+    private AlertJournal journal;
+    private JButton addButton;
+    private JButton loadButton;
+    private JButton saveButton;
+    private JButton cancelButton;
+    private LoadWorker loadWorker;
 
     // EFFECTS: renders visual components of application on split pane screen
     // note: this method was based off SplitPaneDemoProject and SplitPaneDividerDemoProject from Oracle Java docs
@@ -37,39 +62,32 @@ public class MainGUI extends JPanel implements ActionListener, ListSelectionList
         super(new BorderLayout());
         statusLabel = new JLabel("Sample Rescue Alerts file currently loaded.");
         init();
-        updateRaListModel();
-
-        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-        list.setSelectedIndex(0);
-        list.addListSelectionListener(this);
-        list.setCellRenderer(new AlertRenderer());
-        JScrollPane listRescueAlertsScrollPane = new JScrollPane(list);
+        createList();
+        JComponent listPane = createListPane();
 
         selectedAlertLabel = new JTextArea();
         JScrollPane alertsScrollPane = new JScrollPane(selectedAlertLabel);
 
         splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT,
-                listRescueAlertsScrollPane, alertsScrollPane);
+                listPane, alertsScrollPane);
         splitPane.setOneTouchExpandable(true);
         splitPane.setDividerLocation(350);
 
         Dimension minimumSize = new Dimension(100, 50);
-        listRescueAlertsScrollPane.setMinimumSize(minimumSize);
+        listPane.setMinimumSize(minimumSize);
         alertsScrollPane.setMinimumSize(minimumSize);
 
-        updateDisplayedAlert(raListModel.get(list.getSelectedIndex()));
+        updateDisplayedAlert(list.getSelectedValue());
         add(createTitle(), BorderLayout.PAGE_START);
         add(splitPane, BorderLayout.CENTER);
         add(createControlPanel(), BorderLayout.PAGE_END);
     }
 
     // MODIFIES: this
-    // EFFECTS: initializes jsonWriter, jsonReader, and a list of sample rescue alerts
+    // EFFECTS: initializes journal and a list of sample rescue alerts
     private void init() {
         rescueAlerts = new RescueAlerts("Typhoon Ulysses");
-        raListModel = new DefaultListModel<>();
-        jsonWriter = new JsonWriter(JSON_STORE);
-        jsonReader = new JsonReader(JSON_STORE);
+        journal = new AlertJournal(JSON_STORE, JOURNAL_STORE, SYNC_EVERY, COMPACT_EVERY);
 
         Alert first = null;
         Alert second = null;
@@ -81,6 +99,20 @@ public class MainGUI extends JPanel implements ActionListener, ListSelectionList
         }
         rescueAlerts.addAlert(first);
         rescueAlerts.addAlert(second);
+        bus = newBus(rescueAlerts);
+        syncJournalOn(bus);
+        raListModel = new RescueAlertsListModel(bus);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces the journal to disk once per batch of the changes published on changes
+    private void syncJournalOn(AlertEventBus changes) {
+        changes.subscribe("journal", events -> journal.syncQuietly(), true);
+    }
+
+    // EFFECTS: returns a new event bus publishing the changes to ra
+    private static AlertEventBus newBus(RescueAlerts ra) {
+        return new AlertEventBus(ra, EVENT_BUS_CAPACITY, EVENT_BATCH_SIZE);
     }
 
     // EFFECTS: returns a JComponent that contains logo + title of application and its status
@@ -115,25 +147,71 @@ public class MainGUI extends JPanel implements ActionListener, ListSelectionList
     // EFFECTS: returns a JComponent that contains functional buttons for adding new alerts, loading, and saving
     private JComponent createControlPanel() {
         JPanel panel = new JPanel();
+        addButton = createButton(panel, "Add a new alert", "add");
+        loadButton = createButton(panel, "Load alerts", "load");
+        saveButton = createButton(panel, "Save alerts", "save");
+        cancelButton = createButton(panel, "Cancel", "cancel");
+        cancelButton.setEnabled(false);
+        return panel;
+    }
 
-        JButton addNewAlert = new JButton("Add a new alert");
-        addNewAlert.setActionCommand("add");
-        addNewAlert.addActionListener(this);
-        panel.add(addNewAlert);
-
-        JButton loadAlerts = new JButton("Load alerts");
-        loadAlerts.setActionCommand("load");
-        loadAlerts.addActionListener(this);
-        panel.add(loadAlerts);
+    // MODIFIES: panel
+    // EFFECTS: adds a button with the given text and action command to panel and returns it
+    private JButton createButton(JPanel panel, String text, String actionCommand) {
+        JButton button = new JButton(text);
+        button.setActionCommand(actionCommand);
+        button.addActionListener(this);
+        panel.add(button);
+        return button;
+    }
 
-        JButton saveAlerts = new JButton("Save alerts");
-        saveAlerts.setActionCommand("save");
-        saveAlerts.addActionListener(this);
-        panel.add(saveAlerts);
+    // MODIFIES: this
+    // EFFECTS: while isBusy, disables adding, loading and saving, and enables cancelling if isCancellable;
+    //          otherwise enables adding, loading and saving and disables cancelling
+    private void setBusy(boolean isBusy, boolean isCancellable) {
+        addButton.setEnabled(!isBusy);
+        loadButton.setEnabled(!isBusy);
+        saveButton.setEnabled(!isBusy);
+        cancelButton.setEnabled(isBusy && isCancellable);
+    }
 
+    // MODIFIES: this
+    // EFFECTS: returns a JComponent that contains the filters above the scrollable list of alerts
+    private JComponent createListPane() {
+        statusFilter = createStatusFilter();
+        urgentOnlyFilter = new JCheckBox("Urgent only");
+        urgentOnlyFilter.setActionCommand("filter");
+        urgentOnlyFilter.addActionListener(this);
+        locationFilter = new JTextField(12);
+        locationFilter.setToolTipText("Filter by location");
+        locationFilter.getDocument().addDocumentListener(this);
+        filterTimer = new Timer(FILTER_DELAY, this);
+        filterTimer.setActionCommand("filter");
+        filterTimer.setRepeats(false);
+
+        JPanel filters = new JPanel();
+        filters.add(statusFilter);
+        filters.add(urgentOnlyFilter);
+        filters.add(locationFilter);
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.add(filters, BorderLayout.PAGE_START);
+        panel.add(new JScrollPane(list), BorderLayout.CENTER);
         return panel;
     }
 
+    // EFFECTS: returns a combo box for choosing the status of the alerts shown, or all statuses
+    private JComboBox<String> createStatusFilter() {
+        String[] statuses = new String[AlertStatus.values().length + 1];
+        statuses[0] = "All statuses";
+        for (AlertStatus status : AlertStatus.values()) {
+            statuses[status.ordinal() + 1] = AlertRenderer.formatStatus(status);
+        }
+        JComboBox<String> comboBox = new JComboBox<>(statuses);
+        comboBox.setActionCommand("filter");
+        comboBox.addActionListener(this);
+        return comboBox;
+    }
+
     // MODIFIES: this
     // EFFECTS: processes command when button is pressed
     public void actionPerformed(ActionEvent e) {
@@ -147,6 +225,12 @@ public class MainGUI extends JPanel implements ActionListener, ListSelectionList
             case "save":
                 saveAlerts();
                 break;
+            case "cancel":
+                cancelLoad();
+                break;
+            case "filter":
+                applyFilter();
+                break;
         }
     }
 
@@ -182,16 +266,17 @@ public class MainGUI extends JPanel implements ActionListener, ListSelectionList
     }
 
     // MODIFIES: this
-    // EFFECTS: adds new alert to rescueAlerts and raListModel using given arguments,
-    //          updates statusLabel to give update on added alert
+    // EFFECTS: adds new alert to rescueAlerts using given arguments, which shows it in raListModel, unless the
+    //          same alert is already posted. updates statusLabel to give update on added alert
     private void addNewAlert(String name, String contactNum, String location, int numPeople, int isUrgent) {
         try {
             Alert newAlert = new Alert(Alert.formatAnonymous(name), contactNum, location, numPeople,
                     formatYesOrNo(isUrgent));
-            rescueAlerts.addAlert(newAlert);
-            raListModel.addElement(newAlert);
-            statusLabel.setText("You have successfully added a new alert:\n" + Alert.formatIdCode(newAlert.getIdCode())
-                    + " | " + newAlert.getName() + " – " + newAlert.getLocation());
+            Alert posted = rescueAlerts.submitAlert(newAlert, DuplicatePolicy.MERGE);
+            String message = posted == newAlert ? "You have successfully added a new alert:\n"
+                    : "This alert has already been posted:\n";
+            statusLabel.setText(message + posted.getFormattedIdCode()
+                    + " | " + posted.getName() + " – " + posted.getLocation());
         } catch (InvalidNumPeopleException e) {
             statusLabel.setText("Invalid number of people input");
         }
@@ -206,31 +291,68 @@ public class MainGUI extends JPanel implements ActionListener, ListSelectionList
     }
 
     // MODIFIES: this
-    // EFFECTS: loads rescue alerts from file and updates statusLabel to give update on load
+    // EFFECTS: starts loading rescue alerts from file in the background, showing alerts in the list as they are
+    //          loaded and the number loaded so far in statusLabel
     // note: the implementation of this method was modeled after the JsonSerializationDemo sample project
     private void loadAlerts() {
-        try {
-            rescueAlerts = jsonReader.read();
-            raListModel.clear();
-            updateRaListModel();
-            statusLabel.setText("Loaded " + rescueAlerts.getName() + " from " + JSON_STORE);
-        } catch (IOException e) {
-            statusLabel.setText("Unable to read from file: " + JSON_STORE);
+        AlertEventBus loadingBus = newBus(new RescueAlerts(rescueAlerts.getName()));
+        RescueAlertsListModel loadingModel = new RescueAlertsListModel(loadingBus);
+        filteredModel.setBase(loadingModel);
+        loadWorker = new LoadWorker(loadingBus, loadingModel);
+        setBusy(true, true);
+        statusLabel.setText("Loading alerts from " + JSON_STORE + "...");
+        loadWorker.execute();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows only the alerts that match the status, urgency and location chosen in the filters
+    private void applyFilter() {
+        filterTimer.stop();
+        int status = statusFilter.getSelectedIndex();
+        filteredModel.setFilter(new AlertFilter(status == 0 ? null : AlertStatus.values()[status - 1],
+                urgentOnlyFilter.isSelected(), locationFilter.getText()));
+        if (filteredModel.getFilter().matchesAll()) {
+            statusLabel.setText("Showing all alerts");
+        } else {
+            statusLabel.setText("Showing " + filteredModel.getSize() + " matching alerts");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: filters the alerts once typing in the location filter pauses
+    @Override
+    public void insertUpdate(DocumentEvent e) {
+        filterTimer.restart();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: filters the alerts once typing in the location filter pauses
+    @Override
+    public void removeUpdate(DocumentEvent e) {
+        filterTimer.restart();
+    }
+
+    // EFFECTS: does nothing, since only the text of the location filter is used
+    @Override
+    public void changedUpdate(DocumentEvent e) {
+    }
+
+    // MODIFIES: this
+    // EFFECTS: cancels the load in progress, if any, keeping the rescue alerts that were shown before it started
+    private void cancelLoad() {
+        if (loadWorker != null) {
+            loadWorker.cancel(true);
         }
     }
 
     // MODIFIES: this
-    // EFFECTS: saves the rescue alerts to file and updates statusLabel to give update on save
+    // EFFECTS: starts saving the rescue alerts to file in the background and updates statusLabel to give
+    //          update on save
     // note: the implementation of this method was modeled after the JsonSerializationDemo sample project
     private void saveAlerts() {
-        try {
-            jsonWriter.open();
-            jsonWriter.write(rescueAlerts);
-            jsonWriter.close();
-            statusLabel.setText("Saved " + rescueAlerts.getName() + " to " + JSON_STORE);
-        } catch (FileNotFoundException e) {
-            statusLabel.setText("Unable to write to file: " + JSON_STORE);
-        }
+        setBusy(true, false);
+        statusLabel.setText("Saving " + rescueAlerts.getName() + " to " + JSON_STORE + "...");
+        new SaveWorker(rescueAlerts).execute();
     }
 
     /**
@@ -265,17 +387,16 @@ public class MainGUI extends JPanel implements ActionListener, ListSelectionList
     //          if list.getSelectedIndex() == -1 (or when becomes empty), does not update the displayed alert
     @Override
     public void valueChanged(ListSelectionEvent e) {
-        JList list = (JList)e.getSource();
         if (list.getSelectedIndex() == -1) {
             return;
         }
-        updateDisplayedAlert(raListModel.get(list.getSelectedIndex()));
+        updateDisplayedAlert(list.getSelectedValue());
     }
 
     // MODIFIES: this
     // EFFECTS: renders the specific details of selected alert
     private void updateDisplayedAlert(Alert selectedAlert) {
-        selectedAlertLabel.setText("Alert ID " + Alert.formatIdCode(selectedAlert.getIdCode())
+        selectedAlertLabel.setText("Alert ID " + selectedAlert.getFormattedIdCode()
                 + "\nStatus: " + AlertRenderer.formatStatus(selectedAlert.getStatus())
                 + "\nName: " + selectedAlert.getName()
                 + "\nContact Number: " + selectedAlert.getContactNum()
@@ -296,13 +417,28 @@ public class MainGUI extends JPanel implements ActionListener, ListSelectionList
     }
 
     // MODIFIES: this
-    // EFFECTS: when rescueAlerts is modified, updates raListModel to add all the elements
-    //          contained in rescueAlerts
-    private void updateRaListModel() {
-        for (Alert a : rescueAlerts.getAllAlerts()) {
-            raListModel.addElement(a);
+    // EFFECTS: creates the list of alerts shown by raListModel that match the filters. every cell has the size
+    //          of a prototype alert, so the list never measures every alert again when alerts are added or change
+    private void createList() {
+        filteredModel = new FilteredAlertsListModel(raListModel);
+        list = new JList<>(filteredModel);
+        list.setCellRenderer(new AlertRenderer());
+        list.setPrototypeCellValue(createPrototypeAlert());
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setSelectedIndex(0);
+        list.addListSelectionListener(this);
+    }
+
+    // EFFECTS: returns an alert whose cell is at least as large as the cells of most alerts
+    private Alert createPrototypeAlert() {
+        Alert prototype = null;
+        try {
+            prototype = new Alert("Prototype", "0917XXXXXXX", "1432 Kaimito, Barangay Don Juan, Quezon City", 1, false);
+            prototype.setStatus(AlertStatus.HELP_OTW);
+        } catch (InvalidNumPeopleException e) {
+            // do nothing, the prototype alert always has a valid number of people
         }
-        list = new JList<>(raListModel);
+        return prototype;
     }
 
     // EFFECTS: if yesOrNo == 0 (chose Yes), returns true. otherwise (chose No) returns false
@@ -310,4 +446,120 @@ public class MainGUI extends JPanel implements ActionListener, ListSelectionList
         return yesOrNo == 0;
     }
 
+    // Represents a background load of rescue alerts from file into a list model.
+    // The list model shows alerts as soon as they are loaded; the worker observes the rescue alerts being
+    // loaded and publishes how many have been loaded every LOAD_BATCH_SIZE alerts to report progress.
+    private class LoadWorker extends SwingWorker<RescueAlerts, Integer> implements RescueAlertsObserver {
+        private final RescueAlerts loading;
+        private final AlertEventBus loadingBus;
+        private final RescueAlertsListModel loadingModel;
+        private int numLoaded;
+
+        // EFFECTS: creates a worker that loads rescue alerts from file into the empty rescue alerts whose changes
+        //          loadingBus publishes to loadingModel
+        LoadWorker(AlertEventBus loadingBus, RescueAlertsListModel loadingModel) {
+            this.loading = loadingBus.getRescueAlerts();
+            this.loadingBus = loadingBus;
+            this.loadingModel = loadingModel;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: loads rescue alerts from file and returns them; throws IOException if an error occurs
+        //          reading the file, or InterruptedIOException if the load is cancelled
+        @Override
+        protected RescueAlerts doInBackground() throws IOException {
+            loading.addObserver(this);
+            try {
+                return journal.recover(loading);
+            } finally {
+                loading.removeObserver(this);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: counts the loaded alert, publishing the count at the end of every batch
+        @Override
+        public void alertAdded(Alert alert) {
+            numLoaded++;
+            if (numLoaded % LOAD_BATCH_SIZE == 0) {
+                publish(numLoaded);
+            }
+        }
+
+        // EFFECTS: does nothing, since loaded alerts are displayed with their current status
+        @Override
+        public void statusChanged(Alert alert, AlertStatus previous) {
+        }
+
+        // EFFECTS: does nothing, since loaded alerts are displayed with their current rescuer
+        @Override
+        public void rescuerAssigned(Alert alert) {
+        }
+
+        // MODIFIES: MainGUI.this
+        // EFFECTS: shows the number of alerts loaded so far
+        @Override
+        protected void process(List<Integer> counts) {
+            if (!isCancelled()) {
+                int loaded = counts.get(counts.size() - 1);
+                statusLabel.setText("Loading alerts from " + JSON_STORE + "... " + loaded + " loaded");
+            }
+        }
+
+        // MODIFIES: MainGUI.this
+        // EFFECTS: shows the loaded rescue alerts, or if the load was cancelled or failed, the rescue alerts that
+        //          were shown before it started
+        @Override
+        protected void done() {
+            loadWorker = null;
+            setBusy(false, false);
+            try {
+                rescueAlerts = get();
+                bus.close();
+                bus = loadingBus;
+                syncJournalOn(bus);
+                raListModel = loadingModel;
+                statusLabel.setText("Loaded " + rescueAlerts.getName() + " from " + JSON_STORE);
+            } catch (CancellationException e) {
+                loadingBus.close();
+                filteredModel.setBase(raListModel);
+                statusLabel.setText("Cancelled loading from file: " + JSON_STORE);
+            } catch (ExecutionException | InterruptedException e) {
+                loadingBus.close();
+                filteredModel.setBase(raListModel);
+                statusLabel.setText("Unable to read from file: " + JSON_STORE);
+            }
+        }
+    }
+
+    // Represents a background save of rescue alerts to file
+    private class SaveWorker extends SwingWorker<Void, Void> {
+        private final RescueAlerts saving;
+
+        // EFFECTS: creates a worker that saves the given rescue alerts to file
+        SaveWorker(RescueAlerts saving) {
+            this.saving = saving;
+        }
+
+        // EFFECTS: saves the rescue alerts to file; throws IOException if an error occurs writing the file
+        @Override
+        protected Void doInBackground() throws IOException {
+            journal.save(saving);
+            return null;
+        }
+
+        // MODIFIES: MainGUI.this
+        // EFFECTS: updates statusLabel to give update on save
+        @Override
+        protected void done() {
+            setBusy(false, false);
+            try {
+                get();
+                statusLabel.setText("Saved " + saving.getName() + " to " + JSON_STORE);
+            } catch (ExecutionException | InterruptedException e) {
+                statusLabel.setText("Unable to write to file: " + JSON_STORE);
+            }
+        }
+    }
+
 }
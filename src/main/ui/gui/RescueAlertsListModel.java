@@ -0,0 +1,208 @@
+package ui.gui;
+
+import model.Alert;
+import model.AlertEvent;
+import model.AlertEventBus;
+import model.AlertEventHandler;
+import model.AlertStatus;
+import model.RescueAlerts;
+import model.RescueAlertsObserver;
+
+import javax.swing.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Represents a list model that shows the alerts of a RescueAlerts in the order they were added, without copying
+// them, and follows the alerts added or changed on any thread.
+@SuppressWarnings("serial")
+public class RescueAlertsListModel extends AbstractListModel<Alert> implements RescueAlertsObserver {
+    private final RescueAlerts rescueAlerts;
+    private final Map<Alert, Integer> positions;
+    private final Set<Alert> changed;
+    private final AtomicBoolean isUpdateScheduled;
+    private final AtomicBoolean isAllChanged;
+    private final AlertEventBus.Subscription subscription;
+    private List<Alert> shown;
+
+    // REQUIRES: called on the event dispatch thread
+    // MODIFIES: rescueAlerts
+    // EFFECTS: creates a list model showing the alerts of rescueAlerts, and starts observing rescueAlerts
+    public RescueAlertsListModel(RescueAlerts rescueAlerts) {
+        this(rescueAlerts, null);
+    }
+
+    // REQUIRES: called on the event dispatch thread
+    // MODIFIES: bus
+    // EFFECTS: creates a list model showing the alerts of the rescue alerts of bus, and subscribes to bus
+    public RescueAlertsListModel(AlertEventBus bus) {
+        this(bus.getRescueAlerts(), bus);
+    }
+
+    // REQUIRES: called on the event dispatch thread
+    // EFFECTS: creates a list model showing the alerts of rescueAlerts that subscribes to bus, or observes
+    //          rescueAlerts if bus is null
+    private RescueAlertsListModel(RescueAlerts rescueAlerts, AlertEventBus bus) {
+        this.rescueAlerts = rescueAlerts;
+        positions = new HashMap<>();
+        changed = ConcurrentHashMap.newKeySet();
+        isUpdateScheduled = new AtomicBoolean();
+        isAllChanged = new AtomicBoolean();
+        shown = rescueAlerts.getAllAlerts().subList(0, 0);
+        if (bus == null) {
+            rescueAlerts.addObserver(this);
+            subscription = null;
+        } else {
+            subscription = bus.subscribe("gui", new EventHandler(), false);
+        }
+        update();
+    }
+
+    // EFFECTS: returns the rescue alerts shown by this model
+    public RescueAlerts getRescueAlerts() {
+        return rescueAlerts;
+    }
+
+    // EFFECTS: returns the number of alerts shown
+    @Override
+    public int getSize() {
+        return shown.size();
+    }
+
+    // REQUIRES: 0 <= index < getSize()
+    // EFFECTS: returns the alert shown at index
+    @Override
+    public Alert getElementAt(int index) {
+        return shown.get(index);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops observing the rescue alerts, or closes the subscription to their event bus, so this model
+    //          no longer changes
+    public void detach() {
+        if (subscription == null) {
+            rescueAlerts.removeObserver(this);
+        } else {
+            subscription.close();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: schedules alert to be shown
+    @Override
+    public void alertAdded(Alert alert) {
+        scheduleUpdate();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: schedules the row of alert to be repainted
+    @Override
+    public void statusChanged(Alert alert, AlertStatus previous) {
+        changed.add(alert);
+        scheduleUpdate();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: schedules the row of alert to be repainted
+    @Override
+    public void rescuerAssigned(Alert alert) {
+        changed.add(alert);
+        scheduleUpdate();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: schedules an update on the event dispatch thread, unless one is scheduled already
+    private void scheduleUpdate() {
+        if (isUpdateScheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::update);
+        }
+    }
+
+    // REQUIRES: called on the event dispatch thread
+    // MODIFIES: this
+    // EFFECTS: shows the alerts added since the last update and repaints the rows of alerts changed since then,
+    //          firing one event for all added rows and one event per run of changed rows, or one event for every
+    //          row if changes were missed
+    private void update() {
+        isUpdateScheduled.set(false);
+        List<Alert> alerts = rescueAlerts.getAllAlerts();
+        int first = shown.size();
+        for (int i = first; i < alerts.size(); i++) {
+            positions.put(alerts.get(i), i);
+        }
+        shown = alerts;
+        if (first < alerts.size()) {
+            fireIntervalAdded(this, first, alerts.size() - 1);
+        }
+        if (isAllChanged.getAndSet(false)) {
+            fireAllChanged(first);
+        } else {
+            fireChanged(first);
+        }
+    }
+
+    // REQUIRES: called on the event dispatch thread
+    // MODIFIES: this
+    // EFFECTS: fires one event for every row before firstAdded, since the changes to them were missed
+    private void fireAllChanged(int firstAdded) {
+        changed.clear();
+        if (firstAdded > 0) {
+            fireContentsChanged(this, 0, firstAdded - 1);
+        }
+    }
+
+    // REQUIRES: called on the event dispatch thread
+    // MODIFIES: this
+    // EFFECTS: fires one event for each run of consecutive rows of the alerts changed since the last update,
+    //          ignoring rows at or after firstAdded, which were just added with their current state, so rows
+    //          in between that did not change are not repainted or filtered again
+    private void fireChanged(int firstAdded) {
+        int[] rows = new int[changed.size()];
+        int numRows = 0;
+        for (Alert a : changed) {
+            changed.remove(a);
+            Integer position = positions.get(a);
+            if (position != null && position < firstAdded) {
+                if (numRows == rows.length) {
+                    rows = Arrays.copyOf(rows, numRows * 2 + 1);
+                }
+                rows[numRows++] = position;
+            }
+        }
+        Arrays.sort(rows, 0, numRows);
+        int start = 0;
+        for (int i = 1; i <= numRows; i++) {
+            if (i == numRows || rows[i] > rows[i - 1] + 1) {
+                fireContentsChanged(this, rows[start], rows[i - 1]);
+                start = i;
+            }
+        }
+    }
+
+    // Represents the subscriber of an event bus that schedules the alerts added and changed to be shown
+    private class EventHandler implements AlertEventHandler {
+        // MODIFIES: RescueAlertsListModel.this
+        // EFFECTS: schedules the alerts added to be shown and the rows of the alerts changed to be repainted
+        @Override
+        public void onEvents(List<AlertEvent> events) {
+            for (AlertEvent e : events) {
+                if (e.getType() != AlertEvent.Type.ADDED) {
+                    changed.add(e.getAlert());
+                }
+            }
+            scheduleUpdate();
+        }
+
+        // MODIFIES: RescueAlertsListModel.this
+        // EFFECTS: schedules every row to be repainted, since the changes missed are not known
+        @Override
+        public void onOverrun(long missed) {
+            isAllChanged.set(true);
+            scheduleUpdate();
+        }
+    }
+}
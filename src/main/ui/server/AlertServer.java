@@ -0,0 +1,392 @@
+package ui.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import exceptions.AlreadyRescuedException;
+import exceptions.InvalidIdCodeException;
+import exceptions.InvalidNumPeopleException;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
+import model.Alert;
+import model.AlertStatus;
+import model.DuplicatePolicy;
+import model.RescueAlerts;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import persistence.AlertBatch;
+import persistence.BatchFormat;
+import persistence.DisasterRegistry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Represents a headless HTTP server for field clients that post, look up, claim and advance the rescue alerts of
+// the disasters in a registry, as JSON in the format of Alert.toJson() and RescueAlerts.toJson() under /disasters.
+// Requests are not authenticated, so by default the server only listens on the loopback address.
+public class AlertServer {
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final String PROMETHEUS = "text/plain; version=0.0.4; charset=utf-8";
+    private static final Histogram REQUEST_TIME = MetricsRegistry.getDefault().histogram("http_request_seconds",
+            "Time taken to handle requests to the alert server", Histogram.latencyBounds());
+    private static final int OK = 200;
+    private static final int CREATED = 201;
+    private static final int BAD_REQUEST = 400;
+    private static final int NOT_FOUND = 404;
+    private static final int METHOD_NOT_ALLOWED = 405;
+    private static final int CONFLICT = 409;
+    private static final int PAYLOAD_TOO_LARGE = 413;
+    private static final int INTERNAL_SERVER_ERROR = 500;
+    private static final int MAX_BODY_BYTES = 1024 * 1024;
+
+    private final DisasterRegistry registry;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // EFFECTS: creates a server for the disasters in registry that listens on the given port of the loopback
+    //          address (or on a free port if port is 0); throws IOException if the port cannot be bound
+    public AlertServer(DisasterRegistry registry, int port) throws IOException {
+        this(registry, InetAddress.getLoopbackAddress(), port);
+    }
+
+    // EFFECTS: creates a server for the disasters in registry that listens on the given port of address (or on a
+    //          free port if port is 0); throws IOException if the port cannot be bound
+    public AlertServer(DisasterRegistry registry, InetAddress address, int port) throws IOException {
+        this.registry = registry;
+        server = HttpServer.create(new InetSocketAddress(address, port), 0);
+        executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/disasters", this::handle);
+        server.createContext("/metrics", AlertServer::handleMetrics);
+        for (AlertStatus status : AlertStatus.values()) {
+            MetricsRegistry.getDefault().gauge("alerts", "Alerts in every disaster in the registry, by status",
+                    () -> registry.getNumAlerts(status), "status", status.name());
+        }
+    }
+
+    // EFFECTS: returns the port this server listens on
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // EFFECTS: returns the address and port this server listens on
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts handling requests in the background
+    public void start() {
+        server.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops accepting requests, waits up to delay seconds for the requests being handled to finish,
+    //          then stops the server
+    public void stop(int delay) {
+        server.stop(delay);
+        executor.shutdown();
+    }
+
+    // EFFECTS: returns an executor that runs each task on a new virtual thread if this JVM supports them
+    //          (Java 21 and up), or otherwise on a pool of platform threads that grows as needed
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: handles a request and sends the response, turning the errors of a bad request into a status code
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        Response response;
+        try {
+            List<String> path = pathOf(exchange);
+            response = path == null ? Response.error(NOT_FOUND, "no such resource")
+                    : route(exchange.getRequestMethod(), path, readBody(exchange),
+                    exchange.getRequestHeaders().getFirst("Content-Type"), exchange.getRequestURI().getRawQuery());
+        } catch (JSONException | IllegalArgumentException | InvalidNumPeopleException e) {
+            response = Response.error(BAD_REQUEST, e.getMessage() != null ? e.getMessage() : "invalid alert");
+        } catch (InvalidIdCodeException e) {
+            response = Response.error(NOT_FOUND, "no alert with that id code");
+        } catch (AlreadyRescuedException e) {
+            response = Response.error(CONFLICT, "alert is already rescued");
+        } catch (BodyTooLargeException e) {
+            response = Response.error(PAYLOAD_TOO_LARGE, "request body is larger than " + MAX_BODY_BYTES + " bytes");
+        } catch (IOException e) {
+            response = Response.error(INTERNAL_SERVER_ERROR, "unable to read or write the alerts of the disaster");
+        } catch (RuntimeException e) {
+            response = Response.error(INTERNAL_SERVER_ERROR, "unable to handle the request");
+        }
+        send(exchange, response);
+        REQUEST_TIME.recordSince(start);
+    }
+
+    // EFFECTS: sends the metrics of the application in the Prometheus text format in response to a GET request
+    private static void handleMetrics(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestURI().getRawPath().equals("/metrics")) {
+            send(exchange, Response.error(NOT_FOUND, "no such resource"));
+        } else if (!exchange.getRequestMethod().equals("GET")) {
+            send(exchange, Response.methodNotAllowed(exchange.getRequestMethod()));
+        } else {
+            send(exchange, OK, PROMETHEUS, MetricsRegistry.getDefault().toPrometheus());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the response to the request with the given method, path segments after /disasters,
+    //          body, content type and query (or null if there is none)
+    private Response route(String method, List<String> path, String body, String contentType, String query)
+            throws InvalidIdCodeException, InvalidNumPeopleException, AlreadyRescuedException, IOException {
+        if (path.isEmpty()) {
+            return method.equals("GET") ? listDisasters() : Response.methodNotAllowed(method);
+        } else if (path.size() == 1) {
+            return method.equals("PUT") ? addDisaster(path.get(0)) : Response.methodNotAllowed(method);
+        }
+        String resource = path.get(1);
+        boolean isPost = method.equals("POST") && path.size() == 2;
+        if (!resource.equals("alerts") && !(resource.equals("batches") && path.size() == 2) || path.size() > 4) {
+            return Response.error(NOT_FOUND, "no such resource");
+        }
+        if (!registry.contains(path.get(0))) {
+            return Response.error(NOT_FOUND, "no disaster named " + path.get(0));
+        }
+        RescueAlerts ra = registry.get(path.get(0));
+        if (resource.equals("batches")) {
+            return isPost ? postBatch(ra, body, contentType) : Response.methodNotAllowed(method);
+        }
+        if (path.size() == 2) {
+            return method.equals("GET") ? listAlerts(ra, query)
+                    : isPost ? postAlert(ra, new JSONObject(body)) : Response.methodNotAllowed(method);
+        }
+        return routeAlert(method, ra.getAlertById(Integer.parseInt(path.get(2))), path, body);
+    }
+
+    // MODIFIES: alert
+    // EFFECTS: returns the response to the request with the given method, path segments and body for alert
+    private Response routeAlert(String method, Alert alert, List<String> path, String body)
+            throws AlreadyRescuedException {
+        if (path.size() == 3) {
+            return method.equals("GET") ? new Response(OK, alert.toJson()) : Response.methodNotAllowed(method);
+        }
+        if (!method.equals("POST")) {
+            return Response.methodNotAllowed(method);
+        }
+        return changeStatus(alert, path.get(3), new JSONObject(body));
+    }
+
+    // EFFECTS: returns the disasters in the registry with their number of alerts per status, without loading them
+    private Response listDisasters() {
+        JSONArray disasters = new JSONArray();
+        for (String name : registry.getNames()) {
+            JSONObject numAlerts = new JSONObject();
+            for (AlertStatus status : AlertStatus.values()) {
+                numAlerts.put(status.name(), registry.getNumAlerts(name, status));
+            }
+            JSONObject disaster = new JSONObject();
+            disaster.put("name", name);
+            disaster.put("number of alerts", numAlerts);
+            disasters.put(disaster);
+        }
+        JSONObject json = new JSONObject();
+        json.put("disasters", disasters);
+        return new Response(OK, json);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a disaster with the given name and no alerts to the registry and returns it (201), or returns
+    //          the disaster with that name if there already is one (200)
+    private Response addDisaster(String name) throws IOException {
+        boolean isNew = !registry.contains(name);
+        RescueAlerts ra = registry.get(name);
+        JSONObject json = new JSONObject();
+        json.put("name", ra.getName());
+        json.put("number of alerts", ra.getNumAlerts());
+        return new Response(isNew ? CREATED : OK, json);
+    }
+
+    // EFFECTS: returns the alerts of ra in the format of RescueAlerts.toJson(), only those with the status given
+    //          in query if there is one, in order of id code. if query also gives a number of seconds "for", only
+    //          the alerts that have had the status for at least that long are returned, longest first
+    private Response listAlerts(RescueAlerts ra, String query) {
+        String status = queryParameter(query, "status");
+        if (status == null) {
+            return new Response(OK, ra.toJson());
+        }
+        String seconds = queryParameter(query, "for");
+        List<Alert> alerts;
+        if (seconds == null) {
+            alerts = new ArrayList<>(ra.getAlertsWithStatus(AlertStatus.valueOf(status)));
+            alerts.sort(Comparator.comparingInt(Alert::getIdCode));
+        } else {
+            alerts = ra.getAlertsInStatusFor(AlertStatus.valueOf(status), Long.parseLong(seconds) * 1000);
+        }
+        JSONArray jsonArray = new JSONArray();
+        for (Alert a : alerts) {
+            jsonArray.put(a.toJson());
+        }
+        JSONObject json = new JSONObject();
+        json.put("name", ra.getName());
+        json.put("alerts", jsonArray);
+        return new Response(OK, json);
+    }
+
+    // MODIFIES: ra
+    // EFFECTS: posts the alert in json to ra, unless it repeats an open alert already posted, and returns it
+    //          (201) or the alert it repeats (200). the id code, status and rescuer in json are ignored
+    private Response postAlert(RescueAlerts ra, JSONObject json) throws InvalidNumPeopleException {
+        Alert alert = AlertBatch.parseAlert(json);
+        Alert posted = ra.submitAlert(alert, DuplicatePolicy.MERGE);
+        return new Response(posted == alert ? CREATED : OK, posted.toJson());
+    }
+
+    // MODIFIES: ra
+    // EFFECTS: posts the valid alerts in body, as CSV if contentType is text/csv and as JSON lines otherwise, to
+    //          ra at once, merging those that repeat an open alert, and returns for each record the alert posted
+    //          for it, or why it is not a valid alert
+    private Response postBatch(RescueAlerts ra, String body, String contentType) {
+        boolean isCsv = contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/csv");
+        AlertBatch batch = AlertBatch.parse(body, isCsv ? BatchFormat.CSV : BatchFormat.JSON_LINES);
+        List<Alert> posted = batch.submitTo(ra, DuplicatePolicy.MERGE);
+        JSONArray alerts = new JSONArray();
+        for (int i = 0; i < posted.size(); i++) {
+            JSONObject json = posted.get(i).toJson();
+            json.put("line", batch.getLine(i));
+            json.put("merged", posted.get(i) != batch.getAlerts().get(i));
+            alerts.put(json);
+        }
+        JSONArray errors = new JSONArray();
+        for (AlertBatch.RecordError e : batch.getErrors()) {
+            errors.put(new JSONObject().put("line", e.getLine()).put("error", e.getMessage()));
+        }
+        JSONObject json = new JSONObject();
+        json.put("alerts", alerts);
+        json.put("errors", errors);
+        return new Response(OK, json);
+    }
+
+    // MODIFIES: alert
+    // EFFECTS: claims alert for the rescuer in json if action is "claim", or moves it on from the status in json
+    //          if action is "advance", and returns it; returns 409 if another rescuer got there first
+    private Response changeStatus(Alert alert, String action, JSONObject json) throws AlreadyRescuedException {
+        boolean changed;
+        if (action.equals("claim")) {
+            changed = alert.claim(json.getString("name of rescuer"), json.getString("contact number of rescuer"));
+        } else if (action.equals("advance")) {
+            changed = alert.advance(AlertStatus.valueOf(json.getString("status")));
+        } else {
+            return Response.error(NOT_FOUND, "no such action " + action);
+        }
+        return new Response(changed ? OK : CONFLICT, alert.toJson());
+    }
+
+    // EFFECTS: returns the decoded segments of the request path after /disasters, or null if the path is neither
+    //          /disasters nor under it (e.g. /disastersX, which the context of /disasters also matches)
+    private static List<String> pathOf(HttpExchange exchange) throws UnsupportedEncodingException {
+        String path = exchange.getRequestURI().getRawPath();
+        if (!path.equals("/disasters") && !path.startsWith("/disasters/")) {
+            return null;
+        }
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(URLDecoder.decode(segment, "UTF-8"));
+            }
+        }
+        return segments.subList(1, segments.size());
+    }
+
+    // EFFECTS: returns the value of the given parameter in query, or null if it is not there
+    private static String queryParameter(String query, String parameter) {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && pair.substring(0, equals).equals(parameter)) {
+                return pair.substring(equals + 1);
+            }
+        }
+        return null;
+    }
+
+    // EFFECTS: returns the body of the request, decoded as UTF-8; throws BodyTooLargeException if it is longer
+    //          than MAX_BODY_BYTES, without reading it if the request gives its length
+    private static String readBody(HttpExchange exchange) throws IOException {
+        String length = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (length != null && Long.parseLong(length.trim()) > MAX_BODY_BYTES) {
+            throw new BodyTooLargeException();
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        try (InputStream in = exchange.getRequestBody()) {
+            for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+                body.write(buffer, 0, n);
+                if (body.size() > MAX_BODY_BYTES) {
+                    throw new BodyTooLargeException();
+                }
+            }
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    // EFFECTS: sends response to the client and ends the exchange
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        send(exchange, response.code, JSON, response.body.toString());
+    }
+
+    // EFFECTS: sends body with the given status code and content type to the client and ends the exchange
+    private static void send(HttpExchange exchange, int code, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Represents the error of a request whose body is longer than MAX_BODY_BYTES
+    @SuppressWarnings("serial")
+    private static class BodyTooLargeException extends IOException {
+    }
+
+    // Represents the status code and JSON body of a response
+    private static class Response {
+        private final int code;
+        private final JSONObject body;
+
+        // EFFECTS: creates a response with the given status code and body
+        Response(int code, JSONObject body) {
+            this.code = code;
+            this.body = body;
+        }
+
+        // EFFECTS: returns a response with the given status code and {"error": message} as body
+        static Response error(int code, String message) {
+            JSONObject json = new JSONObject();
+            json.put("error", message);
+            return new Response(code, json);
+        }
+
+        // EFFECTS: returns the response to a request with a method the resource does not support
+        static Response methodNotAllowed(String method) {
+            return error(METHOD_NOT_ALLOWED, "method " + method + " is not allowed here");
+        }
+    }
+}
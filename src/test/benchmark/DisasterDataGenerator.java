@@ -0,0 +1,81 @@
+package benchmark;
+
+import exceptions.InvalidNumPeopleException;
+import model.Alert;
+import model.AlertStatus;
+import model.RescueAlerts;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+// Generates synthetic disaster data for benchmarks: alerts with realistic names, contact numbers,
+// Filipino place names, group sizes, urgency and statuses. The same seed always generates the same data.
+public class DisasterDataGenerator {
+    private static final String[] NAMES = {"Jericho Rosales", "Vice Ganda", "Willie Revillame", "Anonymous",
+        "Maria Clara Santos", "Jose Rizal Reyes", "Andres Bonifacio Cruz", "Gabriela Silang", "Kim Jones"};
+    private static final String[] STREETS = {"Kaimito", "Balete Drive", "White Plains Avenue", "Ampalaya",
+        "Katipunan Avenue", "Marikina Heights", "Aurora Boulevard", "Sampaguita", "Malunggay"};
+    private static final String[] BARANGAYS = {"Don Juan", "Tumana", "Malanday", "Nangka", "Concepcion Uno",
+        "Santo Niño", "Parang", "Provident Village", "Tañong", "Jesus de la Peña"};
+
+    private final Random random;
+
+    // EFFECTS: creates a generator that generates the same data every time for the given seed
+    public DisasterDataGenerator(long seed) {
+        random = new Random(seed);
+    }
+
+    // EFFECTS: returns a new RescueAlerts with the given name and numAlerts generated alerts
+    public RescueAlerts generate(String name, int numAlerts) {
+        RescueAlerts ra = new RescueAlerts(name);
+        for (int i = 0; i < numAlerts; i++) {
+            ra.addAlert(nextAlert());
+        }
+        return ra;
+    }
+
+    // EFFECTS: writes a JSON file in the format read by JsonReader, with numAlerts generated alerts,
+    //          one alert at a time so that files much larger than the heap can be generated
+    public void writeFile(Path file, String name, int numAlerts) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("{\"name\": " + JSONObject.quote(name) + ", \"alerts\": [\n");
+            for (int i = 0; i < numAlerts; i++) {
+                Alert a = nextAlert();
+                a.setIdCode(i);
+                if (i > 0) {
+                    writer.write(",\n");
+                }
+                a.toJson().write(writer);
+            }
+            writer.write("\n]}\n");
+        }
+    }
+
+    // EFFECTS: returns a new generated alert
+    public Alert nextAlert() {
+        try {
+            Alert a = new Alert(pick(NAMES), "09" + (100000000 + random.nextInt(900000000)),
+                    (1 + random.nextInt(2000)) + " " + pick(STREETS) + ", Barangay " + pick(BARANGAYS),
+                    1 + random.nextInt(12), random.nextInt(4) == 0);
+            int status = random.nextInt(10);
+            if (status >= 6) {
+                a.setStatus(status == 9 ? AlertStatus.RESCUED : AlertStatus.HELP_OTW);
+                a.setRescuerName(pick(NAMES));
+                a.setRescuerContactNum("09" + (100000000 + random.nextInt(900000000)));
+            }
+            return a;
+        } catch (InvalidNumPeopleException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // EFFECTS: returns a random element of options
+    private String pick(String[] options) {
+        return options[random.nextInt(options.length)];
+    }
+}
@@ -0,0 +1,94 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+
+// Represents a small harness for micro-benchmarks, in the spirit of JMH (which this project does not depend on).
+// Each benchmark is run for a number of warm-up iterations, so the JIT compiles it, and then for a number of
+// measured iterations of a fixed number of operations each. It is reported as the mean time per operation with
+// its standard deviation across the measured iterations, and the bytes allocated per operation and allocation
+// rate, read from the JVM's allocation counter for the current thread. The result of every operation is kept,
+// so the JIT cannot remove the work that produced it.
+// Only the operations are timed: each iteration can prepare its state first, outside the measurement.
+public class Harness {
+    private static final String HEADER = String.format("%-32s %9s %14s %10s %12s %10s",
+            "benchmark", "size", "ns/op", "+/- ns/op", "bytes/op", "MB/s");
+
+    private final int warmupIterations;
+    private final int measuredIterations;
+    private final com.sun.management.ThreadMXBean threads;
+    private Object lastResult;
+
+    // REQUIRES: warmupIterations >= 0 and measuredIterations >= 1
+    // EFFECTS: creates a harness that warms every benchmark up and measures it for the given numbers of iterations
+    public Harness(int warmupIterations, int measuredIterations) {
+        this.warmupIterations = warmupIterations;
+        this.measuredIterations = measuredIterations;
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    // EFFECTS: prints the header of the table of results
+    public void printHeader() {
+        System.out.println(HEADER);
+    }
+
+    // REQUIRES: opsPerIteration >= 1
+    // MODIFIES: operation
+    // EFFECTS: warms up and measures operation, invoked opsPerIteration times per iteration, and prints a row of
+    //          the table of results for it under the given name and size
+    public void run(String name, int size, int opsPerIteration, Operation operation) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            iterate(opsPerIteration, operation);
+        }
+        double[] nanosPerOp = new double[measuredIterations];
+        long totalBytes = 0;
+        long totalNanos = 0;
+        for (int i = 0; i < measuredIterations; i++) {
+            long[] measured = iterate(opsPerIteration, operation);
+            nanosPerOp[i] = (double) measured[0] / opsPerIteration;
+            totalNanos += measured[0];
+            totalBytes += measured[1];
+        }
+        double mean = (double) totalNanos / ((long) measuredIterations * opsPerIteration);
+        double bytesPerOp = (double) totalBytes / ((long) measuredIterations * opsPerIteration);
+        System.out.printf("%-32s %9d %14.1f %10.1f %12.1f %10.1f%n", name, size, mean,
+                standardDeviation(nanosPerOp, mean), bytesPerOp, totalBytes / 1e6 / (totalNanos / 1e9));
+    }
+
+    // MODIFIES: operation
+    // EFFECTS: prepares operation, then invokes it opsPerIteration times and returns the nanoseconds taken and
+    //          the bytes allocated by the current thread while doing so
+    private long[] iterate(int opsPerIteration, Operation operation) throws Exception {
+        operation.beforeIteration();
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < opsPerIteration; i++) {
+            lastResult = operation.invoke(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        return new long[] {elapsed, bytes};
+    }
+
+    // EFFECTS: returns the standard deviation of samples, whose mean is mean
+    private static double standardDeviation(double[] samples, double mean) {
+        double sumOfSquares = 0;
+        for (double sample : samples) {
+            sumOfSquares += (sample - mean) * (sample - mean);
+        }
+        return Math.sqrt(sumOfSquares / samples.length);
+    }
+
+    // Represents the code measured by a benchmark, on state it keeps between invocations
+    public interface Operation {
+        // MODIFIES: this
+        // EFFECTS: prepares the state for the next iteration; this is not measured
+        default void beforeIteration() throws Exception {
+        }
+
+        // MODIFIES: this
+        // EFFECTS: runs the measured code for the i-th time in the current iteration and returns its result
+        Object invoke(int i) throws Exception;
+    }
+}
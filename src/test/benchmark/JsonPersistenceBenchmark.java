@@ -0,0 +1,55 @@
+package benchmark;
+
+import model.RescueAlerts;
+import persistence.JsonReader;
+import persistence.JsonStreamReader;
+import persistence.JsonWriter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Measures saving and loading generated disasters of several sizes with JsonWriter, JsonReader and
+// JsonStreamReader. Run with a comma-separated list of sizes as the only argument (default 1000,10000,100000),
+// e.g.
+//     java -Xmx4g -cp <classpath> benchmark.JsonPersistenceBenchmark 1000,1000000
+// Each operation saves or loads a whole disaster, so small disasters are saved and loaded several times per
+// iteration. Only the thread running the benchmark is counted in bytes/op.
+public class JsonPersistenceBenchmark {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 5;
+    private static final int ALERTS_PER_ITERATION = 200000;
+
+    public static void main(String[] args) throws Exception {
+        String sizes = args.length > 0 ? args[0] : "1000,10000,100000";
+        Harness harness = new Harness(WARMUP_ITERATIONS, MEASURED_ITERATIONS);
+        harness.printHeader();
+        for (String size : sizes.split(",")) {
+            runAll(harness, Integer.parseInt(size.trim()));
+        }
+    }
+
+    // EFFECTS: runs every benchmark of JSON persistence on a generated disaster with numAlerts alerts
+    private static void runAll(Harness harness, int numAlerts) throws Exception {
+        int opsPerIteration = Math.max(1, ALERTS_PER_ITERATION / numAlerts);
+        Path file = Files.createTempFile("rescueAlertsBenchmark", ".json");
+        try {
+            RescueAlerts ra = new DisasterDataGenerator(42).generate("Typhoon Ulysses", numAlerts);
+            harness.run("JsonWriter.write", numAlerts, opsPerIteration, i -> write(ra, file));
+            harness.run("JsonReader.read", numAlerts, opsPerIteration,
+                    i -> new JsonReader(file.toString()).read());
+            harness.run("JsonStreamReader.read", numAlerts, opsPerIteration,
+                    i -> new JsonStreamReader(file.toString()).read());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    // EFFECTS: saves ra to file and returns ra
+    private static RescueAlerts write(RescueAlerts ra, Path file) throws Exception {
+        JsonWriter writer = new JsonWriter(file.toString());
+        writer.open();
+        writer.write(ra);
+        writer.close();
+        return ra;
+    }
+}
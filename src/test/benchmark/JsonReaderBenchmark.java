@@ -0,0 +1,82 @@
+package benchmark;
+
+import model.RescueAlerts;
+import persistence.JsonReader;
+import persistence.JsonStreamReader;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Compares the load time and peak heap of JsonReader, which parses the whole file into one JSON document
+// before creating any alerts, with JsonStreamReader, which creates alerts one at a time from the stream.
+// Run with the number of alerts to generate as the only argument (default 200000), e.g.
+//     java -Xmx2g -cp <classpath> benchmark.JsonReaderBenchmark 500000
+// Peak heap is the peak reported by the JVM's heap memory pools during each load, after a full GC;
+// it includes the loaded RescueAlerts, so the difference between the readers is their parsing overhead.
+public class JsonReaderBenchmark {
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws IOException {
+        int numAlerts = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        Path file = Files.createTempFile("rescueAlertsBenchmark", ".json");
+        new DisasterDataGenerator(42).writeFile(file, "Typhoon Ulysses", numAlerts);
+        System.out.printf("%d alerts, %.1f MB file%n", numAlerts, Files.size(file) / 1e6);
+        try {
+            for (int round = 1; round <= ROUNDS; round++) {
+                measure("JsonReader      ", round, () -> new JsonReader(file.toString()).read());
+                measure("JsonStreamReader", round, () -> new JsonStreamReader(file.toString()).read());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    // EFFECTS: runs load once after a full GC and prints its time and the peak heap used while it ran
+    private static void measure(String label, int round, Load load) throws IOException {
+        System.gc();
+        for (MemoryPoolMXBean pool : heapPools()) {
+            pool.resetPeakUsage();
+        }
+        long baseline = usedHeap();
+        long start = System.nanoTime();
+        RescueAlerts ra = load.load();
+        long elapsed = System.nanoTime() - start;
+        long peak = 0;
+        for (MemoryPoolMXBean pool : heapPools()) {
+            peak += pool.getPeakUsage().getUsed();
+        }
+        System.out.printf("round %d  %s  %7.1f ms  peak heap %7.1f MB  (%d alerts)%n", round, label,
+                elapsed / 1e6, (peak - baseline) / 1e6, ra.getNumAlerts());
+    }
+
+    // EFFECTS: returns the number of bytes currently used across the heap memory pools
+    private static long usedHeap() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : heapPools()) {
+            used += pool.getUsage().getUsed();
+        }
+        return used;
+    }
+
+    // EFFECTS: returns the JVM's heap memory pools
+    private static List<MemoryPoolMXBean> heapPools() {
+        List<MemoryPoolMXBean> heap = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                heap.add(pool);
+            }
+        }
+        return heap;
+    }
+
+    // Represents a way of loading rescue alerts from file
+    private interface Load {
+        RescueAlerts load() throws IOException;
+    }
+}
@@ -0,0 +1,124 @@
+package benchmark;
+
+import model.Alert;
+import model.RescueAlerts;
+
+import java.util.List;
+import java.util.Random;
+
+// Measures adding alerts to, and looking them up in, RescueAlerts holding generated disasters of several sizes,
+// and converting an alert to JSON. Run with a comma-separated list of sizes as the only argument
+// (default 1000,10000,100000,1000000), e.g.
+//     java -Xmx4g -cp <classpath> benchmark.RescueAlertsBenchmark 1000,1000000
+// addAlert adds ADDS_PER_ITERATION new alerts to a freshly generated disaster of the given size every iteration.
+public class RescueAlertsBenchmark {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 5;
+    private static final int ADDS_PER_ITERATION = 1000;
+    private static final int LOOKUPS_PER_ITERATION = 1000000;
+    private static final int SCANNED_ALERTS_PER_ITERATION = 10000000;
+    private static final int CONVERSIONS_PER_ITERATION = 100000;
+
+    public static void main(String[] args) throws Exception {
+        String sizes = args.length > 0 ? args[0] : "1000,10000,100000,1000000";
+        Harness harness = new Harness(WARMUP_ITERATIONS, MEASURED_ITERATIONS);
+        harness.printHeader();
+        for (String size : sizes.split(",")) {
+            runAll(harness, Integer.parseInt(size.trim()));
+        }
+        harness.run("Alert.toJson", 1, CONVERSIONS_PER_ITERATION, new ToJson());
+    }
+
+    // EFFECTS: runs every benchmark of RescueAlerts on a generated disaster with numAlerts alerts
+    private static void runAll(Harness harness, int numAlerts) throws Exception {
+        harness.run("RescueAlerts.addAlert", numAlerts, ADDS_PER_ITERATION, new AddAlert(numAlerts));
+        RescueAlerts ra = new DisasterDataGenerator(42).generate("Typhoon Ulysses", numAlerts);
+        harness.run("RescueAlerts.getAlertById", numAlerts, LOOKUPS_PER_ITERATION, new GetAlertById(ra));
+        harness.run("RescueAlerts.getAllAlerts", numAlerts, LOOKUPS_PER_ITERATION, i -> ra.getAllAlerts());
+        harness.run("RescueAlerts.getAllAlerts+scan", numAlerts,
+                Math.max(1, SCANNED_ALERTS_PER_ITERATION / numAlerts), i -> scan(ra.getAllAlerts()));
+    }
+
+    // EFFECTS: returns the total number of people in alerts, reading every alert
+    private static int scan(List<Alert> alerts) {
+        int numPeople = 0;
+        for (Alert a : alerts) {
+            numPeople += a.getNumPeople();
+        }
+        return numPeople;
+    }
+
+    // Represents adding new alerts to a disaster that already has a given number of alerts
+    private static class AddAlert implements Harness.Operation {
+        private final int numAlerts;
+        private final DisasterDataGenerator generator;
+        private final Alert[] newAlerts;
+        private RescueAlerts ra;
+
+        // EFFECTS: creates the benchmark of adding alerts to a disaster with numAlerts alerts
+        AddAlert(int numAlerts) {
+            this.numAlerts = numAlerts;
+            generator = new DisasterDataGenerator(42);
+            newAlerts = new Alert[ADDS_PER_ITERATION];
+        }
+
+        @Override
+        public void beforeIteration() {
+            ra = null; // lets the previous disaster be collected while the next one is generated
+            ra = generator.generate("Typhoon Ulysses", numAlerts);
+            for (int i = 0; i < newAlerts.length; i++) {
+                newAlerts[i] = generator.nextAlert();
+            }
+        }
+
+        @Override
+        public Object invoke(int i) {
+            ra.addAlert(newAlerts[i]);
+            return newAlerts[i];
+        }
+    }
+
+    // Represents looking up alerts by id code in a random order
+    private static class GetAlertById implements Harness.Operation {
+        private static final int NUM_IDS = 1 << 16;
+
+        private final RescueAlerts ra;
+        private final int[] idCodes;
+
+        // EFFECTS: creates the benchmark of looking up alerts in ra by random id codes
+        GetAlertById(RescueAlerts ra) {
+            this.ra = ra;
+            Random random = new Random(42);
+            idCodes = new int[NUM_IDS];
+            for (int i = 0; i < NUM_IDS; i++) {
+                idCodes[i] = random.nextInt(ra.getNumAlerts());
+            }
+        }
+
+        @Override
+        public Object invoke(int i) throws Exception {
+            return ra.getAlertById(idCodes[i & (NUM_IDS - 1)]);
+        }
+    }
+
+    // Represents converting generated alerts to JSON
+    private static class ToJson implements Harness.Operation {
+        private static final int NUM_ALERTS = 1024;
+
+        private final Alert[] alerts;
+
+        // EFFECTS: creates the benchmark of converting NUM_ALERTS generated alerts to JSON
+        ToJson() {
+            DisasterDataGenerator generator = new DisasterDataGenerator(42);
+            alerts = new Alert[NUM_ALERTS];
+            for (int i = 0; i < NUM_ALERTS; i++) {
+                alerts[i] = generator.nextAlert();
+            }
+        }
+
+        @Override
+        public Object invoke(int i) {
+            return alerts[i & (NUM_ALERTS - 1)].toJson();
+        }
+    }
+}
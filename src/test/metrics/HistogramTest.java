@@ -0,0 +1,90 @@
+package metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the Histogram and Counter classes
+public class HistogramTest {
+    Histogram testHistogram;
+
+    @BeforeEach
+    public void setup() {
+        testHistogram = new Histogram(new long[] {10, 100, 1000});
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, testHistogram.getCount());
+        assertEquals(0, testHistogram.getSum());
+        assertEquals(0, testHistogram.getQuantileBound(0.5));
+        assertArrayEquals(new long[] {0, 0, 0, 0}, testHistogram.getBucketCounts());
+    }
+
+    @Test
+    public void testRecord() {
+        testHistogram.record(0);
+        testHistogram.record(10);
+        testHistogram.record(11);
+        testHistogram.record(1000);
+        testHistogram.record(5000);
+        assertArrayEquals(new long[] {2, 1, 1, 1}, testHistogram.getBucketCounts());
+        assertEquals(5, testHistogram.getCount());
+        assertEquals(6021, testHistogram.getSum());
+        assertArrayEquals(new long[] {10, 100, 1000}, testHistogram.getUpperBounds());
+    }
+
+    @Test
+    public void testGetQuantileBound() {
+        for (int i = 1; i <= 100; i++) {
+            testHistogram.record(i);
+        }
+        assertEquals(10, testHistogram.getQuantileBound(0.1));
+        assertEquals(100, testHistogram.getQuantileBound(0.11));
+        assertEquals(100, testHistogram.getQuantileBound(1));
+        testHistogram.record(1001);
+        assertEquals(100, testHistogram.getQuantileBound(0.99));
+        assertEquals(Long.MAX_VALUE, testHistogram.getQuantileBound(1));
+    }
+
+    @Test
+    public void testRecordSince() {
+        testHistogram.recordSince(System.nanoTime());
+        assertEquals(1, testHistogram.getCount());
+        assertTrue(testHistogram.getSum() >= 0);
+    }
+
+    @Test
+    public void testLatencyBounds() {
+        long[] bounds = Histogram.latencyBounds();
+        assertEquals(25, bounds.length);
+        assertEquals(1000, bounds[0]);
+        assertEquals(2500, bounds[1]);
+        assertEquals(5000, bounds[2]);
+        assertEquals(10000, bounds[3]);
+        assertEquals(100000000000L, bounds[24]);
+        for (int i = 1; i < bounds.length; i++) {
+            assertTrue(bounds[i] > bounds[i - 1]);
+        }
+    }
+
+    @Test
+    public void testCounterFromManyThreads() throws InterruptedException {
+        Counter counter = new Counter();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    counter.increment();
+                }
+                counter.add(5);
+            });
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(40020, counter.get());
+    }
+}
@@ -0,0 +1,109 @@
+package metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the MetricsRegistry class
+public class MetricsRegistryTest {
+    MetricsRegistry testRegistry;
+
+    @BeforeEach
+    public void setup() {
+        testRegistry = new MetricsRegistry();
+    }
+
+    @Test
+    public void testRegisterTwiceReturnsSameMetric() {
+        Counter counter = testRegistry.counter("alerts_added_total", "Alerts added");
+        assertSame(counter, testRegistry.counter("alerts_added_total", "Alerts added"));
+        assertNotSame(counter, testRegistry.counter("alerts_added_total", "Alerts added", "disaster", "Ulysses"));
+        Histogram histogram = testRegistry.histogram("save_seconds", "Saves", new long[] {1});
+        assertSame(histogram, testRegistry.histogram("save_seconds", "Saves", new long[] {1}));
+    }
+
+    @Test
+    public void testFormatLabels() {
+        assertEquals("", MetricsRegistry.formatLabels());
+        assertEquals("{from=\"NEEDS_HELP\",to=\"HELP_OTW\"}",
+                MetricsRegistry.formatLabels("from", "NEEDS_HELP", "to", "HELP_OTW"));
+        assertEquals("{name=\"a\\\"b\\\\c\\nd\"}", MetricsRegistry.formatLabels("name", "a\"b\\c\nd"));
+    }
+
+    @Test
+    public void testToText() {
+        testRegistry.counter("alerts_added_total", "Alerts added").add(3);
+        testRegistry.gauge("alerts", "Alerts by status", () -> 7, "status", "RESCUED");
+        Histogram histogram = testRegistry.histogram("save_seconds", "Saves", Histogram.latencyBounds());
+        histogram.record(1500);
+        histogram.record(2500000);
+        assertEquals("alerts{status=\"RESCUED\"} 7\n"
+                + "alerts_added_total 3\n"
+                + "save_seconds count=2 mean=1.3ms p50<=2.5us p99<=2.5ms max<=2.5ms\n", testRegistry.toText());
+    }
+
+    @Test
+    public void testToPrometheus() {
+        testRegistry.counter("status_changes_total", "Status changes", "to", "RESCUED").increment();
+        Histogram histogram = testRegistry.histogram("save_seconds", "Saves", new long[] {1000000, 1000000000},
+                "file", "a.json");
+        histogram.record(500000);
+        histogram.record(2000000000);
+        assertEquals("# HELP save_seconds Saves\n"
+                + "# TYPE save_seconds histogram\n"
+                + "save_seconds_bucket{file=\"a.json\",le=\"0.001\"} 1\n"
+                + "save_seconds_bucket{file=\"a.json\",le=\"1.0\"} 1\n"
+                + "save_seconds_bucket{file=\"a.json\",le=\"+Inf\"} 2\n"
+                + "save_seconds_sum{file=\"a.json\"} 2.0005\n"
+                + "save_seconds_count{file=\"a.json\"} 2\n"
+                + "# HELP status_changes_total Status changes\n"
+                + "# TYPE status_changes_total counter\n"
+                + "status_changes_total{to=\"RESCUED\"} 1\n", testRegistry.toPrometheus());
+    }
+
+    @Test
+    public void testGaugeReplaced() {
+        testRegistry.gauge("alerts", "Alerts", () -> 1);
+        testRegistry.gauge("alerts", "Alerts", () -> 2);
+        assertEquals("alerts 2\n", testRegistry.toText());
+    }
+
+    @Test
+    public void testUnregister() {
+        LongSupplier gui = () -> 1;
+        LongSupplier journal = () -> 2;
+        LongSupplier replaced = () -> 3;
+        testRegistry.gauge("lag", "Lag", gui, "subscriber", "gui");
+        testRegistry.gauge("lag", "Lag", replaced, "subscriber", "journal");
+        testRegistry.gauge("lag", "Lag", journal, "subscriber", "journal");
+        testRegistry.unregister("lag", gui, "subscriber", "gui");
+        testRegistry.unregister("lag", replaced, "subscriber", "journal");
+        assertEquals("lag{subscriber=\"journal\"} 2\n", testRegistry.toText());
+        testRegistry.unregister("lag", journal, "subscriber", "journal");
+        testRegistry.unregister("lag", journal, "subscriber", "journal");
+        testRegistry.unregister("missing", journal);
+        assertEquals("", testRegistry.toText());
+        assertEquals("", testRegistry.toPrometheus());
+    }
+
+    @Test
+    public void testWritePrometheus() throws IOException {
+        Path file = Files.createTempFile("metrics", ".prom");
+        try {
+            testRegistry.counter("alerts_added_total", "Alerts added").increment();
+            testRegistry.writePrometheus(file.toString());
+            assertEquals(testRegistry.toPrometheus(),
+                    new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".tmp")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
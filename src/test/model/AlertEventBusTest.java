@@ -0,0 +1,265 @@
+package model;
+
+import exceptions.AlreadyRescuedException;
+import metrics.MetricsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static model.AlertStatus.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the AlertEventBus class
+class AlertEventBusTest {
+    RescueAlerts testRescueAlerts;
+    AlertEventBus testBus;
+
+    @BeforeEach
+    public void setup() {
+        testRescueAlerts = new RescueAlerts("Typhoon Ulysses");
+        testBus = new AlertEventBus(testRescueAlerts, 64, 16);
+    }
+
+    @AfterEach
+    public void teardown() {
+        testBus.close();
+    }
+
+    @Test
+    public void testEventsInOrderToEverySubscriber() throws AlreadyRescuedException {
+        List<AlertEvent> first = Collections.synchronizedList(new ArrayList<>());
+        List<AlertEvent> second = Collections.synchronizedList(new ArrayList<>());
+        testBus.subscribe("first", first::addAll, false);
+        testBus.subscribe("second", second::addAll, true);
+        Alert alert = newAlert("Jericho Rosales");
+        testRescueAlerts.addAlert(alert);
+        assertTrue(alert.claim("Kim Jones", "09159876543"));
+        assertTrue(alert.advance(HELP_OTW));
+        testBus.close();
+
+        assertEquals(4, testBus.getNumPublished());
+        for (List<AlertEvent> events : Arrays.asList(first, second)) {
+            assertEquals(4, events.size());
+            for (int i = 0; i < events.size(); i++) {
+                assertEquals(i, events.get(i).getSequence());
+                assertSame(alert, events.get(i).getAlert());
+            }
+            assertEquals(AlertEvent.Type.ADDED, events.get(0).getType());
+            assertEquals(NEEDS_HELP, events.get(0).getStatus());
+            assertEquals(AlertEvent.Type.RESCUER_ASSIGNED, events.get(1).getType());
+            assertEquals(AlertEvent.Type.STATUS_CHANGED, events.get(2).getType());
+            assertEquals(NEEDS_HELP, events.get(2).getPrevious());
+            assertEquals(AlertEvent.Type.STATUS_CHANGED, events.get(3).getType());
+            assertEquals(HELP_OTW, events.get(3).getPrevious());
+            assertEquals(RESCUED, events.get(3).getStatus());
+        }
+    }
+
+    @Test
+    public void testEventsBatched() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        testBus.subscribe("batched", events -> {
+            awaitQuietly(release);
+            batchSizes.add(events.size());
+        }, true);
+        for (int i = 0; i < 40; i++) {
+            testRescueAlerts.addAlert(newAlert("Alert " + i));
+        }
+        release.countDown();
+        testBus.close();
+
+        int total = 0;
+        for (int size : batchSizes) {
+            assertTrue(size <= 16);
+            total += size;
+        }
+        assertEquals(40, total);
+        assertTrue(batchSizes.size() < 40);
+    }
+
+    @Test
+    public void testSlowSubscriberOverrun() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicLong missed = new AtomicLong();
+        List<AlertEvent> slow = Collections.synchronizedList(new ArrayList<>());
+        List<AlertEvent> fast = Collections.synchronizedList(new ArrayList<>());
+        AlertEventBus.Subscription slowSubscription = testBus.subscribe("slow", new AlertEventHandler() {
+            @Override
+            public void onEvents(List<AlertEvent> events) {
+                awaitQuietly(release);
+                slow.addAll(events);
+            }
+
+            @Override
+            public void onOverrun(long n) {
+                missed.addAndGet(n);
+            }
+        }, false);
+        testBus.subscribe("fast", fast::addAll, true);
+        for (int i = 0; i < 500; i++) {
+            testRescueAlerts.addAlert(newAlert("Alert " + i));
+        }
+        assertTrue(slowSubscription.getLag() > 0);
+        release.countDown();
+        testBus.close();
+
+        assertEquals(500, fast.size());
+        assertTrue(missed.get() > 0);
+        assertEquals(missed.get(), slowSubscription.getNumMissed());
+        assertEquals(500, slow.size() + missed.get());
+        assertEquals(499, slow.get(slow.size() - 1).getSequence());
+        assertEquals(0, slowSubscription.getLag());
+    }
+
+    @Test
+    public void testGatingSubscriberHoldsBackPublishers() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<AlertEvent> gated = Collections.synchronizedList(new ArrayList<>());
+        testBus.subscribe("gating", events -> {
+            awaitQuietly(release);
+            gated.addAll(events);
+        }, true);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 200; i++) {
+                testRescueAlerts.addAlert(newAlert("Alert " + i));
+            }
+        });
+        producer.start();
+        producer.join(200);
+        assertTrue(producer.isAlive());
+        assertEquals(64 + 1, testBus.getNumPublished());
+        release.countDown();
+        producer.join(10000);
+        assertFalse(producer.isAlive());
+        testBus.close();
+
+        assertEquals(200, gated.size());
+        for (int i = 0; i < gated.size(); i++) {
+            assertEquals(i, gated.get(i).getSequence());
+        }
+    }
+
+    @Test
+    public void testConcurrentPublishers() throws InterruptedException {
+        AtomicLong next = new AtomicLong();
+        AtomicLong outOfOrder = new AtomicLong();
+        testBus.subscribe("checker", events -> {
+            for (AlertEvent e : events) {
+                if (e.getSequence() != next.getAndIncrement()) {
+                    outOfOrder.incrementAndGet();
+                }
+            }
+        }, true);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int id = t;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    testRescueAlerts.addAlert(newAlert("Alert " + id + "-" + i));
+                }
+            }));
+        }
+        for (Thread p : producers) {
+            p.start();
+        }
+        for (Thread p : producers) {
+            p.join();
+        }
+        testBus.close();
+        assertEquals(8000, next.get());
+        assertEquals(0, outOfOrder.get());
+    }
+
+    @Test
+    public void testObserverSubscriber() throws AlreadyRescuedException {
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        testBus.subscribe("observer", new RescueAlertsObserver() {
+            @Override
+            public void alertAdded(Alert alert) {
+                seen.add("added " + alert.getName());
+            }
+
+            @Override
+            public void alertsAdded(List<Alert> alerts) {
+                seen.add("added " + alerts.size());
+            }
+
+            @Override
+            public void statusChanged(Alert alert, AlertStatus previous) {
+                seen.add(previous + " -> " + alert.getStatus());
+            }
+
+            @Override
+            public void rescuerAssigned(Alert alert) {
+                seen.add("rescuer " + alert.getRescuerName());
+            }
+        }, false);
+        Alert alert = newAlert("Vice Ganda");
+        testRescueAlerts.addAlert(alert);
+        assertTrue(alert.claim("Kim Jones", "09159876543"));
+        testBus.close();
+
+        assertTrue(seen.size() >= 3);
+        assertEquals("added 1", seen.get(0));
+        assertEquals("rescuer Kim Jones", seen.get(1));
+        assertEquals("NEEDS_HELP -> HELP_OTW", seen.get(2));
+    }
+
+    @Test
+    public void testFailingSubscriberDoesNotStopOthers() {
+        List<AlertEvent> events = Collections.synchronizedList(new ArrayList<>());
+        testBus.subscribe("failing", e -> {
+            throw new IllegalStateException("failed");
+        }, true);
+        testBus.subscribe("working", events::addAll, true);
+        for (int i = 0; i < 3; i++) {
+            testRescueAlerts.addAlert(newAlert("Alert " + i));
+        }
+        testBus.close();
+        assertEquals(3, events.size());
+    }
+
+    @Test
+    public void testCloseStopsPublishing() {
+        List<AlertEvent> events = Collections.synchronizedList(new ArrayList<>());
+        testBus.subscribe("closed", events::addAll, false);
+        testRescueAlerts.addAlert(newAlert("Anne Curtis"));
+        testBus.close();
+        testRescueAlerts.addAlert(newAlert("Coco Martin"));
+        assertEquals(1, testBus.getNumPublished());
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    public void testCloseUnregistersLag() {
+        AlertEventBus.Subscription subscription = testBus.subscribe("unregistered", events -> { }, false);
+        assertSame(testRescueAlerts, testBus.getRescueAlerts());
+        String lag = "alert_event_subscriber_lag{subscriber=\"unregistered\"}";
+        assertTrue(MetricsRegistry.getDefault().toText().contains(lag));
+        subscription.close();
+        assertFalse(MetricsRegistry.getDefault().toText().contains(lag));
+    }
+
+    // EFFECTS: waits for latch to count down, giving up after ten seconds
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // EFFECTS: returns a new alert for the given name
+    private static Alert newAlert(String name) {
+        return AlertFactory.newAlert(name, "09288881234", "Marikina", 1, false);
+    }
+}
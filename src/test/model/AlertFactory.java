@@ -0,0 +1,29 @@
+package model;
+
+import exceptions.InvalidNumPeopleException;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Makes the alerts used by tests, failing the test instead of throwing if an alert cannot be made
+public class AlertFactory {
+    // EFFECTS: returns a new alert with the given details; fails the test if numPeople is invalid
+    public static Alert newAlert(String name, String contactNum, String location, int numPeople, boolean isUrgent) {
+        try {
+            return new Alert(name, contactNum, location, numPeople, isUrgent);
+        } catch (InvalidNumPeopleException e) {
+            fail("Unexpected InvalidNumPeopleException");
+            return null;
+        }
+    }
+
+    // EFFECTS: returns a new alert with the given details and coordinates; fails the test if numPeople is invalid
+    public static Alert newAlert(String name, String contactNum, String location, double latitude, double longitude,
+                                 int numPeople, boolean isUrgent) {
+        try {
+            return new Alert(name, contactNum, location, latitude, longitude, numPeople, isUrgent);
+        } catch (InvalidNumPeopleException e) {
+            fail("Unexpected InvalidNumPeopleException");
+            return null;
+        }
+    }
+}
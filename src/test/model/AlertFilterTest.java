@@ -0,0 +1,67 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static model.AlertStatus.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the AlertFilter class
+class AlertFilterTest {
+    Alert a1;
+    Alert a2;
+
+    @BeforeEach
+    public void setup() {
+        a1 = AlertFactory.newAlert("Jericho Rosales", "09172473475", "1432 Kaimito, Barangay Don Juan", 5, true);
+        a2 = AlertFactory.newAlert("Vice Ganda", "09228459012", "ABS-CBN Broadcasting Center", 2, false);
+    }
+
+    @Test
+    public void testAllMatchesEverything() {
+        assertTrue(AlertFilter.ALL.matchesAll());
+        assertTrue(AlertFilter.ALL.matches(a1));
+        assertTrue(AlertFilter.ALL.matches(a2));
+        assertTrue(new AlertFilter(null, false, "   ").matchesAll());
+        assertTrue(new AlertFilter(null, false, null).matchesAll());
+    }
+
+    @Test
+    public void testStatus() {
+        AlertFilter needsHelp = new AlertFilter(NEEDS_HELP, false, "");
+        assertFalse(needsHelp.matchesAll());
+        assertEquals(NEEDS_HELP, needsHelp.getStatus());
+        assertTrue(needsHelp.matches(a1));
+        a1.setStatus(HELP_OTW);
+        assertFalse(needsHelp.matches(a1));
+        assertTrue(new AlertFilter(HELP_OTW, false, "").matches(a1));
+    }
+
+    @Test
+    public void testUrgentOnly() {
+        AlertFilter urgent = new AlertFilter(null, true, "");
+        assertTrue(urgent.isUrgentOnly());
+        assertTrue(urgent.matches(a1));
+        assertFalse(urgent.matches(a2));
+    }
+
+    @Test
+    public void testLocationIgnoresCaseAndWhitespace() {
+        AlertFilter donJuan = new AlertFilter(null, false, "  barangay DON juan ");
+        assertEquals("barangay DON juan", donJuan.getLocationText());
+        assertTrue(donJuan.matches(a1));
+        assertFalse(donJuan.matches(a2));
+        assertTrue(new AlertFilter(null, false, "1432").matches(a1));
+        assertTrue(new AlertFilter(null, false, "center").matches(a2));
+        assertFalse(new AlertFilter(null, false, "Broadcasting Center, Quezon City").matches(a2));
+    }
+
+    @Test
+    public void testAllCriteria() {
+        AlertFilter filter = new AlertFilter(NEEDS_HELP, true, "kaimito");
+        assertTrue(filter.matches(a1));
+        assertFalse(filter.matches(a2));
+        a1.setStatus(RESCUED);
+        assertFalse(filter.matches(a1));
+    }
+}
@@ -0,0 +1,57 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the AlertIndex class
+class AlertIndexTest {
+    AlertIndex testIndex;
+    Alert a1;
+    Alert a2;
+
+    @BeforeEach
+    public void setup() {
+        testIndex = new AlertIndex();
+        a1 = AlertFactory.newAlert("Jericho Rosales", "09172473475", "1432 Kaimito, Barangay Don Juan", 5, true);
+        a2 = AlertFactory.newAlert("Vice Ganda", "09228459012", "ABS-CBN Broadcasting Center", 2, false);
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, testIndex.size());
+        assertNull(testIndex.get(0));
+    }
+
+    @Test
+    public void testPutAndGet() {
+        testIndex.put(0, a1);
+        testIndex.put(7, a2);
+        assertEquals(2, testIndex.size());
+        assertEquals(a1, testIndex.get(0));
+        assertEquals(a2, testIndex.get(7));
+        assertNull(testIndex.get(1));
+    }
+
+    @Test
+    public void testPutReplaces() {
+        testIndex.put(3, a1);
+        testIndex.put(3, a2);
+        assertEquals(1, testIndex.size());
+        assertEquals(a2, testIndex.get(3));
+    }
+
+    @Test
+    public void testManyIdCodesSurviveResize() {
+        for (int i = 0; i < 10000; i++) {
+            testIndex.put(i, i % 2 == 0 ? a1 : a2);
+        }
+        assertEquals(10000, testIndex.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i % 2 == 0 ? a1 : a2, testIndex.get(i));
+        }
+        assertNull(testIndex.get(10000));
+        assertNull(testIndex.get(-1));
+    }
+}
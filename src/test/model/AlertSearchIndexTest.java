@@ -0,0 +1,121 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the AlertSearchIndex class
+class AlertSearchIndexTest {
+    RescueAlerts testRescueAlerts;
+    AlertSearchIndex testIndex;
+    Alert a1;
+    Alert a2;
+    Alert a3;
+
+    @BeforeEach
+    public void setup() {
+        testRescueAlerts = new RescueAlerts("Typhoon Ulysses");
+        a1 = AlertFactory.newAlert("Jericho Rosales", "09172473475", "1432 Kaimito, Barangay Don Juan", 5, true);
+        a2 = AlertFactory.newAlert("Vice Ganda", "09228459012", "ABS-CBN Broadcasting Center", 2, false);
+        a3 = AlertFactory.newAlert("Willie Revillame", "09151234567", "82 Sampaguita, Barangay Tañong", 9, false);
+        testRescueAlerts.addAlert(a1);
+        testIndex = new AlertSearchIndex(testRescueAlerts);
+        testRescueAlerts.addAlert(a2);
+        testRescueAlerts.addAlert(a3);
+    }
+
+    @Test
+    public void testTokenize() {
+        assertEquals(Arrays.asList("1432", "kaimito", "barangay", "don", "juan"),
+                AlertSearchIndex.tokenize("1432 Kaimito, Barangay Don Juan"));
+        assertEquals(Arrays.asList("jesus", "de", "la", "pena", "santo", "nino"),
+                AlertSearchIndex.tokenize("  Jesus de la PEÑA / Santo Niño "));
+        assertEquals(new ArrayList<>(), AlertSearchIndex.tokenize(" ,- "));
+        assertEquals(new ArrayList<>(), AlertSearchIndex.tokenize(null));
+    }
+
+    @Test
+    public void testSearchWholeWords() {
+        assertArrayEquals(new int[] {0, 2}, testIndex.search("barangay"));
+        assertArrayEquals(new int[] {1}, testIndex.search("abs-cbn"));
+        assertArrayEquals(new int[] {0}, testIndex.search("jericho"));
+        assertArrayEquals(new int[0], testIndex.search("marikina"));
+        assertArrayEquals(new int[0], testIndex.search(""));
+    }
+
+    @Test
+    public void testSearchIgnoresCaseAndAccents() {
+        assertArrayEquals(new int[] {2}, testIndex.search("TANONG"));
+        assertArrayEquals(new int[] {2}, testIndex.search("Tañong"));
+        assertArrayEquals(new int[] {0}, testIndex.search("dón"));
+    }
+
+    @Test
+    public void testSearchPrefixes() {
+        assertArrayEquals(new int[] {0, 2}, testIndex.search("bara"));
+        assertArrayEquals(new int[] {1}, testIndex.search("b c"));
+        assertArrayEquals(new int[] {0, 2}, testIndex.search("r"));
+    }
+
+    @Test
+    public void testSearchAllWords() {
+        assertArrayEquals(new int[] {0}, testIndex.search("barangay don juan"));
+        assertArrayEquals(new int[0], testIndex.search("brgy tan"));
+        assertArrayEquals(new int[] {2}, testIndex.search("barangay tan"));
+        assertArrayEquals(new int[0], testIndex.search("barangay center"));
+        assertArrayEquals(new int[] {0}, testIndex.search("rosales juan"));
+    }
+
+    @Test
+    public void testSearchAlerts() {
+        List<Alert> found = testIndex.searchAlerts("barangay");
+        assertEquals(2, found.size());
+        assertEquals(a1, found.get(0));
+        assertEquals(a3, found.get(1));
+    }
+
+    @Test
+    public void testAlertsAddedOutOfOrder() {
+        Alert late = newAlert("Barangay Don Juan");
+        late.setIdCode(100);
+        Alert early = newAlert("Barangay Don Juan Extension");
+        early.setIdCode(50);
+        assertTrue(testRescueAlerts.restoreAlert(late));
+        assertTrue(testRescueAlerts.restoreAlert(early));
+        assertArrayEquals(new int[] {0, 50, 100}, testIndex.search("don juan"));
+        assertArrayEquals(new int[] {50}, testIndex.search("ext"));
+    }
+
+    @Test
+    public void testConcurrentAddsAreSearchable() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    testRescueAlerts.addAlert(newAlert("Barangay Malanday"));
+                    testIndex.search("malanday");
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        int[] ids = testIndex.search("barangay malanday");
+        assertEquals(2000, ids.length);
+        for (int i = 1; i < ids.length; i++) {
+            assertTrue(ids[i - 1] < ids[i]);
+        }
+    }
+
+    // EFFECTS: returns a new alert at the given location
+    private Alert newAlert(String location) {
+        return AlertFactory.newAlert("Anonymous", "09288881234", location, 1, false);
+    }
+}
@@ -5,6 +5,11 @@ import exceptions.InvalidNumPeopleException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static model.AlertStatus.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,6 +26,43 @@ class AlertTest {
         }
     }
 
+    @Test
+    public void testStatusHistory() throws AlreadyRescuedException {
+        StatusHistory history = a1.getStatusHistory();
+        assertEquals(1, history.size());
+        assertEquals(NEEDS_HELP, history.getStatus(0));
+        assertTrue(a1.claim("Kim Jones", "09159876543"));
+        assertFalse(a1.claim("Coco Martin", "09171112222"));
+        assertTrue(a1.advance(HELP_OTW));
+        a1.setStatus(RESCUED);
+        assertEquals(3, history.size());
+        assertEquals(HELP_OTW, history.getStatus(1));
+        assertEquals(RESCUED, history.getStatus(2));
+        assertTrue(history.getTime(2) >= history.getTime(0));
+        assertEquals(3, a1.toJson().getJSONArray("status history").length());
+    }
+
+    @Test
+    public void testRestoreStatus() {
+        List<AlertStatus> changes = new ArrayList<>();
+        a1.addObserver(new AlertObserver() {
+            @Override
+            public void statusChanged(Alert alert, AlertStatus previous) {
+                changes.add(alert.getStatus());
+            }
+
+            @Override
+            public void rescuerAssigned(Alert alert) {
+            }
+        });
+        StatusHistory restored = new StatusHistory();
+        a1.restoreStatus(HELP_OTW, restored);
+        assertEquals(HELP_OTW, a1.getStatus());
+        assertSame(restored, a1.getStatusHistory());
+        assertEquals(0, restored.size());
+        assertEquals(1, changes.size());
+    }
+
     @Test
     public void testGetters() {
         assertEquals("Jericho Rosales", a1.getName());
@@ -34,6 +76,25 @@ class AlertTest {
         assertEquals(RescueAlerts.INITIAL_ID_CODE,a1.getIdCode());
     }
 
+    @Test
+    public void testCoordinates() {
+        assertFalse(a1.hasCoordinates());
+        assertTrue(Double.isNaN(a1.getLatitude()));
+        assertTrue(Double.isNaN(a1.getLongitude()));
+        assertFalse(a1.toJson().has("latitude"));
+        try {
+            Alert a2 = new Alert("Vice Ganda", "09228459012", "ABS-CBN Broadcasting Center", 14.6424, 121.0359, 2,
+                    false);
+            assertTrue(a2.hasCoordinates());
+            assertEquals(14.6424, a2.getLatitude());
+            assertEquals(121.0359, a2.getLongitude());
+            assertEquals(14.6424, a2.toJson().getDouble("latitude"));
+            assertEquals(121.0359, a2.toJson().getDouble("longitude"));
+        } catch (InvalidNumPeopleException e) {
+            fail("Unexpected InvalidNumPeopleException");
+        }
+    }
+
     @Test
     public void testRescuerHelpOtw() {
         a1.setStatus(HELP_OTW);
@@ -161,7 +222,27 @@ class AlertTest {
         assertEquals("099", Alert.formatIdCode(99));
         assertEquals("100", Alert.formatIdCode(100));
         assertEquals("999", Alert.formatIdCode(999));
-        assertNull(Alert.formatIdCode(1000));
+        assertEquals("1000", Alert.formatIdCode(1000));
+        assertEquals("2147483647", Alert.formatIdCode(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testAppendIdCode() {
+        StringBuilder sb = new StringBuilder("ID ");
+        assertSame(sb, Alert.appendIdCode(sb, 7));
+        Alert.appendIdCode(sb.append(' '), 1234567);
+        assertEquals("ID 007 1234567", sb.toString());
+    }
+
+    @Test
+    public void testGetFormattedIdCode() {
+        a1.setIdCode(42);
+        String formatted = a1.getFormattedIdCode();
+        assertEquals("042", formatted);
+        assertSame(formatted, a1.getFormattedIdCode());
+        a1.setIdCode(123456);
+        assertEquals("123456", a1.getFormattedIdCode());
+        assertTrue(a1.toString().startsWith("123456 | "));
     }
 
     @Test
@@ -180,4 +261,87 @@ class AlertTest {
         assertEquals("ANON", Alert.formatAnonymous("ANON"));
         assertEquals("pizza", Alert.formatAnonymous("pizza"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testClaim() {
+        assertTrue(a1.claim("Kim Jones", "09159876543"));
+        assertEquals(HELP_OTW, a1.getStatus());
+        assertEquals("Kim Jones", a1.getRescuerName());
+        assertEquals("09159876543", a1.getRescuerContactNum());
+        assertTrue(a1.hasRescuer());
+    }
+
+    @Test
+    public void testClaimAlreadyClaimed() {
+        assertTrue(a1.claim("Kim Jones", "09159876543"));
+        assertFalse(a1.claim("Jhepoy Dizon", "09171112222"));
+        assertEquals(HELP_OTW, a1.getStatus());
+        assertEquals("Kim Jones", a1.getRescuerName());
+        assertEquals("09159876543", a1.getRescuerContactNum());
+
+        a1.setStatus(RESCUED);
+        assertFalse(a1.claim("Jhepoy Dizon", "09171112222"));
+        assertEquals(RESCUED, a1.getStatus());
+    }
+
+    @Test
+    public void testAdvance() {
+        try {
+            assertTrue(a1.advance(NEEDS_HELP));
+            assertEquals(HELP_OTW, a1.getStatus());
+            assertFalse(a1.advance(NEEDS_HELP));
+            assertEquals(HELP_OTW, a1.getStatus());
+            assertTrue(a1.advance(HELP_OTW));
+            assertEquals(RESCUED, a1.getStatus());
+            assertFalse(a1.advance(HELP_OTW));
+            assertEquals(RESCUED, a1.getStatus());
+        } catch (AlreadyRescuedException e) {
+            fail("Unexpected AlreadyRescuedException");
+        }
+    }
+
+    @Test
+    public void testAdvanceRescuedExpectException() {
+        a1.setStatus(RESCUED);
+        try {
+            a1.advance(RESCUED);
+            fail("AlreadyRescuedException was not thrown");
+        } catch (AlreadyRescuedException e) {
+            // do nothing
+        }
+        assertEquals(RESCUED, a1.getStatus());
+    }
+
+    @Test
+    public void testConcurrentClaimExactlyOneWinner() throws InterruptedException {
+        int numRescuers = 16;
+        for (int round = 0; round < 50; round++) {
+            setup();
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger winners = new AtomicInteger();
+            List<Thread> threads = new ArrayList<>();
+            for (int r = 0; r < numRescuers; r++) {
+                String rescuer = "Rescuer " + r;
+                Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (a1.claim(rescuer, rescuer + " contact")) {
+                        winners.incrementAndGet();
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertEquals(1, winners.get());
+            assertEquals(HELP_OTW, a1.getStatus());
+            assertEquals(a1.getRescuerName() + " contact", a1.getRescuerContactNum());
+        }
+    }
+}
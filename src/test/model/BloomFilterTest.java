@@ -0,0 +1,65 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the BloomFilter class
+class BloomFilterTest {
+
+    @Test
+    public void testNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        assertEquals(1000, filter.getExpectedInsertions());
+        assertEquals(7, filter.getNumHashes());
+        assertFalse(filter.mightContain(42));
+        Random random = new Random(210);
+        long[] hashes = new long[1000];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = random.nextLong();
+            filter.add(hashes[i]);
+        }
+        for (long hash : hashes) {
+            assertTrue(filter.mightContain(hash));
+        }
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+        Random random = new Random(210);
+        for (int i = 0; i < 10000; i++) {
+            filter.add(random.nextLong());
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.mightContain(random.nextLong())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2000, falsePositives + " false positives");
+    }
+
+    @Test
+    public void testConcurrentAdds() throws InterruptedException {
+        BloomFilter filter = new BloomFilter(40000, 0.01);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long first = t;
+            threads[t] = new Thread(() -> {
+                for (long hash = first; hash < 40000; hash += 4) {
+                    filter.add(hash * 0x9e3779b97f4a7c15L);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (long hash = 0; hash < 40000; hash++) {
+            assertTrue(filter.mightContain(hash * 0x9e3779b97f4a7c15L));
+        }
+    }
+}
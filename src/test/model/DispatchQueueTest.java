@@ -0,0 +1,146 @@
+package model;
+
+import org.json.JSONArray;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static model.AlertStatus.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the DispatchQueue class
+class DispatchQueueTest {
+    RescueAlerts testRescueAlerts;
+    DispatchQueue testQueue;
+    Alert a1;
+    Alert a2;
+    Alert a3;
+
+    @BeforeEach
+    public void setup() {
+        testRescueAlerts = new RescueAlerts("Typhoon Ulysses");
+        a1 = AlertFactory.newAlert("Jericho Rosales", "09172473475", "1432 Kaimito, Barangay Don Juan", 5, true);
+        a2 = AlertFactory.newAlert("Vice Ganda", "09228459012", "ABS-CBN Broadcasting Center", 2, false);
+        a3 = AlertFactory.newAlert("Willie Revillame", "09151234567", "82 White Plains Avenue", 9, false);
+        testRescueAlerts.addAlert(a2);
+        testQueue = new DispatchQueue(testRescueAlerts);
+        testRescueAlerts.addAlert(a3);
+        testRescueAlerts.addAlert(a1);
+    }
+
+    @Test
+    public void testTriageOrder() {
+        assertEquals(3, testQueue.size());
+        assertEquals(a1, testQueue.peekNext());
+        assertEquals(a1, testQueue.pollNext());
+        assertEquals(a3, testQueue.pollNext());
+        assertEquals(a2, testQueue.pollNext());
+        assertNull(testQueue.pollNext());
+        assertNull(testQueue.peekNext());
+        assertEquals(0, testQueue.size());
+    }
+
+    @Test
+    public void testWaitTimeBreaksTies() {
+        Alert later = newAlert(2);
+        testRescueAlerts.addAlert(later);
+        assertEquals(a1, testQueue.pollNext());
+        assertEquals(a3, testQueue.pollNext());
+        assertEquals(a2, testQueue.pollNext());
+        assertEquals(later, testQueue.pollNext());
+    }
+
+    @Test
+    public void testWaitTimeTakenFromStatusHistory() {
+        Alert older = newAlert(2);
+        older.setIdCode(100);
+        older.restoreStatus(NEEDS_HELP, StatusHistory.fromJson(new JSONArray("[[\"NEEDS_HELP\", 1000]]")));
+        testRescueAlerts.restoreAlert(older);
+        assertEquals(a1, testQueue.pollNext());
+        assertEquals(a3, testQueue.pollNext());
+        assertEquals(older, testQueue.pollNext());
+        assertEquals(a2, testQueue.pollNext());
+    }
+
+    @Test
+    public void testClaimedAndRescuedAlertsLeaveQueue() {
+        assertTrue(a1.claim("Kim Jones", "09159876543"));
+        a3.setStatus(RESCUED);
+        assertEquals(1, testQueue.size());
+        assertEquals(a2, testQueue.pollNext());
+        assertNull(testQueue.pollNext());
+    }
+
+    @Test
+    public void testBackToNeedsHelpKeepsWaitTime() {
+        assertTrue(a3.claim("Kim Jones", "09159876543"));
+        testRescueAlerts.addAlert(newAlert(9));
+        a3.setStatus(NEEDS_HELP);
+        assertEquals(a1, testQueue.pollNext());
+        assertEquals(a3, testQueue.pollNext());
+    }
+
+    @Test
+    public void testReprioritize() {
+        assertEquals(a1, testQueue.pollNext());
+        assertEquals(2, testQueue.size());
+        testQueue.reprioritize(a1);
+        assertEquals(3, testQueue.size());
+        assertEquals(a1, testQueue.peekNext());
+
+        a1.setStatus(RESCUED);
+        testQueue.reprioritize(a1);
+        assertEquals(a3, testQueue.peekNext());
+    }
+
+    @Test
+    public void testClaimNextSkipsClaimedAlerts() {
+        Alert claimed = testQueue.claimNext("Kim Jones", "09159876543");
+        assertEquals(a1, claimed);
+        assertEquals(HELP_OTW, a1.getStatus());
+        assertEquals("Kim Jones", a1.getRescuerName());
+        assertEquals(a3, testQueue.claimNext("Jhepoy Dizon", "09171112222"));
+        assertEquals(a2, testQueue.claimNext("Jhepoy Dizon", "09171112222"));
+        assertNull(testQueue.claimNext("Jhepoy Dizon", "09171112222"));
+    }
+
+    @Test
+    public void testConcurrentDispatchDesksClaimEachAlertOnce() throws InterruptedException {
+        for (int i = 0; i < 2000; i++) {
+            testRescueAlerts.addAlert(newAlert(1 + i % 7));
+        }
+        Set<Alert> claimed = ConcurrentHashMap.newKeySet();
+        AtomicInteger numClaims = new AtomicInteger();
+        List<Thread> desks = new ArrayList<>();
+        for (int d = 0; d < 8; d++) {
+            String desk = "Desk " + d;
+            Thread thread = new Thread(() -> {
+                Alert next = testQueue.claimNext(desk, "0917");
+                while (next != null) {
+                    claimed.add(next);
+                    numClaims.incrementAndGet();
+                    next = testQueue.claimNext(desk, "0917");
+                }
+            });
+            desks.add(thread);
+            thread.start();
+        }
+        for (Thread thread : desks) {
+            thread.join();
+        }
+        assertEquals(2003, numClaims.get());
+        assertEquals(2003, claimed.size());
+        assertEquals(0, testQueue.size());
+        assertEquals(0, testRescueAlerts.getNumAlerts(NEEDS_HELP));
+    }
+
+    // EFFECTS: returns a new non-urgent alert for the given number of people
+    private Alert newAlert(int numPeople) {
+        return AlertFactory.newAlert("Anonymous", "09288881234", "SM Megamall", numPeople, false);
+    }
+}
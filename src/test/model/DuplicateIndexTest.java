@@ -0,0 +1,102 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static model.AlertStatus.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the DuplicateIndex class
+class DuplicateIndexTest {
+    DuplicateIndex testIndex;
+    Alert a1;
+
+    @BeforeEach
+    public void setup() {
+        testIndex = new DuplicateIndex();
+        a1 = newAlert("0917-247-3475", "1432 Kaimito St., Brgy. Don Juan");
+        assertNull(testIndex.register(a1));
+    }
+
+    @Test
+    public void testNormalizeContact() {
+        assertEquals("09172473475", DuplicateIndex.normalizeContact("0917 247 3475"));
+        assertEquals("09172473475", DuplicateIndex.normalizeContact("+63 917 247 3475"));
+        assertEquals("09172473475", DuplicateIndex.normalizeContact("(917) 247-3475"));
+        assertEquals("8123456", DuplicateIndex.normalizeContact("812-3456"));
+        assertEquals("", DuplicateIndex.normalizeContact("none"));
+        assertEquals("", DuplicateIndex.normalizeContact(null));
+    }
+
+    @Test
+    public void testNormalizeLocation() {
+        assertEquals("1432 kaimito street barangay don juan",
+                DuplicateIndex.normalizeLocation("1432 Kaimito St., Brgy. Don Juan"));
+        assertEquals("82 sampaguita barangay tanong", DuplicateIndex.normalizeLocation(" 82  Sampaguita, BGY Tañong"));
+    }
+
+    @Test
+    public void testSameRequestFromAnotherChannel() {
+        assertEquals(a1, testIndex.register(newAlert("+639172473475", "1432 kaimito street, barangay don juan")));
+        assertEquals(a1, testIndex.register(a1));
+    }
+
+    @Test
+    public void testDifferentRequests() {
+        assertNull(testIndex.register(newAlert("09172473475", "Provident Village")));
+        assertNull(testIndex.register(newAlert("09228459012", "1432 Kaimito St., Brgy. Don Juan")));
+        assertNull(testIndex.register(newAlert("", "1432 Kaimito St., Brgy. Don Juan")));
+        assertNull(testIndex.register(newAlert("", "1432 Kaimito St., Brgy. Don Juan")));
+    }
+
+    @Test
+    public void testRescuedAlertsAreNotDuplicated() {
+        a1.setStatus(HELP_OTW);
+        Alert repeat = newAlert("09172473475", "1432 Kaimito St., Brgy. Don Juan");
+        assertEquals(a1, testIndex.register(repeat));
+        a1.setStatus(RESCUED);
+        assertNull(testIndex.register(repeat));
+        assertEquals(repeat, testIndex.register(newAlert("09172473475", "1432 Kaimito St., Brgy. Don Juan")));
+    }
+
+    @Test
+    public void testManyContacts() {
+        for (int i = 0; i < 100000; i++) {
+            assertNull(testIndex.register(newAlert("09" + (100000000 + i), "Marikina")));
+        }
+        assertEquals(a1, testIndex.register(newAlert("09172473475", "1432 Kaimito St., Brgy. Don Juan")));
+        assertNotNull(testIndex.register(newAlert("09100000123", "marikina")));
+    }
+
+    @Test
+    public void testConcurrentRepeatsRegisterOnce() throws InterruptedException {
+        Set<Alert> registered = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    Alert a = newAlert("0920" + (1000000 + i), "Barangay Malanday");
+                    if (testIndex.register(a) == null) {
+                        registered.add(a);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1000, registered.size());
+    }
+
+    // EFFECTS: returns a new alert from the given contact number at the given location
+    private Alert newAlert(String contactNum, String location) {
+        return AlertFactory.newAlert("Anonymous", contactNum, location, 1, false);
+    }
+}
@@ -0,0 +1,123 @@
+package model;
+
+import exceptions.AlreadyRescuedException;
+import org.json.JSONArray;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static model.AlertStatus.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the EscalationScheduler class
+class EscalationSchedulerTest {
+    private static final long MINUTE = 60 * 1000;
+
+    RescueAlerts testRescueAlerts;
+    EscalationScheduler testScheduler;
+    List<String> escalated;
+    Alert urgent;
+    Alert notUrgent;
+
+    @BeforeEach
+    public void setup() {
+        testRescueAlerts = new RescueAlerts("Typhoon Ulysses");
+        testScheduler = new EscalationScheduler(testRescueAlerts, 60 * MINUTE, 4 * 60 * MINUTE, 1000);
+        escalated = new ArrayList<>();
+        testScheduler.addListener((alert, status) -> escalated.add(alert.getName() + " " + status));
+        urgent = newAlert("Jericho Rosales", true);
+        notUrgent = newAlert("Vice Ganda", false);
+        testRescueAlerts.addAlert(urgent);
+        testRescueAlerts.addAlert(notUrgent);
+    }
+
+    @AfterEach
+    public void teardown() {
+        testScheduler.close();
+    }
+
+    @Test
+    public void testUrgentAlertEscalatedOnce() {
+        assertEquals(1, testScheduler.getNumPending());
+        long posted = urgent.getStatusHistory().getLastTime(NEEDS_HELP);
+        assertEquals(0, testScheduler.advanceTo(posted + 59 * MINUTE));
+        assertEquals(1, testScheduler.advanceTo(posted + 61 * MINUTE));
+        assertEquals(0, testScheduler.advanceTo(posted + 10 * 60 * MINUTE));
+        assertEquals(1, escalated.size());
+        assertEquals("Jericho Rosales NEEDS_HELP", escalated.get(0));
+        assertEquals(0, testScheduler.getNumPending());
+    }
+
+    @Test
+    public void testRearmedOnStatusChange() throws AlreadyRescuedException {
+        long posted = urgent.getStatusHistory().getLastTime(NEEDS_HELP);
+        assertTrue(urgent.claim("Kim Jones", "09159876543"));
+        assertTrue(notUrgent.claim("Coco Martin", "09171112222"));
+        assertEquals(2, testScheduler.getNumPending());
+        assertEquals(0, testScheduler.advanceTo(posted + 2 * 60 * MINUTE));
+        assertTrue(notUrgent.advance(HELP_OTW));
+        assertEquals(1, testScheduler.getNumPending());
+        assertEquals(1, testScheduler.advanceTo(posted + 5 * 60 * MINUTE));
+        assertEquals("Jericho Rosales HELP_OTW", escalated.get(0));
+    }
+
+    @Test
+    public void testExistingAlertsArmedFromTheirHistory() {
+        Alert stale = newAlert("Willie Revillame", false);
+        stale.setIdCode(100);
+        stale.restoreStatus(HELP_OTW, StatusHistory.fromJson(new JSONArray(
+                "[[\"NEEDS_HELP\", 1000], [\"HELP_OTW\", 2000]]")));
+        RescueAlerts ra = new RescueAlerts("Typhoon Ulysses");
+        ra.restoreAlert(stale);
+        EscalationScheduler scheduler = new EscalationScheduler(ra, 60 * MINUTE, 4 * 60 * MINUTE, 1000);
+        assertEquals(1, scheduler.getNumPending());
+        assertEquals(1, scheduler.advanceTo(StatusHistory.now() + 1000));
+        scheduler.close();
+    }
+
+    @Test
+    public void testStartEscalatesInBackground() throws InterruptedException {
+        EscalationScheduler scheduler = new EscalationScheduler(testRescueAlerts, 0, 0, 10);
+        CountDownLatch overdue = new CountDownLatch(1);
+        scheduler.addListener((alert, status) -> {
+            throw new IllegalStateException("listener failed");
+        });
+        scheduler.addListener((alert, status) -> overdue.countDown());
+        scheduler.start();
+        assertTrue(overdue.await(5, TimeUnit.SECONDS));
+        scheduler.close();
+    }
+
+    @Test
+    public void testSubscribedToEventBus() throws AlreadyRescuedException {
+        AlertEventBus bus = new AlertEventBus(testRescueAlerts, 64, 16);
+        EscalationScheduler scheduler = new EscalationScheduler(bus, 60 * MINUTE, 4 * 60 * MINUTE, 1000);
+        assertEquals(1, scheduler.getNumPending());
+        Alert added = newAlert("Anne Curtis", true);
+        testRescueAlerts.addAlert(added);
+        assertTrue(notUrgent.claim("Coco Martin", "09171112222"));
+        bus.close();
+        assertEquals(3, scheduler.getNumPending());
+
+        assertTrue(added.claim("Kim Jones", "09159876543"));
+        assertEquals(3, scheduler.getNumPending());
+        scheduler.close();
+    }
+
+    @Test
+    public void testClose() {
+        testScheduler.close();
+        testRescueAlerts.addAlert(newAlert("Anne Curtis", true));
+        assertEquals(1, testScheduler.getNumPending());
+    }
+
+    // EFFECTS: returns a new alert for the given name and urgency
+    private Alert newAlert(String name, boolean isUrgent) {
+        return AlertFactory.newAlert(name, "09288881234", "Marikina", 1, isUrgent);
+    }
+}
@@ -0,0 +1,101 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the IdAllocator class
+class IdAllocatorTest {
+
+    @Test
+    public void testSingleNode() {
+        IdAllocator ids = new IdAllocator();
+        assertEquals(0, ids.getNodeId());
+        assertEquals(1, ids.getNumNodes());
+        assertEquals(RescueAlerts.INITIAL_ID_CODE, ids.next());
+        assertEquals(1, ids.next());
+        assertEquals(2, ids.reserve(10));
+        assertEquals(12, ids.next());
+        assertTrue(ids.owns(12345));
+    }
+
+    @Test
+    public void testNodesInterleave() {
+        IdAllocator node1 = new IdAllocator(1, 3);
+        assertEquals(1, node1.next());
+        assertEquals(4, node1.next());
+        assertEquals(7, node1.reserve(4));
+        assertEquals(19, node1.next());
+        assertTrue(node1.owns(19));
+        assertFalse(node1.owns(18));
+        assertFalse(node1.owns(0));
+    }
+
+    @Test
+    public void testAdvancePast() {
+        IdAllocator ids = new IdAllocator();
+        ids.advancePast(999);
+        assertEquals(1000, ids.next());
+        ids.advancePast(5);
+        assertEquals(1001, ids.next());
+
+        IdAllocator node2 = new IdAllocator(2, 4);
+        node2.advancePast(9);
+        assertEquals(10, node2.next());
+        node2.advancePast(10);
+        assertEquals(14, node2.next());
+        node2.advancePast(15);
+        assertEquals(18, node2.next());
+        node2.advancePast(0);
+        assertEquals(22, node2.next());
+    }
+
+    @Test
+    public void testRunsOutOfIdCodes() {
+        IdAllocator node1 = new IdAllocator(1, 4);
+        node1.advancePast(Integer.MAX_VALUE - 7);
+        assertEquals(Integer.MAX_VALUE - 6, node1.next());
+        assertEquals(Integer.MAX_VALUE - 2, node1.next());
+        assertThrows(IllegalStateException.class, node1::next);
+        assertThrows(IllegalStateException.class, node1::next);
+
+        IdAllocator ids = new IdAllocator();
+        ids.advancePast(Integer.MAX_VALUE - 3);
+        assertThrows(IllegalStateException.class, () -> ids.reserve(4));
+        assertThrows(IllegalStateException.class, () -> ids.reserve(1));
+        ids.advancePast(Integer.MAX_VALUE);
+        assertThrows(IllegalStateException.class, ids::next);
+    }
+
+    @Test
+    public void testConcurrentAllocationsAreUnique() throws InterruptedException {
+        IdAllocator ids = new IdAllocator(3, 8);
+        Set<Integer> allocated = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    int first = ids.reserve(3);
+                    for (int j = 0; j < 3; j++) {
+                        assertTrue(allocated.add(first + j * ids.getNumNodes()));
+                    }
+                    assertTrue(allocated.add(ids.next()));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(16000, allocated.size());
+        for (int idCode : allocated) {
+            assertTrue(ids.owns(idCode));
+        }
+    }
+}
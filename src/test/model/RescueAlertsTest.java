@@ -1,13 +1,22 @@
 package model;
 
+import exceptions.AlreadyRescuedException;
 import exceptions.InvalidIdCodeException;
 import exceptions.InvalidNumPeopleException;
+import metrics.MetricsRegistry;
+import org.json.JSONArray;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 
+import static model.AlertStatus.*;
 import static model.RescueAlerts.INITIAL_ID_CODE;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -80,4 +89,514 @@ class RescueAlertsTest {
             // do nothing
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetAllAlertsIsSnapshot() {
+        List<Alert> snapshot = testRescueAlerts.getAllAlerts();
+        testRescueAlerts.addAlert(newAlert(4));
+        assertEquals(3, snapshot.size());
+        assertEquals(4, testRescueAlerts.getAllAlerts().size());
+        try {
+            snapshot.add(a1);
+            fail("UnsupportedOperationException was not thrown");
+        } catch (UnsupportedOperationException e) {
+            // do nothing
+        }
+    }
+
+    @Test
+    public void testConcurrentAddNoLostAlertsOrDuplicateIds() throws InterruptedException {
+        int numThreads = 8;
+        int alertsPerThread = 5000;
+        RescueAlerts ra = new RescueAlerts("Typhoon Rolly");
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < numThreads; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < alertsPerThread; i++) {
+                    Alert a = newAlert(i + 1);
+                    ra.addAlert(a);
+                    ra.addAlert(a);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int total = numThreads * alertsPerThread;
+        assertEquals(total, ra.getNumAlerts());
+        List<Alert> all = ra.getAllAlerts();
+        assertEquals(total, all.size());
+        Set<Integer> ids = new HashSet<>();
+        for (Alert a : all) {
+            assertTrue(ids.add(a.getIdCode()));
+            try {
+                assertSame(a, ra.getAlertById(a.getIdCode()));
+            } catch (InvalidIdCodeException e) {
+                fail("Unexpected InvalidIdCodeException");
+            }
+        }
+        for (int i = 0; i < total; i++) {
+            assertTrue(ids.contains(INITIAL_ID_CODE + i));
+        }
+    }
+
+    @Test
+    public void testStatusIndexesOnAdd() {
+        assertEquals(3, testRescueAlerts.getNumAlerts(NEEDS_HELP));
+        assertEquals(0, testRescueAlerts.getNumAlerts(HELP_OTW));
+        assertEquals(0, testRescueAlerts.getNumAlerts(RESCUED));
+        assertEquals(16, testRescueAlerts.getNumPeople(NEEDS_HELP));
+        assertEquals(1, testRescueAlerts.getNumUrgentAlerts(NEEDS_HELP));
+        assertEquals(3, testRescueAlerts.getAlertsWithStatus(NEEDS_HELP).size());
+        assertTrue(testRescueAlerts.getUrgentAlerts().contains(a1));
+        assertEquals(1, testRescueAlerts.getUrgentAlerts().size());
+
+        Alert rescued = newAlert(4);
+        rescued.setStatus(RESCUED);
+        testRescueAlerts.addAlert(rescued);
+        assertEquals(1, testRescueAlerts.getNumAlerts(RESCUED));
+        assertEquals(4, testRescueAlerts.getNumPeople(RESCUED));
+        assertTrue(testRescueAlerts.getAlertsWithStatus(RESCUED).contains(rescued));
+    }
+
+    @Test
+    public void testStatusIndexesOnStatusChange() {
+        assertTrue(a1.claim("Kim Jones", "09159876543"));
+        assertEquals(2, testRescueAlerts.getNumAlerts(NEEDS_HELP));
+        assertEquals(11, testRescueAlerts.getNumPeople(NEEDS_HELP));
+        assertEquals(0, testRescueAlerts.getNumUrgentAlerts(NEEDS_HELP));
+        assertEquals(1, testRescueAlerts.getNumAlerts(HELP_OTW));
+        assertEquals(5, testRescueAlerts.getNumPeople(HELP_OTW));
+        assertEquals(1, testRescueAlerts.getNumUrgentAlerts(HELP_OTW));
+        assertFalse(testRescueAlerts.getAlertsWithStatus(NEEDS_HELP).contains(a1));
+        assertTrue(testRescueAlerts.getAlertsWithStatus(HELP_OTW).contains(a1));
+
+        a2.setStatus(RESCUED);
+        a2.setStatus(RESCUED);
+        assertEquals(1, testRescueAlerts.getNumAlerts(NEEDS_HELP));
+        assertEquals(1, testRescueAlerts.getNumAlerts(RESCUED));
+        assertEquals(2, testRescueAlerts.getNumPeople(RESCUED));
+        assertEquals(3, testRescueAlerts.getNumAlerts());
+    }
+
+    @Test
+    public void testStatusIndexesConcurrentChanges() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (Alert a : testRescueAlerts.getAllAlerts()) {
+                    a.setStatus(HELP_OTW);
+                    a.setStatus(RESCUED);
+                    a.setStatus(NEEDS_HELP);
+                    a.setStatus(RESCUED);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, testRescueAlerts.getNumAlerts(NEEDS_HELP));
+        assertEquals(0, testRescueAlerts.getNumAlerts(HELP_OTW));
+        assertEquals(3, testRescueAlerts.getNumAlerts(RESCUED));
+        assertEquals(16, testRescueAlerts.getNumPeople(RESCUED));
+        assertEquals(3, testRescueAlerts.getAlertsWithStatus(RESCUED).size());
+    }
+
+    @Test
+    public void testRestoreAlertKeepsIdCode() {
+        Alert restored = newAlert(4);
+        restored.setIdCode(40);
+        assertTrue(testRescueAlerts.restoreAlert(restored));
+        Alert clash = newAlert(1);
+        clash.setIdCode(40);
+        assertFalse(testRescueAlerts.restoreAlert(clash));
+        assertFalse(testRescueAlerts.restoreAlert(restored));
+        assertEquals(4, testRescueAlerts.getNumAlerts());
+        assertEquals(4, testRescueAlerts.getNumAlerts(NEEDS_HELP));
+
+        Alert next = newAlert(2);
+        testRescueAlerts.addAlert(next);
+        assertEquals(41, next.getIdCode());
+        try {
+            assertEquals(restored, testRescueAlerts.getAlertById(40));
+        } catch (InvalidIdCodeException e) {
+            fail("Unexpected InvalidIdCodeException");
+        }
+    }
+
+    @Test
+    public void testNearestOpenAlerts() {
+        Alert near = newAlertAt(14.6510, 121.1030);
+        Alert nearer = newAlertAt(14.6506, 121.1028);
+        Alert far = newAlertAt(14.5995, 120.9842);
+        testRescueAlerts.addAlert(far);
+        testRescueAlerts.addAlert(near);
+        testRescueAlerts.addAlert(nearer);
+
+        assertEquals(listOf(nearer, near), testRescueAlerts.getNearestOpenAlerts(14.6507, 121.1029, 2));
+        assertEquals(listOf(nearer, near, far), testRescueAlerts.getNearestOpenAlerts(14.6507, 121.1029, 10));
+        assertEquals(listOf(far, nearer), testRescueAlerts.getNearestOpenAlerts(14.5, 120.9, 2));
+        assertEquals(new ArrayList<>(), testRescueAlerts.getNearestOpenAlerts(14.6507, 121.1029, 0));
+
+        nearer.setStatus(RESCUED);
+        assertEquals(listOf(near, far), testRescueAlerts.getNearestOpenAlerts(14.6507, 121.1029, 2));
+        nearer.setStatus(HELP_OTW);
+        assertEquals(listOf(nearer, near), testRescueAlerts.getNearestOpenAlerts(14.6507, 121.1029, 2));
+    }
+
+    @Test
+    public void testNearestOpenAlertsWithOutlier() {
+        Alert near = newAlertAt(14.6510, 121.1030);
+        Alert outlier = newAlertAt(0, 0);
+        testRescueAlerts.addAlert(near);
+        testRescueAlerts.addAlert(outlier);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertEquals(listOf(near, outlier), testRescueAlerts.getNearestOpenAlerts(14.6507, 121.1029, 10));
+            assertEquals(listOf(outlier, near), testRescueAlerts.getNearestOpenAlerts(1, 1, 10));
+            assertEquals(listOf(near, outlier), testRescueAlerts.getOpenAlertsWithin(-90, -180, 90, 180));
+            outlier.setStatus(RESCUED);
+            near.setStatus(RESCUED);
+            assertEquals(new ArrayList<>(), testRescueAlerts.getNearestOpenAlerts(14.6507, 121.1029, 10));
+            near.setStatus(HELP_OTW);
+            assertEquals(listOf(near), testRescueAlerts.getNearestOpenAlerts(0, 0, 10));
+            assertEquals(listOf(near), testRescueAlerts.getOpenAlertsWithin(-90, -180, 90, 180));
+        });
+    }
+
+    @Test
+    public void testOpenAlertsWithin() {
+        Alert inside = newAlertAt(14.6510, 121.1030);
+        Alert edge = newAlertAt(14.66, 121.11);
+        Alert outside = newAlertAt(14.5995, 120.9842);
+        testRescueAlerts.addAlert(inside);
+        testRescueAlerts.addAlert(edge);
+        testRescueAlerts.addAlert(outside);
+
+        assertEquals(listOf(inside, edge), testRescueAlerts.getOpenAlertsWithin(14.64, 121.09, 14.66, 121.11));
+        assertEquals(listOf(inside, edge, outside), testRescueAlerts.getOpenAlertsWithin(-90, -180, 90, 180));
+        assertEquals(new ArrayList<>(), testRescueAlerts.getOpenAlertsWithin(10, 100, 11, 101));
+        inside.setStatus(RESCUED);
+        assertEquals(listOf(edge), testRescueAlerts.getOpenAlertsWithin(14.64, 121.09, 14.66, 121.11));
+    }
+
+    @Test
+    public void testNearestOpenAlertsConcurrentRescues() throws InterruptedException {
+        List<Alert> alerts = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Alert a = newAlertAt(14.60 + (i % 50) * 0.002, 121.00 + (i / 50) * 0.002);
+            testRescueAlerts.addAlert(a);
+            alerts.add(a);
+        }
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int first = t;
+            Thread thread = new Thread(() -> {
+                for (int i = first; i < alerts.size(); i += 4) {
+                    alerts.get(i).setStatus(RESCUED);
+                    testRescueAlerts.getNearestOpenAlerts(14.65, 121.04, 10);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(new ArrayList<>(), testRescueAlerts.getNearestOpenAlerts(14.65, 121.04, 10));
+    }
+
+    @Test
+    public void testSubmitAlertMerge() {
+        Alert repeat = newAlertFrom("+63 917 247 3475", "1432 Kaimito, Barangay Don Juan");
+        assertEquals(a1, testRescueAlerts.submitAlert(repeat, DuplicatePolicy.MERGE));
+        assertEquals(3, testRescueAlerts.getNumAlerts());
+        assertNull(testRescueAlerts.submitAlert(null, DuplicatePolicy.MERGE));
+
+        Alert other = newAlertFrom("09172473475", "Provident Village");
+        assertEquals(other, testRescueAlerts.submitAlert(other, DuplicatePolicy.MERGE));
+        assertEquals(4, testRescueAlerts.getNumAlerts());
+        assertNull(testRescueAlerts.getDuplicateOf(other));
+
+        a1.setStatus(RESCUED);
+        assertEquals(repeat, testRescueAlerts.submitAlert(repeat, DuplicatePolicy.MERGE));
+        assertEquals(5, testRescueAlerts.getNumAlerts());
+    }
+
+    @Test
+    public void testSubmitAlertFlag() {
+        Alert repeat = newAlertFrom("0917 247 3475", "1432 kaimito, brgy. don juan");
+        assertEquals(repeat, testRescueAlerts.submitAlert(repeat, DuplicatePolicy.FLAG));
+        assertEquals(4, testRescueAlerts.getNumAlerts());
+        assertEquals(3, repeat.getIdCode());
+        assertEquals(a1, testRescueAlerts.getDuplicateOf(repeat));
+        assertNull(testRescueAlerts.getDuplicateOf(a1));
+
+        Alert again = newAlertFrom("09172473475", "1432 Kaimito, Barangay Don Juan");
+        testRescueAlerts.addAlert(again);
+        assertEquals(a1, testRescueAlerts.getDuplicateOf(again));
+        assertEquals(a1, testRescueAlerts.submitAlert(again, DuplicatePolicy.MERGE));
+        assertEquals(5, testRescueAlerts.getNumAlerts());
+    }
+
+    @Test
+    public void testRestoreAlertFlagsDuplicates() {
+        RescueAlerts restored = new RescueAlerts("Typhoon Ulysses");
+        Alert repeat = newAlertFrom("09172473475", "1432 Kaimito, Barangay Don Juan");
+        repeat.setIdCode(7);
+        a1.setIdCode(0);
+        assertTrue(restored.restoreAlert(a1));
+        assertTrue(restored.restoreAlert(repeat));
+        assertEquals(a1, restored.getDuplicateOf(repeat));
+        assertEquals(a1, restored.submitAlert(newAlertFrom("09172473475", "1432 Kaimito, Barangay Don Juan"),
+                DuplicatePolicy.MERGE));
+    }
+
+    @Test
+    public void testSubmitAlertConcurrentRepeatsMergeOnce() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    testRescueAlerts.submitAlert(newAlertFrom("0920" + (1000000 + i), "Barangay Malanday"),
+                            DuplicatePolicy.MERGE);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(503, testRescueAlerts.getNumAlerts());
+    }
+
+    @Test
+    public void testIdCodesPastThreeDigits() {
+        for (int i = 0; i < 1200; i++) {
+            testRescueAlerts.addAlert(newAlert(1));
+        }
+        try {
+            Alert last = testRescueAlerts.getAlertById(1202);
+            assertEquals("1202", last.getFormattedIdCode());
+            assertEquals("001", testRescueAlerts.getAlertById(1).getFormattedIdCode());
+        } catch (InvalidIdCodeException e) {
+            fail("Unexpected InvalidIdCodeException");
+        }
+    }
+
+    @Test
+    public void testIntakeNodesDoNotClash() {
+        RescueAlerts node0 = new RescueAlerts("Typhoon Ulysses", new IdAllocator(0, 2));
+        RescueAlerts node1 = new RescueAlerts("Typhoon Ulysses", new IdAllocator(1, 2));
+        RescueAlerts merged = new RescueAlerts("Typhoon Ulysses");
+        for (int i = 0; i < 3; i++) {
+            node0.addAlert(newAlert(1));
+            node1.addAlert(newAlert(2));
+        }
+        for (Alert a : node0.getAllAlerts()) {
+            assertTrue(merged.restoreAlert(a));
+        }
+        for (Alert a : node1.getAllAlerts()) {
+            assertTrue(merged.restoreAlert(a));
+        }
+        assertEquals(6, merged.getNumAlerts());
+        assertEquals(1, node1.getAllAlerts().get(0).getIdCode());
+        assertEquals(5, node1.getAllAlerts().get(2).getIdCode());
+        assertEquals(1, node1.getIdCodes().getNodeId());
+        Alert next = newAlert(3);
+        merged.addAlert(next);
+        assertEquals(6, next.getIdCode());
+    }
+
+    @Test
+    public void testAddAlertsMergesAndFlags() {
+        Alert repeat = newAlertFrom("+63 917 247 3475", "1432 Kaimito, Barangay Don Juan");
+        Alert fresh = newAlertFrom("09201234567", "Barangay Malanday");
+        Alert freshRepeat = newAlertFrom("0920 123 4567", "barangay malanday");
+        List<Alert> submitted = testRescueAlerts.addAlerts(listOf(repeat, fresh, null, freshRepeat, a2),
+                DuplicatePolicy.MERGE);
+        assertEquals(listOf(a1, fresh, null, fresh, a2), submitted);
+        assertEquals(4, testRescueAlerts.getNumAlerts());
+        assertEquals(3, fresh.getIdCode());
+
+        Alert flagged = newAlertFrom("09201234567", "Barangay Malanday");
+        assertEquals(listOf(flagged), testRescueAlerts.addAlerts(listOf(flagged), DuplicatePolicy.FLAG));
+        assertEquals(fresh, testRescueAlerts.getDuplicateOf(flagged));
+        assertEquals(4, flagged.getIdCode());
+        assertTrue(testRescueAlerts.addAlerts(new ArrayList<>(), DuplicatePolicy.FLAG).isEmpty());
+    }
+
+    @Test
+    public void testBatchAlertsFoundOnlyWithIdCodes() throws InterruptedException {
+        // node 1 of 2 only gives out odd id codes, so an alert found with id code 0 has not been given one yet
+        RescueAlerts node1 = new RescueAlerts("Typhoon Ulysses", new IdAllocator(1, 2));
+        List<Alert> batch = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            batch.add(newAlertFrom("0920" + (1000000 + i), "Barangay Malanday"));
+        }
+        Thread intake = new Thread(() -> node1.addAlerts(batch, DuplicatePolicy.MERGE));
+        intake.start();
+        int unnumbered = 0;
+        while (intake.isAlive()) {
+            for (int i = 0; i < 5000; i += 50) {
+                Alert found = node1.submitAlert(newAlertFrom("0920" + (1000000 + i), "Barangay Malanday"),
+                        DuplicatePolicy.MERGE);
+                unnumbered += found.getIdCode() % 2 == 0 ? 1 : 0;
+            }
+            for (Alert a : node1.getAlertsWithStatus(NEEDS_HELP)) {
+                unnumbered += a.getIdCode() % 2 == 0 ? 1 : 0;
+            }
+        }
+        intake.join();
+        assertEquals(0, unnumbered);
+        assertEquals(5000, node1.getNumAlerts());
+    }
+
+    @Test
+    public void testAddAlertsReservesBlockOfIds() {
+        RescueAlerts node1 = new RescueAlerts("Typhoon Ulysses", new IdAllocator(1, 3));
+        node1.addAlert(newAlert(1));
+        List<Alert> batch = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            batch.add(newAlertFrom("0920" + (1000000 + i), "Barangay Malanday"));
+        }
+        node1.addAlerts(batch, DuplicatePolicy.MERGE);
+        assertEquals(2501, node1.getNumAlerts());
+        assertEquals(batch, node1.getAllAlerts().subList(1, 2501));
+        assertEquals(4, batch.get(0).getIdCode());
+        assertEquals(4 + 3 * 2499, batch.get(2499).getIdCode());
+        try {
+            assertEquals(batch.get(1234), node1.getAlertById(4 + 3 * 1234));
+        } catch (InvalidIdCodeException e) {
+            fail("Unexpected InvalidIdCodeException");
+        }
+        assertEquals(2501, node1.getAlertsWithStatus(NEEDS_HELP).size());
+        Alert next = newAlert(2);
+        node1.addAlert(next);
+        assertEquals(4 + 3 * 2500, next.getIdCode());
+    }
+
+    @Test
+    public void testAddAlertsNotifiesObserversOnce() {
+        List<List<Alert>> batches = new ArrayList<>();
+        testRescueAlerts.addObserver(new RescueAlertsObserver() {
+            @Override
+            public void alertAdded(Alert alert) {
+                fail("Unexpected alertAdded");
+            }
+
+            @Override
+            public void alertsAdded(List<Alert> alerts) {
+                batches.add(new ArrayList<>(alerts));
+            }
+
+            @Override
+            public void statusChanged(Alert alert, AlertStatus previous) {
+            }
+
+            @Override
+            public void rescuerAssigned(Alert alert) {
+            }
+        });
+        Alert first = newAlertFrom("09201234567", "Barangay Malanday");
+        Alert second = newAlertFrom("09207654321", "Barangay Malanday");
+        testRescueAlerts.addAlerts(listOf(first, a1, second), DuplicatePolicy.MERGE);
+        assertEquals(1, batches.size());
+        assertEquals(listOf(first, second), batches.get(0));
+    }
+
+    @Test
+    public void testMetrics() {
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        long added = metrics.counter("alerts_added_total", "").get();
+        long merged = metrics.counter("alerts_merged_total", "").get();
+        long claimed = metrics.counter("alert_status_changes_total", "", "from", "NEEDS_HELP", "to", "HELP_OTW")
+                .get();
+        long timesInNeedsHelp = metrics.histogram("alert_status_duration_seconds", "", new long[] {1},
+                "status", "NEEDS_HELP").getCount();
+        testRescueAlerts.addAlerts(listOf(newAlertFrom("09170000001", "Marikina"),
+                newAlertFrom("09170000001", "Marikina")), DuplicatePolicy.MERGE);
+        assertTrue(a1.claim("Coco Martin", "09171112222"));
+        assertEquals(added + 1, metrics.counter("alerts_added_total", "").get());
+        assertEquals(merged + 1, metrics.counter("alerts_merged_total", "").get());
+        assertEquals(claimed + 1, metrics.counter("alert_status_changes_total", "", "from", "NEEDS_HELP",
+                "to", "HELP_OTW").get());
+        assertEquals(timesInNeedsHelp + 1, metrics.histogram("alert_status_duration_seconds", "", new long[] {1},
+                "status", "NEEDS_HELP").getCount());
+    }
+
+    @Test
+    public void testResponseTimes() throws AlreadyRescuedException {
+        assertTrue(a1.claim("Kim Jones", "09159876543"));
+        assertTrue(a1.advance(HELP_OTW));
+        a2.setStatus(RESCUED);
+        assertEquals(1, testRescueAlerts.getTimeToClaim().getCount());
+        assertEquals(2, testRescueAlerts.getTimeToRescue().getCount());
+
+        Alert restored = newAlert(3);
+        restored.setIdCode(100);
+        restored.restoreStatus(RESCUED, StatusHistory.fromJson(new JSONArray(
+                "[[\"NEEDS_HELP\", 1000], [\"HELP_OTW\", 61000], [\"RESCUED\", 3601000]]")));
+        assertTrue(testRescueAlerts.restoreAlert(restored));
+        assertEquals(2, testRescueAlerts.getTimeToClaim().getCount());
+        assertEquals(3, testRescueAlerts.getTimeToRescue().getCount());
+        assertTrue(testRescueAlerts.getTimeToClaim().getSum() >= 60000000000L);
+        assertTrue(testRescueAlerts.getTimeToRescue().getSum() >= 3600000000000L);
+
+        Alert unknown = newAlert(4);
+        unknown.setIdCode(101);
+        unknown.restoreStatus(RESCUED, new StatusHistory());
+        assertTrue(testRescueAlerts.restoreAlert(unknown));
+        assertEquals(3, testRescueAlerts.getTimeToRescue().getCount());
+    }
+
+    @Test
+    public void testGetAlertsInStatusFor() {
+        assertTrue(a1.claim("Kim Jones", "09159876543"));
+        Alert stale = newAlert(3);
+        stale.setIdCode(100);
+        stale.restoreStatus(HELP_OTW, StatusHistory.fromJson(new JSONArray(
+                "[[\"NEEDS_HELP\", 1000], [\"HELP_OTW\", 2000]]")));
+        Alert unknown = newAlert(4);
+        unknown.setIdCode(101);
+        unknown.restoreStatus(HELP_OTW, new StatusHistory());
+        testRescueAlerts.restoreAlert(stale);
+        testRescueAlerts.restoreAlert(unknown);
+        assertEquals(listOf(unknown, stale), testRescueAlerts.getAlertsInStatusFor(HELP_OTW, 60 * 60 * 1000));
+        assertEquals(listOf(unknown, stale, a1), testRescueAlerts.getAlertsInStatusFor(HELP_OTW, 0));
+        assertTrue(testRescueAlerts.getAlertsInStatusFor(RESCUED, 0).isEmpty());
+    }
+
+    // EFFECTS: returns a new non-urgent alert from the given contact number at the given location
+    private Alert newAlertFrom(String contactNum, String location) {
+        return AlertFactory.newAlert("Anonymous", contactNum, location, 1, false);
+    }
+
+    // EFFECTS: returns a new non-urgent alert at the given coordinates
+    private Alert newAlertAt(double latitude, double longitude) {
+        return AlertFactory.newAlert("Anonymous", "09288881234", "Marikina", latitude, longitude, 1, false);
+    }
+
+    // EFFECTS: returns a list of the given alerts
+    private List<Alert> listOf(Alert... alerts) {
+        return new ArrayList<>(Arrays.asList(alerts));
+    }
+
+    // EFFECTS: returns a new non-urgent alert for the given number of people
+    private Alert newAlert(int numPeople) {
+        return AlertFactory.newAlert("Anonymous", "09288881234", "SM Megamall", numPeople, false);
+    }
+}
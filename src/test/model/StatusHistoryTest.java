@@ -0,0 +1,87 @@
+package model;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static model.AlertStatus.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the StatusHistory class
+class StatusHistoryTest {
+    StatusHistory testHistory;
+
+    @BeforeEach
+    public void setup() {
+        testHistory = new StatusHistory();
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, testHistory.size());
+        assertEquals(-1, testHistory.getFirstTime(NEEDS_HELP));
+        assertEquals(-1, testHistory.getLastTime(RESCUED));
+        assertEquals(0, testHistory.toJson().length());
+    }
+
+    @Test
+    public void testRecord() {
+        long before = StatusHistory.now();
+        long posted = testHistory.record(NEEDS_HELP);
+        long claimed = testHistory.record(HELP_OTW);
+        long reopened = testHistory.record(NEEDS_HELP);
+        assertTrue(posted >= before);
+        assertTrue(claimed >= posted);
+        assertTrue(reopened >= claimed);
+        assertTrue(reopened <= StatusHistory.now());
+        assertEquals(3, testHistory.size());
+        assertEquals(NEEDS_HELP, testHistory.getStatus(0));
+        assertEquals(HELP_OTW, testHistory.getStatus(1));
+        assertEquals(claimed, testHistory.getTime(1));
+        assertEquals(posted, testHistory.getFirstTime(NEEDS_HELP));
+        assertEquals(reopened, testHistory.getLastTime(NEEDS_HELP));
+        assertEquals(-1, testHistory.getFirstTime(RESCUED));
+    }
+
+    @Test
+    public void testNowNeverGoesBackwards() {
+        long last = StatusHistory.now();
+        for (int i = 0; i < 100000; i++) {
+            long now = StatusHistory.now();
+            assertTrue(now >= last);
+            last = now;
+        }
+    }
+
+    @Test
+    public void testJsonRoundTrip() {
+        testHistory.record(NEEDS_HELP);
+        testHistory.record(HELP_OTW);
+        testHistory.record(RESCUED);
+        JSONArray json = new JSONArray(testHistory.toJson().toString());
+        assertEquals("RESCUED", json.getJSONArray(2).getString(0));
+        StatusHistory read = StatusHistory.fromJson(json);
+        assertEquals(3, read.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(testHistory.getStatus(i), read.getStatus(i));
+            assertEquals(testHistory.getTime(i), read.getTime(i));
+        }
+    }
+
+    @Test
+    public void testFromJsonMalformed() {
+        try {
+            StatusHistory.fromJson(new JSONArray("[[\"NEEDS_HELP\", -5]]"));
+            fail("Expected JSONException");
+        } catch (JSONException e) {
+            // expected
+        }
+        try {
+            StatusHistory.fromJson(new JSONArray("[[\"LOST\", 5]]"));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
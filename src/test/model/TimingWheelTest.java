@@ -0,0 +1,100 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the TimingWheel class
+class TimingWheelTest {
+    TimingWheel<String> testWheel;
+
+    @BeforeEach
+    public void setup() {
+        testWheel = new TimingWheel<>(10, 1000);
+    }
+
+    @Test
+    public void testAdvanceHandsBackDueItems() {
+        testWheel.schedule("a", 1050);
+        testWheel.schedule("b", 1005);
+        testWheel.schedule("c", 1051);
+        assertEquals(3, testWheel.size());
+        assertTrue(testWheel.advanceTo(1009).isEmpty());
+        assertEquals(Collections.singletonList("b"), testWheel.advanceTo(1010));
+        assertTrue(testWheel.advanceTo(1049).isEmpty());
+        assertEquals(Collections.singletonList("a"), testWheel.advanceTo(1050));
+        assertEquals(Collections.singletonList("c"), testWheel.advanceTo(1060));
+        assertEquals(0, testWheel.size());
+    }
+
+    @Test
+    public void testPastDeadlineDueAtNextTick() {
+        testWheel.advanceTo(2000);
+        testWheel.schedule("late", 1500);
+        assertTrue(testWheel.advanceTo(2009).isEmpty());
+        assertEquals(Collections.singletonList("late"), testWheel.advanceTo(2010));
+    }
+
+    @Test
+    public void testCancel() {
+        TimingWheel.Timeout<String> a = testWheel.schedule("a", 1100);
+        TimingWheel.Timeout<String> b = testWheel.schedule("b", 1100);
+        TimingWheel.Timeout<String> c = testWheel.schedule("c", 1100);
+        assertTrue(testWheel.cancel(b));
+        assertFalse(testWheel.cancel(b));
+        assertEquals(2, testWheel.size());
+        List<String> expired = testWheel.advanceTo(1100);
+        Collections.sort(expired);
+        assertEquals(Arrays.asList("a", "c"), expired);
+        assertFalse(testWheel.cancel(a));
+        assertFalse(testWheel.cancel(c));
+    }
+
+    @Test
+    public void testCascadesAcrossLevelsAndOverflow() {
+        long[] ticks = {63, 64, 65, 4095, 4096, 4097, 262143, 262144, 16777215, 16777216, 16777217, 40000000};
+        for (long tick : ticks) {
+            testWheel.schedule(Long.toString(tick), 1000 + tick * 10);
+        }
+        for (long tick : ticks) {
+            assertTrue(testWheel.advanceTo(1000 + tick * 10 - 1).isEmpty(), "early at " + tick);
+            assertEquals(Collections.singletonList(Long.toString(tick)), testWheel.advanceTo(1000 + tick * 10));
+        }
+        assertEquals(0, testWheel.size());
+    }
+
+    @Test
+    public void testMatchesReferenceWithManyItems() {
+        Random random = new Random(42);
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, 0);
+        int numItems = 300000;
+        long[] deadlines = new long[numItems];
+        List<TimingWheel.Timeout<Integer>> timeouts = new ArrayList<>();
+        for (int i = 0; i < numItems; i++) {
+            deadlines[i] = 1 + random.nextInt(500000);
+            timeouts.add(wheel.schedule(i, deadlines[i]));
+        }
+        for (int i = 0; i < numItems; i += 3) {
+            assertTrue(wheel.cancel(timeouts.get(i)));
+            deadlines[i] = -1;
+        }
+        long now = 0;
+        int handedBack = 0;
+        while (wheel.size() > 0) {
+            now += 1 + random.nextInt(5000);
+            for (int item : wheel.advanceTo(now)) {
+                assertTrue(deadlines[item] > now - 5000 && deadlines[item] <= now);
+                deadlines[item] = -1;
+                handedBack++;
+            }
+        }
+        assertEquals(numItems - (numItems + 2) / 3, handedBack);
+    }
+}
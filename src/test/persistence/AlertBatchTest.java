@@ -0,0 +1,135 @@
+package persistence;
+
+import exceptions.InvalidNumPeopleException;
+import model.Alert;
+import model.AlertStatus;
+import model.DuplicatePolicy;
+import model.RescueAlerts;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the AlertBatch class
+public class AlertBatchTest extends JsonTest {
+
+    @Test
+    void testParseJsonLines() {
+        String text = "{\"name\": \"Jericho Rosales\", \"contact number\": \"09172473475\","
+                + " \"location\": \"SM Megamall\", \"number of people\": 5, \"is urgent?\": true,"
+                + " \"latitude\": 14.58, \"longitude\": 121.05}\n"
+                + "\n"
+                + "{\"name\": \"Vice Ganda\", \"contact number\": \"09159876543\", \"location\": \"ABS-CBN\","
+                + " \"number of people\": 2, \"id code\": 42, \"status\": \"RESCUED\"}\r\n";
+        AlertBatch batch = AlertBatch.parse(text, BatchFormat.JSON_LINES);
+        assertEquals(2, batch.getAlerts().size());
+        assertTrue(batch.getErrors().isEmpty());
+        Alert first = batch.getAlerts().get(0);
+        checkAlert(0, AlertStatus.NEEDS_HELP, "Jericho Rosales", "09172473475", "SM Megamall", 5, true,
+                null, null, first);
+        assertEquals(14.58, first.getLatitude());
+        assertEquals(1, batch.getLine(0));
+        checkAlert(0, AlertStatus.NEEDS_HELP, "Vice Ganda", "09159876543", "ABS-CBN", 2, false,
+                null, null, batch.getAlerts().get(1));
+        assertFalse(batch.getAlerts().get(1).hasCoordinates());
+        assertEquals(3, batch.getLine(1));
+    }
+
+    @Test
+    void testParseJsonLinesReportsRecordErrors() {
+        String text = "{\"name\": \"Jericho Rosales\", \"contact number\": \"0917\", \"location\": \"SM Megamall\","
+                + " \"number of people\": 0}\n"
+                + "not json\n"
+                + "{\"name\": \"Vice Ganda\", \"contact number\": \"0915\", \"location\": \"ABS-CBN\","
+                + " \"number of people\": 2}\n"
+                + "{\"name\": \"Willie Revillame\", \"location\": \"Wowowin\", \"number of people\": 9}\n"
+                + "{\"name\": \"Anne Curtis\", \"contact number\": \"0918\", \"location\": \"Makati\","
+                + " \"number of people\": 1, \"latitude\": 14.55}";
+        AlertBatch batch = AlertBatch.parse(text, BatchFormat.JSON_LINES);
+        assertEquals(1, batch.getAlerts().size());
+        assertEquals("Vice Ganda", batch.getAlerts().get(0).getName());
+        assertEquals(3, batch.getLine(0));
+        List<AlertBatch.RecordError> errors = batch.getErrors();
+        assertEquals(4, errors.size());
+        assertEquals(1, errors.get(0).getLine());
+        assertEquals("Number of people must be at least 1", errors.get(0).getMessage());
+        assertEquals(2, errors.get(1).getLine());
+        assertEquals(4, errors.get(2).getLine());
+        assertTrue(errors.get(2).getMessage().contains("contact number"));
+        assertEquals(5, errors.get(3).getLine());
+    }
+
+    @Test
+    void testParseCsv() {
+        String text = "name,contact number,location,number of people,is urgent?,latitude,longitude\r\n"
+                + "Jericho Rosales,09172473475,\"1432 Kaimito, Barangay Don Juan\",5,true,14.6507,121.1029\r\n"
+                + "\r\n"
+                + "\"Vice \"\"Meme\"\" Ganda\",09159876543,\"ABS-CBN\nQuezon City\",2,,,\n"
+                + "Willie Revillame,09151234567,Wowowin,zero,false,,\n"
+                + "Anne Curtis,09181234567\n"
+                + "Coco Martin,09171112222,Cubao,3";
+        AlertBatch batch = AlertBatch.parse(text, BatchFormat.CSV);
+        assertEquals(3, batch.getAlerts().size());
+        checkAlert(0, AlertStatus.NEEDS_HELP, "Jericho Rosales", "09172473475", "1432 Kaimito, Barangay Don Juan",
+                5, true, null, null, batch.getAlerts().get(0));
+        assertEquals(121.1029, batch.getAlerts().get(0).getLongitude());
+        assertEquals(2, batch.getLine(0));
+        checkAlert(0, AlertStatus.NEEDS_HELP, "Vice \"Meme\" Ganda", "09159876543", "ABS-CBN\nQuezon City",
+                2, false, null, null, batch.getAlerts().get(1));
+        assertEquals(4, batch.getLine(1));
+        assertEquals("Coco Martin", batch.getAlerts().get(2).getName());
+        assertEquals(8, batch.getLine(2));
+        assertEquals(2, batch.getErrors().size());
+        assertEquals(6, batch.getErrors().get(0).getLine());
+        assertEquals(7, batch.getErrors().get(1).getLine());
+    }
+
+    @Test
+    void testParseEmpty() {
+        assertTrue(AlertBatch.parse("", BatchFormat.CSV).getAlerts().isEmpty());
+        assertTrue(AlertBatch.parse("name,location\n", BatchFormat.CSV).getAlerts().isEmpty());
+        assertTrue(AlertBatch.parse("\n\n", BatchFormat.JSON_LINES).getErrors().isEmpty());
+    }
+
+    @Test
+    void testParseAlert() {
+        JSONObject json = new JSONObject();
+        json.put("name", "Jericho Rosales");
+        json.put("contact number", "09172473475");
+        json.put("location", "SM Megamall");
+        json.put("number of people", 5);
+        try {
+            assertFalse(AlertBatch.parseAlert(json).isUrgent());
+            json.put("latitude", 91);
+            json.put("longitude", 121);
+            AlertBatch.parseAlert(json);
+            fail("Expected JSONException");
+        } catch (JSONException e) {
+            // expected
+        } catch (InvalidNumPeopleException e) {
+            fail("Unexpected InvalidNumPeopleException");
+        }
+    }
+
+    @Test
+    void testSubmitTo() {
+        StringBuilder text = new StringBuilder("name,contact number,location,number of people\n");
+        for (int i = 0; i < 2000; i++) {
+            text.append("Anonymous,0920").append(1000000 + i % 1500).append(",Barangay Malanday,1\n");
+        }
+        text.append("Anonymous,09201234567,Barangay Malanday,-1\n");
+        AlertBatch batch = AlertBatch.parse(text.toString(), BatchFormat.CSV);
+        assertEquals(2000, batch.getAlerts().size());
+        assertEquals(1, batch.getErrors().size());
+        assertEquals(2002, batch.getErrors().get(0).getLine());
+
+        RescueAlerts ra = new RescueAlerts("Typhoon Ulysses");
+        List<Alert> posted = batch.submitTo(ra, DuplicatePolicy.MERGE);
+        assertEquals(1500, ra.getNumAlerts());
+        assertSame(posted.get(0), posted.get(1500));
+        assertEquals(499, posted.get(1999).getIdCode());
+    }
+}
@@ -0,0 +1,420 @@
+package persistence;
+
+import exceptions.AlreadyRescuedException;
+import exceptions.InvalidIdCodeException;
+import exceptions.InvalidNumPeopleException;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
+import model.Alert;
+import model.AlertFactory;
+import model.AlertEventBus;
+import model.AlertStatus;
+import model.DuplicatePolicy;
+import model.RescueAlerts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the AlertJournal class
+public class AlertJournalTest extends JsonTest {
+    private Path directory;
+    private String snapshotFile;
+    private String journalFile;
+
+    @BeforeEach
+    void setup() throws IOException {
+        directory = Files.createTempDirectory("testAlertJournal");
+        snapshotFile = directory.resolve("rescueAlerts.json").toString();
+        journalFile = directory.resolve("rescueAlerts.journal").toString();
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        Files.deleteIfExists(directory.resolve("rescueAlerts.json.tmp"));
+        Files.deleteIfExists(directory.resolve("rescueAlerts.json"));
+        Files.deleteIfExists(directory.resolve("rescueAlerts.journal"));
+        Files.deleteIfExists(directory.resolve("rescueAlerts.journal.tmp"));
+        Files.delete(directory);
+    }
+
+    @Test
+    void testRecoverWithNoFiles() {
+        try {
+            AlertJournal journal = new AlertJournal(snapshotFile, journalFile, 1, 100);
+            RescueAlerts ra = journal.recover("Typhoon Ulysses");
+            assertEquals("Typhoon Ulysses", ra.getName());
+            assertEquals(0, ra.getNumAlerts());
+            journal.close();
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testReplayAfterCrash() {
+        try {
+            AlertJournal journal = new AlertJournal(snapshotFile, journalFile, 1, 100);
+            RescueAlerts ra = journal.recover("Typhoon Ulysses");
+            Alert a1 = newAlert("Jericho Rosales", 5, true);
+            Alert a2 = newAlert("Vice Ganda", 2, false);
+            ra.addAlert(a1);
+            ra.addAlert(a2);
+            assertTrue(a1.claim("Kim Jones", "09159876543"));
+            a2.setStatus(AlertStatus.RESCUED);
+            assertFalse(Files.exists(directory.resolve("rescueAlerts.json")));
+
+            // no save or close: the journal alone must be enough
+            RescueAlerts recovered = new AlertJournal(snapshotFile, journalFile, 1, 100).recover("Typhoon Ulysses");
+            assertEquals("Typhoon Ulysses", recovered.getName());
+            assertEquals(2, recovered.getNumAlerts());
+            checkAlert(0, AlertStatus.HELP_OTW, "Jericho Rosales", "09172473475", "SM Megamall", 5, true,
+                    "Kim Jones", "09159876543", recovered.getAlertById(0));
+            checkAlert(1, AlertStatus.RESCUED, "Vice Ganda", "09172473475", "SM Megamall", 2, false,
+                    null, null, recovered.getAlertById(1));
+            assertEquals(a1.getStatusHistory().getLastTime(AlertStatus.HELP_OTW),
+                    recovered.getAlertById(0).getStatusHistory().getLastTime(AlertStatus.HELP_OTW));
+            assertEquals(2, recovered.getAlertById(1).getStatusHistory().size());
+            assertEquals(1, recovered.getTimeToClaim().getCount());
+            assertEquals(1, recovered.getTimeToRescue().getCount());
+            journal.close();
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        } catch (InvalidIdCodeException e) {
+            fail("Unexpected InvalidIdCodeException");
+        }
+    }
+
+    @Test
+    void testSaveAppendsUntilCompactEvery() {
+        try {
+            AlertJournal journal = new AlertJournal(snapshotFile, journalFile, 10, 3);
+            RescueAlerts ra = journal.recover("Typhoon Ulysses");
+            ra.addAlert(newAlert("Jericho Rosales", 5, true));
+            ra.addAlert(newAlert("Vice Ganda", 2, false));
+            journal.save(ra);
+            assertFalse(Files.exists(directory.resolve("rescueAlerts.json")));
+            assertEquals(2, Files.readAllLines(directory.resolve("rescueAlerts.journal")).size());
+
+            ra.addAlert(newAlert("Willie Revillame", 9, false));
+            journal.save(ra);
+            assertTrue(Files.exists(directory.resolve("rescueAlerts.json")));
+            assertEquals(0, Files.size(directory.resolve("rescueAlerts.journal")));
+
+            ra.getAlertById(2).setStatus(AlertStatus.HELP_OTW);
+            assertEquals(1, Files.readAllLines(directory.resolve("rescueAlerts.journal")).size());
+            journal.close();
+
+            RescueAlerts recovered = new AlertJournal(snapshotFile, journalFile, 1, 100).recover("Unused");
+            assertEquals(3, recovered.getNumAlerts());
+            assertEquals(AlertStatus.HELP_OTW, recovered.getAlertById(2).getStatus());
+            assertEquals(AlertStatus.NEEDS_HELP, recovered.getAlertById(1).getStatus());
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        } catch (InvalidIdCodeException e) {
+            fail("Unexpected InvalidIdCodeException");
+        }
+    }
+
+    @Test
+    void testSyncQuietlyFromEventBus() {
+        try {
+            Histogram syncTime = MetricsRegistry.getDefault().histogram("journal_sync_seconds",
+                    "Time taken to force an alert journal to disk", Histogram.latencyBounds());
+            AlertJournal journal = new AlertJournal(snapshotFile, journalFile, 1000, 100);
+            RescueAlerts ra = journal.recover("Typhoon Ulysses");
+            AlertEventBus bus = new AlertEventBus(ra, 64, 16);
+            bus.subscribe("journal", events -> journal.syncQuietly(), true);
+            long syncs = syncTime.getCount();
+            ra.addAlert(newAlert("Jericho Rosales", 5, true));
+            ra.addAlert(newAlert("Vice Ganda", 2, false));
+            bus.close();
+            assertTrue(syncTime.getCount() > syncs);
+            syncs = syncTime.getCount();
+            journal.syncQuietly();
+            assertEquals(syncs, syncTime.getCount());
+            journal.close();
+
+            RescueAlerts recovered = new AlertJournal(snapshotFile, journalFile, 1, 100).recover("Unused");
+            assertEquals(2, recovered.getNumAlerts());
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testNoAcknowledgedRecordLostInCrashBetweenSyncs() {
+        try {
+            AlertJournal journal = new AlertJournal(snapshotFile, journalFile, 1000, 100000);
+            RescueAlerts ra = journal.recover("Typhoon Ulysses");
+            AlertEventBus bus = new AlertEventBus(ra, 64, 16);
+            bus.subscribe("journal", events -> journal.syncQuietly(), true);
+            for (int i = 0; i < 500; i++) {
+                ra.addAlert(newAlert("Alert " + i, 1, false));
+            }
+            ra.getAlertById(499).setStatus(AlertStatus.RESCUED);
+
+            // no sync, save or close: every change that returned must already be in the journal file
+            RescueAlerts recovered = new AlertJournal(snapshotFile, journalFile, 1, 100).recover("Unused");
+            assertEquals(500, recovered.getNumAlerts());
+            assertEquals(AlertStatus.RESCUED, recovered.getAlertById(499).getStatus());
+            bus.close();
+            journal.close();
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        } catch (InvalidIdCodeException e) {
+            fail("Unexpected InvalidIdCodeException");
+        }
+    }
+
+    @Test
+    void testSaveOtherRescueAlertsCompacts() {
+        try {
+            AlertJournal journal = new AlertJournal(snapshotFile, journalFile, 1, 100);
+            journal.recover("Typhoon Ulysses");
+            RescueAlerts other = new RescueAlerts("Typhoon Rolly");
+            other.addAlert(newAlert("Willie Revillame", 9, false));
+            journal.save(other);
+            other.addAlert(newAlert("Vice Ganda", 2, false));
+            journal.close();
+
+            RescueAlerts recovered = new AlertJournal(snapshotFile, journalFile, 1, 100).recover("Unused");
+            assertEquals("Typhoon Rolly", recovered.getName());
+            assertEquals(2, recovered.getNumAlerts());
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testFailedCompactionKeepsJournal() {
+        try {
+            AlertJournal journal = new AlertJournal(snapshotFile, journalFile, 1, 100);
+            RescueAlerts ra = journal.recover("Typhoon Ulysses");
+            ra.addAlert(newAlert("Jericho Rosales", 5, true));
+            journal.compact(ra);
+            ra.addAlert(newAlert("Vice Ganda", 2, false));
+            // the snapshot cannot be written while its temporary file is a directory
+            Files.createDirectory(directory.resolve("rescueAlerts.json.tmp"));
+            try {
+                journal.compact(ra);
+                fail("IOException expected");
+            } catch (IOException e) {
+                // pass
+            }
+            assertEquals(1, Files.readAllLines(directory.resolve("rescueAlerts.journal")).size());
+            ra.addAlert(newAlert("Willie Revillame", 9, false));
+            journal.close();
+
+            RescueAlerts recovered = new AlertJournal(snapshotFile, journalFile, 1, 100).recover("Unused");
+            assertEquals(3, recovered.getNumAlerts());
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testChangesDuringCompactionKept() throws InterruptedException {
+        try {
+            AlertJournal journal = new AlertJournal(snapshotFile, journalFile, 1000, 100000);
+            RescueAlerts ra = journal.recover("Typhoon Ulysses");
+            for (int i = 0; i < 2000; i++) {
+                ra.addAlert(newAlert("Alert " + i, 1, false));
+            }
+            Thread intake = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    ra.addAlert(newAlert("Late " + i, 1, false));
+                }
+            });
+            intake.start();
+            journal.compact(ra);
+            intake.join();
+            journal.close();
+
+            RescueAlerts recovered = new AlertJournal(snapshotFile, journalFile, 1, 100).recover("Unused");
+            assertEquals(4000, recovered.getNumAlerts());
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testBatchReplayedAfterCrash() {
+        try {
+            AlertJournal journal = new AlertJournal(snapshotFile, journalFile, 1, 100);
+            RescueAlerts ra = journal.recover("Typhoon Ulysses");
+            ra.addAlert(newAlert("Jericho Rosales", 5, true));
+            Alert a2 = new Alert("Vice Ganda", "09159876543", "ABS-CBN", 2, false);
+            Alert a3 = new Alert("Willie Revillame", "09151234567", "Wowowin", 9, false);
+            ra.addAlerts(Arrays.asList(a2, a3), DuplicatePolicy.MERGE);
+            assertEquals(3, Files.readAllLines(directory.resolve("rescueAlerts.journal")).size());
+
+            RescueAlerts recovered = new AlertJournal(snapshotFile, journalFile, 1, 100).recover("Typhoon Ulysses");
+            assertEquals(3, recovered.getNumAlerts());
+            checkAlert(2, AlertStatus.NEEDS_HELP, "Willie Revillame", "09151234567", "Wowowin", 9, false,
+                    null, null, recovered.getAlertById(2));
+            journal.close();
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        } catch (InvalidIdCodeException e) {
+            fail("Unexpected InvalidIdCodeException");
+        } catch (InvalidNumPeopleException e) {
+            fail("Unexpected InvalidNumPeopleException");
+        }
+    }
+
+    @Test
+    void testTornRecordIgnored() {
+        try {
+            AlertJournal journal = new AlertJournal(snapshotFile, journalFile, 1, 100);
+            RescueAlerts ra = journal.recover("Typhoon Ulysses");
+            ra.addAlert(newAlert("Jericho Rosales", 5, true));
+            journal.close();
+            Files.write(directory.resolve("rescueAlerts.journal"), "{\"op\":\"add\",\"alert\":{\"id co"
+                    .getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+            AlertJournal recovering = new AlertJournal(snapshotFile, journalFile, 1, 100);
+            RescueAlerts recovered = recovering.recover("Unused");
+            assertEquals(1, recovered.getNumAlerts());
+            recovered.addAlert(newAlert("Vice Ganda", 2, false));
+            recovering.close();
+
+            recovered = new AlertJournal(snapshotFile, journalFile, 1, 100).recover("Unused");
+            assertEquals(2, recovered.getNumAlerts());
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testRecordWithoutNewlineIgnored() {
+        try {
+            Files.write(directory.resolve("rescueAlerts.journal"), ("{\"op\":\"add\",\"alert\":"
+                    + newAlert("Jericho Rosales", 5, true).toJson() + "}").getBytes(StandardCharsets.UTF_8));
+
+            RescueAlerts recovered = new AlertJournal(snapshotFile, journalFile, 1, 100).recover("Unused");
+            assertEquals(0, recovered.getNumAlerts());
+            assertEquals(0, Files.size(directory.resolve("rescueAlerts.journal")));
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testCorruptRecordBeforeLastThrows() {
+        try {
+            AlertJournal journal = new AlertJournal(snapshotFile, journalFile, 1, 100);
+            RescueAlerts ra = journal.recover("Typhoon Ulysses");
+            ra.addAlert(newAlert("Jericho Rosales", 5, true));
+            ra.addAlert(newAlert("Vice Ganda", 2, false));
+            journal.close();
+            List<String> records = Files.readAllLines(directory.resolve("rescueAlerts.journal"));
+            records.add(1, "{\"op\":\"add\",\"alert\":{\"id co");
+            Files.write(directory.resolve("rescueAlerts.journal"), records);
+
+            try {
+                new AlertJournal(snapshotFile, journalFile, 1, 100).recover("Unused");
+                fail("IOException expected");
+            } catch (IOException e) {
+                // pass
+            }
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testFailedWriteCompactsOnSave() {
+        try {
+            AlertJournal journal = new AlertJournal(snapshotFile, journalFile, 1, 100);
+            RescueAlerts ra = journal.recover("Typhoon Ulysses");
+            ra.addAlert(newAlert("Jericho Rosales", 5, true));
+            // forcing the journal from an interrupted thread closes the journal file
+            Thread.currentThread().interrupt();
+            ra.addAlert(newAlert("Vice Ganda", 2, false));
+            assertTrue(Thread.interrupted());
+            ra.addAlert(newAlert("Willie Revillame", 9, false));
+            for (int i = 0; i < 2; i++) {
+                try {
+                    journal.sync();
+                    fail("IOException expected");
+                } catch (IOException e) {
+                    // pass
+                }
+            }
+
+            journal.save(ra);
+            assertTrue(Files.exists(directory.resolve("rescueAlerts.json")));
+            ra.addAlert(newAlert("Anne Curtis", 1, false));
+            journal.sync();
+            RescueAlerts recovered = new AlertJournal(snapshotFile, journalFile, 1, 100).recover("Unused");
+            assertEquals(4, recovered.getNumAlerts());
+            journal.close();
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testRecoveredAlertsKeepIdCodes() {
+        try {
+            AlertJournal journal = new AlertJournal(snapshotFile, journalFile, 1, 100);
+            RescueAlerts ra = journal.recover("Typhoon Ulysses");
+            ra.addAlert(newAlert("Jericho Rosales", 5, true));
+            ra.addAlert(newAlert("Vice Ganda", 2, false));
+            journal.compact(ra);
+            ra.getAlertById(1).advance(AlertStatus.NEEDS_HELP);
+            journal.close();
+
+            RescueAlerts recovered = new AlertJournal(snapshotFile, journalFile, 1, 100).recover("Unused");
+            assertEquals(AlertStatus.HELP_OTW, recovered.getAlertById(1).getStatus());
+            Alert next = newAlert("Willie Revillame", 9, false);
+            recovered.addAlert(next);
+            assertEquals(2, next.getIdCode());
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        } catch (InvalidIdCodeException e) {
+            fail("Unexpected InvalidIdCodeException");
+        } catch (AlreadyRescuedException e) {
+            fail("Unexpected AlreadyRescuedException");
+        }
+    }
+
+    @Test
+    void testInterruptedRecoverStaysAttached() {
+        try {
+            AlertJournal journal = new AlertJournal(snapshotFile, journalFile, 1, 100);
+            RescueAlerts ra = journal.recover("Typhoon Ulysses");
+            ra.addAlert(newAlert("Jericho Rosales", 5, true));
+            Thread.currentThread().interrupt();
+            try {
+                journal.recover(new RescueAlerts("Typhoon Ulysses"));
+                fail("InterruptedIOException expected");
+            } catch (InterruptedIOException e) {
+                // pass
+            }
+            ra.addAlert(newAlert("Vice Ganda", 2, false));
+            journal.close();
+
+            RescueAlerts recovered = new AlertJournal(snapshotFile, journalFile, 1, 100).recover("Unused");
+            assertEquals(2, recovered.getNumAlerts());
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    // EFFECTS: returns a new alert posted by name for the given number of people
+    private Alert newAlert(String name, int numPeople, boolean isUrgent) {
+        return AlertFactory.newAlert(name, "09172473475", "SM Megamall", numPeople, isUrgent);
+    }
+}
@@ -0,0 +1,196 @@
+package persistence;
+
+import exceptions.InvalidIdCodeException;
+import exceptions.InvalidNumPeopleException;
+import model.Alert;
+import model.AlertStatus;
+import model.RescueAlerts;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the BinaryReader class
+public class BinaryReaderTest extends JsonTest {
+
+    @Test
+    void testReaderNonExistentFile() {
+        BinaryReader reader = new BinaryReader("./data/noSuchFile.bin");
+        try {
+            reader.read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testReaderNotASnapshot() {
+        try {
+            new BinaryReader("./data/testReaderManyRescueAlerts.json").open();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testReaderTruncatedSnapshot() {
+        try {
+            Path file = Files.createTempFile("testBinaryReader", ".bin");
+            SnapshotConverter.jsonToBinary("./data/testReaderManyRescueAlerts.json", file.toString());
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+            try {
+                new BinaryReader(file.toString()).open();
+                fail("IOException expected");
+            } catch (IOException e) {
+                // pass
+            } finally {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            fail("Couldn't write file");
+        }
+    }
+
+    @Test
+    void testReaderInvalidStatus() {
+        try {
+            Path file = Files.createTempFile("testBinaryReader", ".bin");
+            SnapshotConverter.jsonToBinary("./data/testReaderManyRescueAlerts.json", file.toString());
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[BinaryFormat.HEADER_SIZE + BinaryFormat.STATUS] = (byte) AlertStatus.values().length;
+            Files.write(file, bytes);
+            BinaryReader reader = new BinaryReader(file.toString());
+            reader.open();
+            Files.delete(file);
+            assertThrows(IOException.class, () -> reader.getAlertById(0));
+            assertThrows(IOException.class, reader::read);
+        } catch (IOException e) {
+            fail("Couldn't write file");
+        }
+    }
+
+    @Test
+    void testReaderGetAlertByIdWithoutReadingAll() {
+        try {
+            Path file = Files.createTempFile("testBinaryReader", ".bin");
+            SnapshotConverter.jsonToBinary("./data/testReaderManyRescueAlerts.json", file.toString());
+            BinaryReader reader = new BinaryReader(file.toString());
+            reader.open();
+            Files.delete(file);
+            assertEquals("Typhoon Ulysses", reader.getName());
+            assertEquals(3, reader.getNumAlerts());
+            checkAlert(2, AlertStatus.NEEDS_HELP, "Willie Revillame", "09151234567",
+                    "82 White Plains Avenue", 9, false, null, null, reader.getAlertById(2));
+            checkAlert(0, AlertStatus.HELP_OTW, "Jericho Rosales", "09172473475",
+                    "1432 Kaimito, Barangay Don Juan", 5, true,
+                    "Kim Jones", "09159876543", reader.getAlertById(0));
+            assertThrows(InvalidIdCodeException.class, () -> reader.getAlertById(3));
+            assertThrows(InvalidIdCodeException.class, () -> reader.getAlertById(-1));
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        } catch (InvalidIdCodeException e) {
+            fail("Unexpected InvalidIdCodeException");
+        }
+    }
+
+    @Test
+    void testReaderMatchesJsonReader() {
+        try {
+            Path file = Files.createTempFile("testBinaryReader", ".bin");
+            SnapshotConverter.jsonToBinary("./data/rescueAlerts.json", file.toString());
+            RescueAlerts expected = new JsonReader("./data/rescueAlerts.json").read();
+            RescueAlerts actual = new BinaryReader(file.toString()).read();
+            Files.delete(file);
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getNumAlerts(), actual.getNumAlerts());
+            for (Alert a : expected.getAllAlerts()) {
+                checkAlert(a.getIdCode(), a.getStatus(), a.getName(), a.getContactNum(), a.getLocation(),
+                        a.getNumPeople(), a.isUrgent(), a.getRescuerName(), a.getRescuerContactNum(),
+                        actual.getAlertById(a.getIdCode()));
+            }
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        } catch (InvalidIdCodeException e) {
+            fail("Unexpected InvalidIdCodeException");
+        }
+    }
+
+    @Test
+    void testReaderNonAsciiStrings() {
+        try {
+            RescueAlerts ra = new RescueAlerts("Bagyong Ulysses – Marikiña");
+            Path file = Files.createTempFile("testBinaryReader", ".bin");
+            BinaryWriter writer = new BinaryWriter(file.toString());
+            writer.open();
+            writer.write(ra);
+            writer.close();
+            String name = new BinaryReader(file.toString()).read().getName();
+            Files.delete(file);
+            assertEquals("Bagyong Ulysses – Marikiña", name);
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    void testReaderCoordinates() {
+        try {
+            RescueAlerts ra = new RescueAlerts("Typhoon Ulysses");
+            ra.addAlert(new Alert("Jericho Rosales", "09172473475", "Barangay Don Juan", 14.6507, 121.1029, 5, true));
+            ra.addAlert(new Alert("Vice Ganda", "09228459012", "ABS-CBN Broadcasting Center", 2, false));
+            Path file = Files.createTempFile("testBinaryReader", ".bin");
+            BinaryWriter writer = new BinaryWriter(file.toString());
+            writer.open();
+            writer.write(ra);
+            writer.close();
+            RescueAlerts read = new BinaryReader(file.toString()).read();
+            Files.delete(file);
+            assertEquals(14.6507, read.getAlertById(0).getLatitude(), 1e-7);
+            assertEquals(121.1029, read.getAlertById(0).getLongitude(), 1e-7);
+            assertFalse(read.getAlertById(1).hasCoordinates());
+            assertEquals(1, read.getNearestOpenAlerts(14.65, 121.10, 5).size());
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        } catch (InvalidNumPeopleException | InvalidIdCodeException e) {
+            fail("Unexpected exception");
+        }
+    }
+
+    @Test
+    void testReaderVersion1Snapshot() {
+        byte[] name = "Ondoy".getBytes(StandardCharsets.UTF_8);
+        byte[] location = "Provident Village".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer v1 = ByteBuffer.allocate(BinaryFormat.HEADER_SIZE + BinaryFormat.RECORD_SIZE_V1 + 4 * 3
+                + name.length + location.length);
+        v1.putInt(BinaryFormat.MAGIC).putInt(BinaryFormat.VERSION_1).putInt(1).putInt(2).putInt(0).putInt(0);
+        v1.putInt(7).putInt(3).put((byte) AlertStatus.NEEDS_HELP.ordinal()).put((byte) 1).putShort((short) 0);
+        v1.putInt(BinaryFormat.NULL_STRING).putInt(BinaryFormat.NULL_STRING).putInt(1);
+        v1.putInt(BinaryFormat.NULL_STRING).putInt(BinaryFormat.NULL_STRING);
+        v1.putInt(0).putInt(name.length).putInt(name.length + location.length).put(name).put(location);
+        try {
+            Path file = Files.createTempFile("testBinaryReader", ".bin");
+            Files.write(file, v1.array());
+            RescueAlerts ra = new BinaryReader(file.toString()).read();
+            Files.delete(file);
+            assertEquals("Ondoy", ra.getName());
+            Alert a = ra.getAlertById(7);
+            assertEquals("Provident Village", a.getLocation());
+            assertEquals(3, a.getNumPeople());
+            assertTrue(a.isUrgent());
+            assertFalse(a.hasCoordinates());
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        } catch (InvalidIdCodeException e) {
+            fail("Unexpected InvalidIdCodeException");
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package persistence;
+
+import exceptions.InvalidIdCodeException;
+import exceptions.InvalidNumPeopleException;
+import model.Alert;
+import model.AlertStatus;
+import model.RescueAlerts;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the BinaryWriter and SnapshotConverter classes
+public class BinaryWriterTest extends JsonTest {
+
+    @Test
+    void testWriterInvalidFile() {
+        try {
+            BinaryWriter writer = new BinaryWriter("./data/my\0illegal:fileName.bin");
+            writer.open();
+            fail("IOException was expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testWriterEmptyRescueAlerts() {
+        try {
+            Path file = Files.createTempFile("testBinaryWriter", ".bin");
+            write(new RescueAlerts("My rescue alerts"), file);
+            assertEquals(BinaryFormat.HEADER_SIZE + 8 + "My rescue alerts".length(), Files.size(file));
+            RescueAlerts ra = new BinaryReader(file.toString()).read();
+            Files.delete(file);
+            assertEquals("My rescue alerts", ra.getName());
+            assertEquals(0, ra.getNumAlerts());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterManyRescueAlerts() {
+        try {
+            RescueAlerts ra = new RescueAlerts("Typhoon Ulysses");
+            Alert a1 = new Alert("Jericho Rosales", "09172473475", "1432 Kaimito, Barangay Don Juan", 5, true);
+            ra.addAlert(a1);
+            ra.addAlert(new Alert("Vice Ganda", "09228459012", "ABS-CBN Broadcasting Center", 2, false));
+            a1.setRescuerName("Kim Jones");
+            a1.setRescuerContactNum("09159876543");
+            a1.setStatus(AlertStatus.HELP_OTW);
+            Path file = Files.createTempFile("testBinaryWriter", ".bin");
+            write(ra, file);
+            ra = new BinaryReader(file.toString()).read();
+            Files.delete(file);
+            List<Alert> alerts = ra.getAllAlerts();
+            assertEquals(2, alerts.size());
+            checkAlert(0, AlertStatus.HELP_OTW, "Jericho Rosales", "09172473475",
+                    "1432 Kaimito, Barangay Don Juan", 5, true, "Kim Jones", "09159876543", alerts.get(0));
+            checkAlert(1, AlertStatus.NEEDS_HELP, "Vice Ganda", "09228459012",
+                    "ABS-CBN Broadcasting Center", 2, false, null, null, alerts.get(1));
+        } catch (InvalidNumPeopleException e) {
+            fail("Unexpected InvalidNumPeopleException");
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterSortsByIdCodeAndSharesStrings() {
+        try {
+            RescueAlerts ra = new RescueAlerts("Typhoon Rolly");
+            for (int idCode : new int[] {40, 7, 12}) {
+                Alert a = new Alert("Anonymous", "09288881234", "SM Megamall", 3, false);
+                a.setIdCode(idCode);
+                ra.restoreAlert(a);
+            }
+            Path file = Files.createTempFile("testBinaryWriter", ".bin");
+            write(ra, file);
+            int strings = 4 * 5 + "Typhoon RollyAnonymous09288881234SM Megamall".length();
+            int histories = 3 * BinaryFormat.ENTRY_SIZE;
+            assertEquals(BinaryFormat.HEADER_SIZE + 3 * BinaryFormat.RECORD_SIZE + strings + histories,
+                    Files.size(file));
+            List<Alert> alerts = new BinaryReader(file.toString()).read().getAllAlerts();
+            Files.delete(file);
+            assertEquals(7, alerts.get(0).getIdCode());
+            assertEquals(12, alerts.get(1).getIdCode());
+            assertEquals(40, alerts.get(2).getIdCode());
+        } catch (InvalidNumPeopleException e) {
+            fail("Unexpected InvalidNumPeopleException");
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testConvertJsonToBinaryAndBack() {
+        try {
+            Path binary = Files.createTempFile("testBinaryWriter", ".bin");
+            Path json = Files.createTempFile("testBinaryWriter", ".json");
+            SnapshotConverter.jsonToBinary("./data/testReaderManyRescueAlerts.json", binary.toString());
+            SnapshotConverter.binaryToJson(binary.toString(), json.toString());
+            String written = new String(Files.readAllBytes(json), StandardCharsets.UTF_8);
+            String expected = new JsonReader("./data/testReaderManyRescueAlerts.json").read().toJson().toString();
+            assertTrue(Files.size(binary) < Files.size(json));
+            Files.delete(binary);
+            Files.delete(json);
+            assertTrue(new JSONObject(written).similar(new JSONObject(expected)));
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testConvertKeepsStatusHistories() {
+        try {
+            RescueAlerts ra = new RescueAlerts("Typhoon Ulysses");
+            Alert a1 = new Alert("Jericho Rosales", "09172473475", "1432 Kaimito, Barangay Don Juan", 5, true);
+            ra.addAlert(a1);
+            ra.addAlert(new Alert("Vice Ganda", "09228459012", "ABS-CBN Broadcasting Center", 2, false));
+            a1.setStatus(AlertStatus.HELP_OTW);
+            a1.setStatus(AlertStatus.RESCUED);
+            Path binary = Files.createTempFile("testBinaryWriter", ".bin");
+            Path json = Files.createTempFile("testBinaryWriter", ".json");
+            write(ra, binary);
+            SnapshotConverter.binaryToJson(binary.toString(), json.toString());
+            SnapshotConverter.jsonToBinary(json.toString(), binary.toString());
+            RescueAlerts converted = new BinaryReader(binary.toString()).read();
+            Files.delete(binary);
+            Files.delete(json);
+            for (Alert a : ra.getAllAlerts()) {
+                Alert c = converted.getAlertById(a.getIdCode());
+                assertTrue(a.getStatusHistory().toJson().similar(c.getStatusHistory().toJson()));
+            }
+            assertEquals(3, converted.getAlertById(0).getStatusHistory().size());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        } catch (InvalidNumPeopleException | InvalidIdCodeException e) {
+            fail("Unexpected exception");
+        }
+    }
+
+    // EFFECTS: writes ra to file as a binary snapshot
+    private void write(RescueAlerts ra, Path file) throws IOException {
+        BinaryWriter writer = new BinaryWriter(file.toString());
+        writer.open();
+        writer.write(ra);
+        writer.close();
+    }
+}
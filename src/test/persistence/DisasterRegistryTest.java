@@ -0,0 +1,266 @@
+package persistence;
+
+import exceptions.InvalidIdCodeException;
+import metrics.MetricsRegistry;
+import model.Alert;
+import model.AlertFactory;
+import model.AlertStatus;
+import model.RescueAlerts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the DisasterRegistry class
+public class DisasterRegistryTest extends JsonTest {
+    private Path directory;
+
+    @BeforeEach
+    void setup() throws IOException {
+        directory = Files.createTempDirectory("testDisasterRegistry");
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testOpenEmpty() {
+        try {
+            DisasterRegistry registry = newRegistry();
+            assertTrue(registry.getNames().isEmpty());
+            assertFalse(registry.contains("Typhoon Ulysses"));
+            assertFalse(registry.isLoaded("Typhoon Ulysses"));
+            assertEquals(0, registry.getNumOpenAlerts());
+            assertFalse(Files.exists(directory.resolve(DisasterRegistry.MANIFEST)));
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testGetAddsDisaster() {
+        try {
+            DisasterRegistry registry = newRegistry();
+            RescueAlerts ulysses = registry.get("Typhoon Ulysses");
+            assertEquals("Typhoon Ulysses", ulysses.getName());
+            assertEquals(0, ulysses.getNumAlerts());
+            assertSame(ulysses, registry.get("Typhoon Ulysses"));
+            assertTrue(registry.contains("Typhoon Ulysses"));
+            assertTrue(registry.isLoaded("Typhoon Ulysses"));
+            assertTrue(Files.exists(directory.resolve(DisasterRegistry.MANIFEST)));
+
+            registry.get("Bagyong Odette");
+            assertEquals(Arrays.asList("Bagyong Odette", "Typhoon Ulysses"), registry.getNames());
+            registry.close();
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testReopenLoadsLazily() {
+        try {
+            DisasterRegistry registry = newRegistry();
+            RescueAlerts ulysses = registry.get("Typhoon Ulysses");
+            ulysses.addAlert(newAlert("Jericho Rosales", "09172473475", 5));
+            ulysses.addAlert(newAlert("Vice Ganda", "09159876543", 2));
+            assertTrue(ulysses.getAlertById(0).claim("Kim Jones", "09159876543"));
+            registry.get("Bagyong Odette").addAlert(newAlert("Willie Revillame", "09171234567", 9));
+            registry.close();
+
+            DisasterRegistry reopened = newRegistry();
+            assertEquals(Arrays.asList("Bagyong Odette", "Typhoon Ulysses"), reopened.getNames());
+            assertFalse(reopened.isLoaded("Typhoon Ulysses"));
+            assertEquals(1, reopened.getNumAlerts("Typhoon Ulysses", AlertStatus.NEEDS_HELP));
+            assertEquals(1, reopened.getNumAlerts("Typhoon Ulysses", AlertStatus.HELP_OTW));
+            assertEquals(0, reopened.getNumAlerts("Lindol", AlertStatus.HELP_OTW));
+
+            RescueAlerts recovered = reopened.get("Typhoon Ulysses");
+            assertTrue(reopened.isLoaded("Typhoon Ulysses"));
+            assertFalse(reopened.isLoaded("Bagyong Odette"));
+            assertEquals(2, recovered.getNumAlerts());
+            checkAlert(0, AlertStatus.HELP_OTW, "Jericho Rosales", "09172473475", "SM Megamall", 5, false,
+                    "Kim Jones", "09159876543", recovered.getAlertById(0));
+            reopened.close();
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        } catch (InvalidIdCodeException e) {
+            fail("Unexpected InvalidIdCodeException");
+        }
+    }
+
+    @Test
+    void testGetAfterCloseLoadsAgain() {
+        try {
+            DisasterRegistry registry = newRegistry();
+            RescueAlerts ulysses = registry.get("Typhoon Ulysses");
+            ulysses.addAlert(newAlert("Jericho Rosales", "09172473475", 5));
+            registry.close();
+            assertFalse(registry.isLoaded("Typhoon Ulysses"));
+            assertEquals(1, registry.getNumAlerts("Typhoon Ulysses", AlertStatus.NEEDS_HELP));
+
+            RescueAlerts reloaded = registry.get("Typhoon Ulysses");
+            assertNotSame(ulysses, reloaded);
+            assertEquals(1, reloaded.getNumAlerts());
+            assertTrue(reloaded.getAlertById(0).claim("Kim Jones", "09159876543"));
+            reloaded.addAlert(newAlert("Vice Ganda", "09159876543", 2));
+            registry.close();
+
+            DisasterRegistry reopened = newRegistry();
+            RescueAlerts recovered = reopened.get("Typhoon Ulysses");
+            assertEquals(2, recovered.getNumAlerts());
+            assertEquals(AlertStatus.HELP_OTW, recovered.getAlertById(0).getStatus());
+            reopened.close();
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        } catch (InvalidIdCodeException e) {
+            fail("Unexpected InvalidIdCodeException");
+        }
+    }
+
+    @Test
+    void testTotalsWithoutLoading() {
+        try {
+            DisasterRegistry registry = newRegistry();
+            registry.get("Typhoon Ulysses").addAlert(newAlert("Jericho Rosales", "09172473475", 5));
+            registry.get("Bagyong Odette").addAlert(newAlert("Vice Ganda", "09159876543", 2));
+            registry.close();
+
+            DisasterRegistry reopened = newRegistry();
+            assertEquals(2, reopened.getNumAlerts(AlertStatus.NEEDS_HELP));
+            assertEquals(7, reopened.getNumPeople(AlertStatus.NEEDS_HELP));
+            assertEquals(2, reopened.getNumOpenAlerts());
+            assertFalse(reopened.isLoaded("Typhoon Ulysses"));
+            assertFalse(reopened.isLoaded("Bagyong Odette"));
+
+            // loaded disasters count live, before the next save
+            RescueAlerts ulysses = reopened.get("Typhoon Ulysses");
+            ulysses.addAlert(newAlert("Willie Revillame", "09171234567", 9));
+            ulysses.getAlertById(0).setStatus(AlertStatus.RESCUED);
+            assertEquals(2, reopened.getNumAlerts(AlertStatus.NEEDS_HELP));
+            assertEquals(11, reopened.getNumPeople(AlertStatus.NEEDS_HELP));
+            assertEquals(1, reopened.getNumAlerts(AlertStatus.RESCUED));
+            assertFalse(reopened.isLoaded("Bagyong Odette"));
+            reopened.close();
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        } catch (InvalidIdCodeException e) {
+            fail("Unexpected InvalidIdCodeException");
+        }
+    }
+
+    @Test
+    void testCountsRecordedOnLoadAfterCrash() {
+        try {
+            DisasterRegistry registry = newRegistry();
+            registry.get("Typhoon Ulysses").addAlert(newAlert("Jericho Rosales", "09172473475", 5));
+            registry.get("Typhoon Ulysses").addAlert(newAlert("Vice Ganda", "09159876543", 2));
+
+            // no save or close: the manifest still counts no alerts until the shard is loaded again
+            DisasterRegistry reopened = newRegistry();
+            assertEquals(0, reopened.getNumAlerts("Typhoon Ulysses", AlertStatus.NEEDS_HELP));
+            assertEquals(2, reopened.get("Typhoon Ulysses").getNumAlerts());
+
+            DisasterRegistry again = newRegistry();
+            assertEquals(2, again.getNumAlerts("Typhoon Ulysses", AlertStatus.NEEDS_HELP));
+            assertEquals(7, again.getNumPeople(AlertStatus.NEEDS_HELP));
+            assertFalse(again.isLoaded("Typhoon Ulysses"));
+            reopened.close();
+            registry.close();
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testCloseUnregistersMetrics() {
+        try {
+            DisasterRegistry registry = newRegistry();
+            registry.get("Lindol");
+            String timeToClaim = "alert_time_to_claim_seconds{disaster=\"Lindol\"}";
+            String timeToRescue = "alert_time_to_rescue_seconds{disaster=\"Lindol\"}";
+            assertTrue(MetricsRegistry.getDefault().toText().contains(timeToClaim));
+            registry.close();
+            assertFalse(MetricsRegistry.getDefault().toText().contains(timeToClaim));
+            assertFalse(MetricsRegistry.getDefault().toText().contains(timeToRescue));
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testShardFileNames() {
+        assertEquals("typhoon-ulysses", DisasterRegistry.toFileName("Typhoon Ulysses"));
+        assertEquals("bagyong-ulysses-2020", DisasterRegistry.toFileName("Bagyong Ulysses (2020)"));
+        assertEquals("lindol-sa-tanong", DisasterRegistry.toFileName("Lindol sa Tañong!"));
+        assertEquals("disaster", DisasterRegistry.toFileName("???"));
+        try {
+            DisasterRegistry registry = newRegistry();
+            registry.get("Typhoon Ulysses").addAlert(newAlert("Jericho Rosales", "09172473475", 5));
+            registry.get("typhoon ulysses").addAlert(newAlert("Vice Ganda", "09159876543", 2));
+            registry.close();
+            assertTrue(Files.exists(directory.resolve("typhoon-ulysses.journal")));
+            assertTrue(Files.exists(directory.resolve("typhoon-ulysses-2.journal")));
+
+            DisasterRegistry reopened = newRegistry();
+            assertEquals("Jericho Rosales", reopened.get("Typhoon Ulysses").getAlertById(0).getName());
+            assertEquals("Vice Ganda", reopened.get("typhoon ulysses").getAlertById(0).getName());
+            reopened.close();
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        } catch (InvalidIdCodeException e) {
+            fail("Unexpected InvalidIdCodeException");
+        }
+    }
+
+    @Test
+    void testConcurrentGetLoadsOnce() throws Exception {
+        DisasterRegistry registry = newRegistry();
+        registry.get("Typhoon Ulysses").addAlert(newAlert("Jericho Rosales", "09172473475", 5));
+        registry.close();
+
+        DisasterRegistry reopened = newRegistry();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<RescueAlerts>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            String name = i % 2 == 0 ? "Typhoon Ulysses" : "Bagyong Odette";
+            results.add(pool.submit(() -> reopened.get(name)));
+        }
+        pool.shutdown();
+        for (int i = 2; i < 8; i++) {
+            assertSame(results.get(i % 2).get(), results.get(i).get());
+        }
+        assertEquals(1, results.get(0).get().getNumAlerts());
+        assertEquals(2, reopened.getNames().size());
+        reopened.close();
+    }
+
+    private DisasterRegistry newRegistry() throws IOException {
+        DisasterRegistry registry = new DisasterRegistry(directory.toString(), 1, 100);
+        registry.open();
+        return registry;
+    }
+
+    private Alert newAlert(String name, String contactNum, int numPeople) {
+        return AlertFactory.newAlert(name, contactNum, "SM Megamall", numPeople, false);
+    }
+}
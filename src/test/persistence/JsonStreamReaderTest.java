@@ -0,0 +1,180 @@
+package persistence;
+
+import model.Alert;
+import model.AlertStatus;
+import model.RescueAlerts;
+import model.RescueAlertsObserver;
+import org.json.JSONException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// unit tests for the JsonStreamReader class
+public class JsonStreamReaderTest extends JsonTest {
+
+    @Test
+    void testReaderNonExistentFile() {
+        JsonStreamReader reader = new JsonStreamReader("./data/noSuchFile.json");
+        try {
+            reader.read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testReaderInvalidNumPeopleExceptionExpected() {
+        JsonStreamReader reader = new JsonStreamReader("./data/testReaderRescueAlertInvalidNumPeopleException.json");
+        try {
+            RescueAlerts ra = reader.read();
+            assertEquals("My rescue alerts", ra.getName());
+            assertEquals(new ArrayList<>(), ra.getAllAlerts());
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    void testReaderEmptyRescueAlerts() {
+        JsonStreamReader reader = new JsonStreamReader("./data/testReaderEmptyRescueAlerts.json");
+        try {
+            RescueAlerts ra = reader.read();
+            assertEquals("My rescue alerts", ra.getName());
+            assertEquals(0, ra.getNumAlerts());
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    void testReaderManyRescueAlerts() {
+        JsonStreamReader reader = new JsonStreamReader("./data/testReaderManyRescueAlerts.json");
+        try {
+            RescueAlerts ra = reader.read();
+            assertEquals("Typhoon Ulysses", ra.getName());
+            List<Alert> alerts = ra.getAllAlerts();
+            assertEquals(3, alerts.size());
+            checkAlert(0, AlertStatus.HELP_OTW, "Jericho Rosales", "09172473475",
+                    "1432 Kaimito, Barangay Don Juan", 5, true,
+                    "Kim Jones", "09159876543", alerts.get(0));
+            checkAlert(1, AlertStatus.NEEDS_HELP, "Vice Ganda", "09228459012",
+                    "ABS-CBN Broadcasting Center", 2, false,
+                    null, null, alerts.get(1));
+            checkAlert(2, AlertStatus.NEEDS_HELP, "Willie Revillame", "09151234567",
+                    "82 White Plains Avenue", 9, false,
+                    null, null, alerts.get(2));
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    void testReaderNameFirstAndUnknownMembers() {
+        try {
+            Path file = Files.createTempFile("testStreamReader", ".json");
+            String json = "{\"name\": \"Typhoon Rolly\", \"version\": {\"major\": 1, \"tags\": [1, 2]},"
+                    + " \"alerts\": [{\"id code\": 0, \"status\": \"RESCUED\", \"name\": \"Anonymous\","
+                    + " \"contact number\": \"09295499623\", \"location\": \"43 Ampalaya House\","
+                    + " \"number of people\": 12, \"is urgent?\": true}]}";
+            Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+            RescueAlerts ra = new JsonStreamReader(file.toString()).read();
+            Files.delete(file);
+            assertEquals("Typhoon Rolly", ra.getName());
+            assertEquals(1, ra.getNumAlerts());
+            checkAlert(0, AlertStatus.RESCUED, "Anonymous", "09295499623",
+                    "43 Ampalaya House", 12, true, null, null, ra.getAllAlerts().get(0));
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    void testReaderMalformedFile() {
+        try {
+            Path file = Files.createTempFile("testStreamReader", ".json");
+            Files.write(file, "{\"alerts\": [{\"id code\": 0} {".getBytes(StandardCharsets.UTF_8));
+            try {
+                new JsonStreamReader(file.toString()).read();
+                fail("JSONException expected");
+            } catch (JSONException e) {
+                // pass
+            } finally {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    void testReaderMatchesJsonReader() {
+        try {
+            RescueAlerts expected = new JsonReader("./data/rescueAlerts.json").read();
+            RescueAlerts actual = new JsonStreamReader("./data/rescueAlerts.json").read();
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getNumAlerts(), actual.getNumAlerts());
+            for (int i = 0; i < expected.getNumAlerts(); i++) {
+                Alert a = expected.getAllAlerts().get(i);
+                checkAlert(a.getIdCode(), a.getStatus(), a.getName(), a.getContactNum(), a.getLocation(),
+                        a.getNumPeople(), a.isUrgent(), a.getRescuerName(), a.getRescuerContactNum(),
+                        actual.getAllAlerts().get(i));
+            }
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    void testReaderInterrupted() {
+        JsonStreamReader reader = new JsonStreamReader("./data/testReaderManyRescueAlerts.json");
+        Thread.currentThread().interrupt();
+        try {
+            reader.read();
+            fail("InterruptedIOException expected");
+        } catch (InterruptedIOException e) {
+            assertFalse(Thread.interrupted());
+        } catch (IOException e) {
+            fail("InterruptedIOException expected");
+        }
+    }
+
+    @Test
+    void testReaderIntoObservedRescueAlerts() {
+        RescueAlerts ra = new RescueAlerts("Unnamed");
+        List<Alert> added = new ArrayList<>();
+        ra.addObserver(new RescueAlertsObserver() {
+            @Override
+            public void alertAdded(Alert alert) {
+                added.add(alert);
+            }
+
+            @Override
+            public void statusChanged(Alert alert, AlertStatus previous) {
+            }
+
+            @Override
+            public void rescuerAssigned(Alert alert) {
+            }
+        });
+        try {
+            assertSame(ra, new JsonStreamReader("./data/testReaderManyRescueAlerts.json").read(ra));
+            assertEquals("Typhoon Ulysses", ra.getName());
+            assertEquals(ra.getAllAlerts(), added);
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+}
@@ -4,13 +4,17 @@ import exceptions.InvalidNumPeopleException;
 import model.Alert;
 import model.AlertStatus;
 import model.RescueAlerts;
+import model.StatusHistory;
+import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assertions.*;
 
 // unit tests for the JsonWriter class
 // note: this class was modeled after the JsonSerializationDemo sample project
@@ -86,5 +90,113 @@ public class JsonWriterTest extends JsonTest {
         }
     }
 
+    @Test
+    void testWriterCompactRescueAlerts() {
+        try {
+            RescueAlerts ra = manyRescueAlerts();
+            JsonWriter writer = new JsonWriter("./data/testWriterManyRescueAlerts.json", false);
+            writer.open();
+            writer.write(ra);
+            writer.close();
+
+            String written = readFile("./data/testWriterManyRescueAlerts.json");
+            assertFalse(written.contains("\n"));
+            assertTrue(new JSONObject(written).similar(new JSONObject(ra.toJson().toString())));
 
+            JsonReader reader = new JsonReader("./data/testWriterManyRescueAlerts.json");
+            ra = reader.read();
+            assertEquals("Typhoon Ulysses", ra.getName());
+            assertEquals(3, ra.getNumAlerts());
+            checkAlert(0, AlertStatus.HELP_OTW, "Jericho Rosales", "09172473475",
+                    "1432 Kaimito, Barangay Don Juan", 5, true,
+                    "Kim Jones", "09159876543", ra.getAllAlerts().get(0));
+        } catch (IOException | InvalidNumPeopleException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterPrettyPrintedMatchesToJson() {
+        try {
+            RescueAlerts ra = manyRescueAlerts();
+            JsonWriter writer = new JsonWriter("./data/testWriterManyRescueAlerts.json");
+            writer.open();
+            writer.write(ra);
+            writer.close();
+
+            String written = readFile("./data/testWriterManyRescueAlerts.json");
+            assertTrue(written.startsWith("{\n    \"name\": \"Typhoon Ulysses\",\n    \"alerts\": [\n        {\n"));
+            assertTrue(new JSONObject(written).similar(new JSONObject(ra.toJson().toString())));
+
+            ra = new JsonStreamReader("./data/testWriterManyRescueAlerts.json").read();
+            assertEquals("Typhoon Ulysses", ra.getName());
+            assertEquals(3, ra.getNumAlerts());
+        } catch (IOException | InvalidNumPeopleException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterCoordinates() {
+        try {
+            RescueAlerts ra = manyRescueAlerts();
+            ra.addAlert(new Alert("Coco Martin", "09175550000", "Provident Village", 14.6358, 121.0878, 3, false));
+            JsonWriter writer = new JsonWriter("./data/testWriterManyRescueAlerts.json");
+            writer.open();
+            writer.write(ra);
+            writer.close();
+
+            String written = readFile("./data/testWriterManyRescueAlerts.json");
+            assertEquals(1, written.split("\"latitude\"", -1).length - 1);
+            List<Alert> alerts = new JsonReader("./data/testWriterManyRescueAlerts.json").read().getAllAlerts();
+            assertFalse(alerts.get(0).hasCoordinates());
+            assertTrue(Double.isNaN(alerts.get(0).getLatitude()));
+            assertEquals(14.6358, alerts.get(3).getLatitude());
+            assertEquals(121.0878, alerts.get(3).getLongitude());
+        } catch (IOException | InvalidNumPeopleException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterStatusHistory() {
+        try {
+            RescueAlerts ra = manyRescueAlerts();
+            Alert claimed = ra.getAllAlerts().get(2);
+            assertTrue(claimed.claim("Kim Jones", "09159876543"));
+            JsonWriter writer = new JsonWriter("./data/testWriterManyRescueAlerts.json");
+            writer.open();
+            writer.write(ra);
+            writer.close();
+
+            Alert read = new JsonStreamReader("./data/testWriterManyRescueAlerts.json").read().getAllAlerts().get(2);
+            StatusHistory history = read.getStatusHistory();
+            assertEquals(claimed.getStatusHistory().size(), history.size());
+            assertEquals(AlertStatus.HELP_OTW, history.getStatus(history.size() - 1));
+            assertEquals(claimed.getStatusHistory().getLastTime(AlertStatus.HELP_OTW),
+                    history.getLastTime(AlertStatus.HELP_OTW));
+            assertEquals(0, new JsonReader("./data/testReaderManyRescueAlerts.json").read().getAllAlerts().get(0)
+                    .getStatusHistory().size());
+        } catch (IOException | InvalidNumPeopleException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    // EFFECTS: returns rescue alerts with three alerts, the first of which has a rescuer on the way
+    private RescueAlerts manyRescueAlerts() throws InvalidNumPeopleException {
+        RescueAlerts ra = new RescueAlerts("Typhoon Ulysses");
+        Alert first = new Alert("Jericho Rosales", "09172473475", "1432 Kaimito, Barangay Don Juan", 5, true);
+        first.setStatus(AlertStatus.HELP_OTW);
+        first.setRescuerName("Kim Jones");
+        first.setRescuerContactNum("09159876543");
+        ra.addAlert(first);
+        ra.addAlert(new Alert("Vice Ganda", "09228459012", "ABS-CBN Broadcasting Center", 2, false));
+        ra.addAlert(new Alert("Willie Revillame", "09151234567", "82 White Plains Avenue", 9, false));
+        return ra;
+    }
+
+    // EFFECTS: returns the contents of the given file
+    private String readFile(String source) throws IOException {
+        return new String(Files.readAllBytes(Paths.get(source)), StandardCharsets.UTF_8);
+    }
 }
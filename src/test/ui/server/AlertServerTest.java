@@ -0,0 +1,206 @@
+package ui.server;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.DisasterRegistry;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// unit tests for the AlertServer class, run against a server on a free port of the loopback address
+public class AlertServerTest {
+    private static final String ALERTS = "/disasters/Typhoon%20Ulysses/alerts";
+
+    private Path directory;
+    private DisasterRegistry registry;
+    private AlertServer server;
+    private int code;
+    private JSONObject body;
+
+    @BeforeEach
+    void setup() throws IOException {
+        directory = Files.createTempDirectory("testAlertServer");
+        registry = new DisasterRegistry(directory.toString(), 1, 100);
+        registry.open();
+        registry.get("Typhoon Ulysses");
+        server = new AlertServer(registry, 0);
+        server.start();
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        server.stop(0);
+        registry.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        }
+    }
+
+    @Test
+    void testListensOnLoopback() {
+        assertTrue(server.getAddress().getAddress().isLoopbackAddress());
+        assertTrue(server.getPort() > 0);
+    }
+
+    @Test
+    void testPostAlertCreatedThenMerged() throws IOException {
+        request("POST", ALERTS, alertJson("0917 247 3475").toString());
+        assertEquals(201, code);
+        int idCode = body.getInt("id code");
+        assertEquals("NEEDS_HELP", body.getString("status"));
+
+        request("POST", ALERTS, alertJson("+63 917 247 3475").toString());
+        assertEquals(200, code);
+        assertEquals(idCode, body.getInt("id code"));
+        assertEquals(1, registry.get("Typhoon Ulysses").getNumAlerts());
+
+        request("GET", ALERTS + "/" + idCode, null);
+        assertEquals(200, code);
+        assertEquals("Jericho Rosales", body.getString("name"));
+    }
+
+    @Test
+    void testClaimLostIsConflict() throws IOException {
+        request("POST", ALERTS, alertJson("09172473475").toString());
+        String claim = ALERTS + "/" + body.getInt("id code") + "/claim";
+        JSONObject rescuer = new JSONObject();
+        rescuer.put("name of rescuer", "Kim Jones");
+        rescuer.put("contact number of rescuer", "09159876543");
+        request("POST", claim, rescuer.toString());
+        assertEquals(200, code);
+        assertEquals("HELP_OTW", body.getString("status"));
+
+        rescuer.put("name of rescuer", "Coco Martin");
+        request("POST", claim, rescuer.toString());
+        assertEquals(409, code);
+        assertEquals("Kim Jones", body.getString("name of rescuer"));
+    }
+
+    @Test
+    void testUnknownDisasterNotFound() throws IOException {
+        request("POST", "/disasters/Typhoon%20Ulyses/alerts", alertJson("09172473475").toString());
+        assertEquals(404, code);
+        assertFalse(registry.contains("Typhoon Ulyses"));
+        request("POST", "/disasters/Typhoon%20Ulyses/batches", "");
+        assertEquals(404, code);
+        assertFalse(registry.contains("Typhoon Ulyses"));
+
+        request("GET", ALERTS + "/42", null);
+        assertEquals(404, code);
+        request("GET", "/disasters/Typhoon%20Ulysses/rescuers", null);
+        assertEquals(404, code);
+        request("GET", "/disastersX", null);
+        assertEquals(404, code);
+        request("GET", "/metricsX", null);
+        assertEquals(404, code);
+    }
+
+    @Test
+    void testBodyTooLarge() throws IOException {
+        try (Socket socket = new Socket(server.getAddress().getAddress(), server.getPort())) {
+            String head = "POST " + ALERTS + " HTTP/1.1\r\nHost: localhost\r\nContent-Length: " + (2 * 1024 * 1024)
+                    + "\r\n\r\n";
+            socket.getOutputStream().write(head.getBytes(StandardCharsets.US_ASCII));
+            socket.shutdownOutput();
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            assertTrue(in.readLine().startsWith("HTTP/1.1 413"));
+        }
+        assertEquals(0, registry.get("Typhoon Ulysses").getNumAlerts());
+    }
+
+    @Test
+    void testPutAddsDisaster() throws IOException {
+        request("PUT", "/disasters/Typhoon%20Rolly", "");
+        assertEquals(201, code);
+        assertTrue(registry.contains("Typhoon Rolly"));
+        request("PUT", "/disasters/Typhoon%20Rolly", "");
+        assertEquals(200, code);
+        request("POST", "/disasters/Typhoon%20Rolly/alerts", alertJson("09172473475").toString());
+        assertEquals(201, code);
+    }
+
+    @Test
+    void testBadRequest() throws IOException {
+        request("POST", ALERTS, "{\"name\": ");
+        assertEquals(400, code);
+        JSONObject noPeople = alertJson("09172473475");
+        noPeople.put("number of people", 0);
+        request("POST", ALERTS, noPeople.toString());
+        assertEquals(400, code);
+        request("GET", ALERTS + "/not-a-number", null);
+        assertEquals(400, code);
+        request("GET", ALERTS + "?status=LOST", null);
+        assertEquals(400, code);
+        assertEquals(0, registry.get("Typhoon Ulysses").getNumAlerts());
+    }
+
+    @Test
+    void testUnreadableShardIsServerError() throws IOException {
+        registry.get("Typhoon Rolly");
+        registry.close();
+        // a directory where the journal should be cannot be replayed
+        Files.delete(directory.resolve("typhoon-rolly.journal"));
+        Files.createDirectory(directory.resolve("typhoon-rolly.journal"));
+        server.stop(0);
+        registry = new DisasterRegistry(directory.toString(), 1, 100);
+        registry.open();
+        server = new AlertServer(registry, 0);
+        server.start();
+
+        request("GET", "/disasters/Typhoon%20Rolly/alerts", null);
+        assertEquals(500, code);
+        assertTrue(body.has("error"));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sends a request with the given method, path and body (or no body if it is null) to the server, and
+    //          records the status code and JSON body of the response
+    private void request(String method, String path, String requestBody) throws IOException {
+        URL url = new URL("http", server.getAddress().getAddress().getHostAddress(), server.getPort(), path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        if (requestBody != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(requestBody.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        code = connection.getResponseCode();
+        InputStream in = code < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+            bytes.write(buffer, 0, n);
+        }
+        in.close();
+        body = new JSONObject(new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    // EFFECTS: returns the JSON of an alert posted from contactNum
+    private static JSONObject alertJson(String contactNum) {
+        JSONObject json = new JSONObject();
+        json.put("name", "Jericho Rosales");
+        json.put("contact number", contactNum);
+        json.put("location", "1432 Kaimito, Barangay Don Juan");
+        json.put("number of people", 5);
+        json.put("is urgent?", true);
+        return json;
+    }
+}